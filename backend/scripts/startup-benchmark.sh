@@ -0,0 +1,85 @@
+#!/usr/bin/env bash
+# Compares the startup of the normal jar with the fast-start build (mvn -Pfast-start package) and,
+# when it has been built, the native executable (mvn -Pnative package).
+#
+# For each artifact, starts the application RUNS times and reports the time from launch until
+# the first successful request to FIRST_REQUEST, and the resident set size at that moment.
+#
+#   scripts/startup-benchmark.sh
+#   RUNS=5 JAVA_OPTS="-Dspring.datasource.url=jdbc:postgresql://db:5432/vdt_live" scripts/startup-benchmark.sh
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS="${RUNS:-3}"
+PORT="${PORT:-18080}"
+FIRST_REQUEST="${FIRST_REQUEST:-/api/stream?limit=10}"
+TIMEOUT_SECONDS="${TIMEOUT_SECONDS:-120}"
+JAVA_OPTS="${JAVA_OPTS:-}"
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+
+NORMAL_JAR="$(ls target/backend-*.jar 2>/dev/null | grep -v -- '-fast-start' | head -n 1 || true)"
+FAST_START_DIR="target/fast-start"
+FAST_START_JAR="$(ls "$FAST_START_DIR"/backend-*-fast-start.jar 2>/dev/null | head -n 1 || true)"
+
+if [[ -z "$NORMAL_JAR" || -z "$FAST_START_JAR" || ! -f "$FAST_START_DIR/backend.jsa" ]]; then
+    echo "Build both artifacts first: mvn -Pfast-start package" >&2
+    exit 1
+fi
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+rss_mb() {
+    awk '/^VmRSS:/ { printf "%.0f", $2 / 1024 }' "/proc/$1/status" 2>/dev/null || ps -o rss= -p "$1" | awk '{ printf "%.0f", $1 / 1024 }'
+}
+
+# Prints "<milliseconds to first request> <RSS in MB>" for one run of the given command
+measure() {
+    local dir="$1"
+    shift
+    local start pid elapsed rss
+    start="$(now_ms)"
+    # shellcheck disable=SC2086
+    (cd "$dir" && exec "$1" $JAVA_OPTS -Dserver.port="$PORT" "${@:2}") > /dev/null 2>&1 &
+    pid=$!
+    while ! curl -fs -o /dev/null "http://localhost:$PORT$FIRST_REQUEST"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "The application exited before serving a request, run it by hand to see why" >&2
+            exit 1
+        fi
+        if (( $(now_ms) - start > TIMEOUT_SECONDS * 1000 )); then
+            kill "$pid"
+            echo "No response within ${TIMEOUT_SECONDS}s" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    elapsed=$(( $(now_ms) - start ))
+    rss="$(rss_mb "$pid")"
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$elapsed $rss"
+}
+
+report() {
+    local name="$1"
+    shift
+    local total_ms=0 total_rss=0 result ms rss
+    for ((i = 1; i <= RUNS; i++)); do
+        result="$(measure "$@")"
+        read -r ms rss <<< "$result"
+        printf '%-12s run %d: %6d ms to first request, %5d MB RSS\n' "$name" "$i" "$ms" "$rss"
+        total_ms=$((total_ms + ms))
+        total_rss=$((total_rss + rss))
+    done
+    printf '%-12s mean:  %6d ms to first request, %5d MB RSS\n\n' "$name" $((total_ms / RUNS)) $((total_rss / RUNS))
+}
+
+report "normal" . "$JAVA" -jar "$NORMAL_JAR"
+report "fast-start" "$FAST_START_DIR" "$JAVA" -XX:SharedArchiveFile=backend.jsa -Dspring.aot.enabled=true \
+    -jar "$(basename "$FAST_START_JAR")"
+if [[ -x target/backend ]]; then
+    report "native" . ./target/backend
+fi
@@ -0,0 +1,46 @@
+package com.huuminhs.backend;
+
+import com.huuminhs.backend.dto.*;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+
+/**
+ * Reachability metadata for the native image that Spring AOT cannot infer on its own.
+ * <p>
+ * AOT registers the bodies of handler methods with a declared type, but many endpoints return
+ * {@code ResponseEntity<?>} and several responses are written with the {@code ObjectMapper}
+ * directly, so every DTO is registered for Jackson here. Entities and repositories are covered by
+ * Spring Data's AOT processing.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final Class<?>[] DTOS = {
+            BulkDeleteRequest.class, BulkOperationItem.class, BulkOperationResponse.class, BulkUpdateItem.class,
+            BulkUpdateRequest.class, ChatHistoryResponse.class, ChatMessage.class, CreateStreamRequest.class,
+            ErrorResponse.class,
+            FollowStatusResponse.class, LoginRequest.class, LoginResponse.class, NotificationResponse.class,
+            PaginatedResponse.class, RecordingSegmentResponse.class, RefreshTokenRequest.class,
+            RegisterRequest.class, RegisterResponse.class, StreamAccessResponse.class, StreamBatchItem.class,
+            StreamBatchResponse.class, StreamHealthResponse.class, StreamResponse.class,
+            ThumbnailUploadResponse.class, UpdateStreamRequest.class
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), DTOS);
+
+        // Nimbus JOSE writes and parses JWT claims with a shaded Gson, which creates the
+        // collections it reads into, and looks up those it writes, through their constructors
+        hints.reflection()
+                .registerType(ArrayList.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                .registerType(LinkedHashMap.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                .registerType(TypeReference.of("com.nimbusds.jose.shaded.gson.internal.LinkedTreeMap"),
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+    }
+}
@@ -2,11 +2,13 @@ package com.huuminhs.backend.controller;
 
 import com.huuminhs.backend.dto.LoginRequest;
 import com.huuminhs.backend.dto.LoginResponse;
+import com.huuminhs.backend.dto.RefreshTokenRequest;
 import com.huuminhs.backend.dto.RegisterRequest;
 import com.huuminhs.backend.dto.RegisterResponse;
 import com.huuminhs.backend.service.AuthService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -38,4 +40,20 @@ public class AuthController {
         RegisterResponse response = authService.registerUser(registerRequest);
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@Valid @RequestBody RefreshTokenRequest refreshRequest) {
+        log.info("Controller: Token refresh attempt");
+        LoginResponse response = authService.refreshToken(refreshRequest);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @Valid @RequestBody RefreshTokenRequest refreshRequest,
+            Authentication authentication) {
+        log.info("Controller: Logout attempt");
+        authService.logout(refreshRequest, authentication);
+        return ResponseEntity.noContent().build();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.huuminhs.backend.controller;
+
+import com.huuminhs.backend.dto.ChatHistoryResponse;
+import com.huuminhs.backend.service.ChatHistoryService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/stream/{streamId}/chat/history")
+public class ChatHistoryController {
+
+    private final ChatHistoryService chatHistoryService;
+
+    public ChatHistoryController(ChatHistoryService chatHistoryService) {
+        this.chatHistoryService = chatHistoryService;
+    }
+
+    @GetMapping
+    public ResponseEntity<ChatHistoryResponse> getHistory(
+            @PathVariable Long streamId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(chatHistoryService.getHistory(streamId, cursor, limit));
+    }
+}
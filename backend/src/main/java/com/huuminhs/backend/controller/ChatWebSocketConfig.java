@@ -0,0 +1,35 @@
+package com.huuminhs.backend.controller;
+
+import com.huuminhs.backend.security.ChatHandshakeInterceptor;
+import com.huuminhs.backend.security.JwtTokenProvider;
+import com.huuminhs.backend.security.RevokedTokenStore;
+import com.huuminhs.backend.service.StreamService;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+public class ChatWebSocketConfig implements WebSocketConfigurer {
+
+    private final ChatWebSocketHandler chatWebSocketHandler;
+    private final JwtTokenProvider tokenProvider;
+    private final RevokedTokenStore revokedTokenStore;
+    private final StreamService streamService;
+
+    public ChatWebSocketConfig(ChatWebSocketHandler chatWebSocketHandler, JwtTokenProvider tokenProvider,
+                               RevokedTokenStore revokedTokenStore, StreamService streamService) {
+        this.chatWebSocketHandler = chatWebSocketHandler;
+        this.tokenProvider = tokenProvider;
+        this.revokedTokenStore = revokedTokenStore;
+        this.streamService = streamService;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(chatWebSocketHandler, "/api/stream/*/chat")
+                .addInterceptors(new ChatHandshakeInterceptor(tokenProvider, revokedTokenStore, streamService))
+                .setAllowedOrigins("*");
+    }
+}
@@ -0,0 +1,124 @@
+package com.huuminhs.backend.controller;
+
+import com.huuminhs.backend.security.ChatHandshakeInterceptor;
+import com.huuminhs.backend.security.RevokedTokenStore;
+import com.huuminhs.backend.service.ChatRoom;
+import com.huuminhs.backend.service.ChatService;
+import jakarta.websocket.Session;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Chat of one stream over a WebSocket at {@code /api/stream/{streamId}/chat}.
+ * <p>
+ * Clients send the message text as a text frame and receive JSON arrays of
+ * {@link com.huuminhs.backend.dto.ChatMessage}. Sessions without a user are read-only, and a
+ * session whose token has expired or been revoked is closed on its next message.
+ */
+@Component
+@Slf4j
+public class ChatWebSocketHandler extends TextWebSocketHandler {
+
+    private static final String SUBSCRIBER = "chatSubscriber";
+
+    private final ChatService chatService;
+    private final RevokedTokenStore revokedTokenStore;
+
+    @Value("${chat.send-timeout-ms:5000}")
+    private long sendTimeoutMs = 5000;
+
+    public ChatWebSocketHandler(ChatService chatService, RevokedTokenStore revokedTokenStore) {
+        this.chatService = chatService;
+        this.revokedTokenStore = revokedTokenStore;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        Session tomcatSession = null;
+        if (session instanceof NativeWebSocketSession nativeSession) {
+            tomcatSession = nativeSession.getNativeSession(Session.class);
+            if (tomcatSession != null) {
+                // Fails the pending send of a client that stops reading, which disconnects it
+                tomcatSession.getAsyncRemote().setSendTimeout(sendTimeoutMs);
+            }
+        }
+        ChatRoom.Subscriber subscriber = chatService.join(streamId(session), new SessionSink(session, tomcatSession));
+        session.getAttributes().put(SUBSCRIBER, subscriber);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        String username = (String) session.getAttributes().get(ChatHandshakeInterceptor.USERNAME);
+        if (username == null) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("Sign in to chat"));
+            return;
+        }
+        if (!hasValidToken(session)) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("Sign in again to chat"));
+            return;
+        }
+        String text = message.getPayload();
+        if (text.length() > chatService.getMaxMessageLength()) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("Message too long"));
+            return;
+        }
+        chatService.post(streamId(session), username, text);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        ChatRoom.Subscriber subscriber = (ChatRoom.Subscriber) session.getAttributes().remove(SUBSCRIBER);
+        if (subscriber != null) {
+            chatService.leave(streamId(session), subscriber);
+        }
+    }
+
+    private boolean hasValidToken(WebSocketSession session) {
+        Long expiresAt = (Long) session.getAttributes().get(ChatHandshakeInterceptor.TOKEN_EXPIRES_AT);
+        if (expiresAt != null && expiresAt <= System.currentTimeMillis()) {
+            return false;
+        }
+        return !revokedTokenStore.isRevoked((String) session.getAttributes().get(ChatHandshakeInterceptor.TOKEN_ID));
+    }
+
+    private static Long streamId(WebSocketSession session) {
+        return (Long) session.getAttributes().get(ChatHandshakeInterceptor.STREAM_ID);
+    }
+
+    private record SessionSink(WebSocketSession session, Session tomcatSession) implements ChatRoom.Sink {
+
+        @Override
+        public void send(String frame, Consumer<Throwable> done) {
+            if (tomcatSession == null) {
+                try {
+                    session.sendMessage(new TextMessage(frame));
+                } catch (IOException e) {
+                    done.accept(e);
+                    return;
+                }
+                done.accept(null);
+                return;
+            }
+            tomcatSession.getAsyncRemote().sendText(frame,
+                    result -> done.accept(result.isOK() ? null : result.getException()));
+        }
+
+        @Override
+        public void close(String reason) {
+            try {
+                session.close(reason != null ? CloseStatus.SESSION_NOT_RELIABLE.withReason(reason) : CloseStatus.SESSION_NOT_RELIABLE);
+            } catch (IOException e) {
+                log.debug("Failed to close chat session {}: {}", session.getId(), e.toString());
+            }
+        }
+    }
+}
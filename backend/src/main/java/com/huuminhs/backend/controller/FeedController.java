@@ -0,0 +1,31 @@
+package com.huuminhs.backend.controller;
+
+import com.huuminhs.backend.dto.PaginatedResponse;
+import com.huuminhs.backend.dto.StreamResponse;
+import com.huuminhs.backend.security.UserPrincipal;
+import com.huuminhs.backend.service.FeedService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/stream/following")
+public class FeedController {
+
+    private final FeedService feedService;
+
+    public FeedController(FeedService feedService) {
+        this.feedService = feedService;
+    }
+
+    @GetMapping
+    public ResponseEntity<PaginatedResponse<StreamResponse>> getFollowingFeed(
+            Authentication authentication,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(feedService.getFollowingFeed(UserPrincipal.idOf(authentication), cursor, limit));
+    }
+}
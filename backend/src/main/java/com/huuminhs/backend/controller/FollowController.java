@@ -0,0 +1,42 @@
+package com.huuminhs.backend.controller;
+
+import com.huuminhs.backend.dto.FollowStatusResponse;
+import com.huuminhs.backend.security.UserPrincipal;
+import com.huuminhs.backend.service.FollowService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/users/{username}/follow")
+public class FollowController {
+
+    private final FollowService followService;
+
+    public FollowController(FollowService followService) {
+        this.followService = followService;
+    }
+
+    @GetMapping
+    public ResponseEntity<FollowStatusResponse> getFollowStatus(@PathVariable String username,
+                                                                Authentication authentication) {
+        return ResponseEntity.ok(followService.getFollowStatus(UserPrincipal.idOf(authentication), username));
+    }
+
+    @PutMapping
+    public ResponseEntity<Void> follow(@PathVariable String username, Authentication authentication) {
+        followService.follow(UserPrincipal.idOf(authentication), username);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> unfollow(@PathVariable String username, Authentication authentication) {
+        followService.unfollow(UserPrincipal.idOf(authentication), username);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,69 @@
+package com.huuminhs.backend.controller;
+
+import com.huuminhs.backend.service.HlsRelayService;
+import com.huuminhs.backend.service.HlsRelayService.HlsResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves MediaMTX's low-latency HLS through the backend's cache, e.g.
+ * {@code /api/hls/42/index.m3u8}. Playlists reference parts relatively, so they work unchanged
+ * under this path.
+ */
+@RestController
+@RequestMapping("/api/hls")
+@ConditionalOnProperty(prefix = "hls.relay", name = "enabled", havingValue = "true")
+public class HlsRelayController {
+
+    private final HlsRelayService hlsRelayService;
+
+    public HlsRelayController(HlsRelayService hlsRelayService) {
+        this.hlsRelayService = hlsRelayService;
+    }
+
+    @GetMapping("/{streamId}/{fileName}")
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> getHls(
+            @PathVariable Long streamId,
+            @PathVariable String fileName,
+            HttpServletRequest request) {
+        // Not logged per request: every viewer fetches several files per second
+        return hlsRelayService.fetch(streamId, fileName, request.getQueryString())
+                .thenApply(HlsRelayController::toResponseEntity);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> toResponseEntity(HlsResponse response) {
+        if (response.body() == null) {
+            return ResponseEntity.status(response.status()).build();
+        }
+
+        // Coalesced requests share the response, each one writes its own view of the bytes
+        ByteBuffer body = response.body().duplicate();
+        CacheControl cacheControl = response.playlist()
+                ? CacheControl.noCache()
+                : CacheControl.maxAge(1, TimeUnit.DAYS).cachePublic();
+        return ResponseEntity.status(response.status())
+                .contentType(MediaType.parseMediaType(response.contentType()))
+                .cacheControl(cacheControl)
+                .contentLength(body.remaining())
+                .body(out -> {
+                    WritableByteChannel channel = Channels.newChannel(out);
+                    while (body.hasRemaining()) {
+                        channel.write(body);
+                    }
+                });
+    }
+}
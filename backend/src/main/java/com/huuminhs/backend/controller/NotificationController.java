@@ -0,0 +1,48 @@
+package com.huuminhs.backend.controller;
+
+import com.huuminhs.backend.dto.NotificationResponse;
+import com.huuminhs.backend.dto.PaginatedResponse;
+import com.huuminhs.backend.security.UserPrincipal;
+import com.huuminhs.backend.service.NotificationService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationController {
+
+    private final NotificationService notificationService;
+
+    public NotificationController(NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    /**
+     * Unread notifications of the caller, newest first.
+     */
+    @GetMapping
+    public ResponseEntity<PaginatedResponse<NotificationResponse>> getUnread(
+            Authentication authentication,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(notificationService.getUnread(UserPrincipal.idOf(authentication), cursor, limit));
+    }
+
+    @PutMapping("/{notificationId}/read")
+    public ResponseEntity<Void> markRead(@PathVariable Long notificationId, Authentication authentication) {
+        notificationService.markRead(UserPrincipal.idOf(authentication), notificationId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PutMapping("/read")
+    public ResponseEntity<Void> markAllRead(Authentication authentication) {
+        notificationService.markAllRead(UserPrincipal.idOf(authentication));
+        return ResponseEntity.noContent().build();
+    }
+}
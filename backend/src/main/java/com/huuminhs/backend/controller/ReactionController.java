@@ -0,0 +1,28 @@
+package com.huuminhs.backend.controller;
+
+import com.huuminhs.backend.service.ReactionService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/stream/{streamId}/reactions")
+public class ReactionController {
+
+    private final ReactionService reactionService;
+
+    public ReactionController(ReactionService reactionService) {
+        this.reactionService = reactionService;
+    }
+
+    /**
+     * Counts a reaction; it shows up in the stream's totals after the next flush.
+     */
+    @PostMapping("/{reaction}")
+    public ResponseEntity<Void> react(@PathVariable Long streamId, @PathVariable String reaction) {
+        reactionService.react(streamId, reaction);
+        return ResponseEntity.accepted().build();
+    }
+}
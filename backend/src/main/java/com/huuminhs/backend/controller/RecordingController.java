@@ -0,0 +1,139 @@
+package com.huuminhs.backend.controller;
+
+import com.huuminhs.backend.dto.RecordingSegmentResponse;
+import com.huuminhs.backend.service.ClipService;
+import com.huuminhs.backend.service.RecordingService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/stream/{streamId}/recordings")
+@Slf4j
+public class RecordingController {
+
+    // Request attributes of Tomcat's sendfile support, see org.apache.tomcat.util.net.SendfileState
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final RecordingService recordingService;
+    private final ClipService clipService;
+
+    public RecordingController(RecordingService recordingService, ClipService clipService) {
+        this.recordingService = recordingService;
+        this.clipService = clipService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<RecordingSegmentResponse>> getRecordings(@PathVariable Long streamId) {
+        log.info("Getting recordings for stream with ID: {}", streamId);
+        List<RecordingSegmentResponse> recordings = recordingService.getRecordings(streamId);
+        return ResponseEntity.ok(recordings);
+    }
+
+    /**
+     * Serves a recorded fMP4 segment, honouring a single-range Range header.
+     * <p>
+     * The body is handed to Tomcat's sendfile, which copies file pages straight to the socket with
+     * {@link FileChannel#transferTo}. When sendfile is unavailable the file is still copied with
+     * transferTo through a small fixed buffer, so heap use doesn't depend on the file size.
+     */
+    @GetMapping("/{fileName}")
+    public void getSegment(
+            @PathVariable Long streamId,
+            @PathVariable String fileName,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Path file = recordingService.getSegmentFile(streamId, fileName);
+        sendFile(file, request, response);
+    }
+
+    /**
+     * Serves a clip of the recording, cut at fragment boundaries from the given offsets in
+     * milliseconds. The clip is built on first request and then served from disk like a segment.
+     */
+    @GetMapping("/clip")
+    public void getClip(
+            @PathVariable Long streamId,
+            @RequestParam long start,
+            @RequestParam long end,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        log.info("Getting clip {}-{} ms of stream with ID: {}", start, end, streamId);
+        Path clip = clipService.getClip(streamId, start, end);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "inline; filename=\"stream-" + streamId + "-" + start + "-" + end + ".mp4\"");
+        sendFile(clip, request, response);
+    }
+
+    private void sendFile(Path file, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long start = 0;
+            long end = fileSize;
+
+            String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+            if (rangeHeader != null) {
+                try {
+                    List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                    // Multiple ranges are legal to ignore, the full file is sent instead
+                    if (ranges.size() == 1) {
+                        start = ranges.get(0).getRangeStart(fileSize);
+                        end = ranges.get(0).getRangeEnd(fileSize) + 1;
+                        if (start >= fileSize || start >= end) {
+                            throw new IllegalArgumentException("Unsatisfiable range: " + rangeHeader);
+                        }
+                        response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + fileSize);
+                    }
+                } catch (IllegalArgumentException e) {
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + fileSize);
+                    return;
+                }
+            }
+
+            response.setContentType("video/mp4");
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            // Segments and clips of an ENDED stream never change
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=86400, immutable");
+            response.setContentLengthLong(end - start);
+
+            if ("HEAD".equals(request.getMethod()) || start == end) {
+                return;
+            }
+
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+                request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end);
+                return;
+            }
+
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                position += channel.transferTo(position, end - position, out);
+            }
+        }
+    }
+}
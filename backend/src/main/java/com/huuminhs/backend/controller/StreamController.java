@@ -1,16 +1,27 @@
 package com.huuminhs.backend.controller;
 
+import com.huuminhs.backend.dto.BulkDeleteRequest;
+import com.huuminhs.backend.dto.BulkOperationResponse;
+import com.huuminhs.backend.dto.BulkUpdateRequest;
 import com.huuminhs.backend.dto.CreateStreamRequest;
 import com.huuminhs.backend.dto.PaginatedResponse;
 import com.huuminhs.backend.dto.StreamAccessResponse;
+import com.huuminhs.backend.dto.StreamBatchResponse;
 import com.huuminhs.backend.dto.StreamResponse;
 import com.huuminhs.backend.dto.UpdateStreamRequest;
+import com.huuminhs.backend.model.StreamStatus;
+import com.huuminhs.backend.security.UserPrincipal;
 import com.huuminhs.backend.service.StreamService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -31,44 +42,81 @@ public class StreamController {
             @Valid @RequestBody CreateStreamRequest request,
             Authentication authentication) {
         log.info("Creating stream with title: {}", request.getTitle());
-        StreamAccessResponse response = streamService.createStream(request, authentication.getName());
+        StreamAccessResponse response = streamService.createStream(request, UserPrincipal.idOf(authentication));
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     @GetMapping
-    public ResponseEntity<PaginatedResponse<StreamResponse>> getAllStreams(
+    public ResponseEntity<?> getAllStreams(
             @RequestParam(required = false) Long cursor,
-            @RequestParam(defaultValue = "10") int limit) {
+            @RequestParam(defaultValue = "10") int limit,
+            WebRequest webRequest) {
         log.info("Getting all streams with cursor: {} and limit: {}", cursor, limit);
+        String eTag = streamService.getListingETag();
+        if (isNotModified(webRequest, eTag)) {
+            return null;
+        }
+        if (streamService.isCachedFirstPage(cursor, limit)) {
+            return revalidated(eTag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(streamService.getAllStreamsFirstPageJson(limit));
+        }
+        if (streamService.isStreamingPage(limit)) {
+            return streamed(eTag, out -> streamService.writeAllStreams(cursor, limit, out));
+        }
         PaginatedResponse<StreamResponse> streams = streamService.getAllStreams(cursor, limit);
-        return ResponseEntity.ok(streams);
+        return revalidated(eTag).body(streams);
     }
 
     @GetMapping("/mine")
-    public ResponseEntity<PaginatedResponse<StreamResponse>> getMyStreams(
+    public ResponseEntity<?> getMyStreams(
             Authentication authentication,
             @RequestParam(required = false) Long cursor,
             @RequestParam(defaultValue = "10") int limit) {
         log.info("Getting streams for user: {} with cursor: {} and limit: {}", authentication.getName(), cursor, limit);
-        PaginatedResponse<StreamResponse> streams = streamService.getStreamsByUser(authentication.getName(), cursor, limit);
+        if (streamService.isStreamingPage(limit)) {
+            String username = authentication.getName();
+            return streamed(null, out -> streamService.writeStreamsByUser(username, cursor, limit, out));
+        }
+        PaginatedResponse<StreamResponse> streams = streamService.getStreamsByUser(
+                UserPrincipal.idOf(authentication), authentication.getName(), cursor, limit);
+        return ResponseEntity.ok(streams);
+    }
+
+    @GetMapping("/batch")
+    public ResponseEntity<StreamBatchResponse> getStreamsByIds(@RequestParam List<Long> ids) {
+        log.info("Getting {} streams by ID", ids.size());
+        StreamBatchResponse streams = streamService.getStreamsByIds(ids);
         return ResponseEntity.ok(streams);
     }
 
     @GetMapping("/{streamId}")
-    public ResponseEntity<StreamResponse> getStreamById(@PathVariable Long streamId) {
+    public ResponseEntity<StreamResponse> getStreamById(@PathVariable Long streamId, WebRequest webRequest) {
         log.info("Getting stream with ID: {}", streamId);
+        // Read before loading, a change made meanwhile then only costs the client a refetch
+        String eTag = streamService.getStreamETag(streamId);
+        String current = streamService.currentETagIn(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH), eTag);
+        if (current != null && isNotModified(webRequest, current)) {
+            return null;
+        }
         StreamResponse stream = streamService.getStreamById(streamId);
-        return ResponseEntity.ok(stream);
+        // The edit version is part of the tag, for If-Match
+        return revalidated(streamService.withVersion(eTag, stream)).body(stream);
     }
 
     @PutMapping("/{streamId}")
     public ResponseEntity<StreamResponse> updateStream(
             @PathVariable Long streamId,
             @Valid @RequestBody UpdateStreamRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             Authentication authentication) {
         log.info("Updating stream with ID: {}", streamId);
-        StreamResponse updatedStream = streamService.updateStream(streamId, request, authentication.getName());
-        return ResponseEntity.ok(updatedStream);
+        Long expectedVersion = streamService.versionFromIfMatch(ifMatch);
+        String eTag = streamService.getStreamETag(streamId);
+        StreamResponse updatedStream = streamService.updateStream(streamId, request, authentication.getName(),
+                expectedVersion);
+        // Carries the new version for the next If-Match
+        return ResponseEntity.ok().eTag(streamService.withVersion(eTag, updatedStream)).body(updatedStream);
     }
 
     @DeleteMapping("/{streamId}")
@@ -80,20 +128,54 @@ public class StreamController {
         return ResponseEntity.noContent().build();
     }
 
+    @PutMapping("/bulk")
+    public ResponseEntity<BulkOperationResponse> updateStreams(
+            @Valid @RequestBody BulkUpdateRequest request,
+            Authentication authentication) {
+        log.info("Updating {} streams", request.getItems().size());
+        BulkOperationResponse response = streamService.updateStreams(request.getItems(), authentication.getName());
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/bulk")
+    public ResponseEntity<BulkOperationResponse> deleteStreams(
+            @Valid @RequestBody BulkDeleteRequest request,
+            Authentication authentication) {
+        log.info("Deleting {} streams", request.getStreamIds().size());
+        BulkOperationResponse response = streamService.deleteStreams(request.getStreamIds(), authentication.getName());
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/live")
-    public ResponseEntity<PaginatedResponse<StreamResponse>> getLiveStreams(
+    public ResponseEntity<?> getLiveStreams(
             @RequestParam(required = false) Long cursor,
-            @RequestParam(defaultValue = "10") int limit) {
+            @RequestParam(defaultValue = "10") int limit,
+            WebRequest webRequest) {
         log.info("Getting all live streams with cursor: {} and limit: {}", cursor, limit);
+        String eTag = streamService.getListingETag();
+        if (isNotModified(webRequest, eTag)) {
+            return null;
+        }
+        if (streamService.isCachedFirstPage(cursor, limit)) {
+            return revalidated(eTag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(streamService.getLiveStreamsFirstPageJson(limit));
+        }
+        if (streamService.isStreamingPage(limit)) {
+            return streamed(eTag, out -> streamService.writeStreamsByStatus(StreamStatus.LIVE, cursor, limit, out));
+        }
         PaginatedResponse<StreamResponse> streams = streamService.getLiveStreams(cursor, limit);
-        return ResponseEntity.ok(streams);
+        return revalidated(eTag).body(streams);
     }
 
     @GetMapping("/ended")
-    public ResponseEntity<PaginatedResponse<StreamResponse>> getEndedStreams(
+    public ResponseEntity<?> getEndedStreams(
             @RequestParam(required = false) Long cursor,
             @RequestParam(defaultValue = "10") int limit) {
         log.info("Getting all ended streams with cursor: {} and limit: {}", cursor, limit);
+        if (streamService.isStreamingPage(limit)) {
+            return streamed(null, out -> streamService.writeStreamsByStatus(StreamStatus.ENDED, cursor, limit, out));
+        }
         PaginatedResponse<StreamResponse> streams = streamService.getEndedStreams(cursor, limit);
         return ResponseEntity.ok(streams);
     }
@@ -120,4 +202,24 @@ public class StreamController {
         StreamAccessResponse response = streamService.getStreamJwt(streamId, authentication.getName());
         return ResponseEntity.ok(response);
     }
+
+    private ResponseEntity<StreamingResponseBody> streamed(String eTag, StreamingResponseBody body) {
+        ResponseEntity.BodyBuilder builder = eTag != null ? revalidated(eTag) : ResponseEntity.ok();
+        return builder
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * Answers If-None-Match with 304 Not Modified. Returning null from the handler afterwards
+     * tells Spring MVC the response is already complete, so nothing more is queried and nothing is serialized.
+     */
+    private boolean isNotModified(WebRequest webRequest, String eTag) {
+        return eTag != null && webRequest.checkNotModified(eTag);
+    }
+
+    private ResponseEntity.BodyBuilder revalidated(String eTag) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        return eTag != null ? builder.eTag(eTag) : builder;
+    }
 }
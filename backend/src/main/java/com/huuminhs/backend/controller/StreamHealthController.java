@@ -0,0 +1,29 @@
+package com.huuminhs.backend.controller;
+
+import com.huuminhs.backend.dto.StreamHealthResponse;
+import com.huuminhs.backend.service.StreamHealthMonitor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/stream/{streamId}/health")
+public class StreamHealthController {
+
+    private final StreamHealthMonitor streamHealthMonitor;
+
+    public StreamHealthController(StreamHealthMonitor streamHealthMonitor) {
+        this.streamHealthMonitor = streamHealthMonitor;
+    }
+
+    @GetMapping
+    public ResponseEntity<StreamHealthResponse> getHealth(@PathVariable Long streamId) {
+        // Dashboards poll this, not logged per request
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(streamHealthMonitor.getHealth(streamId));
+    }
+}
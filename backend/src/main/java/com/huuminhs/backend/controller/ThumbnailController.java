@@ -0,0 +1,62 @@
+package com.huuminhs.backend.controller;
+
+import com.huuminhs.backend.dto.ThumbnailUploadResponse;
+import com.huuminhs.backend.service.ThumbnailService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api")
+@Slf4j
+public class ThumbnailController {
+
+    private final ThumbnailService thumbnailService;
+
+    public ThumbnailController(ThumbnailService thumbnailService) {
+        this.thumbnailService = thumbnailService;
+    }
+
+    /**
+     * Accepts a thumbnail for a stream. Resizing happens in the background, so the response is
+     * 202 with the URLs the variants will appear at; the stream shows them once they are ready.
+     */
+    @PostMapping(value = "/stream/{streamId}/thumbnail", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ThumbnailUploadResponse> uploadThumbnail(
+            @PathVariable Long streamId,
+            @RequestParam("file") MultipartFile file,
+            Authentication authentication) {
+        log.info("Uploading thumbnail for stream with ID: {}", streamId);
+        ThumbnailUploadResponse response = new ThumbnailUploadResponse(
+                thumbnailService.upload(streamId, file, authentication.getName()));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @GetMapping("/thumbnails/{fileName}")
+    public ResponseEntity<Resource> getThumbnail(@PathVariable String fileName) {
+        Path file = thumbnailService.getVariantFile(fileName);
+        if (file == null) {
+            return ResponseEntity.notFound().build();
+        }
+        // The file name contains the content hash, so the bytes behind a URL never change
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .contentType(MediaType.IMAGE_JPEG)
+                .body(new FileSystemResource(file));
+    }
+}
@@ -0,0 +1,17 @@
+package com.huuminhs.backend.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeleteRequest {
+    @NotEmpty(message = "Stream IDs are required")
+    private List<@NotNull Long> streamIds;
+}
@@ -0,0 +1,22 @@
+package com.huuminhs.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOperationItem {
+
+    public enum Result {
+        UPDATED,
+        DELETED,
+        NOT_FOUND,
+        // The stream belongs to another user
+        FORBIDDEN
+    }
+
+    private Long streamId;
+    private Result result;
+}
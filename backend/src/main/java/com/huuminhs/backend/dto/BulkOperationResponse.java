@@ -0,0 +1,15 @@
+package com.huuminhs.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOperationResponse {
+    // One item per distinct requested ID, in request order
+    private List<BulkOperationItem> items;
+}
@@ -0,0 +1,20 @@
+package com.huuminhs.backend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateItem {
+    @NotNull(message = "Stream ID is required")
+    private Long streamId;
+
+    @NotBlank(message = "Title is required")
+    private String title;
+
+    private String description;
+}
@@ -0,0 +1,17 @@
+package com.huuminhs.backend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateRequest {
+    @NotEmpty(message = "Items are required")
+    private List<@Valid BulkUpdateItem> items;
+}
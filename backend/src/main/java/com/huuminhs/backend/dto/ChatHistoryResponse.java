@@ -0,0 +1,20 @@
+package com.huuminhs.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A page of stored chat messages, oldest first. Unlike the stream listings the cursor is a
+ * string, it encodes the (sent time, ID) position of the last message.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatHistoryResponse {
+    private List<ChatMessage> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,23 @@
+package com.huuminhs.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A chat message as sent to WebSocket clients, in frames holding a JSON array of these.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatMessage {
+    // Position in the live room, gap-free and increasing; the stored ID in replayed history
+    private long seq;
+
+    private String username;
+
+    private String text;
+
+    // Epoch milliseconds
+    private long sentAt;
+}
@@ -0,0 +1,15 @@
+package com.huuminhs.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FollowStatusResponse {
+    // Whether the caller follows the user
+    private boolean following;
+
+    private long followers;
+}
@@ -11,9 +11,21 @@ public class LoginResponse {
     private String token;
     private String tokenType = "Bearer";
     private String username;
-    
+
+    private String refreshToken;
+
+    // Lifetime of the access token in seconds
+    private long expiresIn;
+
     public LoginResponse(String token, String username) {
         this.token = token;
         this.username = username;
     }
+
+    public LoginResponse(String token, String refreshToken, long expiresIn, String username) {
+        this.token = token;
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
+        this.username = username;
+    }
 }
\ No newline at end of file
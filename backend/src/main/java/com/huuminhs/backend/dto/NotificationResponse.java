@@ -0,0 +1,25 @@
+package com.huuminhs.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A "stream went live" notification of a followed creator.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationResponse {
+    private Long id;
+
+    private Long streamId;
+
+    private String streamTitle;
+
+    // Username of the creator of the stream
+    private String creator;
+
+    // Epoch milliseconds of the go-live
+    private long createdAt;
+}
@@ -0,0 +1,20 @@
+package com.huuminhs.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordingSegmentResponse {
+    private String fileName;
+    private LocalDateTime startedAt;
+    private long durationMs;
+    private long sizeBytes;
+
+    // Relative URL serving the segment with HTTP Range support
+    private String url;
+}
@@ -0,0 +1,16 @@
+package com.huuminhs.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamBatchItem {
+    private Long streamId;
+    private boolean found;
+
+    // Null when no stream exists with this ID
+    private StreamResponse stream;
+}
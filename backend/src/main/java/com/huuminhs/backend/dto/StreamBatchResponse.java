@@ -0,0 +1,15 @@
+package com.huuminhs.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamBatchResponse {
+    // One item per requested ID, in request order
+    private List<StreamBatchItem> items;
+}
@@ -0,0 +1,31 @@
+package com.huuminhs.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Recent health samples of a stream as parallel arrays, oldest first.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamHealthResponse {
+    private Long streamId;
+
+    // Whether MediaMTX currently reports the stream as being published
+    private boolean live;
+
+    private long intervalMs;
+
+    // Epoch milliseconds of each sample
+    private long[] timestamps;
+
+    // Ingest bitrate averaged over the interval ending at each sample
+    private int[] bitrateKbps;
+
+    private int[] readers;
+
+    // Lost or corrupt packets and frames during each interval
+    private int[] errors;
+}
@@ -1,10 +1,13 @@
 package com.huuminhs.backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.huuminhs.backend.model.StreamStatus;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,4 +19,28 @@ public class StreamResponse {
 
     // Username of the creator of the stream
     private String creator;
+
+    // Thumbnail URLs by variant name, null when the stream has no thumbnail
+    private Map<String, String> thumbnails;
+
+    // Reaction totals by reaction key, every type included
+    private Map<String, Long> reactions;
+
+    // Edit version of the stream, sent in the ETag header instead of the body
+    @JsonIgnore
+    private long version;
+
+    public StreamResponse(Long streamId, String title, String description, StreamStatus status, String creator) {
+        this(streamId, title, description, status, creator, null);
+    }
+
+    public StreamResponse(Long streamId, String title, String description, StreamStatus status, String creator,
+                          Map<String, String> thumbnails) {
+        this(streamId, title, description, status, creator, thumbnails, null);
+    }
+
+    public StreamResponse(Long streamId, String title, String description, StreamStatus status, String creator,
+                          Map<String, String> thumbnails, Map<String, Long> reactions) {
+        this(streamId, title, description, status, creator, thumbnails, reactions, 0);
+    }
 }
@@ -0,0 +1,15 @@
+package com.huuminhs.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThumbnailUploadResponse {
+    // Variant URLs, which start resolving once the upload has been processed
+    private Map<String, String> thumbnails;
+}
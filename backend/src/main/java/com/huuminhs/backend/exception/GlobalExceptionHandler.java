@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -84,6 +85,176 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(InvalidTokenException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidTokenException(
+            InvalidTokenException ex, WebRequest request) {
+
+        String errorMessage = ex.getMessage();
+        String path = ((ServletWebRequest) request).getRequest().getRequestURI();
+
+        log.info("Token rejected: {} at {}", errorMessage, path);
+
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.UNAUTHORIZED.value(),
+            "Authentication Failed",
+            errorMessage,
+            path
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.UNAUTHORIZED);
+    }
+
+    @ExceptionHandler(BatchSizeExceededException.class)
+    public ResponseEntity<ErrorResponse> handleBatchSizeExceededException(
+            BatchSizeExceededException ex, WebRequest request) {
+
+        String errorMessage = ex.getMessage();
+        String path = ((ServletWebRequest) request).getRequest().getRequestURI();
+
+        log.info("Batch rejected: {} at {}", errorMessage, path);
+
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            "Validation Error",
+            errorMessage,
+            path
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidClipRangeException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidClipRangeException(
+            InvalidClipRangeException ex, WebRequest request) {
+
+        String errorMessage = ex.getMessage();
+        String path = ((ServletWebRequest) request).getRequest().getRequestURI();
+
+        log.info("Clip rejected: {} at {}", errorMessage, path);
+
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            "Validation Error",
+            errorMessage,
+            path
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursorException(
+            InvalidCursorException ex, WebRequest request) {
+
+        String errorMessage = ex.getMessage();
+        String path = ((ServletWebRequest) request).getRequest().getRequestURI();
+
+        log.info("Cursor rejected: {} at {}", errorMessage, path);
+
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            "Validation Error",
+            errorMessage,
+            path
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(UnknownReactionException.class)
+    public ResponseEntity<ErrorResponse> handleUnknownReactionException(
+            UnknownReactionException ex, WebRequest request) {
+
+        String errorMessage = ex.getMessage();
+        String path = ((ServletWebRequest) request).getRequest().getRequestURI();
+
+        log.info("Reaction rejected: {} at {}", errorMessage, path);
+
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            "Validation Error",
+            errorMessage,
+            path
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidFollowException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidFollowException(
+            InvalidFollowException ex, WebRequest request) {
+
+        String errorMessage = ex.getMessage();
+        String path = ((ServletWebRequest) request).getRequest().getRequestURI();
+
+        log.info("Follow rejected: {} at {}", errorMessage, path);
+
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            "Validation Error",
+            errorMessage,
+            path
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidThumbnailException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidThumbnailException(
+            InvalidThumbnailException ex, WebRequest request) {
+
+        String errorMessage = ex.getMessage();
+        String path = ((ServletWebRequest) request).getRequest().getRequestURI();
+
+        log.info("Thumbnail rejected: {} at {}", errorMessage, path);
+
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            "Validation Error",
+            errorMessage,
+            path
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<ErrorResponse> handleMaxUploadSizeExceededException(
+            MaxUploadSizeExceededException ex, WebRequest request) {
+
+        String path = ((ServletWebRequest) request).getRequest().getRequestURI();
+
+        log.info("Upload too large at {}", path);
+
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.PAYLOAD_TOO_LARGE.value(),
+            "Payload Too Large",
+            "Uploaded file exceeds the maximum allowed size",
+            path
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
+    @ExceptionHandler(ThumbnailQueueFullException.class)
+    public ResponseEntity<ErrorResponse> handleThumbnailQueueFullException(
+            ThumbnailQueueFullException ex, WebRequest request) {
+
+        String errorMessage = ex.getMessage();
+        String path = ((ServletWebRequest) request).getRequest().getRequestURI();
+
+        log.warn("Thumbnail queue full at {}", path);
+
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            "Service Unavailable",
+            errorMessage,
+            path
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(StreamNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleStreamNotFoundException(
             StreamNotFoundException ex, WebRequest request) {
@@ -103,6 +274,63 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(StreamArchivedException.class)
+    public ResponseEntity<ErrorResponse> handleStreamArchivedException(
+            StreamArchivedException ex, WebRequest request) {
+
+        String errorMessage = ex.getMessage();
+        String path = ((ServletWebRequest) request).getRequest().getRequestURI();
+
+        log.info("Stream archived: {} at {}", errorMessage, path);
+
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.CONFLICT.value(),
+            "Stream Archived",
+            errorMessage,
+            path
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(UserNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleUserNotFoundException(
+            UserNotFoundException ex, WebRequest request) {
+
+        String errorMessage = ex.getMessage();
+        String path = ((ServletWebRequest) request).getRequest().getRequestURI();
+
+        log.info("User not found: {} at {}", errorMessage, path);
+
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.NOT_FOUND.value(),
+            "User Not Found",
+            errorMessage,
+            path
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(RecordingNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleRecordingNotFoundException(
+            RecordingNotFoundException ex, WebRequest request) {
+
+        String errorMessage = ex.getMessage();
+        String path = ((ServletWebRequest) request).getRequest().getRequestURI();
+
+        log.info("Recording not found: {} at {}", errorMessage, path);
+
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.NOT_FOUND.value(),
+            "Recording Not Found",
+            errorMessage,
+            path
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    }
+
     @ExceptionHandler(StreamAccessDeniedException.class)
     public ResponseEntity<ErrorResponse> handleStreamAccessDeniedException(
             StreamAccessDeniedException ex, WebRequest request) {
@@ -122,6 +350,25 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.FORBIDDEN);
     }
 
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailedException(
+            PreconditionFailedException ex, WebRequest request) {
+
+        String errorMessage = ex.getMessage();
+        String path = ((ServletWebRequest) request).getRequest().getRequestURI();
+
+        log.info("Precondition failed: {} at {}", errorMessage, path);
+
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.PRECONDITION_FAILED.value(),
+            "Precondition Failed",
+            errorMessage,
+            path
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.PRECONDITION_FAILED);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGlobalException(
             Exception ex, WebRequest request) {
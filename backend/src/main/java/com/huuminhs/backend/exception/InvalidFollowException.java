@@ -0,0 +1,11 @@
+package com.huuminhs.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidFollowException extends RuntimeException {
+    public InvalidFollowException(String message) {
+        super(message);
+    }
+}
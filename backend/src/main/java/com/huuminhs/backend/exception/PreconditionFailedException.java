@@ -0,0 +1,15 @@
+package com.huuminhs.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(Long streamId) {
+        super("Stream " + streamId + " was modified since it was read");
+    }
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
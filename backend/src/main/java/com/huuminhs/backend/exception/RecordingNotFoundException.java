@@ -0,0 +1,15 @@
+package com.huuminhs.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class RecordingNotFoundException extends RuntimeException {
+    public RecordingNotFoundException(Long streamId) {
+        super("No recording available for stream with ID: " + streamId);
+    }
+
+    public RecordingNotFoundException(Long streamId, String fileName) {
+        super("Recording segment '" + fileName + "' not found for stream with ID: " + streamId);
+    }
+}
@@ -0,0 +1,11 @@
+package com.huuminhs.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class StreamArchivedException extends RuntimeException {
+    public StreamArchivedException(Long streamId) {
+        super("Stream " + streamId + " is archived and can no longer be changed");
+    }
+}
@@ -0,0 +1,11 @@
+package com.huuminhs.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ThumbnailQueueFullException extends RuntimeException {
+    public ThumbnailQueueFullException() {
+        super("Too many thumbnails are being processed, please retry shortly");
+    }
+}
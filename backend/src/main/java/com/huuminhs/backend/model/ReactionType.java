@@ -0,0 +1,51 @@
+package com.huuminhs.backend.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reactions viewers can send on a stream. Stored by ordinal, so new types go at the end.
+ */
+public enum ReactionType {
+    LIKE("like"),
+    HEART("heart"),
+    LAUGH("laugh"),
+    WOW("wow"),
+    CLAP("clap");
+
+    private static final ReactionType[] VALUES = values();
+
+    private final String key;
+
+    ReactionType(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    /**
+     * @return the type with this key, or null if there is none
+     */
+    public static ReactionType fromKey(String key) {
+        for (ReactionType type : VALUES) {
+            if (type.key.equals(key)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param counts totals indexed by ordinal, null for a stream without reactions
+     * @return the totals by key, every type included
+     */
+    public static Map<String, Long> totals(long[] counts) {
+        Map<String, Long> totals = new LinkedHashMap<>();
+        for (ReactionType type : VALUES) {
+            totals.put(type.key, counts == null ? 0L : counts[type.ordinal()]);
+        }
+        return totals;
+    }
+}
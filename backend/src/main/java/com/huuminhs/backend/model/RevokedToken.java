@@ -0,0 +1,24 @@
+package com.huuminhs.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "revoked_tokens", indexes = @Index(name = "idx_revoked_tokens_expires_at", columnList = "expiresAt"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+    // The "jti" claim of the revoked token
+    @Id
+    @Column(length = 36)
+    private String tokenId;
+
+    // Revocation only matters until the token would have expired on its own
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
@@ -4,11 +4,15 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "streams")
+// Serves the status-ordered listings and the archiver's scan for old ENDED streams
+@Table(name = "streams", indexes = @Index(name = "idx_streams_status_created_at", columnList = "status, created_at DESC, id DESC"))
+// Status and thumbnail saves write only those columns, so they never undo a concurrent edit
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -32,4 +36,17 @@ public class Stream {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
+
+    // Content hash of the uploaded thumbnail, null until its variants have been generated
+    @Column(name = "thumbnail_hash", length = 64)
+    private String thumbnailHash;
+
+    // Raised by every edit of the title or description and matched against If-Match. Not a JPA
+    // @Version: status changes never conflict with an edit and must not fail because of one
+    @Column(updatable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long version;
+
+    public Stream(Long id, String title, String description, LocalDateTime createdAt, StreamStatus status, User user) {
+        this(id, title, description, createdAt, status, user, null, 0);
+    }
 }
\ No newline at end of file
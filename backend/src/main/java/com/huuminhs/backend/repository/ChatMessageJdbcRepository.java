@@ -0,0 +1,118 @@
+package com.huuminhs.backend.repository;
+
+import com.huuminhs.backend.dto.ChatMessage;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chat history in a table range-partitioned by day on {@code sent_at}.
+ * <p>
+ * Hibernate cannot declare partitioned tables, so the table and its partitions are created here.
+ * Retention drops whole partitions, which is a catalog change instead of a mass DELETE. The
+ * primary key {@code (stream_id, sent_at, id)} doubles as the index for keyset replay.
+ */
+@Repository
+public class ChatMessageJdbcRepository {
+
+    private static final String PARTITION_PREFIX = "chat_messages_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ChatMessageJdbcRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public void createTableIfNotExists() {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS chat_messages_id_seq");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS chat_messages (" +
+                "id BIGINT NOT NULL DEFAULT nextval('chat_messages_id_seq'), " +
+                "stream_id BIGINT NOT NULL, " +
+                "username VARCHAR(255) NOT NULL, " +
+                "text VARCHAR(2000) NOT NULL, " +
+                "sent_at TIMESTAMPTZ NOT NULL, " +
+                "PRIMARY KEY (stream_id, sent_at, id)" +
+                ") PARTITION BY RANGE (sent_at)");
+    }
+
+    /**
+     * Creates the daily partitions from {@code from} for {@code days} days, where missing.
+     */
+    public void createPartitions(LocalDate from, int days) {
+        for (int i = 0; i < days; i++) {
+            LocalDate day = from.plusDays(i);
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(day) +
+                    " PARTITION OF chat_messages FOR VALUES FROM ('" + day + " 00:00:00+00') TO ('" +
+                    day.plusDays(1) + " 00:00:00+00')");
+        }
+    }
+
+    /**
+     * Drops the daily partitions of days before {@code before}.
+     *
+     * @return the number of partitions dropped
+     */
+    public int dropPartitionsBefore(LocalDate before) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = 'chat_messages'", String.class);
+        String cutoff = partitionName(before);
+        int dropped = 0;
+        for (String partition : partitions) {
+            // Names sort like their dates
+            if (partition.startsWith(PARTITION_PREFIX) && partition.compareTo(cutoff) < 0) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * Inserts all rows in one statement, the columns bound as arrays. Times are passed as epoch
+     * milliseconds so no time zone conversion happens on the way.
+     */
+    public int insertBatch(Long[] streamIds, String[] usernames, String[] texts, Long[] sentAtMillis) {
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement("INSERT INTO chat_messages (stream_id, username, text, sent_at) " +
+                    "SELECT m.stream_id, m.username, m.text, to_timestamp(m.sent_at / 1000.0) " +
+                    "FROM unnest(?::bigint[], ?::varchar[], ?::varchar[], ?::bigint[]) AS m(stream_id, username, text, sent_at)");
+            ps.setArray(1, con.createArrayOf("bigint", streamIds));
+            ps.setArray(2, con.createArrayOf("varchar", usernames));
+            ps.setArray(3, con.createArrayOf("varchar", texts));
+            ps.setArray(4, con.createArrayOf("bigint", sentAtMillis));
+            return ps;
+        });
+    }
+
+    /**
+     * @return up to {@code limit} messages of a stream after the given position, oldest first
+     */
+    public List<ChatMessage> findPage(Long streamId, long afterSentAtMillis, long afterId, int limit) {
+        List<ChatMessage> messages = new ArrayList<>(Math.min(limit, 1024));
+        jdbcTemplate.query(
+                "SELECT id, username, text, (extract(epoch FROM sent_at) * 1000)::bigint FROM chat_messages " +
+                "WHERE stream_id = ? AND sent_at >= to_timestamp(?::bigint / 1000.0) " +
+                // The plain bound prunes older partitions, the row comparison alone does not
+                "AND (sent_at, id) > (to_timestamp(?::bigint / 1000.0), ?) " +
+                "ORDER BY sent_at, id LIMIT ?",
+                rs -> {
+                    messages.add(new ChatMessage(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getLong(4)));
+                },
+                streamId, afterSentAtMillis, afterSentAtMillis, afterId, limit);
+        return messages;
+    }
+
+    static String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + day.format(PARTITION_SUFFIX);
+    }
+}
@@ -0,0 +1,47 @@
+package com.huuminhs.backend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads of the following feeds, which {@link NotificationJdbcRepository} keeps up to date and
+ * {@link FollowJdbcRepository#unfollow} prunes.
+ */
+@Repository
+public class FeedJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FeedJdbcRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Slices a page out of the user's feed in the database, so only the page is transferred.
+     *
+     * @param afterStreamId the last stream ID of the previous page, null for the head of the feed
+     * @return up to {@code limit} stream IDs, newest first; empty if the cursor is no longer in the feed
+     */
+    public List<Long> findPage(long userId, Long afterStreamId, int limit) {
+        List<Long> streamIds = new ArrayList<>(limit);
+        jdbcTemplate.query(
+                "SELECT f.stream_ids[p.start : p.start + ? - 1] FROM user_feeds f " +
+                "CROSS JOIN LATERAL (SELECT CASE WHEN ?::bigint IS NULL THEN 1 " +
+                "ELSE array_position(f.stream_ids, ?::bigint) + 1 END AS start) p " +
+                "WHERE f.user_id = ?",
+                rs -> {
+                    Array page = rs.getArray(1);
+                    if (page != null) {
+                        streamIds.addAll(Arrays.asList((Long[]) page.getArray()));
+                    }
+                },
+                limit, afterStreamId, afterStreamId, userId);
+        return streamIds;
+    }
+}
@@ -0,0 +1,75 @@
+package com.huuminhs.backend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+
+/**
+ * The follow graph, one row per follower and followed user.
+ * <p>
+ * The primary key leads with the followed user, so the followers of a streamer are read as a
+ * range of one index in follower order, the order the notification fan-out walks them in.
+ */
+@Repository
+public class FollowJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FollowJdbcRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public void createTableIfNotExists() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS follows (" +
+                "followee_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE, " +
+                "follower_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE, " +
+                "created_at TIMESTAMPTZ NOT NULL DEFAULT now(), " +
+                "PRIMARY KEY (followee_id, follower_id)" +
+                ")");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS follows_follower_idx ON follows (follower_id, followee_id)");
+    }
+
+    /**
+     * @return false if the follow already existed
+     */
+    public boolean follow(long followerId, long followeeId) {
+        return jdbcTemplate.update(
+                "INSERT INTO follows (followee_id, follower_id) VALUES (?, ?) ON CONFLICT DO NOTHING",
+                followeeId, followerId) > 0;
+    }
+
+    /**
+     * Also takes the followed user's streams, archived or not, out of the follower's feed, in the
+     * same statement so the feed never lists a creator the user no longer follows.
+     *
+     * @return false if there was no such follow
+     */
+    public boolean unfollow(long followerId, long followeeId) {
+        Integer removed = jdbcTemplate.queryForObject(
+                "WITH removed AS (" +
+                "DELETE FROM follows WHERE followee_id = ? AND follower_id = ? RETURNING followee_id, follower_id" +
+                "), pruned AS (" +
+                "UPDATE user_feeds f SET stream_ids = ARRAY(" +
+                "SELECT t.id FROM unnest(f.stream_ids) WITH ORDINALITY t(id, n) " +
+                "WHERE NOT EXISTS (SELECT 1 FROM streams s WHERE s.id = t.id AND s.user_id = r.followee_id) " +
+                "AND NOT EXISTS (SELECT 1 FROM streams_archive a WHERE a.id = t.id AND a.user_id = r.followee_id) " +
+                "ORDER BY t.n) " +
+                "FROM removed r WHERE f.user_id = r.follower_id" +
+                ") SELECT count(*) FROM removed",
+                Integer.class, followeeId, followerId);
+        return removed != null && removed > 0;
+    }
+
+    public boolean isFollowing(long followerId, long followeeId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM follows WHERE followee_id = ? AND follower_id = ?)",
+                Boolean.class, followeeId, followerId));
+    }
+
+    public long countFollowers(long followeeId) {
+        Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM follows WHERE followee_id = ?",
+                Long.class, followeeId);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,173 @@
+package com.huuminhs.backend.repository;
+
+import com.huuminhs.backend.dto.NotificationResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stream events waiting to be fanned out to the followers of the stream's creator, and what they
+ * turn into: a notification per follower for go-live events, and an entry at the head of every
+ * follower's feed in {@code user_feeds} for all events.
+ * <p>
+ * An event row doubles as the progress of its fan-out: {@code last_follower_id} is the highest
+ * follower reached so far, advanced in the same transaction as each chunk, so a fan-out
+ * interrupted by a crash resumes where it stopped without notifying anyone twice.
+ * <p>
+ * Notifications carry no foreign keys, which keeps the chunk inserts free of per-row lookups;
+ * those of deleted streams are left out by the join when they are read.
+ */
+@Repository
+public class NotificationJdbcRepository {
+
+    /**
+     * A claimed event and the fan-out progress it was claimed at.
+     */
+    public record Event(long id, long streamId, long streamerId, long createdAtMillis, long lastFollowerId,
+                        boolean notifyFollowers) {
+    }
+
+    /**
+     * Outcome of fanning an event out to one chunk of followers.
+     */
+    public record Chunk(int followers, long lastFollowerId) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public NotificationJdbcRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public void createTablesIfNotExist() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS fanout_events (" +
+                "id BIGSERIAL PRIMARY KEY, " +
+                "stream_id BIGINT NOT NULL, " +
+                "streamer_id BIGINT NOT NULL, " +
+                "created_at TIMESTAMPTZ NOT NULL DEFAULT now(), " +
+                "last_follower_id BIGINT NOT NULL DEFAULT 0" +
+                ")");
+        // Events that only update the feeds, such as a stream being created
+        jdbcTemplate.execute("ALTER TABLE fanout_events ADD COLUMN IF NOT EXISTS notify BOOLEAN NOT NULL DEFAULT true");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS notifications (" +
+                "id BIGSERIAL PRIMARY KEY, " +
+                "user_id BIGINT NOT NULL, " +
+                "stream_id BIGINT NOT NULL, " +
+                "created_at TIMESTAMPTZ NOT NULL, " +
+                "read_at TIMESTAMPTZ" +
+                ")");
+        // Only unread rows are indexed, so the index stays small however long the history gets
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS notifications_unread_idx " +
+                "ON notifications (user_id, id DESC) WHERE read_at IS NULL");
+        // Stream IDs newest first, capped, one row per user so reading a feed is a single lookup
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS user_feeds (" +
+                "user_id BIGINT PRIMARY KEY, " +
+                "stream_ids BIGINT[] NOT NULL" +
+                ")");
+    }
+
+    /**
+     * Queues one event per stream, for the streams' creators.
+     *
+     * @param notify whether followers get a notification, or only the feed entry
+     */
+    public int insertEvents(Long[] streamIds, boolean notify) {
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement("INSERT INTO fanout_events (stream_id, streamer_id, notify) " +
+                    "SELECT id, user_id, ? FROM streams WHERE id = ANY (?::bigint[]) ORDER BY id");
+            ps.setBoolean(1, notify);
+            ps.setArray(2, con.createArrayOf("bigint", streamIds));
+            return ps;
+        });
+    }
+
+    /**
+     * Locks the oldest event no other transaction is working on. Must run in a transaction, which
+     * holds the claim until it ends.
+     *
+     * @return the event, or null if there is none to claim
+     */
+    public Event claimEvent() {
+        List<Event> events = jdbcTemplate.query(
+                "SELECT id, stream_id, streamer_id, (extract(epoch FROM created_at) * 1000)::bigint, last_follower_id, " +
+                "notify FROM fanout_events ORDER BY id LIMIT 1 FOR UPDATE SKIP LOCKED",
+                (rs, rowNum) -> new Event(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5),
+                        rs.getBoolean(6)));
+        return events.isEmpty() ? null : events.get(0);
+    }
+
+    /**
+     * Fans the event out to the next {@code chunkSize} followers of its streamer in one statement.
+     * The stream moves to the head of each follower's feed, which keeps its {@code feedCapacity}
+     * newest entries.
+     */
+    public Chunk fanOut(Event event, int chunkSize, int feedCapacity) {
+        return jdbcTemplate.queryForObject(
+                "WITH chunk AS (" +
+                "SELECT follower_id FROM follows WHERE followee_id = ? AND follower_id > ? " +
+                "ORDER BY follower_id LIMIT ?" +
+                "), notified AS (" +
+                "INSERT INTO notifications (user_id, stream_id, created_at) " +
+                "SELECT follower_id, ?, to_timestamp(?::bigint / 1000.0) FROM chunk WHERE ? " +
+                "), fed AS (" +
+                // Feed rows are locked in user order, so concurrent chunks cannot deadlock
+                "INSERT INTO user_feeds (user_id, stream_ids) " +
+                "SELECT follower_id, ARRAY[?::bigint] FROM chunk ORDER BY follower_id " +
+                "ON CONFLICT (user_id) DO UPDATE SET stream_ids = " +
+                "(EXCLUDED.stream_ids || array_remove(user_feeds.stream_ids, EXCLUDED.stream_ids[1]))[1:?]" +
+                ") SELECT count(*), coalesce(max(follower_id), 0) FROM chunk",
+                (rs, rowNum) -> new Chunk(rs.getInt(1), rs.getLong(2)),
+                event.streamerId(), event.lastFollowerId(), chunkSize,
+                event.streamId(), event.createdAtMillis(), event.notifyFollowers(),
+                event.streamId(), feedCapacity);
+    }
+
+    public void advanceEvent(long eventId, long lastFollowerId) {
+        jdbcTemplate.update("UPDATE fanout_events SET last_follower_id = ? WHERE id = ?", lastFollowerId, eventId);
+    }
+
+    public void deleteEvent(long eventId) {
+        jdbcTemplate.update("DELETE FROM fanout_events WHERE id = ?", eventId);
+    }
+
+    /**
+     * @return up to {@code limit} unread notifications of a user older than {@code beforeId}, newest first
+     */
+    public List<NotificationResponse> findUnread(long userId, Long beforeId, int limit) {
+        List<NotificationResponse> notifications = new ArrayList<>(Math.min(limit, 1024));
+        jdbcTemplate.query(
+                "SELECT n.id, n.stream_id, s.title, u.username, (extract(epoch FROM n.created_at) * 1000)::bigint " +
+                "FROM notifications n " +
+                "JOIN streams s ON s.id = n.stream_id " +
+                "JOIN users u ON u.id = s.user_id " +
+                "WHERE n.user_id = ? AND n.read_at IS NULL AND n.id < ? " +
+                "ORDER BY n.id DESC LIMIT ?",
+                rs -> {
+                    notifications.add(new NotificationResponse(rs.getLong(1), rs.getLong(2), rs.getString(3),
+                            rs.getString(4), rs.getLong(5)));
+                },
+                userId, beforeId != null ? beforeId : Long.MAX_VALUE, limit);
+        return notifications;
+    }
+
+    /**
+     * @return false if the notification does not exist, is not the user's or was already read
+     */
+    public boolean markRead(long userId, long notificationId) {
+        return jdbcTemplate.update(
+                "UPDATE notifications SET read_at = now() WHERE id = ? AND user_id = ? AND read_at IS NULL",
+                notificationId, userId) > 0;
+    }
+
+    /**
+     * @return the number of notifications marked read
+     */
+    public int markAllRead(long userId) {
+        return jdbcTemplate.update("UPDATE notifications SET read_at = now() WHERE user_id = ? AND read_at IS NULL",
+                userId);
+    }
+}
@@ -0,0 +1,248 @@
+package com.huuminhs.backend.repository;
+
+import com.huuminhs.backend.model.ReactionType;
+import com.huuminhs.backend.model.Stream;
+import com.huuminhs.backend.model.StreamStatus;
+import com.huuminhs.backend.model.User;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * ENDED streams moved out of {@code streams}, in a table range-partitioned by month on
+ * {@code created_at}.
+ * <p>
+ * Archived rows are read-only. Their reaction totals are copied into a {@code reactions} array
+ * when they are moved, since the rows of {@code stream_reactions} go with the stream. Old
+ * partitions can be detached, which leaves them as plain tables for export or dropping.
+ * <p>
+ * The read queries return the same columns as {@link StreamJdbcRepository}, so both can feed the
+ * same row handler. Every archived stream is ENDED and sorts after all streams still in
+ * {@code streams}, so the archive only continues a listing once the hot table has run out.
+ */
+@Repository
+public class StreamArchiveJdbcRepository {
+
+    public record ArchivedStream(Stream stream, long[] reactions) {
+    }
+
+    private static final String PARTITION_PREFIX = "streams_archive_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String SELECT =
+            "SELECT a.id, a.title, a.description, a.status, u.username, a.thumbnail_hash, " + reactionColumns() +
+            "FROM streams_archive a JOIN users u ON u.id = a.user_id ";
+
+    private static final String CURSOR_JOIN =
+            "CROSS JOIN (SELECT id, created_at FROM streams_archive WHERE id = ?) c ";
+
+    private static final String AFTER_CURSOR =
+            "(a.created_at < c.created_at OR (a.created_at = c.created_at AND a.id < c.id)) ";
+
+    private static final String ORDER_BY_TIME = "ORDER BY a.created_at DESC, a.id DESC LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StreamArchiveJdbcRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public void createTableIfNotExists() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS streams_archive (" +
+                "id BIGINT NOT NULL, " +
+                "title VARCHAR(255) NOT NULL, " +
+                "description TEXT, " +
+                "created_at TIMESTAMP NOT NULL, " +
+                "status SMALLINT NOT NULL, " +
+                "user_id BIGINT NOT NULL, " +
+                "thumbnail_hash VARCHAR(64), " +
+                "reactions BIGINT[] NOT NULL, " +
+                "archived_at TIMESTAMPTZ NOT NULL DEFAULT now(), " +
+                "PRIMARY KEY (id, created_at)" +
+                ") PARTITION BY RANGE (created_at)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS streams_archive_created_at_idx " +
+                "ON streams_archive (created_at DESC, id DESC)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS streams_archive_user_idx " +
+                "ON streams_archive (user_id, created_at DESC, id DESC)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS streams_archive_thumbnail_idx " +
+                "ON streams_archive (thumbnail_hash)");
+    }
+
+    /**
+     * Creates the monthly partitions of the ENDED streams created before {@code before}, from the
+     * month of the oldest one, where missing.
+     */
+    public void createPartitionsFor(LocalDateTime before) {
+        Timestamp oldest = jdbcTemplate.queryForObject(
+                "SELECT min(created_at) FROM streams WHERE status = ? AND created_at < ?",
+                Timestamp.class, StreamStatus.ENDED.ordinal(), Timestamp.valueOf(before));
+        if (oldest == null) {
+            return;
+        }
+        YearMonth last = YearMonth.from(before);
+        for (YearMonth month = YearMonth.from(oldest.toLocalDateTime()); !month.isAfter(last); month = month.plusMonths(1)) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month) +
+                    " PARTITION OF streams_archive FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" +
+                    month.plusMonths(1).atDay(1) + "')");
+        }
+    }
+
+    /**
+     * Moves up to {@code batchSize} ENDED streams created before {@code before}, oldest first, in
+     * one statement. Rows locked by a concurrent update are skipped and picked up by a later batch.
+     *
+     * @return the IDs of the streams moved
+     */
+    public List<Long> archiveBatch(LocalDateTime before, int batchSize) {
+        // Every part of the statement sees the same snapshot, so the reactions are read before the cascade removes them
+        return jdbcTemplate.queryForList(
+                "WITH moved AS (" +
+                "DELETE FROM streams s WHERE s.id IN (" +
+                "SELECT id FROM streams WHERE status = ? AND created_at < ? " +
+                "ORDER BY created_at, id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+                "RETURNING s.id, s.title, s.description, s.created_at, s.status, s.user_id, s.thumbnail_hash) " +
+                "INSERT INTO streams_archive (id, title, description, created_at, status, user_id, thumbnail_hash, reactions) " +
+                "SELECT m.id, m.title, m.description, m.created_at, m.status, m.user_id, m.thumbnail_hash, " +
+                "(SELECT ARRAY[" + reactionTotals() + "] FROM stream_reactions r WHERE r.stream_id = m.id) " +
+                "FROM moved m RETURNING id",
+                Long.class, StreamStatus.ENDED.ordinal(), Timestamp.valueOf(before), batchSize);
+    }
+
+    /**
+     * Detaches the monthly partitions of months before {@code before}. Their streams disappear
+     * from every read; the tables stay in place until they are exported and dropped by hand.
+     *
+     * @return the names of the partitions detached
+     */
+    public List<String> detachPartitionsBefore(LocalDate before) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = 'streams_archive'", String.class);
+        String cutoff = partitionName(YearMonth.from(before));
+        List<String> detached = new ArrayList<>();
+        for (String partition : partitions) {
+            // Names sort like their months
+            if (partition.startsWith(PARTITION_PREFIX) && partition.compareTo(cutoff) < 0) {
+                // Waits for readers of the partition instead of locking out every reader of the archive
+                jdbcTemplate.execute("ALTER TABLE streams_archive DETACH PARTITION " + partition + " CONCURRENTLY");
+                detached.add(partition);
+            }
+        }
+        return detached;
+    }
+
+    public void findAll(Long cursor, int fetchLimit, RowCallbackHandler handler) {
+        if (cursor == null) {
+            jdbcTemplate.query(SELECT + ORDER_BY_TIME, handler, fetchLimit);
+        } else {
+            jdbcTemplate.query(SELECT + CURSOR_JOIN + "WHERE " + AFTER_CURSOR + ORDER_BY_TIME,
+                    handler, cursor, fetchLimit);
+        }
+    }
+
+    public List<ArchivedStream> findAll(Long cursor, int fetchLimit) {
+        List<ArchivedStream> streams = new ArrayList<>();
+        findAll(cursor, fetchLimit, rs -> {
+            streams.add(mapRow(rs));
+        });
+        return streams;
+    }
+
+    public void findByUsername(String username, Long cursor, int fetchLimit, RowCallbackHandler handler) {
+        if (cursor == null) {
+            jdbcTemplate.query(SELECT + "WHERE u.username = ? " + ORDER_BY_TIME, handler, username, fetchLimit);
+        } else {
+            jdbcTemplate.query(SELECT + CURSOR_JOIN + "WHERE u.username = ? AND " + AFTER_CURSOR + ORDER_BY_TIME,
+                    handler, cursor, username, fetchLimit);
+        }
+    }
+
+    public List<ArchivedStream> findByUsername(String username, Long cursor, int fetchLimit) {
+        List<ArchivedStream> streams = new ArrayList<>();
+        findByUsername(username, cursor, fetchLimit, rs -> {
+            streams.add(mapRow(rs));
+        });
+        return streams;
+    }
+
+    public List<ArchivedStream> findByIds(Collection<Long> streamIds) {
+        List<ArchivedStream> streams = new ArrayList<>();
+        if (streamIds.isEmpty()) {
+            return streams;
+        }
+        jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(SELECT + "WHERE a.id = ANY (?::bigint[])");
+                    ps.setArray(1, con.createArrayOf("bigint", streamIds.toArray()));
+                    return ps;
+                },
+                rs -> {
+                    streams.add(mapRow(rs));
+                });
+        return streams;
+    }
+
+    public boolean existsById(Long streamId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM streams_archive WHERE id = ?)", Boolean.class, streamId));
+    }
+
+    public boolean existsByThumbnailHash(String thumbnailHash) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM streams_archive WHERE thumbnail_hash = ?)", Boolean.class, thumbnailHash));
+    }
+
+    /**
+     * Builds a detached entity with only the columns the list endpoints show; the creator holds
+     * just the username.
+     */
+    private static ArchivedStream mapRow(ResultSet rs) throws SQLException {
+        User creator = new User();
+        creator.setUsername(rs.getString(5));
+        Stream stream = new Stream(rs.getLong(1), rs.getString(2), rs.getString(3), null,
+                StreamStatus.values()[rs.getInt(4)], creator, rs.getString(6), 0);
+        long[] reactions = new long[ReactionType.values().length];
+        for (int i = 0; i < reactions.length; i++) {
+            reactions[i] = rs.getLong(StreamJdbcRepository.FIRST_REACTION_COLUMN + i);
+        }
+        return new ArchivedStream(stream, reactions);
+    }
+
+    // Types added after a stream was archived read as zero
+    private static String reactionColumns() {
+        StringBuilder columns = new StringBuilder();
+        for (ReactionType type : ReactionType.values()) {
+            columns.append(type.ordinal() == 0 ? "" : ", ")
+                    .append("coalesce(a.reactions[").append(type.ordinal() + 1).append("], 0)");
+        }
+        return columns.append(' ').toString();
+    }
+
+    private static String reactionTotals() {
+        StringBuilder totals = new StringBuilder();
+        for (ReactionType type : ReactionType.values()) {
+            totals.append(type.ordinal() == 0 ? "" : ", ")
+                    .append("coalesce(sum(r.total) FILTER (WHERE r.reaction = ").append(type.ordinal()).append("), 0)");
+        }
+        return totals.toString();
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+}
@@ -0,0 +1,109 @@
+package com.huuminhs.backend.repository;
+
+import com.huuminhs.backend.model.ReactionType;
+import com.huuminhs.backend.model.StreamStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Plain JDBC queries for the stream list endpoints that hand rows to a callback as they come
+ * off the result set instead of building an entity list.
+ * <p>
+ * Every query joins the creator and the reaction totals so no per-row lookup is needed, and uses
+ * the same ordering and cursor semantics as the JPQL queries in {@link StreamRepository}.
+ */
+@Repository
+public class StreamJdbcRepository {
+
+    private static final int FETCH_SIZE = 64;
+
+    /**
+     * Column of the first reaction total; one column per {@link ReactionType} follows in ordinal order.
+     */
+    public static final int FIRST_REACTION_COLUMN = 7;
+
+    private static final String SELECT =
+            "SELECT s.id, s.title, s.description, s.status, u.username, s.thumbnail_hash, " + reactionColumns() +
+            "FROM streams s JOIN users u ON u.id = s.user_id " +
+            "CROSS JOIN LATERAL (SELECT " + reactionTotals() + " FROM stream_reactions r WHERE r.stream_id = s.id) rx ";
+
+    // Position of the cursor row, joined once instead of one sub-select per comparison
+    private static final String CURSOR_JOIN =
+            "CROSS JOIN (SELECT id, status, created_at FROM streams WHERE id = ?) c ";
+
+    private static final String AFTER_CURSOR_BY_STATUS =
+            "(s.status > c.status OR (s.status = c.status AND " +
+            "(s.created_at < c.created_at OR (s.created_at = c.created_at AND s.id < c.id)))) ";
+
+    private static final String AFTER_CURSOR_BY_TIME =
+            "(s.created_at < c.created_at OR (s.created_at = c.created_at AND s.id < c.id)) ";
+
+    private static final String ORDER_BY_STATUS = "ORDER BY s.status ASC, s.created_at DESC, s.id DESC LIMIT ?";
+    private static final String ORDER_BY_TIME = "ORDER BY s.created_at DESC, s.id DESC LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public StreamJdbcRepository(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        // The PostgreSQL driver only uses a server-side cursor inside a transaction
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public void findAll(Long cursor, int fetchLimit, RowCallbackHandler handler) {
+        if (cursor == null) {
+            query(SELECT + ORDER_BY_STATUS, handler, fetchLimit);
+        } else {
+            query(SELECT + CURSOR_JOIN + "WHERE " + AFTER_CURSOR_BY_STATUS + ORDER_BY_STATUS,
+                    handler, cursor, fetchLimit);
+        }
+    }
+
+    public void findByUsername(String username, Long cursor, int fetchLimit, RowCallbackHandler handler) {
+        if (cursor == null) {
+            query(SELECT + "WHERE u.username = ? " + ORDER_BY_STATUS, handler, username, fetchLimit);
+        } else {
+            query(SELECT + CURSOR_JOIN + "WHERE u.username = ? AND " + AFTER_CURSOR_BY_STATUS + ORDER_BY_STATUS,
+                    handler, cursor, username, fetchLimit);
+        }
+    }
+
+    public void findByStatus(StreamStatus status, Long cursor, int fetchLimit, RowCallbackHandler handler) {
+        if (cursor == null) {
+            query(SELECT + "WHERE s.status = ? " + ORDER_BY_TIME, handler, status.ordinal(), fetchLimit);
+        } else {
+            query(SELECT + CURSOR_JOIN + "WHERE s.status = ? AND " + AFTER_CURSOR_BY_TIME + ORDER_BY_TIME,
+                    handler, cursor, status.ordinal(), fetchLimit);
+        }
+    }
+
+    private static String reactionColumns() {
+        StringBuilder columns = new StringBuilder();
+        for (ReactionType type : ReactionType.values()) {
+            columns.append(type.ordinal() == 0 ? "" : ", ").append("rx.r").append(type.ordinal());
+        }
+        return columns.append(' ').toString();
+    }
+
+    // One row per stream even without reactions, as an aggregate without GROUP BY always returns one
+    private static String reactionTotals() {
+        StringBuilder totals = new StringBuilder();
+        for (ReactionType type : ReactionType.values()) {
+            totals.append(type.ordinal() == 0 ? "" : ", ")
+                    .append("coalesce(sum(r.total) FILTER (WHERE r.reaction = ").append(type.ordinal())
+                    .append("), 0) AS r").append(type.ordinal());
+        }
+        return totals.toString();
+    }
+
+    private void query(String sql, RowCallbackHandler handler, Object... args) {
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(sql, handler, args));
+    }
+}
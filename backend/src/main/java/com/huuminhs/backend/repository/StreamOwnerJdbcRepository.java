@@ -0,0 +1,170 @@
+package com.huuminhs.backend.repository;
+
+import com.huuminhs.backend.model.Stream;
+import com.huuminhs.backend.model.StreamStatus;
+import com.huuminhs.backend.model.User;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Writes that only touch streams of a given creator.
+ * <p>
+ * Ownership is part of the WHERE clause, joined to the creator by username, so the check and the
+ * write are one statement and no entity is loaded. Rows of other creators and missing rows are
+ * both simply not matched; {@link #findExistingIn} tells them apart afterwards when needed. The
+ * IDs are bound as arrays, so each statement is one round trip however many streams it covers.
+ */
+@Repository
+public class StreamOwnerJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StreamOwnerJdbcRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Outcome of {@link #updateOwned}: {@code stream} is the updated stream with its creator, null
+     * when nothing was written; {@code owner} is the username of the creator, null when there is no
+     * stream with this ID.
+     */
+    public record OwnedUpdate(Stream stream, String owner) {
+    }
+
+    /**
+     * Creator of a stream and the hash of its current thumbnail, null if it has none.
+     */
+    public record OwnerAndThumbnail(String owner, String thumbnailHash) {
+    }
+
+    /**
+     * Sets title and description and raises the version, if the stream belongs to the user and,
+     * when {@code expectedVersion} is given, is still at that version. The statement also returns
+     * the creator of the stream, so a write that matched nothing can be explained without another
+     * query.
+     */
+    public OwnedUpdate updateOwned(Long streamId, String title, String description, String username,
+                                   Long expectedVersion) {
+        // Under READ COMMITTED the version is checked again against a row updated concurrently
+        String sql = "WITH target AS (" +
+                "SELECT s.id, u.username FROM streams s JOIN users u ON u.id = s.user_id WHERE s.id = ?), " +
+                "updated AS (" +
+                "UPDATE streams s SET title = ?, description = ?, version = s.version + 1 FROM target t " +
+                "WHERE s.id = t.id AND t.username = ? " + (expectedVersion != null ? "AND s.version = ? " : "") +
+                "RETURNING s.id, s.title, s.description, s.created_at, s.status, s.thumbnail_hash, s.version, s.user_id) " +
+                "SELECT p.id, p.title, p.description, p.created_at, p.status, p.thumbnail_hash, p.version, p.user_id, " +
+                "t.username FROM target t LEFT JOIN updated p ON p.id = t.id";
+        Object[] args = expectedVersion != null
+                ? new Object[]{streamId, title, description, username, expectedVersion}
+                : new Object[]{streamId, title, description, username};
+        return jdbcTemplate.query(sql,
+                (rs, rowNum) -> {
+                    String owner = rs.getString(9);
+                    if (rs.getObject(1) == null) {
+                        return new OwnedUpdate(null, owner);
+                    }
+                    User creator = new User();
+                    creator.setId(rs.getLong(8));
+                    creator.setUsername(owner);
+                    return new OwnedUpdate(new Stream(rs.getLong(1), rs.getString(2), rs.getString(3),
+                            rs.getTimestamp(4).toLocalDateTime(), StreamStatus.values()[rs.getInt(5)], creator,
+                            rs.getString(6), rs.getLong(7)), owner);
+                },
+                args).stream().findFirst().orElse(new OwnedUpdate(null, null));
+    }
+
+    /**
+     * Deletes the stream from {@code streams} or, once archived, from {@code streams_archive}.
+     *
+     * @return whether the user had a stream with this ID
+     */
+    public boolean deleteOwned(Long streamId, String username) {
+        Integer deleted = jdbcTemplate.queryForObject(
+                "WITH hot AS (DELETE FROM streams s USING users u " +
+                "WHERE s.id = ? AND u.id = s.user_id AND u.username = ? RETURNING s.id), " +
+                "archived AS (DELETE FROM streams_archive a USING users u " +
+                "WHERE a.id = ? AND u.id = a.user_id AND u.username = ? RETURNING a.id) " +
+                "SELECT (SELECT count(*) FROM hot) + (SELECT count(*) FROM archived)",
+                Integer.class, streamId, username, streamId, username);
+        return deleted != null && deleted > 0;
+    }
+
+    /**
+     * @return the username of the stream's creator, empty if there is no such stream
+     */
+    public Optional<String> findOwnerUsername(Long streamId) {
+        return jdbcTemplate.queryForList("SELECT u.username FROM streams s JOIN users u ON u.id = s.user_id " +
+                "WHERE s.id = ?", String.class, streamId).stream().findFirst();
+    }
+
+    /**
+     * @return the creator and current thumbnail of the stream, in one query; empty if there is no such stream
+     */
+    public Optional<OwnerAndThumbnail> findOwnerAndThumbnailHash(Long streamId) {
+        return jdbcTemplate.query("SELECT u.username, s.thumbnail_hash FROM streams s JOIN users u ON u.id = s.user_id " +
+                        "WHERE s.id = ?",
+                (rs, rowNum) -> new OwnerAndThumbnail(rs.getString(1), rs.getString(2)),
+                streamId).stream().findFirst();
+    }
+
+    /**
+     * Sets title and description of each stream, the three arrays matched by index. Each ID may
+     * appear only once.
+     *
+     * @return IDs that were updated
+     */
+    public List<Long> updateAllOwned(Long[] streamIds, String[] titles, String[] descriptions, String username) {
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("UPDATE streams s SET title = v.title, description = v.description, version = s.version + 1 " +
+                    "FROM unnest(?::bigint[], ?::varchar[], ?::text[]) AS v(id, title, description), users u " +
+                    "WHERE s.id = v.id AND u.id = s.user_id AND u.username = ? RETURNING s.id");
+            ps.setArray(1, con.createArrayOf("bigint", streamIds));
+            ps.setArray(2, con.createArrayOf("varchar", titles));
+            ps.setArray(3, con.createArrayOf("text", descriptions));
+            ps.setString(4, username);
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1));
+    }
+
+    /**
+     * Deletes from {@code streams} and {@code streams_archive} alike.
+     *
+     * @return IDs that were deleted
+     */
+    public List<Long> deleteAllOwned(Collection<Long> streamIds, String username) {
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("WITH hot AS (DELETE FROM streams s USING users u " +
+                    "WHERE s.id = ANY (?::bigint[]) AND u.id = s.user_id AND u.username = ? RETURNING s.id), " +
+                    "archived AS (DELETE FROM streams_archive a USING users u " +
+                    "WHERE a.id = ANY (?::bigint[]) AND u.id = a.user_id AND u.username = ? RETURNING a.id) " +
+                    "SELECT id FROM hot UNION ALL SELECT id FROM archived");
+            Array ids = con.createArrayOf("bigint", streamIds.toArray());
+            ps.setArray(1, ids);
+            ps.setString(2, username);
+            ps.setArray(3, ids);
+            ps.setString(4, username);
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1));
+    }
+
+    /**
+     * @return IDs among {@code streamIds} that have a row, archived or not, whoever owns it
+     */
+    public List<Long> findExistingIn(Collection<Long> streamIds) {
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("SELECT id FROM streams WHERE id = ANY (?::bigint[]) " +
+                    "UNION ALL SELECT id FROM streams_archive WHERE id = ANY (?::bigint[])");
+            Array ids = con.createArrayOf("bigint", streamIds.toArray());
+            ps.setArray(1, ids);
+            ps.setArray(2, ids);
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1));
+    }
+}
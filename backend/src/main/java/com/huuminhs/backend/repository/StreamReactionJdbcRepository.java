@@ -0,0 +1,86 @@
+package com.huuminhs.backend.repository;
+
+import com.huuminhs.backend.model.ReactionType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reaction totals, one row per stream and {@link ReactionType} ordinal.
+ * <p>
+ * Rows are only written by the periodic flush of the in-memory counters, which adds the deltas
+ * of all streams in one upsert. Rows are removed with their stream by the foreign key.
+ */
+@Repository
+public class StreamReactionJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StreamReactionJdbcRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public void createTableIfNotExists() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS stream_reactions (" +
+                "stream_id BIGINT NOT NULL REFERENCES streams (id) ON DELETE CASCADE, " +
+                "reaction SMALLINT NOT NULL, " +
+                "total BIGINT NOT NULL, " +
+                "PRIMARY KEY (stream_id, reaction)" +
+                ")");
+    }
+
+    /**
+     * Adds the deltas to the totals in one statement. Each (stream, reaction) pair may appear only
+     * once; pairs of streams that no longer exist are skipped.
+     * <p>
+     * Rows are upserted in key order so that flushes of several replicas lock them in the same
+     * order and cannot deadlock.
+     *
+     * @return the number of rows inserted or updated
+     */
+    public int addDeltas(Long[] streamIds, Short[] reactions, Long[] deltas) {
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement("INSERT INTO stream_reactions (stream_id, reaction, total) " +
+                    "SELECT d.stream_id, d.reaction, d.delta " +
+                    "FROM unnest(?::bigint[], ?::smallint[], ?::bigint[]) AS d(stream_id, reaction, delta) " +
+                    "JOIN streams s ON s.id = d.stream_id " +
+                    "ORDER BY d.stream_id, d.reaction " +
+                    "ON CONFLICT (stream_id, reaction) DO UPDATE SET total = stream_reactions.total + EXCLUDED.total");
+            ps.setArray(1, con.createArrayOf("bigint", streamIds));
+            ps.setArray(2, con.createArrayOf("smallint", reactions));
+            ps.setArray(3, con.createArrayOf("bigint", deltas));
+            return ps;
+        });
+    }
+
+    /**
+     * @return totals indexed by reaction ordinal, for the streams that have any
+     */
+    public Map<Long, long[]> findTotals(Collection<Long> streamIds) {
+        Map<Long, long[]> totals = new HashMap<>();
+        if (streamIds.isEmpty()) {
+            return totals;
+        }
+        int types = ReactionType.values().length;
+        jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(
+                            "SELECT stream_id, reaction, total FROM stream_reactions WHERE stream_id = ANY (?::bigint[])");
+                    ps.setArray(1, con.createArrayOf("bigint", streamIds.toArray()));
+                    return ps;
+                },
+                rs -> {
+                    int reaction = rs.getInt(2);
+                    // Types added by a newer version during a rolling deploy are ignored
+                    if (reaction < types) {
+                        totals.computeIfAbsent(rs.getLong(1), id -> new long[types])[reaction] = rs.getLong(3);
+                    }
+                });
+        return totals;
+    }
+}
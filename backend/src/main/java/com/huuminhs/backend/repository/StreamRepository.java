@@ -5,9 +5,12 @@ import com.huuminhs.backend.model.StreamStatus;
 import com.huuminhs.backend.model.User;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -57,4 +60,14 @@ public interface StreamRepository extends JpaRepository<Stream, Long> {
 
     @Query("SELECT s FROM Stream s WHERE s.status = :status ORDER BY s.createdAt DESC")
     List<Stream> findByStatusFirstPage(@Param("status") StreamStatus status, Pageable pageable);
+
+    @Query("SELECT s FROM Stream s JOIN FETCH s.user WHERE s.id IN :ids")
+    List<Stream> findAllWithUserByIdIn(@Param("ids") Collection<Long> ids);
+
+    boolean existsByThumbnailHash(String thumbnailHash);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Stream s SET s.thumbnailHash = :hash WHERE s.id = :id")
+    int updateThumbnailHash(@Param("id") Long id, @Param("hash") String hash);
 }
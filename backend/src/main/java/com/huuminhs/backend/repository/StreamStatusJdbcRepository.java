@@ -0,0 +1,79 @@
+package com.huuminhs.backend.repository;
+
+import com.huuminhs.backend.model.StreamStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set-based status queries for reconciling stream rows with MediaMTX.
+ * <p>
+ * The IDs are bound as a single {@code bigint[]} parameter and joined through {@code unnest}, so
+ * each statement is one round trip with a constant SQL text however many streams are involved.
+ * Callers are expected to run these inside a transaction; the lock is transaction-scoped.
+ */
+@Repository
+public class StreamStatusJdbcRepository {
+
+    private static final int LIVE = StreamStatus.LIVE.ordinal();
+    private static final int ENDED = StreamStatus.ENDED.ordinal();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StreamStatusJdbcRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * @return whether the advisory lock was acquired; it is released when the transaction ends
+     */
+    public boolean tryLock(long key) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, key));
+    }
+
+    /**
+     * @return IDs among {@code ids} whose row exists but is not LIVE
+     */
+    public List<Long> findNotLiveIn(Collection<Long> ids) {
+        return queryIds("SELECT s.id FROM streams s JOIN unnest(?::bigint[]) AS a(id) ON a.id = s.id " +
+                "WHERE s.status <> " + LIVE, ids);
+    }
+
+    /**
+     * @return IDs of LIVE rows that are not in {@code ids}
+     */
+    public List<Long> findLiveNotIn(Collection<Long> ids) {
+        return queryIds("SELECT s.id FROM streams s WHERE s.status = " + LIVE + " " +
+                "AND NOT EXISTS (SELECT 1 FROM unnest(?::bigint[]) AS a(id) WHERE a.id = s.id)", ids);
+    }
+
+    /**
+     * @return IDs that were actually changed
+     */
+    public List<Long> markLive(Collection<Long> ids) {
+        return queryIds("UPDATE streams s SET status = " + LIVE + " FROM unnest(?::bigint[]) AS a(id) " +
+                "WHERE s.id = a.id AND s.status <> " + LIVE + " RETURNING s.id", ids);
+    }
+
+    /**
+     * Only LIVE rows are ended, a stream that was never published stays CREATED.
+     *
+     * @return IDs that were actually changed
+     */
+    public List<Long> markEnded(Collection<Long> ids) {
+        return queryIds("UPDATE streams s SET status = " + ENDED + " FROM unnest(?::bigint[]) AS a(id) " +
+                "WHERE s.id = a.id AND s.status = " + LIVE + " RETURNING s.id", ids);
+    }
+
+    private List<Long> queryIds(String sql, Collection<Long> ids) {
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1));
+    }
+}
@@ -0,0 +1,90 @@
+package com.huuminhs.backend.security;
+
+import com.huuminhs.backend.exception.StreamNotFoundException;
+import com.huuminhs.backend.service.StreamService;
+import com.nimbusds.jwt.JWTClaimsSet;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.util.StringUtils;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Authenticates chat WebSocket handshakes with the same access tokens as the REST API.
+ * <p>
+ * Browsers cannot set headers on a WebSocket request, so the token may also be passed as the
+ * {@code access_token} query parameter. Connecting without a token gives a read-only session;
+ * an invalid, expired or revoked token fails the handshake instead of silently downgrading.
+ * The token's expiry and ID are kept on the session so that messages can be refused once it
+ * expires or is revoked.
+ */
+public class ChatHandshakeInterceptor implements HandshakeInterceptor {
+
+    public static final String STREAM_ID = "streamId";
+    public static final String USERNAME = "username";
+    public static final String TOKEN_ID = "tokenId";
+    public static final String TOKEN_EXPIRES_AT = "tokenExpiresAt";
+
+    private final JwtTokenProvider tokenProvider;
+    private final RevokedTokenStore revokedTokenStore;
+    private final StreamService streamService;
+
+    public ChatHandshakeInterceptor(JwtTokenProvider tokenProvider, RevokedTokenStore revokedTokenStore,
+                                    StreamService streamService) {
+        this.tokenProvider = tokenProvider;
+        this.revokedTokenStore = revokedTokenStore;
+        this.streamService = streamService;
+    }
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        // Mapped to /api/stream/*/chat
+        List<String> segments = UriComponentsBuilder.fromUri(request.getURI()).build().getPathSegments();
+        Long streamId;
+        try {
+            streamId = Long.valueOf(segments.get(segments.size() - 2));
+            streamService.getStreamById(streamId);
+        } catch (NumberFormatException | StreamNotFoundException e) {
+            response.setStatusCode(HttpStatus.NOT_FOUND);
+            return false;
+        }
+        attributes.put(STREAM_ID, streamId);
+
+        String token = getToken(request);
+        if (token != null) {
+            JWTClaimsSet claims = tokenProvider.verifyAccessToken(token);
+            if (claims == null || revokedTokenStore.isRevoked(claims.getJWTID())) {
+                response.setStatusCode(HttpStatus.UNAUTHORIZED);
+                return false;
+            }
+            attributes.put(USERNAME, claims.getSubject());
+            if (claims.getJWTID() != null) {
+                attributes.put(TOKEN_ID, claims.getJWTID());
+            }
+            if (claims.getExpirationTime() != null) {
+                attributes.put(TOKEN_EXPIRES_AT, claims.getExpirationTime().getTime());
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+
+    private String getToken(ServerHttpRequest request) {
+        String bearerToken = request.getHeaders().getFirst("Authorization");
+        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
+            return bearerToken.substring(7);
+        }
+        String token = UriComponentsBuilder.fromUri(request.getURI()).build().getQueryParams().getFirst("access_token");
+        return StringUtils.hasText(token) ? token : null;
+    }
+}
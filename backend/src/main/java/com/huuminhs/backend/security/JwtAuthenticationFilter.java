@@ -1,5 +1,6 @@
 package com.huuminhs.backend.security;
 
+import com.nimbusds.jwt.JWTClaimsSet;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,9 +15,11 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
+    private final RevokedTokenStore revokedTokenStore;
 
-    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider) {
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, RevokedTokenStore revokedTokenStore) {
         this.tokenProvider = tokenProvider;
+        this.revokedTokenStore = revokedTokenStore;
     }
 
     @Override
@@ -24,9 +27,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         String jwt = getJwtFromRequest(request);
 
-        if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-            Authentication authentication = tokenProvider.getAuthentication(jwt);
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        if (StringUtils.hasText(jwt)) {
+            JWTClaimsSet claims = tokenProvider.verifyAccessToken(jwt);
+            if (claims != null && !revokedTokenStore.isRevoked(claims.getJWTID())) {
+                Authentication authentication = tokenProvider.getAuthentication(claims, jwt);
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
         }
 
         filterChain.doFilter(request, response);
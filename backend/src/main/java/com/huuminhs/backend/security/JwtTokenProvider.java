@@ -25,9 +25,19 @@ import java.util.stream.Collectors;
 @Component
 public class JwtTokenProvider {
 
+    public static final String TOKEN_USE_CLAIM = "token_use";
+    public static final String TOKEN_USE_ACCESS = "access";
+    public static final String TOKEN_USE_REFRESH = "refresh";
+
+    // Database ID of the user, so requests do not have to look it up by username
+    public static final String USER_ID_CLAIM = "uid";
+
     @Value("${jwt.expiration}")
     private long jwtExpirationMs;
 
+    @Value("${jwt.refresh-expiration}")
+    private long refreshExpirationMs;
+
     // MediaMTX token expiration time: 10 minutes
     @Value("${jwt.mediamtx-expiration}")
     private long mediamtxJwtExpirationMs;
@@ -72,12 +82,17 @@ public class JwtTokenProvider {
             JWSSigner signer = new RSASSASigner(privateKey);
 
             // Prepare JWT with claims set
-            JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
+            JWTClaimsSet.Builder claims = new JWTClaimsSet.Builder()
                     .subject(principal.getUsername())
+                    .jwtID(UUID.randomUUID().toString())
                     .claim("roles", authorities)
+                    .claim(TOKEN_USE_CLAIM, TOKEN_USE_ACCESS)
                     .issueTime(now)
-                    .expirationTime(expiryDate)
-                    .build();
+                    .expirationTime(expiryDate);
+            if (principal instanceof UserPrincipal userPrincipal && userPrincipal.getId() != null) {
+                claims.claim(USER_ID_CLAIM, userPrincipal.getId());
+            }
+            JWTClaimsSet claimsSet = claims.build();
 
             SignedJWT signedJWT = new SignedJWT(new JWSHeader(JWSAlgorithm.RS256), claimsSet);
 
@@ -91,39 +106,115 @@ public class JwtTokenProvider {
         }
     }
 
-    public Authentication getAuthentication(String token) {
+    /**
+     * Generates a long-lived refresh token for the specified user. Refresh tokens can only be
+     * exchanged for a new token pair and are never accepted as access tokens.
+     *
+     * @param username The user the token is issued to
+     * @return The generated refresh token
+     */
+    public String generateRefreshToken(String username) {
+        Date now = new Date();
+        Date expiryDate = new Date(now.getTime() + refreshExpirationMs);
+
         try {
-            SignedJWT signedJWT = SignedJWT.parse(token);
-            JWTClaimsSet claims = signedJWT.getJWTClaimsSet();
+            JWSSigner signer = new RSASSASigner(privateKey);
 
-            String username = claims.getSubject();
-            List<?> rolesList = claims.getClaim("roles") != null ? (List<?>) claims.getClaim("roles") : Collections.emptyList();
+            JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
+                    .subject(username)
+                    .jwtID(UUID.randomUUID().toString())
+                    .claim(TOKEN_USE_CLAIM, TOKEN_USE_REFRESH)
+                    .issueTime(now)
+                    .expirationTime(expiryDate)
+                    .build();
 
-            Collection<SimpleGrantedAuthority> authorities = rolesList.stream()
-                    .map(role -> new SimpleGrantedAuthority(role.toString()))
-                    .collect(Collectors.toList());
+            SignedJWT signedJWT = new SignedJWT(new JWSHeader(JWSAlgorithm.RS256), claimsSet);
+            signedJWT.sign(signer);
 
-            User principal = new User(username, "", authorities);
+            return signedJWT.serialize();
+        } catch (JOSEException e) {
+            throw new RuntimeException("Error generating refresh token", e);
+        }
+    }
 
-            return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+    public Authentication getAuthentication(String token) {
+        try {
+            return getAuthentication(SignedJWT.parse(token).getJWTClaimsSet(), token);
         } catch (ParseException e) {
             throw new RuntimeException("Failed to parse JWT token", e);
         }
     }
 
+    public Authentication getAuthentication(JWTClaimsSet claims, String token) {
+        String username = claims.getSubject();
+        Long userId;
+        try {
+            userId = claims.getLongClaim(USER_ID_CLAIM);
+        } catch (ParseException e) {
+            userId = null;
+        }
+        List<String> rolesList;
+        try {
+            rolesList = claims.getStringListClaim("roles");
+        } catch (ParseException e) {
+            rolesList = null;
+        }
+
+        Collection<SimpleGrantedAuthority> authorities = rolesList == null ? List.of() : rolesList.stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+
+        UserPrincipal principal = new UserPrincipal(userId, username, "", authorities);
+
+        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+    }
+
     public boolean validateToken(String token) {
+        return verifyAccessToken(token) != null;
+    }
+
+    /**
+     * Verifies the signature and expiry of an access token.
+     *
+     * @param token The compact serialized token
+     * @return The verified claims, or null if the token is not a valid access token
+     */
+    public JWTClaimsSet verifyAccessToken(String token) {
+        return verifyToken(token, TOKEN_USE_ACCESS);
+    }
+
+    /**
+     * Verifies the signature and expiry of a refresh token.
+     *
+     * @param token The compact serialized token
+     * @return The verified claims, or null if the token is not a valid refresh token
+     */
+    public JWTClaimsSet verifyRefreshToken(String token) {
+        return verifyToken(token, TOKEN_USE_REFRESH);
+    }
+
+    public long getAccessTokenExpirationMs() {
+        return jwtExpirationMs;
+    }
+
+    private JWTClaimsSet verifyToken(String token, String expectedUse) {
         try {
             SignedJWT signedJWT = SignedJWT.parse(token);
+            JWTClaimsSet claims = signedJWT.getJWTClaimsSet();
 
-            JWSVerifier verifier = new RSASSAVerifier(publicKey);
-            boolean isSignatureValid = signedJWT.verify(verifier);
-
-            Date expirationTime = signedJWT.getJWTClaimsSet().getExpirationTime();
-            boolean isTokenExpired = expirationTime != null && expirationTime.before(new Date());
+            // Cheap checks first, the RSA verification is the expensive part
+            if (!expectedUse.equals(claims.getClaim(TOKEN_USE_CLAIM))) {
+                return null;
+            }
+            Date expirationTime = claims.getExpirationTime();
+            if (expirationTime != null && expirationTime.before(new Date())) {
+                return null;
+            }
 
-            return isSignatureValid && !isTokenExpired;
+            JWSVerifier verifier = new RSASSAVerifier(publicKey);
+            return signedJWT.verify(verifier) ? claims : null;
         } catch (ParseException | JOSEException e) {
-            return false;
+            return null;
         }
     }
 
@@ -134,19 +225,35 @@ public class JwtTokenProvider {
      * @return The generated JWT token
      */
     public String generateMediaMtxToken(int streamNumber) {
+        Map<String, Object> permission = new LinkedHashMap<>();
+        permission.put("action", "publish");
+        permission.put("path", "stream/" + streamNumber);
+        return generateMediaMtxToken(permission, mediamtxJwtExpirationMs);
+    }
+
+    /**
+     * Generates a JWT token that lets the backend call the MediaMTX Control API.
+     *
+     * @param validityMs how long the token stays valid
+     */
+    public String generateMediaMtxApiToken(long validityMs) {
+        Map<String, Object> permission = new LinkedHashMap<>();
+        permission.put("action", "api");
+        return generateMediaMtxToken(permission, validityMs);
+    }
+
+    private String generateMediaMtxToken(Map<String, Object> permission, long validityMs) {
         try {
             // Create RSA signer with the MediaMTX private key
             JWSSigner signer = new RSASSASigner(mediaMtxPrivateKey);
 
             Date now = new Date();
-            Date expiryDate = new Date(now.getTime() + mediamtxJwtExpirationMs);
-
-            // Create the permission object
-            Map<String, Object> permission = new HashMap<>();
-            permission.put("action", "publish");
-            permission.put("path", "stream/" + streamNumber);
+            Date expiryDate = new Date(now.getTime() + validityMs);
 
-            List<Map<String, Object>> permissions = Collections.singletonList(permission);
+            // Plain lists and maps only: Nimbus' shaded Gson looks up the constructors of the
+            // collections it writes reflectively, and NativeRuntimeHints registers just these for
+            // the native image.
+            List<Map<String, Object>> permissions = new ArrayList<>(List.of(permission));
 
             // Prepare JWT with claims set
             JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
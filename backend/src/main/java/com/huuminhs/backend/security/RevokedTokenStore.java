@@ -0,0 +1,75 @@
+package com.huuminhs.backend.security;
+
+import com.huuminhs.backend.model.RevokedToken;
+import com.huuminhs.backend.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory set of revoked token ids ("jti" claims), backed by the revoked_tokens table.
+ * <p>
+ * Each entry only lives until the revoked token would have expired anyway, so the set
+ * stays small when access tokens are short-lived. Lookups are a single hash probe and
+ * never touch the database.
+ */
+@Component
+@Slf4j
+public class RevokedTokenStore {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    // jti -> expiry in epoch milliseconds
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    public RevokedTokenStore(RevokedTokenRepository revokedTokenRepository) {
+        this.revokedTokenRepository = revokedTokenRepository;
+    }
+
+    @PostConstruct
+    public void load() {
+        for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfter(Instant.now())) {
+            revoked.put(token.getTokenId(), token.getExpiresAt().toEpochMilli());
+        }
+        log.info("Loaded {} revoked token ids", revoked.size());
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && revoked.containsKey(tokenId);
+    }
+
+    /**
+     * Revokes a token until its expiry.
+     *
+     * @return false if the token was already revoked, e.g. a refresh token presented twice
+     */
+    public boolean revoke(String tokenId, Instant expiresAt) {
+        if (tokenId == null || !expiresAt.isAfter(Instant.now())) {
+            return true;
+        }
+        if (revoked.putIfAbsent(tokenId, expiresAt.toEpochMilli()) != null) {
+            return false;
+        }
+        revokedTokenRepository.save(new RevokedToken(tokenId, expiresAt));
+        return true;
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation-purge-interval:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        int deleted = revokedTokenRepository.deleteExpired(Instant.ofEpochMilli(now));
+        if (deleted > 0) {
+            log.info("Purged {} expired revoked token ids", deleted);
+        }
+    }
+}
@@ -30,13 +30,10 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         // Create empty authorities list since we don't have roles
         List<SimpleGrantedAuthority> authorities = new ArrayList<>();
 
-        return new org.springframework.security.core.userdetails.User(
+        return new UserPrincipal(
+                user.getId(),
                 user.getUsername(),
                 user.getPassword(),
-                true, // enabled
-                true, // accountNonExpired
-                true, // credentialsNonExpired
-                true, // accountNonLocked
                 authorities
         );
     }
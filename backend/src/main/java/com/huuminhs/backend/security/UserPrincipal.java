@@ -0,0 +1,37 @@
+package com.huuminhs.backend.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * The authenticated user together with its database ID.
+ * <p>
+ * The ID travels in the access token, so services can key their queries by it, or take a
+ * reference to the user, without looking the username up first.
+ */
+public class UserPrincipal extends User {
+
+    private final Long id;
+
+    public UserPrincipal(Long id, String username, String password, Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+    }
+
+    /**
+     * @return null only until the filter has looked up the ID of a token issued without the claim
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * @return the user ID of an authentication made from an access token, null for any other
+     */
+    public static Long idOf(Authentication authentication) {
+        return authentication.getPrincipal() instanceof UserPrincipal principal ? principal.getId() : null;
+    }
+}
@@ -27,15 +27,18 @@ public class WebSecurityConfig {
 
     private final JwtTokenProvider tokenProvider;
     private final UserDetailsServiceImpl userDetailsService;
+    private final RevokedTokenStore revokedTokenStore;
 
-    public WebSecurityConfig(JwtTokenProvider tokenProvider, UserDetailsServiceImpl userDetailsService) {
+    public WebSecurityConfig(JwtTokenProvider tokenProvider, UserDetailsServiceImpl userDetailsService,
+                             RevokedTokenStore revokedTokenStore) {
         this.tokenProvider = tokenProvider;
         this.userDetailsService = userDetailsService;
+        this.revokedTokenStore = revokedTokenStore;
     }
 
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(tokenProvider);
+        return new JwtAuthenticationFilter(tokenProvider, revokedTokenStore);
     }
 
     @Bean
@@ -58,13 +61,25 @@ public class WebSecurityConfig {
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/public/**").permitAll()
                 .requestMatchers("/api/publish/**").permitAll()
+                .requestMatchers("/api/hls/**").permitAll()
+                .requestMatchers("/actuator/health/**").permitAll()
+                // Would otherwise match the public "/api/stream/{streamId}" and ".../recordings/{fileName}"
+                .requestMatchers("/api/stream/following", "/api/stream/bulk",
+                    "/api/stream/{streamId}/recordings/clip").authenticated()
                 .requestMatchers(
                     "/api/stream",
                     "/api/stream/{streamId}",
+                    "/api/stream/batch",
                     "/api/stream/live",
                     "/api/stream/ended",
                     "/api/stream/{streamId}/live",
-                    "/api/stream/{streamId}/ended"
+                    "/api/stream/{streamId}/ended",
+                    "/api/stream/{streamId}/recordings",
+                    "/api/stream/{streamId}/recordings/{fileName}",
+                    "/api/stream/{streamId}/health",
+                    "/api/stream/{streamId}/chat",
+                    "/api/stream/{streamId}/chat/history",
+                    "/api/thumbnails/{fileName}"
                 ).permitAll()
                 .anyRequest().authenticated()
             );
@@ -2,17 +2,23 @@ package com.huuminhs.backend.service;
 
 import com.huuminhs.backend.dto.LoginRequest;
 import com.huuminhs.backend.dto.LoginResponse;
+import com.huuminhs.backend.dto.RefreshTokenRequest;
 import com.huuminhs.backend.dto.RegisterRequest;
 import com.huuminhs.backend.dto.RegisterResponse;
 import com.huuminhs.backend.exception.DuplicateUsernameException;
+import com.huuminhs.backend.exception.InvalidTokenException;
 import com.huuminhs.backend.model.User;
 import com.huuminhs.backend.repository.UserRepository;
 import com.huuminhs.backend.security.JwtTokenProvider;
+import com.huuminhs.backend.security.RevokedTokenStore;
+import com.nimbusds.jwt.JWTClaimsSet;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -24,16 +30,22 @@ public class AuthService {
     private final JwtTokenProvider tokenProvider;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserDetailsService userDetailsService;
+    private final RevokedTokenStore revokedTokenStore;
 
     public AuthService(
             AuthenticationManager authenticationManager,
             JwtTokenProvider tokenProvider,
             UserRepository userRepository,
-            PasswordEncoder passwordEncoder) {
+            PasswordEncoder passwordEncoder,
+            UserDetailsService userDetailsService,
+            RevokedTokenStore revokedTokenStore) {
         this.authenticationManager = authenticationManager;
         this.tokenProvider = tokenProvider;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsService = userDetailsService;
+        this.revokedTokenStore = revokedTokenStore;
     }
 
     public LoginResponse authenticateUser(LoginRequest loginRequest) {
@@ -50,12 +62,55 @@ public class AuthService {
         // Set authentication in security context
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
-        // Generate JWT token
-        String jwt = tokenProvider.generateToken(authentication);
-
         log.info("User logged in successfully: {}", loginRequest.getUsername());
-        // Return token in response
-        return new LoginResponse(jwt, loginRequest.getUsername());
+        // Return token pair in response
+        return issueTokens(authentication, loginRequest.getUsername());
+    }
+
+    public LoginResponse refreshToken(RefreshTokenRequest refreshRequest) {
+        JWTClaimsSet claims = tokenProvider.verifyRefreshToken(refreshRequest.getRefreshToken());
+        if (claims == null) {
+            throw new InvalidTokenException();
+        }
+
+        String username = claims.getSubject();
+
+        // Rotate: the presented refresh token can be used exactly once
+        if (!revokedTokenStore.revoke(claims.getJWTID(), claims.getExpirationTime().toInstant())) {
+            log.warn("Refresh token reuse detected for user: {}", username);
+            throw new InvalidTokenException();
+        }
+
+        // Reload the user so deleted accounts cannot keep refreshing
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+            userDetails, null, userDetails.getAuthorities());
+
+        log.info("Token refreshed for user: {}", username);
+        return issueTokens(authentication, username);
+    }
+
+    public void logout(RefreshTokenRequest refreshRequest, Authentication authentication) {
+        JWTClaimsSet refreshClaims = tokenProvider.verifyRefreshToken(refreshRequest.getRefreshToken());
+        if (refreshClaims != null) {
+            revokedTokenStore.revoke(refreshClaims.getJWTID(), refreshClaims.getExpirationTime().toInstant());
+        }
+
+        // Also revoke the access token the request was made with, if any
+        if (authentication != null && authentication.getCredentials() instanceof String accessToken) {
+            JWTClaimsSet accessClaims = tokenProvider.verifyAccessToken(accessToken);
+            if (accessClaims != null) {
+                revokedTokenStore.revoke(accessClaims.getJWTID(), accessClaims.getExpirationTime().toInstant());
+            }
+        }
+
+        log.info("User logged out: {}", refreshClaims != null ? refreshClaims.getSubject() : "unknown");
+    }
+
+    private LoginResponse issueTokens(Authentication authentication, String username) {
+        String jwt = tokenProvider.generateToken(authentication);
+        String refreshToken = tokenProvider.generateRefreshToken(username);
+        return new LoginResponse(jwt, refreshToken, tokenProvider.getAccessTokenExpirationMs() / 1000, username);
     }
 
     public RegisterResponse registerUser(RegisterRequest registerRequest) {
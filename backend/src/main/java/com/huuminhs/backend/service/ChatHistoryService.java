@@ -0,0 +1,339 @@
+package com.huuminhs.backend.service;
+
+import com.huuminhs.backend.dto.ChatHistoryResponse;
+import com.huuminhs.backend.dto.ChatMessage;
+import com.huuminhs.backend.exception.InvalidCursorException;
+import com.huuminhs.backend.repository.ChatMessageJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind persistence of chat messages, and replay of the stored history.
+ * <p>
+ * Posting a message only offers it to a bounded queue. A dedicated thread writes the queue out in
+ * batches of up to {@code chat.history.batch-size} rows, one INSERT per batch, flushing early after
+ * {@code chat.history.flush-interval-ms}. While the database is slow or down the batch is retried
+ * and new messages wait in the queue; once the queue is full they are counted and dropped, the live
+ * chat itself is never held up. Messages the database rejects outright are dropped one by one, the
+ * rest of their batch is still written. Queue depth, the age of the oldest unwritten message and the
+ * written/dropped counts are published as {@code chat.history.*} metrics.
+ */
+@Service
+@Slf4j
+public class ChatHistoryService {
+
+    private record Pending(Long streamId, String username, String text, long sentAt) {
+    }
+
+    private final ChatMessageJdbcRepository chatMessageRepository;
+    private final StreamService streamService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${chat.history.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${chat.history.queue-capacity:20000}")
+    private int queueCapacity = 20_000;
+
+    @Value("${chat.history.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${chat.history.flush-interval-ms:200}")
+    private long flushIntervalMs = 200;
+
+    // Daily partitions are created this many days ahead
+    @Value("${chat.history.partitions-ahead:3}")
+    private int partitionsAhead = 3;
+
+    // 0 keeps the history forever
+    @Value("${chat.history.retention-days:90}")
+    private int retentionDays = 90;
+
+    @Value("${chat.history.max-limit:200}")
+    private int maxLimit = 200;
+
+    private BlockingQueue<Pending> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    // Sent time of the oldest message taken off the queue but not written yet, 0 if none
+    private volatile long inFlightSince;
+
+    private Counter written;
+    private Counter dropped;
+    private Counter failures;
+    private Timer flushes;
+
+    public ChatHistoryService(ChatMessageJdbcRepository chatMessageRepository, StreamService streamService,
+                              MeterRegistry meterRegistry) {
+        this.chatMessageRepository = chatMessageRepository;
+        this.streamService = streamService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        written = meterRegistry.counter("chat.history.written");
+        dropped = meterRegistry.counter("chat.history.dropped");
+        failures = meterRegistry.counter("chat.history.flush.failures");
+        flushes = meterRegistry.timer("chat.history.flush");
+        Gauge.builder("chat.history.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("chat.history.lag", this, ChatHistoryService::lagMillis)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+
+        try {
+            chatMessageRepository.createTableIfNotExists();
+            maintainPartitions();
+        } catch (DataAccessException e) {
+            // Another replica may be creating them concurrently; failed flushes retry the partitions
+            log.warn("Failed to prepare the chat_messages table: {}", e.getMessage());
+        }
+
+        running = true;
+        writer = new Thread(this::writeLoop, "chat-history-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Waits a little for the queue to be written out before shutting down.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        if (writer.isAlive()) {
+            writer.interrupt();
+            log.warn("Chat history writer stopped with {} messages unwritten", queue.size());
+        }
+    }
+
+    /**
+     * Queues a message for writing, never blocks.
+     *
+     * @return false if history is disabled or the message was dropped because the queue is full
+     */
+    public boolean append(Long streamId, ChatMessage message) {
+        if (queue == null) {
+            return false;
+        }
+        if (queue.offer(new Pending(streamId, message.getUsername(), message.getText(), message.getSentAt()))) {
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    /**
+     * @return age in milliseconds of the oldest message not written yet, 0 when caught up
+     */
+    public long lagMillis() {
+        long oldest = inFlightSince;
+        Pending head = queue != null ? queue.peek() : null;
+        if (oldest == 0 && head != null) {
+            oldest = head.sentAt();
+        }
+        return oldest == 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldest);
+    }
+
+    /**
+     * @param cursor the {@code nextCursor} of the previous page, null for the start of the chat
+     */
+    public ChatHistoryResponse getHistory(Long streamId, String cursor, int limit) {
+        // Throws StreamNotFoundException for unknown IDs, served from the detail cache otherwise
+        streamService.getStreamById(streamId);
+        limit = Math.max(1, Math.min(limit, maxLimit));
+
+        // Message IDs start at 1, so the start of the chat is (epoch, 0)
+        long afterSentAt = 0;
+        long afterId = 0;
+        if (cursor != null) {
+            int separator = cursor.indexOf('_');
+            try {
+                afterSentAt = Long.parseLong(cursor, 0, separator, 10);
+                afterId = Long.parseLong(cursor, separator + 1, cursor.length(), 10);
+            } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                throw new InvalidCursorException(cursor);
+            }
+        }
+
+        // Request one more item to determine if there are more items
+        List<ChatMessage> messages = chatMessageRepository.findPage(streamId, afterSentAt, afterId, limit + 1);
+        boolean hasMore = messages.size() > limit;
+        if (hasMore) {
+            messages = messages.subList(0, limit);
+        }
+        ChatMessage last = messages.isEmpty() ? null : messages.get(messages.size() - 1);
+        String nextCursor = hasMore ? last.getSentAt() + "_" + last.getSeq() : null;
+        return new ChatHistoryResponse(messages, nextCursor, hasMore);
+    }
+
+    /**
+     * Creates the coming days' partitions and drops the ones past retention. Safe to run on every
+     * replica; all statements are idempotent.
+     */
+    @Scheduled(cron = "${chat.history.maintenance-cron:0 5 * * * *}")
+    public void maintainPartitions() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        // Yesterday too, for messages queued just before midnight
+        chatMessageRepository.createPartitions(today.minusDays(1), partitionsAhead + 2);
+        if (retentionDays > 0) {
+            int count = chatMessageRepository.dropPartitionsBefore(today.minusDays(retentionDays));
+            if (count > 0) {
+                log.info("Dropped {} chat history partition(s) older than {} days", count, retentionDays);
+            }
+        }
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                inFlightSince = first.sentAt();
+
+                // Fill the batch until it is full or the first message has waited a flush interval
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                writeWithRetry(batch);
+                batch.clear();
+                inFlightSince = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void writeWithRetry(List<Pending> batch) throws InterruptedException {
+        writeWithRetry(batch, false);
+    }
+
+    /**
+     * Retries outages with backoff until written. A batch the database rejects as such is split
+     * until the offending messages are isolated, which are then dropped.
+     *
+     * @param partitionsChecked whether partitions were already created after a rejection
+     */
+    private void writeWithRetry(List<Pending> batch, boolean partitionsChecked) throws InterruptedException {
+        int size = batch.size();
+        Long[] streamIds = new Long[size];
+        String[] usernames = new String[size];
+        String[] texts = new String[size];
+        Long[] sentAt = new Long[size];
+        for (int i = 0; i < size; i++) {
+            Pending pending = batch.get(i);
+            streamIds[i] = pending.streamId();
+            usernames[i] = pending.username();
+            texts[i] = pending.text();
+            sentAt[i] = pending.sentAt();
+        }
+
+        long backoffMs = 100;
+        while (true) {
+            long start = System.nanoTime();
+            try {
+                chatMessageRepository.insertBatch(streamIds, usernames, texts, sentAt);
+                flushes.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                written.increment(size);
+                return;
+            } catch (DataAccessException e) {
+                failures.increment();
+                if (isRejected(e)) {
+                    if (!partitionsChecked) {
+                        // A message for a day without a partition is rejected like invalid data
+                        partitionsChecked = true;
+                        createPartitions();
+                        continue;
+                    }
+                    reject(batch, e);
+                    return;
+                }
+                log.warn("Failed to write {} chat messages, retrying in {} ms: {}", size, backoffMs, e.getMessage());
+            }
+            if (!running && backoffMs >= 1600) {
+                log.warn("Giving up on {} chat messages during shutdown", size);
+                return;
+            }
+            Thread.sleep(backoffMs);
+            backoffMs = Math.min(backoffMs * 2, 5000);
+            createPartitions();
+        }
+    }
+
+    private void reject(List<Pending> batch, DataAccessException e) throws InterruptedException {
+        if (batch.size() == 1) {
+            Pending pending = batch.get(0);
+            dropped.increment();
+            log.warn("Dropping a chat message of {} in stream {} the database rejects: {}",
+                    pending.username(), pending.streamId(), e.getMessage());
+            return;
+        }
+        int half = batch.size() / 2;
+        writeWithRetry(batch.subList(0, half), true);
+        writeWithRetry(batch.subList(half, batch.size()), true);
+    }
+
+    /**
+     * Whether retrying the same rows cannot succeed, like a constraint violation or invalid text.
+     * Lost connections are non-transient to Spring too, but they recover with the database.
+     */
+    private static boolean isRejected(DataAccessException e) {
+        return e instanceof NonTransientDataAccessException && !(e instanceof DataAccessResourceFailureException);
+    }
+
+    private void createPartitions() {
+        try {
+            // The usual cause besides an outage: no partition for the messages' day yet
+            maintainPartitions();
+        } catch (DataAccessException e) {
+            log.debug("Failed to create chat history partitions: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.huuminhs.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.huuminhs.backend.dto.ChatMessage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Fan-out of the chat messages of one stream.
+ * <p>
+ * Messages go into a fixed-size ring, each encoded to JSON once. Publishers claim a sequence
+ * number with a single atomic increment and never wait for subscribers; every subscriber keeps
+ * its own cursor into the ring and is drained on a shared executor at its own pace, several
+ * messages per frame when it has fallen behind. Frames are handed to the sink without waiting for
+ * the client; the next one is only prepared once the sink reports the previous one written. A subscriber that falls more than the ring size
+ * behind has lost messages and is disconnected, so memory stays bounded however slow a client is.
+ */
+@Slf4j
+public class ChatRoom {
+
+    /**
+     * Destination of one subscriber's frames, typically a WebSocket session.
+     */
+    public interface Sink {
+        /**
+         * Starts writing a frame and returns; {@code done} is called with null once it is written,
+         * or with the failure. Not called again before {@code done}.
+         */
+        void send(String frame, Consumer<Throwable> done);
+
+        void close(String reason);
+    }
+
+    private record Entry(long seq, String json) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Executor executor;
+    private final int maxBatch;
+
+    private final AtomicReferenceArray<Entry> ring;
+    private final int mask;
+    private final AtomicLong nextSeq = new AtomicLong();
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param capacity ring size, rounded up to a power of two
+     * @param maxBatch most messages sent to a subscriber in one frame
+     */
+    public ChatRoom(int capacity, int maxBatch, Executor executor, ObjectMapper objectMapper) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.ring = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.maxBatch = maxBatch;
+        this.executor = executor;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Subscribes a sink to the messages published from now on.
+     */
+    public Subscriber subscribe(Sink sink) {
+        Subscriber subscriber = new Subscriber(sink, nextSeq.get());
+        subscribers.add(subscriber);
+        return subscriber;
+    }
+
+    public void unsubscribe(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    public boolean isEmpty() {
+        return subscribers.isEmpty();
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Publishes a message, assigning its sequence number.
+     */
+    public ChatMessage publish(String username, String text, long sentAt) {
+        long seq = nextSeq.getAndIncrement();
+        ChatMessage message = new ChatMessage(seq, username, text, sentAt);
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode chat message", e);
+        }
+        // A publisher stalled for a whole lap must not overwrite the newer entry
+        int slot = (int) seq & mask;
+        Entry previous = ring.get(slot);
+        while ((previous == null || previous.seq < seq) && !ring.compareAndSet(slot, previous, new Entry(seq, json))) {
+            previous = ring.get(slot);
+        }
+
+        for (Subscriber subscriber : subscribers) {
+            subscriber.signal();
+        }
+        return message;
+    }
+
+    public class Subscriber {
+
+        private final Sink sink;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        // Only touched by the thread currently draining
+        private long cursor;
+        private volatile boolean closed;
+
+        private Subscriber(Sink sink, long cursor) {
+            this.sink = sink;
+            this.cursor = cursor;
+        }
+
+        /**
+         * @return how many messages this subscriber is behind, approximate while it is being drained
+         */
+        public long lag() {
+            return nextSeq.get() - cursor;
+        }
+
+        private void signal() {
+            if (!closed && scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    disconnect("Chat is overloaded");
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                String frame = nextFrame();
+                if (frame == null) {
+                    sent(null);
+                } else {
+                    sink.send(frame, this::sent);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Dropping chat subscriber after unexpected error", e);
+                disconnect(null);
+            }
+        }
+
+        /**
+         * Called once the previous frame is written, possibly on the sink's own thread.
+         */
+        private void sent(Throwable failure) {
+            if (failure != null) {
+                log.debug("Dropping chat subscriber after failed send: {}", failure.toString());
+                disconnect(null);
+                return;
+            }
+
+            // Reschedule instead of looping so one busy subscriber cannot hold a worker
+            scheduled.set(false);
+            if (!closed && available() && scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    disconnect("Chat is overloaded");
+                }
+            }
+        }
+
+        /**
+         * @return the next frame, or null if no message is published past the cursor yet
+         */
+        private String nextFrame() {
+            StringBuilder frame = null;
+            for (int i = 0; i < maxBatch; i++) {
+                Entry entry = ring.get((int) cursor & mask);
+                if (entry == null || entry.seq < cursor) {
+                    // Claimed but not stored yet; its publisher signals again once it is
+                    break;
+                }
+                if (entry.seq > cursor) {
+                    disconnect("Too slow to keep up with the chat");
+                    return null;
+                }
+                if (frame == null) {
+                    frame = new StringBuilder(entry.json.length() * 2 + 2).append('[');
+                } else {
+                    frame.append(',');
+                }
+                frame.append(entry.json);
+                cursor++;
+            }
+            return frame == null ? null : frame.append(']').toString();
+        }
+
+        private boolean available() {
+            Entry entry = ring.get((int) cursor & mask);
+            return entry != null && entry.seq >= cursor;
+        }
+
+        private void disconnect(String reason) {
+            closed = true;
+            if (subscribers.remove(this)) {
+                sink.close(reason);
+            }
+        }
+    }
+}
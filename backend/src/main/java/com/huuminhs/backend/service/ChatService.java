@@ -0,0 +1,119 @@
+package com.huuminhs.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.huuminhs.backend.dto.ChatMessage;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live chat rooms, one per stream with at least one connected client.
+ * <p>
+ * All rooms share one pool of fan-out workers. Its queue needs no bound of its own: a subscriber
+ * has at most one drain task queued at a time, so the queue never holds more tasks than there are
+ * connected clients. Workers only prepare frames; sinks write them asynchronously, so a client
+ * that stops reading never holds a worker.
+ */
+@Service
+@Slf4j
+public class ChatService {
+
+    private final ObjectMapper objectMapper;
+    private final ChatHistoryService chatHistoryService;
+
+    @Value("${chat.ring-capacity:1024}")
+    private int ringCapacity = 1024;
+
+    @Value("${chat.max-batch:64}")
+    private int maxBatch = 64;
+
+    @Value("${chat.fanout-threads:8}")
+    private int fanoutThreads = 8;
+
+    @Value("${chat.max-message-length:500}")
+    private int maxMessageLength = 500;
+
+    private final Map<Long, ChatRoom> rooms = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    public ChatService(ObjectMapper objectMapper, ChatHistoryService chatHistoryService) {
+        this.objectMapper = objectMapper;
+        this.chatHistoryService = chatHistoryService;
+    }
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(fanoutThreads, fanoutThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "chat-fanout-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public ChatRoom.Subscriber join(Long streamId, ChatRoom.Sink sink) {
+        ChatRoom.Subscriber[] subscriber = new ChatRoom.Subscriber[1];
+        // Under the map's bin lock, so a room is never dropped while someone joins it
+        rooms.compute(streamId, (id, room) -> {
+            if (room == null) {
+                room = new ChatRoom(ringCapacity, maxBatch, executor, objectMapper);
+            }
+            subscriber[0] = room.subscribe(sink);
+            return room;
+        });
+        return subscriber[0];
+    }
+
+    public void leave(Long streamId, ChatRoom.Subscriber subscriber) {
+        rooms.computeIfPresent(streamId, (id, room) -> {
+            room.unsubscribe(subscriber);
+            return room.isEmpty() ? null : room;
+        });
+    }
+
+    /**
+     * Publishes a message to the room and queues it for the stored history.
+     *
+     * @return the published message, or null if the text is blank or the room has no subscribers
+     */
+    public ChatMessage post(Long streamId, String username, String text) {
+        // Postgres cannot store NUL in text, it would only be rejected by the history writer
+        String trimmed = text.replace("\u0000", "").strip();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+        ChatRoom room = rooms.get(streamId);
+        if (room == null) {
+            return null;
+        }
+        ChatMessage message = room.publish(username, trimmed, System.currentTimeMillis());
+        chatHistoryService.append(streamId, message);
+        return message;
+    }
+
+    public int getMaxMessageLength() {
+        return maxMessageLength;
+    }
+
+    public int subscriberCount(Long streamId) {
+        ChatRoom room = rooms.get(streamId);
+        return room != null ? room.subscriberCount() : 0;
+    }
+}
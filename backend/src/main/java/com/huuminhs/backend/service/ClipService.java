@@ -0,0 +1,234 @@
+package com.huuminhs.backend.service;
+
+import com.huuminhs.backend.exception.InvalidClipRangeException;
+import com.huuminhs.backend.exception.RecordingNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Cuts clips out of the recordings of ENDED streams and caches them on disk.
+ * <p>
+ * Clip ranges are offsets from the start of the recording. The covering segments are found by
+ * binary search on the {@link RecordingIndex}, and {@link FragmentedMp4Clipper} copies their
+ * fragments without decoding anything. Since recordings of an ENDED stream don't change, a
+ * built clip is reused until it expires for every request whose range snaps to the same
+ * fragments. The directory is kept under a total size by deleting the oldest clips.
+ */
+@Service
+@Slf4j
+public class ClipService {
+
+    private final RecordingService recordingService;
+    private final RecordingCatalog recordingCatalog;
+
+    @Value("${recording.clips.directory:./clips}")
+    private String directory = "./clips";
+
+    @Value("${recording.clips.max-duration-ms:300000}")
+    private long maxDurationMs = 300000;
+
+    @Value("${recording.clips.cache-ttl:86400000}")
+    private long cacheTtlMs = 86400000;
+
+    // Oldest clips are deleted past this, whatever their age
+    @Value("${recording.clips.max-total-bytes:5368709120}")
+    private long maxTotalBytes = 5368709120L;
+
+    // Concurrent requests for the same clip share one build
+    private final Map<Path, CompletableFuture<Path>> inflight = new ConcurrentHashMap<>();
+
+    public ClipService(RecordingService recordingService, RecordingCatalog recordingCatalog) {
+        this.recordingService = recordingService;
+        this.recordingCatalog = recordingCatalog;
+    }
+
+    /**
+     * @return the clip file for [startMs, endMs) of the stream's recording, built if necessary
+     */
+    public Path getClip(Long streamId, long startMs, long endMs) {
+        if (startMs < 0 || endMs <= startMs) {
+            throw new InvalidClipRangeException("Clip end must be after its start, and the start not negative");
+        }
+        if (endMs - startMs > maxDurationMs) {
+            throw new InvalidClipRangeException("Clips can be at most " + maxDurationMs + " ms long");
+        }
+
+        RecordingIndex index = recordingService.getEndedStreamIndex(streamId);
+        long recordingStart = index.startMillis(0);
+        List<FragmentedMp4Clipper.Segment> segments = segments(streamId, index, recordingStart + startMs,
+                recordingStart + endMs);
+        FragmentedMp4Clipper.Range range = snap(streamId, index, segments, recordingStart + startMs,
+                recordingStart + endMs);
+        // Named after the fragments it holds, so every range that snaps to them shares the file
+        Path clip = Paths.get(directory, String.valueOf(streamId),
+                (range.startMillis() - recordingStart) + "-" + (range.endMillis() - recordingStart) + ".mp4");
+        if (Files.isRegularFile(clip)) {
+            return clip;
+        }
+
+        CompletableFuture<Path> mine = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inflight.putIfAbsent(clip, mine);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            build(streamId, segments, range, clip);
+            mine.complete(clip);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflight.remove(clip, mine);
+        }
+        evictOverCapacity();
+        return clip;
+    }
+
+    private List<FragmentedMp4Clipper.Segment> segments(Long streamId, RecordingIndex index, long from, long to) {
+        List<FragmentedMp4Clipper.Segment> segments = new ArrayList<>();
+        for (int i = index.firstEndingAfter(from); i < index.size() && index.startMillis(i) < to; i++) {
+            segments.add(new FragmentedMp4Clipper.Segment(
+                    recordingCatalog.resolve(streamId, index.fileName(i)), index.startMillis(i)));
+        }
+        if (segments.isEmpty()) {
+            throw new InvalidClipRangeException("Clip range is outside the recording of stream with ID: " + streamId);
+        }
+        return segments;
+    }
+
+    /**
+     * @return the wall-clock range of the fragments the clip consists of, ending at the end of the
+     * recording when the clip runs to it
+     */
+    private FragmentedMp4Clipper.Range snap(Long streamId, RecordingIndex index,
+                                            List<FragmentedMp4Clipper.Segment> segments, long from, long to) {
+        FragmentedMp4Clipper.Range range;
+        try {
+            range = new FragmentedMp4Clipper().snap(segments, from, to);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the recording of stream " + streamId, e);
+        }
+        if (range == null) {
+            throw new RecordingNotFoundException(streamId);
+        }
+        if (range.endMillis() < 0) {
+            range = new FragmentedMp4Clipper.Range(range.startMillis(), index.endMillis(index.size() - 1));
+        }
+        return range;
+    }
+
+    private void build(Long streamId, List<FragmentedMp4Clipper.Segment> segments, FragmentedMp4Clipper.Range range,
+                       Path clip) {
+        long startTime = System.nanoTime();
+        Path temp = null;
+        try {
+            Files.createDirectories(clip.getParent());
+            temp = Files.createTempFile(clip.getParent(), "clip-", ".part");
+            int fragments;
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                fragments = new FragmentedMp4Clipper().writeClip(segments, range.startMillis(), range.endMillis(), out);
+            }
+            if (fragments == 0) {
+                throw new RecordingNotFoundException(streamId);
+            }
+            Files.move(temp, clip, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            temp = null;
+            log.info("Built clip {} of stream {} from {} segments ({} fragments) in {} ms",
+                    clip.getFileName(), streamId, segments.size(), fragments, (System.nanoTime() - startTime) / 1_000_000);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to build clip for stream " + streamId, e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    log.warn("Failed to delete partial clip {}", temp, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes the least recently built clips until the directory is within
+     * {@code recording.clips.max-total-bytes}.
+     */
+    synchronized void evictOverCapacity() {
+        Path root = Paths.get(directory);
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        List<ClipFile> clips = new ArrayList<>();
+        long total = 0;
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (Files.isRegularFile(file) && file.getFileName().toString().endsWith(".mp4")) {
+                    ClipFile clip = new ClipFile(file, Files.getLastModifiedTime(file).toMillis(), Files.size(file));
+                    clips.add(clip);
+                    total += clip.size();
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Failed to measure clips in {}", root, e);
+            return;
+        }
+
+        clips.sort(Comparator.comparingLong(ClipFile::modifiedMillis));
+        for (int i = 0; i < clips.size() && total > maxTotalBytes; i++) {
+            try {
+                Files.deleteIfExists(clips.get(i).path());
+                total -= clips.get(i).size();
+            } catch (IOException e) {
+                log.warn("Failed to evict clip {}", clips.get(i).path(), e);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${recording.clips.purge-interval:3600000}")
+    public void purgeExpired() {
+        Path root = Paths.get(directory);
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - cacheTtlMs;
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                try {
+                    if (Files.getLastModifiedTime(file).toMillis() < cutoff) {
+                        Files.delete(file);
+                    }
+                } catch (IOException e) {
+                    log.warn("Failed to purge clip {}", file, e);
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Failed to purge clips in {}", root, e);
+        }
+    }
+
+    private record ClipFile(Path path, long modifiedMillis, long size) {
+    }
+}
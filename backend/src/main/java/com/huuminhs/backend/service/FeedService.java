@@ -0,0 +1,65 @@
+package com.huuminhs.backend.service;
+
+import com.huuminhs.backend.dto.PaginatedResponse;
+import com.huuminhs.backend.dto.StreamBatchItem;
+import com.huuminhs.backend.dto.StreamResponse;
+import com.huuminhs.backend.repository.FeedJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The "following" feed: streams of the creators a user follows, newest activity first.
+ * <p>
+ * Feeds are precomputed by the fan-out of {@link NotificationService}: a created stream is added
+ * to the head of every follower's feed and a stream going live is moved back to it, so reading a
+ * page is one primary key lookup and no join over the follow graph. The page is hydrated through
+ * {@link StreamService#getStreamsByIds}, from the detail cache and one batch query for the rest.
+ * Entries promoted while a client is paging can show up on two pages; clients drop repeated IDs.
+ */
+@Service
+@Slf4j
+public class FeedService {
+
+    private final FeedJdbcRepository feedRepository;
+    private final StreamService streamService;
+
+    @Value("${feed.max-limit:50}")
+    private int maxLimit = 50;
+
+    public FeedService(FeedJdbcRepository feedRepository, StreamService streamService) {
+        this.feedRepository = feedRepository;
+        this.streamService = streamService;
+    }
+
+    /**
+     * @param cursor the {@code nextCursor} of the previous page, null for the head of the feed
+     */
+    public PaginatedResponse<StreamResponse> getFollowingFeed(Long userId, Long cursor, int limit) {
+        limit = Math.max(1, Math.min(limit, maxLimit));
+        log.info("Getting following feed for user: {} with cursor: {} and limit: {}", userId, cursor, limit);
+
+        // Request one more item to determine if there are more items
+        List<Long> streamIds = feedRepository.findPage(userId, cursor, limit + 1);
+        boolean hasMore = streamIds.size() > limit;
+        if (hasMore) {
+            streamIds = streamIds.subList(0, limit);
+        }
+        if (streamIds.isEmpty()) {
+            return PaginatedResponse.of(List.of(), null, false);
+        }
+
+        // Streams deleted since they were fanned out are left out of the page
+        List<StreamResponse> items = new ArrayList<>(streamIds.size());
+        for (StreamBatchItem item : streamService.getStreamsByIds(streamIds).getItems()) {
+            if (item.isFound()) {
+                items.add(item.getStream());
+            }
+        }
+        Long nextCursor = hasMore ? streamIds.get(streamIds.size() - 1) : null;
+        return PaginatedResponse.of(items, nextCursor, hasMore);
+    }
+}
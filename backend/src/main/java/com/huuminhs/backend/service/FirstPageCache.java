@@ -0,0 +1,127 @@
+package com.huuminhs.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of serialized first pages for the public list endpoints.
+ * <p>
+ * Entries are tagged with the listing version of {@link StreamChangeTracker} they were built
+ * from; any stream mutation bumps that version, so a write makes every entry unusable at once.
+ * When an entry's TTL runs out, one request rebuilds it while concurrent requests keep getting
+ * the previous bytes. When there is no usable entry at all, concurrent requests share a single
+ * rebuild instead of each running the query.
+ */
+@Component
+public class FirstPageCache {
+
+    private final StreamChangeTracker changeTracker;
+
+    @Value("${stream.first-page-cache.ttl-ms:2000}")
+    private long ttlMs = 2000;
+
+    // Bounds the number of entries, since the limit comes from the client
+    @Value("${stream.first-page-cache.max-limit:24}")
+    private int maxLimit = 24;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Key, Flight> inflight = new ConcurrentHashMap<>();
+
+    public FirstPageCache(StreamChangeTracker changeTracker) {
+        this.changeTracker = changeTracker;
+    }
+
+    public boolean accepts(int limit) {
+        return limit > 0 && limit <= maxLimit;
+    }
+
+    public byte[] get(String endpoint, int limit, Supplier<byte[]> loader) {
+        Key key = new Key(endpoint, limit);
+        long version = changeTracker.listingVersion();
+        Entry entry = entries.get(key);
+
+        if (entry != null && entry.version == version) {
+            if (System.nanoTime() - entry.loadedAt < ttlMs * 1_000_000) {
+                return entry.body;
+            }
+            if (entry.refreshing.compareAndSet(false, true)) {
+                try {
+                    return load(key, version, loader);
+                } catch (RuntimeException e) {
+                    entry.refreshing.set(false);
+                    throw e;
+                }
+            }
+            // Someone else is refreshing, the expired bytes are still consistent with the database
+            return entry.body;
+        }
+
+        return loadOnce(key, version, loader);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private byte[] loadOnce(Key key, long version, Supplier<byte[]> loader) {
+        Flight mine = new Flight(version, new CompletableFuture<>());
+        Flight existing = inflight.putIfAbsent(key, mine);
+        if (existing != null) {
+            if (existing.version == version) {
+                try {
+                    return existing.result.join();
+                } catch (CompletionException e) {
+                    throw e.getCause() instanceof RuntimeException cause ? cause : e;
+                }
+            }
+            // The running rebuild started before a write, its result must not be reused
+            return load(key, version, loader);
+        }
+
+        try {
+            byte[] body = load(key, version, loader);
+            mine.result.complete(body);
+            return body;
+        } catch (RuntimeException e) {
+            mine.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflight.remove(key, mine);
+        }
+    }
+
+    private byte[] load(Key key, long version, Supplier<byte[]> loader) {
+        byte[] body = loader.get();
+        // Don't cache a page that may have been read before a concurrent write
+        if (changeTracker.listingVersion() == version) {
+            entries.put(key, new Entry(body, version, System.nanoTime()));
+        }
+        return body;
+    }
+
+    private record Key(String endpoint, int limit) {
+    }
+
+    private record Flight(long version, CompletableFuture<byte[]> result) {
+    }
+
+    private static final class Entry {
+        private final byte[] body;
+        private final long version;
+        private final long loadedAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(byte[] body, long version, long loadedAt) {
+            this.body = body;
+            this.version = version;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.huuminhs.backend.service;
+
+import com.huuminhs.backend.dto.FollowStatusResponse;
+import com.huuminhs.backend.exception.InvalidFollowException;
+import com.huuminhs.backend.exception.UserNotFoundException;
+import com.huuminhs.backend.model.User;
+import com.huuminhs.backend.repository.FollowJdbcRepository;
+import com.huuminhs.backend.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+@Service
+@Slf4j
+public class FollowService {
+
+    private final FollowJdbcRepository followRepository;
+    private final UserRepository userRepository;
+
+    public FollowService(FollowJdbcRepository followRepository, UserRepository userRepository) {
+        this.followRepository = followRepository;
+        this.userRepository = userRepository;
+    }
+
+    @PostConstruct
+    public void start() {
+        try {
+            followRepository.createTableIfNotExists();
+        } catch (DataAccessException e) {
+            // Another replica may be creating it concurrently
+            log.warn("Failed to prepare the follows table: {}", e.getMessage());
+        }
+    }
+
+    public void follow(Long userId, String followeeUsername) {
+        log.info("User {} following {}", userId, followeeUsername);
+        Long followeeId = findUser(followeeUsername).getId();
+        if (userId.equals(followeeId)) {
+            throw new InvalidFollowException("You cannot follow yourself");
+        }
+        followRepository.follow(userId, followeeId);
+    }
+
+    public void unfollow(Long userId, String followeeUsername) {
+        log.info("User {} unfollowing {}", userId, followeeUsername);
+        followRepository.unfollow(userId, findUser(followeeUsername).getId());
+    }
+
+    public FollowStatusResponse getFollowStatus(Long userId, String followeeUsername) {
+        Long followeeId = findUser(followeeUsername).getId();
+        boolean following = !userId.equals(followeeId)
+                && followRepository.isFollowing(userId, followeeId);
+        return new FollowStatusResponse(following, followRepository.countFollowers(followeeId));
+    }
+
+    private User findUser(String username) {
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new UserNotFoundException(username));
+    }
+}
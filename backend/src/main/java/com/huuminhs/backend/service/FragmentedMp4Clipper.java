@@ -0,0 +1,527 @@
+package com.huuminhs.backend.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cuts a clip out of fragmented MP4 segments without touching the media samples.
+ * <p>
+ * The clip is the init section (ftyp + moov) of the first segment followed by the moof/mdat
+ * fragments that fall into the requested time range. Only box headers change: moof sequence
+ * numbers are renumbered and tfdt decode times are rebased so the clip starts at zero. Since no
+ * box changes size, trun data offsets stay valid. moof boxes are read into a small reusable
+ * buffer; mdat payloads are copied file-to-output with {@link FileChannel#transferTo}, so no
+ * segment is ever buffered in full.
+ * <p>
+ * Clips start at the last fragment at or before the requested start whose first samples are all
+ * sync samples, so playback begins on a keyframe.
+ */
+public class FragmentedMp4Clipper {
+
+    private static final int FTYP = fourCc("ftyp");
+    private static final int MOOV = fourCc("moov");
+    private static final int MOOF = fourCc("moof");
+    private static final int MDAT = fourCc("mdat");
+    private static final int TRAK = fourCc("trak");
+    private static final int TKHD = fourCc("tkhd");
+    private static final int MDIA = fourCc("mdia");
+    private static final int MDHD = fourCc("mdhd");
+    private static final int MVHD = fourCc("mvhd");
+    private static final int MVEX = fourCc("mvex");
+    private static final int MEHD = fourCc("mehd");
+    private static final int MFHD = fourCc("mfhd");
+    private static final int TRAF = fourCc("traf");
+    private static final int TFHD = fourCc("tfhd");
+    private static final int TFDT = fourCc("tfdt");
+    private static final int TRUN = fourCc("trun");
+
+    private static final int SAMPLE_IS_NON_SYNC = 0x00010000;
+
+    private final ByteBuffer header = ByteBuffer.allocate(16);
+    private ByteBuffer box = ByteBuffer.allocate(4096);
+
+    /**
+     * One input segment and the wall-clock time its first fragment starts at.
+     */
+    public record Segment(Path file, long startMillis) {
+    }
+
+    /**
+     * Wall-clock range of the fragments a clip consists of.
+     *
+     * @param endMillis start of the first fragment after the clip, or -1 if the segments end first
+     */
+    public record Range(long startMillis, long endMillis) {
+    }
+
+    /**
+     * Finds the fragments {@link #writeClip} copies for [fromMillis, toMillis), reading only the
+     * moof boxes. Every range that snaps to the same fragments gives the same clip.
+     *
+     * @return null if the range contains no media
+     */
+    public Range snap(List<Segment> segments, long fromMillis, long toMillis) throws IOException {
+        ClipState state = scan(segments, fromMillis, toMillis, null);
+        return state == null || state.sequence == 0 ? null : new Range(state.clipStartMillis, state.endMillis);
+    }
+
+    /**
+     * Writes the clip covering [fromMillis, toMillis) (wall-clock) to {@code out}.
+     *
+     * @return the number of fragments written; zero means the range contains no media
+     */
+    public int writeClip(List<Segment> segments, long fromMillis, long toMillis, WritableByteChannel out)
+            throws IOException {
+        ClipState state = scan(segments, fromMillis, toMillis, out);
+        return state == null ? 0 : state.sequence;
+    }
+
+    /**
+     * Walks the fragments of the clip, writing them to {@code out} unless it is null.
+     *
+     * @return null if there are no segments
+     */
+    private ClipState scan(List<Segment> segments, long fromMillis, long toMillis, WritableByteChannel out)
+            throws IOException {
+        if (segments.isEmpty()) {
+            return null;
+        }
+
+        Map<Integer, Long> timescales;
+        long movieTimescale;
+        try (FileChannel first = FileChannel.open(segments.get(0).file(), StandardOpenOption.READ)) {
+            ByteBuffer init = readInit(first);
+            timescales = new HashMap<>();
+            movieTimescale = parseMoov(init, timescales);
+            if (out != null) {
+                patchMehd(init, movieTimescale, toMillis - fromMillis);
+                writeFully(init, out);
+            }
+        }
+
+        ClipState state = new ClipState(timescales);
+        for (int i = 0; i < segments.size(); i++) {
+            Segment segment = segments.get(i);
+            try (FileChannel channel = FileChannel.open(segment.file(), StandardOpenOption.READ)) {
+                // First decode time per track in this segment, the zero point of its wall-clock times
+                Map<Integer, Long> baseDecodeTimes = new HashMap<>();
+                long position = i == 0
+                        ? findStartFragment(channel, segment.startMillis(), fromMillis, baseDecodeTimes, timescales)
+                        : firstFragment(channel);
+                state.startSegment(segment.startMillis(), baseDecodeTimes);
+                if (!copyFragments(channel, position, toMillis, state, out)) {
+                    break;
+                }
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Reads ftyp and moov into one buffer, ready to be written as the clip's init section.
+     */
+    private ByteBuffer readInit(FileChannel channel) throws IOException {
+        long position = 0;
+        long size = channel.size();
+        ByteBuffer ftyp = null;
+        while (position < size) {
+            long boxSize = readHeader(channel, position, size);
+            int type = header.getInt(4);
+            if (type == FTYP) {
+                ftyp = readBox(channel, position, boxSize);
+                ftyp = ByteBuffer.allocate(ftyp.remaining()).put(ftyp).flip();
+            } else if (type == MOOV) {
+                ByteBuffer moov = readBox(channel, position, boxSize);
+                int ftypSize = ftyp != null ? ftyp.remaining() : 0;
+                ByteBuffer init = ByteBuffer.allocate(ftypSize + moov.remaining());
+                if (ftyp != null) {
+                    init.put(ftyp);
+                }
+                return init.put(moov).flip();
+            } else if (type == MOOF) {
+                break;
+            }
+            position += boxSize;
+        }
+        throw new IOException("No moov box before the first fragment");
+    }
+
+    /**
+     * Collects track timescales from the moov box in {@code init}.
+     *
+     * @return the movie timescale from mvhd
+     */
+    private long parseMoov(ByteBuffer init, Map<Integer, Long> timescales) {
+        int moov = findChild(init, 0, init.limit(), MOOV);
+        long movieTimescale = 1000;
+        int mvhd = findChild(init, moov + 8, end(init, moov), MVHD);
+        if (mvhd >= 0) {
+            int version = init.get(mvhd + 8);
+            movieTimescale = init.getInt(mvhd + (version == 1 ? 28 : 20)) & 0xFFFFFFFFL;
+        }
+
+        for (int trak = findChild(init, moov + 8, end(init, moov), TRAK); trak >= 0;
+             trak = findChild(init, end(init, trak), end(init, moov), TRAK)) {
+            int tkhd = findChild(init, trak + 8, end(init, trak), TKHD);
+            int mdia = findChild(init, trak + 8, end(init, trak), MDIA);
+            int mdhd = mdia >= 0 ? findChild(init, mdia + 8, end(init, mdia), MDHD) : -1;
+            if (tkhd < 0 || mdhd < 0) {
+                continue;
+            }
+            int trackId = init.getInt(tkhd + (init.get(tkhd + 8) == 1 ? 28 : 20));
+            long timescale = init.getInt(mdhd + (init.get(mdhd + 8) == 1 ? 28 : 20)) & 0xFFFFFFFFL;
+            timescales.put(trackId, timescale);
+        }
+        return movieTimescale;
+    }
+
+    /**
+     * Sets the fragment duration announced in mvex/mehd, if present, to the clip duration.
+     */
+    private void patchMehd(ByteBuffer init, long movieTimescale, long durationMillis) {
+        int moov = findChild(init, 0, init.limit(), MOOV);
+        int mvex = findChild(init, moov + 8, end(init, moov), MVEX);
+        int mehd = mvex >= 0 ? findChild(init, mvex + 8, end(init, mvex), MEHD) : -1;
+        if (mehd < 0) {
+            return;
+        }
+        long duration = durationMillis * movieTimescale / 1000;
+        if (init.get(mehd + 8) == 1) {
+            init.putLong(mehd + 12, duration);
+        } else {
+            init.putInt(mehd + 12, (int) Math.min(duration, 0xFFFFFFFFL));
+        }
+    }
+
+    private long firstFragment(FileChannel channel) throws IOException {
+        long position = 0;
+        long size = channel.size();
+        while (position < size) {
+            long boxSize = readHeader(channel, position, size);
+            if (header.getInt(4) == MOOF) {
+                return position;
+            }
+            position += boxSize;
+        }
+        return size;
+    }
+
+    /**
+     * Scans moof headers of the first segment for the last sync fragment starting at or before
+     * {@code fromMillis}; falls back to the first fragment of the segment.
+     */
+    private long findStartFragment(FileChannel channel, long segmentStartMillis, long fromMillis,
+                                   Map<Integer, Long> baseDecodeTimes, Map<Integer, Long> timescales)
+            throws IOException {
+        long position = firstFragment(channel);
+        long start = position;
+        long size = channel.size();
+
+        while (position < size) {
+            long boxSize = readHeader(channel, position, size);
+            if (header.getInt(4) == MOOF) {
+                ByteBuffer moof = readBox(channel, position, boxSize);
+                Fragment fragment = parseMoof(moof);
+                long startMillis = fragment.startMillis(segmentStartMillis, baseDecodeTimes, timescales);
+                if (startMillis > fromMillis) {
+                    break;
+                }
+                if (fragment.sync) {
+                    start = position;
+                }
+            }
+            position += boxSize;
+        }
+        return start;
+    }
+
+    /**
+     * Copies fragments starting at {@code position} until one starts at or after {@code toMillis};
+     * with a null {@code out} only counts them.
+     *
+     * @return false once the end of the clip has been reached
+     */
+    private boolean copyFragments(FileChannel channel, long position, long toMillis,
+                                  ClipState state, WritableByteChannel out) throws IOException {
+        long size = channel.size();
+
+        while (position < size) {
+            long boxSize = readHeader(channel, position, size);
+            if (header.getInt(4) != MOOF) {
+                position += boxSize;
+                continue;
+            }
+
+            ByteBuffer moof = readBox(channel, position, boxSize);
+            long mdatPosition = position + boxSize;
+            long mdatSize = mdatPosition < size ? readHeader(channel, mdatPosition, size) : 0;
+            if (mdatSize == 0 || header.getInt(4) != MDAT) {
+                // A fragment without its complete media, e.g. the last part of an interrupted recording
+                position = mdatPosition;
+                continue;
+            }
+
+            Fragment fragment = parseMoof(moof);
+            long startMillis = fragment.startMillis(state.segmentStartMillis, state.baseDecodeTimes, state.timescales);
+            if (startMillis >= toMillis) {
+                state.endMillis = startMillis;
+                return false;
+            }
+            state.rewrite(moof, fragment, startMillis);
+            if (out != null) {
+                writeFully(moof, out);
+                long written = 0;
+                while (written < mdatSize) {
+                    written += channel.transferTo(mdatPosition + written, mdatSize - written, out);
+                }
+            }
+            position = mdatPosition + mdatSize;
+        }
+        return true;
+    }
+
+    private Fragment parseMoof(ByteBuffer moof) {
+        Fragment fragment = new Fragment();
+        int end = moof.limit();
+        fragment.mfhd = findChild(moof, 8, end, MFHD);
+
+        for (int traf = findChild(moof, 8, end, TRAF); traf >= 0; traf = findChild(moof, end(moof, traf), end, TRAF)) {
+            int tfhd = findChild(moof, traf + 8, end(moof, traf), TFHD);
+            int tfdt = findChild(moof, traf + 8, end(moof, traf), TFDT);
+            int trun = findChild(moof, traf + 8, end(moof, traf), TRUN);
+            if (tfhd < 0 || tfdt < 0) {
+                continue;
+            }
+            int trackId = moof.getInt(tfhd + 12);
+            boolean version1 = moof.get(tfdt + 8) == 1;
+            long decodeTime = version1 ? moof.getLong(tfdt + 12) : moof.getInt(tfdt + 12) & 0xFFFFFFFFL;
+            fragment.add(trackId, tfdt, decodeTime);
+
+            if (trun >= 0 && (firstSampleFlags(moof, tfhd, trun) & SAMPLE_IS_NON_SYNC) != 0) {
+                fragment.sync = false;
+            }
+        }
+        return fragment;
+    }
+
+    /**
+     * Flags of the first sample in a trun; zero (sync) when neither trun nor tfhd carries them.
+     */
+    private static int firstSampleFlags(ByteBuffer moof, int tfhd, int trun) {
+        int trunFlags = moof.getInt(trun + 8) & 0xFFFFFF;
+        int offset = trun + 16; // after the full box header and sample_count
+        if ((trunFlags & 0x001) != 0) {
+            offset += 4; // data_offset
+        }
+        if ((trunFlags & 0x004) != 0) {
+            return moof.getInt(offset);
+        }
+        if ((trunFlags & 0x400) != 0) {
+            if ((trunFlags & 0x100) != 0) {
+                offset += 4;
+            }
+            if ((trunFlags & 0x200) != 0) {
+                offset += 4;
+            }
+            return moof.getInt(offset);
+        }
+
+        int tfhdFlags = moof.getInt(tfhd + 8) & 0xFFFFFF;
+        if ((tfhdFlags & 0x20) == 0) {
+            return 0;
+        }
+        int tfhdOffset = tfhd + 16; // after the full box header and track_ID
+        if ((tfhdFlags & 0x01) != 0) {
+            tfhdOffset += 8;
+        }
+        for (int flag : new int[]{0x02, 0x08, 0x10}) {
+            if ((tfhdFlags & flag) != 0) {
+                tfhdOffset += 4;
+            }
+        }
+        return moof.getInt(tfhdOffset);
+    }
+
+    /**
+     * Reads the header of the box at {@code position} into {@link #header}.
+     *
+     * @return the full box size
+     */
+    private long readHeader(FileChannel channel, long position, long fileSize) throws IOException {
+        header.clear();
+        readFully(channel, header, position);
+        long size = header.position() >= 8 ? header.getInt(0) & 0xFFFFFFFFL : 0;
+        if (size == 1) {
+            size = header.position() == 16 ? header.getLong(8) : 0;
+        } else if (size == 0 && header.position() >= 8) {
+            size = fileSize - position;
+        }
+        if (size < 8 || position + size > fileSize) {
+            // Truncated box, e.g. the part MediaMTX was writing when the publisher disconnected:
+            // blank out its type so callers skip it
+            header.putInt(4, 0);
+            return fileSize - position;
+        }
+        return size;
+    }
+
+    private ByteBuffer readBox(FileChannel channel, long position, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Box too large to read: " + size);
+        }
+        if (box.capacity() < size) {
+            box = ByteBuffer.allocate(Integer.highestOneBit((int) size) << 1);
+        }
+        box.clear().limit((int) size);
+        readFully(channel, box, position);
+        return box.flip();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                break;
+            }
+        }
+    }
+
+    private static void writeFully(ByteBuffer buffer, WritableByteChannel out) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    /**
+     * @return the offset of the first child box of the given type in [from, to), or -1
+     */
+    private static int findChild(ByteBuffer buffer, int from, int to, int type) {
+        int position = from;
+        while (position >= 0 && position + 8 <= to) {
+            int size = buffer.getInt(position);
+            if (buffer.getInt(position + 4) == type) {
+                return position;
+            }
+            if (size < 8) {
+                return -1;
+            }
+            position += size;
+        }
+        return -1;
+    }
+
+    private static int end(ByteBuffer buffer, int box) {
+        return box + buffer.getInt(box);
+    }
+
+    private static int fourCc(String type) {
+        return ByteBuffer.wrap(type.getBytes(StandardCharsets.US_ASCII)).getInt();
+    }
+
+    /**
+     * Offsets and decode times of one moof's tracks.
+     */
+    private static final class Fragment {
+        private int mfhd = -1;
+        private boolean sync = true;
+        private int tracks;
+        private int[] trackIds = new int[2];
+        private int[] tfdtOffsets = new int[2];
+        private long[] decodeTimes = new long[2];
+
+        private void add(int trackId, int tfdtOffset, long decodeTime) {
+            if (tracks == trackIds.length) {
+                trackIds = Arrays.copyOf(trackIds, tracks * 2);
+                tfdtOffsets = Arrays.copyOf(tfdtOffsets, tracks * 2);
+                decodeTimes = Arrays.copyOf(decodeTimes, tracks * 2);
+            }
+            trackIds[tracks] = trackId;
+            tfdtOffsets[tracks] = tfdtOffset;
+            decodeTimes[tracks] = decodeTime;
+            tracks++;
+        }
+
+        /**
+         * Wall-clock start, measured from the first decode time seen for the track in this segment.
+         */
+        private long startMillis(long segmentStartMillis, Map<Integer, Long> baseDecodeTimes,
+                                 Map<Integer, Long> timescales) {
+            if (tracks == 0) {
+                return segmentStartMillis;
+            }
+            long base = baseDecodeTimes.computeIfAbsent(trackIds[0], id -> decodeTimes[0]);
+            long timescale = timescales.getOrDefault(trackIds[0], 1000L);
+            for (int i = 1; i < tracks; i++) {
+                long decodeTime = decodeTimes[i];
+                baseDecodeTimes.computeIfAbsent(trackIds[i], id -> decodeTime);
+            }
+            return segmentStartMillis + (decodeTimes[0] - base) * 1000 / timescale;
+        }
+    }
+
+    /**
+     * Sequence numbering and decode time offsets carried across segments.
+     */
+    private static final class ClipState {
+        private final Map<Integer, Long> timescales;
+        // Per track, what to add to an input decode time of the current segment to get the output one
+        private final Map<Integer, Long> decodeTimeOffsets = new HashMap<>();
+        private Map<Integer, Long> baseDecodeTimes;
+        private long segmentStartMillis;
+        private long clipStartMillis = -1;
+        // Start of the first fragment left out at the end, -1 if the segments ended first
+        private long endMillis = -1;
+        private int sequence;
+
+        private ClipState(Map<Integer, Long> timescales) {
+            this.timescales = timescales;
+        }
+
+        private void startSegment(long segmentStartMillis, Map<Integer, Long> baseDecodeTimes) {
+            this.segmentStartMillis = segmentStartMillis;
+            this.baseDecodeTimes = baseDecodeTimes;
+            decodeTimeOffsets.clear();
+        }
+
+        private void rewrite(ByteBuffer moof, Fragment fragment, long startMillis) {
+            boolean firstFragment = clipStartMillis < 0;
+            if (firstFragment) {
+                clipStartMillis = startMillis;
+            }
+            sequence++;
+            if (fragment.mfhd >= 0) {
+                moof.putInt(fragment.mfhd + 12, sequence);
+            }
+
+            for (int i = 0; i < fragment.tracks; i++) {
+                long inputDecodeTime = fragment.decodeTimes[i];
+                long offset = decodeTimeOffsets.computeIfAbsent(fragment.trackIds[i], id -> {
+                    if (firstFragment) {
+                        return -inputDecodeTime;
+                    }
+                    // Place the segment's first decode time at its wall-clock distance from the clip start
+                    long timescale = timescales.getOrDefault(id, 1000L);
+                    long base = baseDecodeTimes.getOrDefault(id, inputDecodeTime);
+                    return (segmentStartMillis - clipStartMillis) * timescale / 1000 - base;
+                });
+                long decodeTime = Math.max(0, inputDecodeTime + offset);
+
+                int tfdt = fragment.tfdtOffsets[i];
+                if (moof.get(tfdt + 8) == 1) {
+                    moof.putLong(tfdt + 12, decodeTime);
+                } else {
+                    moof.putInt(tfdt + 12, (int) decodeTime);
+                }
+            }
+        }
+    }
+}
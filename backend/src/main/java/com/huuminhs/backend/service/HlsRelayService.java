@@ -0,0 +1,214 @@
+package com.huuminhs.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Relays low-latency HLS from MediaMTX, so viewers of a popular stream don't all hit the ingest
+ * server.
+ * <p>
+ * Parts, segments and init sections have unique names per muxer and never change, so they are
+ * cached by path in the off-heap {@link HlsSegmentCache}. Playlists change every part and are
+ * only cached briefly. Concurrent requests for the same key share one upstream request; this
+ * matters most for preload hints and blocking playlist reloads ({@code _HLS_msn}/{@code _HLS_part}),
+ * where every viewer asks for the same not-yet-available resource at the same moment. Requests
+ * are async end to end, so a viewer waiting on a blocking reload doesn't hold a servlet thread.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(prefix = "hls.relay", name = "enabled", havingValue = "true")
+public class HlsRelayService {
+
+    private static final Pattern FILE_NAME = Pattern.compile("[A-Za-z0-9_-][A-Za-z0-9_.-]*");
+
+    // Query parameters of LL-HLS playlist requests; anything else is not forwarded
+    private static final Set<String> PLAYLIST_PARAMETERS = Set.of("_HLS_msn", "_HLS_part", "_HLS_skip");
+
+    private static final int MAX_PLAYLIST_ENTRIES = 4096;
+
+    @Value("${hls.relay.origin:http://localhost:8888}")
+    private String origin = "http://localhost:8888";
+
+    @Value("${hls.relay.path-prefix:stream}")
+    private String pathPrefix = "stream";
+
+    @Value("${hls.relay.cache-bytes:134217728}")
+    private long cacheBytes = 134_217_728;
+
+    // About half a part, so a playlist is fetched at most twice per part from upstream
+    @Value("${hls.relay.playlist-ttl-ms:100}")
+    private long playlistTtlMs = 100;
+
+    // A blocking reload's answer stays valid for its msn/part, it only misses newer parts
+    @Value("${hls.relay.blocking-playlist-ttl-ms:2000}")
+    private long blockingPlaylistTtlMs = 2000;
+
+    // Must exceed how long MediaMTX holds blocking reloads, about three target durations
+    @Value("${hls.relay.request-timeout-ms:10000}")
+    private long requestTimeoutMs = 10000;
+
+    private HttpClient httpClient;
+    private HlsSegmentCache segmentCache;
+
+    private final Map<String, CompletableFuture<HlsResponse>> inflight = new ConcurrentHashMap<>();
+    private final Map<String, PlaylistEntry> playlists = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void start() {
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        segmentCache = new HlsSegmentCache(cacheBytes);
+        log.info("HLS relay to {} enabled with a {} MB segment cache", origin, cacheBytes / (1024 * 1024));
+    }
+
+    public CompletableFuture<HlsResponse> fetch(Long streamId, String fileName, String query) {
+        if (!FILE_NAME.matcher(fileName).matches()) {
+            return CompletableFuture.completedFuture(HlsResponse.status(404));
+        }
+        boolean playlist = fileName.endsWith(".m3u8");
+        String path = "/" + pathPrefix + "/" + streamId + "/" + fileName;
+        String key = playlist ? path + playlistQuery(query) : path;
+
+        HlsResponse cached = cached(key, playlist);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<HlsResponse> mine = new CompletableFuture<>();
+        CompletableFuture<HlsResponse> existing = inflight.putIfAbsent(key, mine);
+        if (existing != null) {
+            return existing;
+        }
+        // A flight for this key may have completed between the cache check and registering ours
+        cached = cached(key, playlist);
+        if (cached != null) {
+            inflight.remove(key, mine);
+            mine.complete(cached);
+            return mine;
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(origin + key))
+                .timeout(Duration.ofMillis(requestTimeoutMs))
+                .GET()
+                .build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, error) -> {
+                    HlsResponse result;
+                    try {
+                        result = error != null ? upstreamError(key, error) : store(key, playlist, response);
+                    } catch (RuntimeException e) {
+                        log.error("Failed to relay {}", key, e);
+                        result = HlsResponse.status(502);
+                    }
+                    // Cached before the flight is removed, so late arrivals find one or the other
+                    inflight.remove(key, mine);
+                    mine.complete(result);
+                    return null;
+                });
+        return mine;
+    }
+
+    public HlsSegmentCache getSegmentCache() {
+        return segmentCache;
+    }
+
+    private HlsResponse cached(String key, boolean playlist) {
+        if (playlist) {
+            PlaylistEntry entry = playlists.get(key);
+            if (entry != null && System.nanoTime() < entry.expiresAt) {
+                return new HlsResponse(200, entry.contentType, ByteBuffer.wrap(entry.body).asReadOnlyBuffer(), true);
+            }
+            return null;
+        }
+        HlsSegmentCache.Entry entry = segmentCache.get(key);
+        return entry != null ? new HlsResponse(200, entry.contentType(), entry.body(), false) : null;
+    }
+
+    private HlsResponse store(String key, boolean playlist, HttpResponse<byte[]> response) {
+        String contentType = response.headers().firstValue("Content-Type")
+                .orElse(playlist ? "application/vnd.apple.mpegurl" : "video/mp4");
+        if (response.statusCode() != 200) {
+            // Not cached: a missing part usually appears a moment later
+            return HlsResponse.status(response.statusCode());
+        }
+
+        if (!playlist) {
+            HlsSegmentCache.Entry entry = segmentCache.put(key, response.body(), contentType);
+            return new HlsResponse(200, contentType, entry.body(), false);
+        }
+
+        long ttlMs = key.contains("_HLS_msn=") ? blockingPlaylistTtlMs : playlistTtlMs;
+        if (playlists.size() >= MAX_PLAYLIST_ENTRIES) {
+            long now = System.nanoTime();
+            playlists.values().removeIf(entry -> entry.expiresAt <= now);
+        }
+        playlists.put(key, new PlaylistEntry(response.body(), contentType, System.nanoTime() + ttlMs * 1_000_000));
+        return new HlsResponse(200, contentType, ByteBuffer.wrap(response.body()).asReadOnlyBuffer(), true);
+    }
+
+    private HlsResponse upstreamError(String key, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof HttpTimeoutException) {
+            log.warn("HLS origin timed out for {}", key);
+            return HlsResponse.status(504);
+        }
+        log.warn("HLS origin request failed for {}: {}", key, cause.toString());
+        return HlsResponse.status(502);
+    }
+
+    /**
+     * Keeps only the LL-HLS parameters, in a fixed order, so equivalent requests share a key.
+     */
+    private static String playlistQuery(String query) {
+        if (query == null || query.isEmpty()) {
+            return "";
+        }
+        Map<String, String> parameters = new TreeMap<>();
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            if (PLAYLIST_PARAMETERS.contains(name) && value.matches("[0-9A-Za-z]{1,20}")) {
+                parameters.put(name, value);
+            }
+        }
+        if (parameters.isEmpty()) {
+            return "";
+        }
+        StringJoiner joined = new StringJoiner("&", "?", "");
+        parameters.forEach((name, value) -> joined.add(name + "=" + value));
+        return joined.toString();
+    }
+
+    private record PlaylistEntry(byte[] body, String contentType, long expiresAt) {
+    }
+
+    /**
+     * A relayed response. {@code body} is null for error statuses.
+     */
+    public record HlsResponse(int status, String contentType, ByteBuffer body, boolean playlist) {
+        static HlsResponse status(int status) {
+            return new HlsResponse(status, null, null, false);
+        }
+    }
+}
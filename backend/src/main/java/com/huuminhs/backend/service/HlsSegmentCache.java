@@ -0,0 +1,85 @@
+package com.huuminhs.backend.service;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size-bounded LRU cache of HLS parts and segments, held in direct buffers outside the heap.
+ * <p>
+ * Media bytes make up nearly all of the relay's memory, and they are exactly the kind of
+ * medium-lived, large data that fills the old generation. Keeping them in direct buffers leaves
+ * the heap to request-scoped objects. Evicting an entry only drops the map's reference; responses
+ * still writing it keep their own view, and the memory is released once they are done.
+ */
+public class HlsSegmentCache {
+
+    private final long maxBytes;
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long usedBytes;
+
+    public HlsSegmentCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return the cached entry, or null
+     */
+    public synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Copies the bytes off-heap and caches them, evicting least recently used entries as needed.
+     * Items larger than a quarter of the cache are returned without being cached, so a single
+     * oversized segment can't flush everything else.
+     */
+    public Entry put(String key, byte[] bytes, String contentType) {
+        if (bytes.length > maxBytes / 4) {
+            return new Entry(ByteBuffer.wrap(bytes).asReadOnlyBuffer(), contentType);
+        }
+        // Allocated and filled outside the lock, which only guards the map
+        ByteBuffer data = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip().asReadOnlyBuffer();
+        Entry entry = new Entry(data, contentType);
+
+        synchronized (this) {
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                usedBytes -= previous.size();
+            }
+            usedBytes += entry.size();
+
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while (usedBytes > maxBytes && eldest.hasNext()) {
+                usedBytes -= eldest.next().getValue().size();
+                eldest.remove();
+            }
+        }
+        return entry;
+    }
+
+    public synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Cached bytes and their content type. {@link #body()} returns an independent view, so
+     * concurrent responses can write the same entry.
+     */
+    public record Entry(ByteBuffer data, String contentType) {
+        public ByteBuffer body() {
+            return data.duplicate();
+        }
+
+        public int size() {
+            return data.capacity();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.huuminhs.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.huuminhs.backend.security.JwtTokenProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Minimal client for the list endpoints of the MediaMTX Control API (v3).
+ * <p>
+ * MediaMTX authenticates the API with the same JWKS as publishers, so each call carries a
+ * short-lived MediaMTX token with the {@code api} permission, reused until half its lifetime is over.
+ */
+@Component
+public class MediaMtxApiClient {
+
+    /**
+     * MediaMTX answered but refused the token, a configuration problem rather than an outage.
+     */
+    public static class UnauthorizedException extends IOException {
+        public UnauthorizedException(String message) {
+            super(message);
+        }
+    }
+
+    private static final int ITEMS_PER_PAGE = 1000;
+
+    private final ObjectMapper objectMapper;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+
+    @Value("${mediamtx.api.url:http://localhost:9997}")
+    private String apiUrl = "http://localhost:9997";
+
+    @Value("${mediamtx.api.path-prefix:stream}")
+    private String pathPrefix = "stream";
+
+    @Value("${mediamtx.api.token-ttl-ms:60000}")
+    private long tokenTtlMs = 60000;
+
+    private String token;
+    private long tokenRenewAt;
+
+    public MediaMtxApiClient(ObjectMapper objectMapper, JwtTokenProvider jwtTokenProvider) {
+        this.objectMapper = objectMapper;
+        this.jwtTokenProvider = jwtTokenProvider;
+    }
+
+    public String getApiUrl() {
+        return apiUrl;
+    }
+
+    public List<JsonNode> listPaths() throws IOException, InterruptedException {
+        return list("/v3/paths/list");
+    }
+
+    public List<JsonNode> listWebRtcSessions() throws IOException, InterruptedException {
+        return list("/v3/webrtcsessions/list");
+    }
+
+    /**
+     * @return IDs of the streams whose path currently has a ready publisher
+     */
+    public Set<Long> listReadyStreamIds() throws IOException, InterruptedException {
+        Set<Long> ready = new HashSet<>();
+        for (JsonNode path : listPaths()) {
+            Long streamId = streamId(path.path("name").asText());
+            if (streamId != null && path.path("ready").asBoolean()) {
+                ready.add(streamId);
+            }
+        }
+        return ready;
+    }
+
+    /**
+     * @return the stream ID of a MediaMTX path like "stream/42", or null for other paths
+     */
+    public Long streamId(String path) {
+        String prefix = pathPrefix + "/";
+        if (!path.startsWith(prefix)) {
+            return null;
+        }
+        try {
+            return Long.valueOf(path.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Fetches all pages of a list endpoint. A 404 (e.g. WebRTC disabled) counts as an empty list.
+     *
+     * @throws UnauthorizedException on 401 or 403
+     */
+    private List<JsonNode> list(String endpoint) throws IOException, InterruptedException {
+        List<JsonNode> items = new ArrayList<>();
+        int pageCount = 1;
+        for (int page = 0; page < pageCount; page++) {
+            HttpRequest request = HttpRequest.newBuilder(
+                            URI.create(apiUrl + endpoint + "?itemsPerPage=" + ITEMS_PER_PAGE + "&page=" + page))
+                    .timeout(Duration.ofSeconds(2))
+                    .header("Authorization", "Bearer " + token())
+                    .GET()
+                    .build();
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() == 404) {
+                return items;
+            }
+            if (response.statusCode() == 401 || response.statusCode() == 403) {
+                throw new UnauthorizedException(endpoint + " returned " + response.statusCode()
+                        + ", check that authJWTJWKS in mediamtx.yml points at this backend");
+            }
+            if (response.statusCode() != 200) {
+                throw new IOException(endpoint + " returned " + response.statusCode());
+            }
+            JsonNode body = objectMapper.readTree(response.body());
+            body.path("items").forEach(items::add);
+            pageCount = body.path("pageCount").asInt(1);
+        }
+        return items;
+    }
+
+    private synchronized String token() {
+        long now = System.currentTimeMillis();
+        if (token == null || now >= tokenRenewAt) {
+            token = jwtTokenProvider.generateMediaMtxApiToken(tokenTtlMs);
+            tokenRenewAt = now + tokenTtlMs / 2;
+        }
+        return token;
+    }
+}
@@ -0,0 +1,196 @@
+package com.huuminhs.backend.service;
+
+import com.huuminhs.backend.dto.NotificationResponse;
+import com.huuminhs.backend.dto.PaginatedResponse;
+import com.huuminhs.backend.repository.NotificationJdbcRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Stream went live" notifications for the followers of its creator, and the precomputed
+ * following feeds read by {@link FeedService}.
+ * <p>
+ * Creating a stream or going live only inserts one event row, so the request costs the same
+ * however many followers the creator has. Background workers claim events with
+ * {@code SKIP LOCKED} and write the notifications and feed entries in chunks of
+ * {@code notifications.fanout.chunk-size} followers, one statement and one short transaction per
+ * chunk. Workers on all replicas share the events, several events are fanned out in parallel,
+ * and a fan-out cut short by a restart is resumed from its last chunk.
+ */
+@Service
+@Slf4j
+public class NotificationService {
+
+    private final NotificationJdbcRepository notificationRepository;
+    private final TransactionTemplate transaction;
+
+    @Value("${notifications.fanout.workers:2}")
+    private int workerCount = 2;
+
+    @Value("${notifications.fanout.chunk-size:5000}")
+    private int chunkSize = 5000;
+
+    // How often idle workers look for events queued by other replicas
+    @Value("${notifications.fanout.poll-interval-ms:1000}")
+    private long pollIntervalMs = 1000;
+
+    // Stream IDs kept per following feed
+    @Value("${feed.capacity:500}")
+    private int feedCapacity = 500;
+
+    @Value("${notifications.max-limit:100}")
+    private int maxLimit = 100;
+
+    // Released for every event queued here, so local events are picked up without waiting for the poll
+    private final Semaphore wakeups = new Semaphore(0);
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public NotificationService(NotificationJdbcRepository notificationRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.notificationRepository = notificationRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void start() {
+        try {
+            notificationRepository.createTablesIfNotExist();
+        } catch (DataAccessException e) {
+            // Another replica may be creating them concurrently
+            log.warn("Failed to prepare the notification tables: {}", e.getMessage());
+        }
+
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::workLoop, "notification-fanout-" + (i + 1));
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    /**
+     * Stops the workers; a chunk in progress is rolled back and redone by the next worker.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /**
+     * Queues the notification of the followers of the streams' creators, which also promotes the
+     * streams to the head of their feeds. Never throws, a lost notification must not fail the
+     * status change that caused it.
+     */
+    public void streamsWentLive(Collection<Long> streamIds) {
+        queue(streamIds, true);
+    }
+
+    /**
+     * Queues adding a new stream to the feeds of its creator's followers, without a notification.
+     */
+    public void streamCreated(Long streamId) {
+        queue(List.of(streamId), false);
+    }
+
+    /**
+     * @param cursor the {@code nextCursor} of the previous page, null for the newest notifications
+     */
+    public PaginatedResponse<NotificationResponse> getUnread(Long userId, Long cursor, int limit) {
+        limit = Math.max(1, Math.min(limit, maxLimit));
+        // Request one more item to determine if there are more items
+        List<NotificationResponse> notifications = notificationRepository.findUnread(userId, cursor, limit + 1);
+        boolean hasMore = notifications.size() > limit;
+        if (hasMore) {
+            notifications = notifications.subList(0, limit);
+        }
+        Long nextCursor = hasMore ? notifications.get(notifications.size() - 1).getId() : null;
+        return PaginatedResponse.of(notifications, nextCursor, hasMore);
+    }
+
+    /**
+     * Marks a notification read; unknown IDs and other users' notifications are ignored.
+     */
+    public void markRead(Long userId, Long notificationId) {
+        notificationRepository.markRead(userId, notificationId);
+    }
+
+    public void markAllRead(Long userId) {
+        notificationRepository.markAllRead(userId);
+    }
+
+    /**
+     * Fans the oldest unclaimed event out to one chunk of followers.
+     *
+     * @return false if there was no event to work on
+     */
+    boolean fanOutChunk() {
+        Boolean worked = transaction.execute(status -> {
+            NotificationJdbcRepository.Event event = notificationRepository.claimEvent();
+            if (event == null) {
+                return false;
+            }
+            NotificationJdbcRepository.Chunk chunk = notificationRepository.fanOut(event, chunkSize, feedCapacity);
+            if (chunk.followers() < chunkSize) {
+                notificationRepository.deleteEvent(event.id());
+                log.debug("Finished fan-out of event {} for stream {}", event.id(), event.streamId());
+            } else {
+                notificationRepository.advanceEvent(event.id(), chunk.lastFollowerId());
+            }
+            return true;
+        });
+        return Boolean.TRUE.equals(worked);
+    }
+
+    private void queue(Collection<Long> streamIds, boolean notify) {
+        if (streamIds.isEmpty()) {
+            return;
+        }
+        try {
+            int queued = notificationRepository.insertEvents(streamIds.toArray(new Long[0]), notify);
+            wakeups.release(queued);
+        } catch (DataAccessException e) {
+            log.warn("Failed to queue the fan-out of streams {}: {}", streamIds, e.getMessage());
+        }
+    }
+
+    private void workLoop() {
+        while (running) {
+            try {
+                boolean worked;
+                try {
+                    worked = fanOutChunk();
+                } catch (RuntimeException e) {
+                    // Database errors as well as failed commits; the worker must keep running
+                    log.warn("Failed to fan out stream events, retrying: {}", e.getMessage());
+                    worked = false;
+                }
+                if (!worked) {
+                    wakeups.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.huuminhs.backend.service;
+
+import com.huuminhs.backend.exception.StreamNotFoundException;
+import com.huuminhs.backend.exception.UnknownReactionException;
+import com.huuminhs.backend.model.ReactionType;
+import com.huuminhs.backend.repository.StreamReactionJdbcRepository;
+import com.huuminhs.backend.repository.StreamRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reaction counting that keeps the hot rows of popular streams out of the request path.
+ * <p>
+ * A reaction only increments an in-memory {@link LongAdder} per stream and type, which spreads
+ * concurrent increments over per-thread cells instead of contending on one value. Every
+ * {@code reactions.flush-interval-ms} the amounts counted since the last flush are added to the
+ * stored totals in one statement for all streams, so each total is written at most once per
+ * interval however many reactions it gets. A failed flush loses nothing; its deltas are simply
+ * included in the next one. Totals in listings lag by up to one interval; a flush leaves the
+ * cached stream details alone, so their totals lag by up to {@code stream.detail-cache.ttl-ms}.
+ */
+@Service
+@Slf4j
+public class ReactionService {
+
+    private static final int TYPES = ReactionType.values().length;
+
+    private static final class Counters {
+        final LongAdder[] counted = new LongAdder[TYPES];
+        // Amount of each adder already added to the stored totals, only touched by the flush
+        final long[] flushed = new long[TYPES];
+        int idleFlushes;
+
+        Counters() {
+            for (int i = 0; i < TYPES; i++) {
+                counted[i] = new LongAdder();
+            }
+        }
+    }
+
+    private record Delta(Counters counters, int type, long amount) {
+    }
+
+    private final StreamReactionJdbcRepository reactionRepository;
+    private final StreamRepository streamRepository;
+    private final StreamChangeTracker changeTracker;
+
+    // Counters without reactions for this many flushes are dropped from memory
+    @Value("${reactions.idle-flushes:12}")
+    private int idleFlushes = 12;
+
+    private final Map<Long, Counters> counters = new ConcurrentHashMap<>();
+
+    // Dropped counters, flushed once more in case an increment raced with the removal
+    private List<Map.Entry<Long, Counters>> retired = new ArrayList<>();
+
+    public ReactionService(StreamReactionJdbcRepository reactionRepository, StreamRepository streamRepository,
+                           StreamChangeTracker changeTracker) {
+        this.reactionRepository = reactionRepository;
+        this.streamRepository = streamRepository;
+        this.changeTracker = changeTracker;
+    }
+
+    @PostConstruct
+    public void start() {
+        try {
+            reactionRepository.createTableIfNotExists();
+        } catch (DataAccessException e) {
+            // Another replica may be creating it concurrently
+            log.warn("Failed to prepare the stream_reactions table: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        flush();
+    }
+
+    /**
+     * Counts one reaction to a stream.
+     *
+     * @param key the {@link ReactionType#key()} of the reaction
+     */
+    public void react(Long streamId, String key) {
+        ReactionType type = ReactionType.fromKey(key);
+        if (type == null) {
+            throw new UnknownReactionException(key);
+        }
+        // Only checked for streams without counters, which keeps unknown IDs out of the map; streams
+        // deleted later are skipped by the flush
+        if (!counters.containsKey(streamId) && !streamRepository.existsById(streamId)) {
+            throw new StreamNotFoundException(streamId);
+        }
+        increment(streamId, type);
+    }
+
+    void increment(Long streamId, ReactionType type) {
+        Counters streamCounters = counters.get(streamId);
+        if (streamCounters == null) {
+            streamCounters = counters.computeIfAbsent(streamId, id -> new Counters());
+        }
+        streamCounters.counted[type.ordinal()].increment();
+    }
+
+    /**
+     * Adds everything counted since the previous flush to the stored totals.
+     */
+    @Scheduled(initialDelayString = "${reactions.flush-interval-ms:5000}",
+            fixedDelayString = "${reactions.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        // Sorted by stream, and one entry per stream even if it has both live and retired counters
+        Map<Long, long[]> amounts = new TreeMap<>();
+        List<Delta> deltas = new ArrayList<>();
+        List<Map.Entry<Long, Counters>> toRetire = new ArrayList<>();
+
+        for (Map.Entry<Long, Counters> entry : counters.entrySet()) {
+            if (!collect(entry.getKey(), entry.getValue(), amounts, deltas)
+                    && ++entry.getValue().idleFlushes >= idleFlushes) {
+                toRetire.add(entry);
+            }
+        }
+        for (Map.Entry<Long, Counters> entry : retired) {
+            collect(entry.getKey(), entry.getValue(), amounts, deltas);
+        }
+
+        if (!amounts.isEmpty()) {
+            List<Long> streamIds = new ArrayList<>();
+            List<Short> reactions = new ArrayList<>();
+            List<Long> totals = new ArrayList<>();
+            amounts.forEach((streamId, perType) -> {
+                for (int i = 0; i < TYPES; i++) {
+                    if (perType[i] > 0) {
+                        streamIds.add(streamId);
+                        reactions.add((short) i);
+                        totals.add(perType[i]);
+                    }
+                }
+            });
+            try {
+                reactionRepository.addDeltas(streamIds.toArray(new Long[0]), reactions.toArray(new Short[0]),
+                        totals.toArray(new Long[0]));
+            } catch (DataAccessException e) {
+                log.warn("Failed to flush reactions of {} streams, retrying next interval: {}",
+                        amounts.size(), e.getMessage());
+                return;
+            }
+            for (Delta delta : deltas) {
+                delta.counters().flushed[delta.type()] += delta.amount();
+            }
+        }
+
+        for (Map.Entry<Long, Counters> entry : toRetire) {
+            counters.remove(entry.getKey(), entry.getValue());
+        }
+        retired = toRetire;
+        if (!amounts.isEmpty()) {
+            // Listings show the totals; the per-stream versions are left alone so the detail cache survives
+            changeTracker.listingChanged();
+        }
+    }
+
+    /**
+     * @return whether the counters had anything to flush
+     */
+    private static boolean collect(Long streamId, Counters streamCounters, Map<Long, long[]> amounts,
+                                   List<Delta> deltas) {
+        boolean any = false;
+        for (int i = 0; i < TYPES; i++) {
+            long amount = streamCounters.counted[i].sum() - streamCounters.flushed[i];
+            if (amount > 0) {
+                amounts.computeIfAbsent(streamId, id -> new long[TYPES])[i] += amount;
+                deltas.add(new Delta(streamCounters, i, amount));
+                any = true;
+            }
+        }
+        if (any) {
+            streamCounters.idleFlushes = 0;
+        }
+        return any;
+    }
+}
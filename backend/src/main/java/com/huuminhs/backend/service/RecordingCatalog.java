@@ -0,0 +1,218 @@
+package com.huuminhs.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a {@link RecordingIndex} per stream for the fMP4 segments MediaMTX records under
+ * {@code <recording.directory>/<recording.path-prefix>/<streamId>/}.
+ * <p>
+ * The directory tree is watched so segments show up as soon as MediaMTX creates them; a periodic
+ * full rescan covers events the watch service drops. Segment start times come from the file name
+ * ({@code recordPath: ...%Y-%m-%d_%H-%M-%S-%f}), end times from the last modification time.
+ */
+@Component
+@Slf4j
+public class RecordingCatalog {
+
+    private static final String SEGMENT_EXTENSION = ".mp4";
+    private static final DateTimeFormatter FILE_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss-SSSSSS");
+
+    @Value("${recording.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${recording.directory:./recordings}")
+    private String directory = "./recordings";
+
+    @Value("${recording.path-prefix:stream}")
+    private String pathPrefix = "stream";
+
+    private final Map<Long, RecordingIndex> indexes = new ConcurrentHashMap<>();
+
+    private Path root;
+    private WatchService watchService;
+    private Thread watcher;
+
+    @PostConstruct
+    public void start() throws IOException {
+        root = Paths.get(directory, pathPrefix).toAbsolutePath().normalize();
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(root);
+
+        watchService = root.getFileSystem().newWatchService();
+        register(root);
+        rescanAll();
+
+        watcher = new Thread(this::watch, "recording-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        log.info("Watching recordings under {} ({} streams indexed)", root, indexes.size());
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    public RecordingIndex getIndex(Long streamId) {
+        return indexes.getOrDefault(streamId, RecordingIndex.EMPTY);
+    }
+
+    public Path resolve(Long streamId, String fileName) {
+        return root.resolve(streamId.toString()).resolve(fileName);
+    }
+
+    @Scheduled(fixedDelayString = "${recording.rescan-interval:300000}", initialDelayString = "${recording.rescan-interval:300000}")
+    public void rescanAll() {
+        if (!enabled || !Files.isDirectory(root)) {
+            return;
+        }
+        Set<Long> seen = new HashSet<>();
+        try (DirectoryStream<Path> streamDirs = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path streamDir : streamDirs) {
+                Long streamId = parseStreamId(streamDir);
+                if (streamId != null) {
+                    seen.add(streamId);
+                    register(streamDir);
+                    rescan(streamId);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to scan recordings under {}: {}", root, e.getMessage());
+        }
+        indexes.keySet().retainAll(seen);
+    }
+
+    void rescan(Long streamId) {
+        Path streamDir = root.resolve(streamId.toString());
+        List<RecordingIndex.Segment> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(streamDir, "*" + SEGMENT_EXTENSION)) {
+            for (Path file : files) {
+                RecordingIndex.Segment segment = toSegment(file);
+                if (segment != null) {
+                    segments.add(segment);
+                }
+            }
+        } catch (IOException e) {
+            // Directory removed, e.g. by recordDeleteAfter
+            indexes.remove(streamId);
+            return;
+        }
+
+        if (segments.isEmpty()) {
+            indexes.remove(streamId);
+        } else {
+            indexes.put(streamId, RecordingIndex.of(segments));
+        }
+    }
+
+    private void watch() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            Path dir = (Path) key.watchable();
+            Set<Long> changed = new HashSet<>();
+            boolean overflow = false;
+
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    overflow = true;
+                    continue;
+                }
+                Path child = dir.resolve((Path) event.context());
+                if (dir.equals(root)) {
+                    // A stream directory appeared or disappeared
+                    Long streamId = parseStreamId(child);
+                    if (streamId != null) {
+                        if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(child)) {
+                            register(child);
+                        }
+                        changed.add(streamId);
+                    }
+                } else {
+                    Long streamId = parseStreamId(dir);
+                    if (streamId != null) {
+                        changed.add(streamId);
+                    }
+                }
+            }
+            key.reset();
+
+            if (overflow) {
+                rescanAll();
+            } else {
+                changed.forEach(this::rescan);
+            }
+        }
+    }
+
+    private void register(Path dir) {
+        try {
+            dir.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            log.warn("Failed to watch {}: {}", dir, e.getMessage());
+        }
+    }
+
+    private RecordingIndex.Segment toSegment(Path file) {
+        String fileName = file.getFileName().toString();
+        String timestamp = fileName.substring(0, fileName.length() - SEGMENT_EXTENSION.length());
+        try {
+            long startMillis = LocalDateTime.parse(timestamp, FILE_NAME_FORMAT)
+                    .atZone(ZoneId.systemDefault())
+                    .toInstant()
+                    .toEpochMilli();
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            long endMillis = Math.max(startMillis, attributes.lastModifiedTime().toMillis());
+            return new RecordingIndex.Segment(fileName, startMillis, endMillis, attributes.size());
+        } catch (DateTimeParseException | IOException e) {
+            return null;
+        }
+    }
+
+    private static Long parseStreamId(Path dir) {
+        try {
+            return Long.valueOf(dir.getFileName().toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.huuminhs.backend.service;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable, array-backed index of the recorded segments of one stream, ordered by start time.
+ * <p>
+ * A new index replaces the old one whenever the stream's recording directory changes, so readers
+ * never need to lock. Each segment costs three longs plus its file name.
+ */
+public final class RecordingIndex {
+
+    public static final RecordingIndex EMPTY = new RecordingIndex(new String[0], new long[0], new long[0], new long[0]);
+
+    private final String[] fileNames;
+    private final long[] startMillis;
+    private final long[] endMillis;
+    private final long[] sizes;
+
+    private RecordingIndex(String[] fileNames, long[] startMillis, long[] endMillis, long[] sizes) {
+        this.fileNames = fileNames;
+        this.startMillis = startMillis;
+        this.endMillis = endMillis;
+        this.sizes = sizes;
+    }
+
+    public static RecordingIndex of(List<Segment> segments) {
+        if (segments.isEmpty()) {
+            return EMPTY;
+        }
+        Segment[] sorted = segments.toArray(new Segment[0]);
+        Arrays.sort(sorted, Comparator.comparingLong(Segment::startMillis));
+
+        int n = sorted.length;
+        String[] fileNames = new String[n];
+        long[] startMillis = new long[n];
+        long[] endMillis = new long[n];
+        long[] sizes = new long[n];
+        for (int i = 0; i < n; i++) {
+            fileNames[i] = sorted[i].fileName();
+            startMillis[i] = sorted[i].startMillis();
+            endMillis[i] = sorted[i].endMillis();
+            sizes[i] = sorted[i].size();
+        }
+        return new RecordingIndex(fileNames, startMillis, endMillis, sizes);
+    }
+
+    public int size() {
+        return fileNames.length;
+    }
+
+    public String fileName(int i) {
+        return fileNames[i];
+    }
+
+    public long startMillis(int i) {
+        return startMillis[i];
+    }
+
+    public long endMillis(int i) {
+        return endMillis[i];
+    }
+
+    public long sizeBytes(int i) {
+        return sizes[i];
+    }
+
+    /**
+     * @return the position of the segment with this file name, or -1
+     */
+    public int indexOf(String fileName) {
+        for (int i = 0; i < fileNames.length; i++) {
+            if (fileNames[i].equals(fileName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the first segment that ends after the given time, or {@link #size()} if there is none
+     */
+    public int firstEndingAfter(long timeMillis) {
+        int low = 0;
+        int high = endMillis.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (endMillis[mid] <= timeMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public record Segment(String fileName, long startMillis, long endMillis, long size) {
+    }
+}
@@ -0,0 +1,71 @@
+package com.huuminhs.backend.service;
+
+import com.huuminhs.backend.dto.RecordingSegmentResponse;
+import com.huuminhs.backend.dto.StreamResponse;
+import com.huuminhs.backend.exception.RecordingNotFoundException;
+import com.huuminhs.backend.model.StreamStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@Slf4j
+public class RecordingService {
+
+    private final RecordingCatalog recordingCatalog;
+    private final StreamService streamService;
+
+    public RecordingService(RecordingCatalog recordingCatalog, StreamService streamService) {
+        this.recordingCatalog = recordingCatalog;
+        this.streamService = streamService;
+    }
+
+    public List<RecordingSegmentResponse> getRecordings(Long streamId) {
+        log.info("Getting recordings for stream with ID: {}", streamId);
+        RecordingIndex index = getEndedStreamIndex(streamId);
+
+        List<RecordingSegmentResponse> segments = new ArrayList<>(index.size());
+        for (int i = 0; i < index.size(); i++) {
+            segments.add(new RecordingSegmentResponse(
+                    index.fileName(i),
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(index.startMillis(i)), ZoneId.systemDefault()),
+                    index.endMillis(i) - index.startMillis(i),
+                    index.sizeBytes(i),
+                    "/api/stream/" + streamId + "/recordings/" + index.fileName(i)
+            ));
+        }
+        return segments;
+    }
+
+    /**
+     * Resolves a segment file of an ENDED stream. Only names present in the index are accepted,
+     * so arbitrary paths can never be served.
+     */
+    public Path getSegmentFile(Long streamId, String fileName) {
+        RecordingIndex index = getEndedStreamIndex(streamId);
+        if (index.indexOf(fileName) < 0) {
+            throw new RecordingNotFoundException(streamId, fileName);
+        }
+        return recordingCatalog.resolve(streamId, fileName);
+    }
+
+    RecordingIndex getEndedStreamIndex(Long streamId) {
+        // Served from the detail cache, so concurrent viewers don't hit the database
+        StreamResponse stream = streamService.getStreamById(streamId);
+        if (stream.getStatus() != StreamStatus.ENDED) {
+            throw new RecordingNotFoundException(streamId);
+        }
+
+        RecordingIndex index = recordingCatalog.getIndex(streamId);
+        if (index.size() == 0) {
+            throw new RecordingNotFoundException(streamId);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,182 @@
+package com.huuminhs.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.huuminhs.backend.dto.PaginatedResponse;
+import com.huuminhs.backend.dto.StreamResponse;
+import com.huuminhs.backend.model.ReactionType;
+import com.huuminhs.backend.model.StreamStatus;
+import com.huuminhs.backend.security.JwtTokenProvider;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exercises the hot request paths with synthetic data before the application reports ready.
+ * <p>
+ * Runs as an {@link ApplicationRunner}, and Spring Boot only switches readiness to accepting
+ * traffic once all runners have returned, so the first real requests find an open connection
+ * pool, JIT-compiled JWT and JSON code, Hibernate query plans and filled first-page caches.
+ * Each step is timed and logged; a failing step is logged and skipped, since a cold start is
+ * better than no start.
+ */
+@Component
+@Slf4j
+public class StartupWarmup implements ApplicationRunner {
+
+    private final DataSource dataSource;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final ObjectMapper objectMapper;
+    private final StreamService streamService;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${warmup.enabled:true}")
+    private boolean enabled = true;
+
+    // Repetitions of the CPU-bound steps, enough for the JIT to compile them
+    @Value("${warmup.iterations:200}")
+    private int iterations = 200;
+
+    // Connections opened at once, matching the pool size fills the pool
+    @Value("${warmup.pool-connections:10}")
+    private int poolConnections = 10;
+
+    // Page sizes whose first pages are loaded into the cache, the clients' defaults
+    @Value("${warmup.first-page-limits:6,10}")
+    private List<Integer> firstPageLimits = List.of(6, 10);
+
+    public StartupWarmup(DataSource dataSource, JwtTokenProvider jwtTokenProvider, ObjectMapper objectMapper,
+                         StreamService streamService, PlatformTransactionManager transactionManager) {
+        this.dataSource = dataSource;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.objectMapper = objectMapper;
+        this.streamService = streamService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        step("connection pool", this::fillPool);
+        step("jwt", this::warmJwt);
+        step("json", this::warmJson);
+        // Requests get lazy associations from the session kept open for the view, here a transaction stands in
+        step("stream queries", () -> readOnlyTransaction.executeWithoutResult(status -> warmQueries()));
+        step("first page caches", () -> readOnlyTransaction.executeWithoutResult(status -> primeFirstPages()));
+        log.info("Warm-up finished in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    void fillPool() throws SQLException {
+        int count = poolConnections;
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            // Connections held for good, such as the change bus', would make the last requests wait for the timeout
+            HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+            HikariPoolMXBean stats = pool.getHikariPoolMXBean();
+            if (stats != null) {
+                count = Math.min(count, pool.getMaximumPoolSize() - stats.getActiveConnections());
+            }
+        }
+        List<Connection> connections = new ArrayList<>(Math.max(count, 0));
+        try {
+            for (int i = 0; i < count; i++) {
+                Connection connection = dataSource.getConnection();
+                connections.add(connection);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT 1");
+                }
+            }
+        } finally {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+    }
+
+    void warmJwt() {
+        User principal = new User("warmup", "", List.of());
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        for (int i = 0; i < iterations; i++) {
+            String token = jwtTokenProvider.generateToken(authentication);
+            JWTClaimsSet claims = jwtTokenProvider.verifyAccessToken(token);
+            if (claims == null) {
+                throw new IllegalStateException("A freshly issued token failed verification");
+            }
+            jwtTokenProvider.getAuthentication(claims, token);
+        }
+    }
+
+    void warmJson() throws IOException {
+        List<StreamResponse> items = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            items.add(new StreamResponse(id, "Warm-up stream " + id, "Synthetic", StreamStatus.LIVE, "warmup",
+                    Map.of("medium", "warmup.jpg"), ReactionType.totals(new long[ReactionType.values().length])));
+        }
+        PaginatedResponse<StreamResponse> page = PaginatedResponse.of(items, 10L, true);
+        for (int i = 0; i < iterations; i++) {
+            objectMapper.writeValueAsBytes(page);
+            objectMapper.writeValueAsBytes(items.get(0));
+        }
+    }
+
+    void warmQueries() {
+        // A cursor that matches no stream still plans and runs every query
+        streamService.getAllStreams(-1L, 1);
+        streamService.getLiveStreams(-1L, 1);
+        streamService.getEndedStreams(-1L, 1);
+        streamService.getStreamsByIds(List.of(-1L));
+        try {
+            streamService.writeAllStreams(null, 1, OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void primeFirstPages() {
+        for (int limit : firstPageLimits) {
+            if (streamService.isCachedFirstPage(null, limit)) {
+                streamService.getAllStreamsFirstPageJson(limit);
+                streamService.getLiveStreamsFirstPageJson(limit);
+            }
+        }
+    }
+
+    private void step(String name, WarmupStep step) {
+        long start = System.nanoTime();
+        try {
+            step.run();
+            log.info("Warm-up step '{}' took {} ms", name, (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("Warm-up step '{}' failed after {} ms: {}", name, (System.nanoTime() - start) / 1_000_000,
+                    e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface WarmupStep {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,104 @@
+package com.huuminhs.backend.service;
+
+import com.huuminhs.backend.repository.StreamArchiveJdbcRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves ENDED streams older than {@code stream.archive.min-age-days} from {@code streams} to the
+ * partitioned {@code streams_archive}, keeping the table behind every listing small.
+ * <p>
+ * Each batch is one statement in its own transaction, so rows are only locked for the time it
+ * takes to move one batch, and rows locked by a concurrent update are left for the next batch.
+ * Several replicas may run at once without moving a stream twice. Monthly partitions older than
+ * {@code stream.archive.detach-after-months} are detached at the end of a run.
+ */
+@Service
+@Slf4j
+public class StreamArchiver {
+
+    private final StreamArchiveJdbcRepository archiveRepository;
+    private final StreamChangeTracker changeTracker;
+
+    @Value("${stream.archive.enabled:true}")
+    private boolean enabled = true;
+
+    // Measured from the creation of the stream, its end is not recorded
+    @Value("${stream.archive.min-age-days:30}")
+    private int minAgeDays = 30;
+
+    @Value("${stream.archive.batch-size:500}")
+    private int batchSize = 500;
+
+    // 0 keeps every partition attached
+    @Value("${stream.archive.detach-after-months:0}")
+    private int detachAfterMonths = 0;
+
+    public StreamArchiver(StreamArchiveJdbcRepository archiveRepository, StreamChangeTracker changeTracker) {
+        this.archiveRepository = archiveRepository;
+        this.changeTracker = changeTracker;
+    }
+
+    /**
+     * Creates the archive table even when archiving is disabled, the list endpoints read it.
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            archiveRepository.createTableIfNotExists();
+        } catch (DataAccessException e) {
+            // Another replica may be creating it concurrently
+            log.warn("Failed to create the streams_archive table: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return the number of streams moved
+     */
+    @Scheduled(initialDelayString = "${stream.archive.interval-ms:600000}",
+            fixedDelayString = "${stream.archive.interval-ms:600000}")
+    public int archive() {
+        if (!enabled) {
+            return 0;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(minAgeDays);
+        int moved = 0;
+        try {
+            archiveRepository.createPartitionsFor(cutoff);
+            List<Long> batch;
+            do {
+                batch = archiveRepository.archiveBatch(cutoff, batchSize);
+                moved += batch.size();
+            } while (batch.size() == batchSize);
+        } catch (DataAccessException e) {
+            // Batches moved so far are committed, the rest is picked up by the next run
+            log.warn("Archiving ENDED streams stopped after {}: {}", moved, e.getMessage());
+        }
+        if (moved > 0) {
+            // Archived streams now sort after every other one
+            changeTracker.listingChanged();
+            log.info("Archived {} ENDED stream(s) created before {}", moved, cutoff);
+        }
+
+        if (detachAfterMonths > 0) {
+            try {
+                List<String> detached = archiveRepository.detachPartitionsBefore(
+                        LocalDate.now().withDayOfMonth(1).minusMonths(detachAfterMonths));
+                if (!detached.isEmpty()) {
+                    log.info("Detached stream archive partition(s) {}", detached);
+                }
+            } catch (DataAccessException e) {
+                log.warn("Failed to detach stream archive partitions: {}", e.getMessage());
+            }
+        }
+        return moved;
+    }
+}
@@ -0,0 +1,188 @@
+package com.huuminhs.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the caches of all replicas consistent by exchanging the changes of
+ * {@link StreamChangeTracker} over Postgres {@code LISTEN/NOTIFY}, so no broker is needed.
+ * <p>
+ * One thread holds a connection that listens on the channel and, every poll interval, publishes
+ * the changes made locally since the last round, batched into as few notifications as fit the
+ * payload limit. Messages are {@code origin:listing-flag:id,id,...}; a replica skips its own.
+ * Notifications sent while a replica is disconnected are lost to it, so after reconnecting it
+ * invalidates all its versions once instead. ETags are not shared, see {@link StreamChangeTracker}.
+ */
+@Component
+@Slf4j
+public class StreamChangeBus {
+
+    // Postgres rejects payloads of 8000 bytes or more
+    static final int MAX_PAYLOAD = 7900;
+
+    private final DataSource dataSource;
+    private final StreamChangeTracker changeTracker;
+
+    @Value("${stream.change-bus.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${stream.change-bus.channel:stream_changes}")
+    private String channel = "stream_changes";
+
+    // Longest delay before local changes are published and remote ones are applied
+    @Value("${stream.change-bus.poll-interval-ms:100}")
+    private int pollIntervalMs = 100;
+
+    @Value("${stream.change-bus.reconnect-delay-ms:5000}")
+    private long reconnectDelayMs = 5000;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public StreamChangeBus(DataSource dataSource, StreamChangeTracker changeTracker) {
+        this.dataSource = dataSource;
+        this.changeTracker = changeTracker;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        changeTracker.setPublishing(true);
+        thread = new Thread(this::run, "stream-change-bus");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    private void run() {
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                if (!connection.isWrapperFor(PGConnection.class)) {
+                    log.warn("The database is not Postgres, caches are not invalidated across replicas");
+                    changeTracker.setPublishing(false);
+                    return;
+                }
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN \"" + channel + "\"");
+                }
+                if (connectedBefore) {
+                    changeTracker.resync();
+                    log.info("Reconnected to the change bus, invalidated all cached streams");
+                }
+                connectedBefore = true;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    publish(connection);
+                    PGNotification[] notifications = pgConnection.getNotifications(pollIntervalMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            apply(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Lost the change bus connection, reconnecting in {} ms: {}", reconnectDelayMs, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void publish(Connection connection) throws SQLException {
+        List<Long> streamIds = changeTracker.drainChangedStreams();
+        boolean listing = changeTracker.drainListingChanged();
+        if (streamIds.isEmpty() && !listing) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            for (String payload : payloads(changeTracker.origin(), streamIds, listing)) {
+                statement.setString(1, channel);
+                statement.setString(2, payload);
+                statement.execute();
+            }
+        } catch (SQLException e) {
+            // Republished after reconnecting, the other replicas may still be listening
+            changeTracker.requeue(streamIds, listing);
+            throw e;
+        }
+    }
+
+    static List<String> payloads(String origin, List<Long> streamIds, boolean listing) {
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder();
+        for (Long streamId : streamIds) {
+            String id = streamId.toString();
+            if (payload.length() > 0 && payload.length() + id.length() + 1 > MAX_PAYLOAD) {
+                payloads.add(payload.toString());
+                payload.setLength(0);
+            }
+            if (payload.length() == 0) {
+                // Only the first message carries the listing change
+                payload.append(origin).append(':').append(listing && payloads.isEmpty() ? '1' : '0').append(':');
+            } else {
+                payload.append(',');
+            }
+            payload.append(id);
+        }
+        if (payload.length() > 0) {
+            payloads.add(payload.toString());
+        } else if (listing) {
+            payloads.add(origin + ":1:");
+        }
+        return payloads;
+    }
+
+    void apply(String payload) {
+        String[] parts = payload.split(":", 3);
+        if (parts.length != 3 || parts[0].equals(changeTracker.origin())) {
+            return;
+        }
+        List<Long> streamIds = new ArrayList<>();
+        try {
+            if (!parts[2].isEmpty()) {
+                for (String id : parts[2].split(",")) {
+                    streamIds.add(Long.parseLong(id));
+                }
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed change notification: {}", payload);
+            return;
+        }
+        changeTracker.applyRemote(streamIds, parts[1].equals("1"));
+    }
+}
@@ -0,0 +1,192 @@
+package com.huuminhs.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counters used to build ETags for the stream endpoints without touching the database.
+ * <p>
+ * The listing counter changes on every stream mutation. A stream's version is the listing version
+ * of its last change; streams not tracked, because they have not changed since startup or were
+ * evicted to keep the map within {@code stream.etag.max-tracked-streams}, share a floor that is
+ * raised past every version it replaces. A stream's version therefore never returns to a value it
+ * had before a change. Counters live in memory, so every ETag is prefixed with a random epoch
+ * chosen at startup; tags issued by a previous process therefore never match after a restart.
+ * <p>
+ * Local changes are also queued for {@link StreamChangeBus}, which tells the other replicas about
+ * them once the surrounding transaction, if any, has committed; changes received from the other
+ * replicas are applied without being queued again.
+ * <p>
+ * The bus only keeps the replicas' caches fresh. Their tags never match, since each has its own
+ * epoch and counters, so If-None-Match is only answered with a 304 by the replica that issued the
+ * tag; behind a load balancer that takes sticky sessions. If-Match does not depend on this, it
+ * compares the edit version stored with the stream.
+ */
+@Component
+public class StreamChangeTracker {
+
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+    private final AtomicLong listingVersion = new AtomicLong();
+
+    @Value("${stream.etag.max-tracked-streams:100000}")
+    private int maxTrackedStreams = 100000;
+
+    private final Map<Long, Long> streamVersions = new ConcurrentHashMap<>();
+
+    // Version of the streams not in streamVersions, only ever raised
+    private volatile long versionBase;
+
+    // Changes waiting to be published, only collected while the bus is running
+    private volatile boolean publishing;
+    private final Set<Long> pendingStreams = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean pendingListing = new AtomicBoolean();
+
+    public void streamChanged(Long streamId) {
+        bump(streamId);
+        if (publishing) {
+            afterCommit(() -> pendingStreams.add(streamId));
+        }
+    }
+
+    public void listingChanged() {
+        listingVersion.incrementAndGet();
+        if (publishing) {
+            afterCommit(() -> pendingListing.set(true));
+        }
+    }
+
+    public long streamVersion(Long streamId) {
+        // The floor is raised before entries are removed, so a miss here always sees it raised
+        Long version = streamVersions.get(streamId);
+        return version != null ? version : versionBase;
+    }
+
+    public long listingVersion() {
+        return listingVersion.get();
+    }
+
+    public String listingETag() {
+        return "\"" + epoch + "-l" + listingVersion.get() + "\"";
+    }
+
+    public String streamETag(Long streamId) {
+        return "\"" + epoch + "-s" + streamId + "-" + streamVersion(streamId) + "\"";
+    }
+
+    /**
+     * Identifies this process in published changes, so it can skip its own.
+     */
+    public String origin() {
+        return epoch;
+    }
+
+    /**
+     * Applies changes made by another replica.
+     */
+    public void applyRemote(Collection<Long> streamIds, boolean listing) {
+        streamIds.forEach(this::bump);
+        if (listing) {
+            listingVersion.incrementAndGet();
+        }
+    }
+
+    /**
+     * Invalidates every version, for when changes of other replicas may have been missed. No
+     * stream version exceeds the listing version, so raising the floor past it makes every stream
+     * version new.
+     */
+    public synchronized void resync() {
+        raiseFloor(listingVersion.incrementAndGet());
+    }
+
+    void setPublishing(boolean publishing) {
+        this.publishing = publishing;
+        if (!publishing) {
+            pendingStreams.clear();
+            pendingListing.set(false);
+        }
+    }
+
+    /**
+     * Removes and returns the stream IDs changed since the last call.
+     */
+    List<Long> drainChangedStreams() {
+        List<Long> streamIds = new ArrayList<>();
+        for (Iterator<Long> it = pendingStreams.iterator(); it.hasNext(); ) {
+            streamIds.add(it.next());
+            it.remove();
+        }
+        return streamIds;
+    }
+
+    boolean drainListingChanged() {
+        return pendingListing.getAndSet(false);
+    }
+
+    /**
+     * Queues drained changes again after publishing them failed.
+     */
+    void requeue(Collection<Long> streamIds, boolean listing) {
+        if (publishing) {
+            pendingStreams.addAll(streamIds);
+            if (listing) {
+                pendingListing.set(true);
+            }
+        }
+    }
+
+    // Writers are serialized, so a new version is always above the floor
+    private synchronized void bump(Long streamId) {
+        streamVersions.put(streamId, listingVersion.incrementAndGet());
+        if (streamVersions.size() > maxTrackedStreams) {
+            evictOlderHalf();
+        }
+    }
+
+    /**
+     * Forgets the half of the tracked streams that changed longest ago.
+     */
+    private void evictOlderHalf() {
+        long[] versions = streamVersions.values().stream().mapToLong(Long::longValue).sorted().toArray();
+        raiseFloor(versions[versions.length / 2]);
+    }
+
+    /**
+     * Raises the version of untracked streams to {@code floor}, then stops tracking the streams at
+     * or below it, which would otherwise go back to an older version.
+     */
+    private void raiseFloor(long floor) {
+        if (floor > versionBase) {
+            versionBase = floor;
+        }
+        streamVersions.values().removeIf(version -> version <= versionBase);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        // Other replicas would reload the previous state if they were told before the commit
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
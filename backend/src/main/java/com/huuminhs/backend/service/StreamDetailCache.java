@@ -0,0 +1,77 @@
+package com.huuminhs.backend.service;
+
+import com.huuminhs.backend.dto.StreamResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of {@link StreamResponse} by stream id, shared by the detail and batch lookups.
+ * <p>
+ * Each entry remembers the per-stream version of {@link StreamChangeTracker} it was loaded at and
+ * is ignored as soon as that stream changes, so no explicit eviction is needed on writes.
+ * Reaction totals do not change that version, they are picked up when the entry expires after
+ * {@code stream.detail-cache.ttl-ms}. Cached responses are shared and must not be modified by callers.
+ */
+@Component
+public class StreamDetailCache {
+
+    private final StreamChangeTracker changeTracker;
+
+    @Value("${stream.detail-cache.max-entries:10000}")
+    private int maxEntries = 10000;
+
+    @Value("${stream.detail-cache.ttl-ms:30000}")
+    private long ttlMs = 30000;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    public StreamDetailCache(StreamChangeTracker changeTracker) {
+        this.changeTracker = changeTracker;
+    }
+
+    /**
+     * @return the cached response, or null if absent or outdated
+     */
+    public StreamResponse get(Long streamId) {
+        Entry entry = entries.get(streamId);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.version != changeTracker.streamVersion(streamId)
+                || System.nanoTime() - entry.loadedAt >= ttlMs * 1_000_000) {
+            entries.remove(streamId, entry);
+            return null;
+        }
+        return entry.response;
+    }
+
+    /**
+     * Version to pass to {@link #put}; read it before loading so a concurrent write invalidates the load.
+     */
+    public long versionOf(Long streamId) {
+        return changeTracker.streamVersion(streamId);
+    }
+
+    public void put(StreamResponse response, long version) {
+        if (entries.size() >= maxEntries) {
+            // Drop an arbitrary entry, this is a hot-set cache and not worth LRU bookkeeping
+            Iterator<Long> it = entries.keySet().iterator();
+            if (it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        entries.put(response.getStreamId(), new Entry(response, version, System.nanoTime()));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private record Entry(StreamResponse response, long version, long loadedAt) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.huuminhs.backend.service;
+
+/**
+ * Fixed-size ring of health samples for one live stream.
+ * <p>
+ * Samples are stored column-wise in primitive arrays allocated once, so recording a sample
+ * allocates nothing. The poller is the only writer; readers take a consistent copy under the
+ * same (uncontended) monitor.
+ */
+public class StreamHealthBuffer {
+
+    private final long[] timestamps;
+    private final int[] bitrateKbps;
+    private final int[] readers;
+    private final int[] errors;
+
+    private int next;
+    private int count;
+
+    // Cumulative counters from the previous poll, to turn totals into per-interval values
+    private long lastBytes = -1;
+    private long lastErrors = -1;
+    private long lastTimestamp;
+
+    public StreamHealthBuffer(int capacity) {
+        timestamps = new long[capacity];
+        bitrateKbps = new int[capacity];
+        readers = new int[capacity];
+        errors = new int[capacity];
+    }
+
+    /**
+     * Records one poll from cumulative counters. The first poll of a stream only establishes
+     * the baseline; counters that went backwards (the path was recreated) also reset it.
+     */
+    public synchronized void record(long timestamp, long totalBytes, int readerCount, long totalErrors) {
+        boolean baseline = lastBytes < 0 || totalBytes < lastBytes || timestamp <= lastTimestamp;
+        if (!baseline) {
+            long elapsedMs = timestamp - lastTimestamp;
+            int slot = next;
+            timestamps[slot] = timestamp;
+            bitrateKbps[slot] = (int) ((totalBytes - lastBytes) * 8 / elapsedMs);
+            readers[slot] = readerCount;
+            errors[slot] = (int) Math.max(0, totalErrors - Math.max(lastErrors, 0));
+            next = (slot + 1) % timestamps.length;
+            count = Math.min(count + 1, timestamps.length);
+        }
+        lastBytes = totalBytes;
+        lastErrors = totalErrors;
+        lastTimestamp = timestamp;
+    }
+
+    /**
+     * @return the samples, oldest first
+     */
+    public synchronized Snapshot snapshot() {
+        Snapshot snapshot = new Snapshot(new long[count], new int[count], new int[count], new int[count]);
+        int start = (next - count + timestamps.length) % timestamps.length;
+        for (int i = 0; i < count; i++) {
+            int slot = (start + i) % timestamps.length;
+            snapshot.timestamps[i] = timestamps[slot];
+            snapshot.bitrateKbps[i] = bitrateKbps[slot];
+            snapshot.readers[i] = readers[slot];
+            snapshot.errors[i] = errors[slot];
+        }
+        return snapshot;
+    }
+
+    public record Snapshot(long[] timestamps, int[] bitrateKbps, int[] readers, int[] errors) {
+        public static final Snapshot EMPTY = new Snapshot(new long[0], new int[0], new int[0], new int[0]);
+    }
+}
@@ -0,0 +1,125 @@
+package com.huuminhs.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.huuminhs.backend.dto.StreamHealthResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Polls the MediaMTX Control API for per-path statistics and keeps a short history for each
+ * live stream.
+ * <p>
+ * Each poll lists all paths and all WebRTC sessions in bulk, a fixed number of requests however
+ * many streams are live. Paths that are ready count as live; their history is dropped as soon as
+ * a poll no longer reports them.
+ */
+@Service
+@Slf4j
+public class StreamHealthMonitor {
+
+    private final StreamService streamService;
+    private final MediaMtxApiClient apiClient;
+
+    @Value("${mediamtx.api.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${mediamtx.api.poll-interval-ms:5000}")
+    private long pollIntervalMs = 5000;
+
+    // 120 samples at the default interval cover the last ten minutes
+    @Value("${mediamtx.api.history-samples:120}")
+    private int historySamples = 120;
+
+    private final Map<Long, StreamHealthBuffer> buffers = new ConcurrentHashMap<>();
+
+    // Only the first failure in a row is logged as a warning, MediaMTX may simply not be running
+    private boolean reachable = true;
+
+    public StreamHealthMonitor(StreamService streamService, MediaMtxApiClient apiClient) {
+        this.streamService = streamService;
+        this.apiClient = apiClient;
+    }
+
+    public StreamHealthResponse getHealth(Long streamId) {
+        // Throws StreamNotFoundException for unknown IDs, served from the detail cache otherwise
+        streamService.getStreamById(streamId);
+
+        StreamHealthBuffer buffer = buffers.get(streamId);
+        StreamHealthBuffer.Snapshot snapshot = buffer != null ? buffer.snapshot() : StreamHealthBuffer.Snapshot.EMPTY;
+        return new StreamHealthResponse(
+                streamId,
+                buffer != null,
+                pollIntervalMs,
+                snapshot.timestamps(),
+                snapshot.bitrateKbps(),
+                snapshot.readers(),
+                snapshot.errors()
+        );
+    }
+
+    @Scheduled(fixedDelayString = "${mediamtx.api.poll-interval-ms:5000}")
+    public void poll() {
+        if (enabled) {
+            poll(System.currentTimeMillis());
+        }
+    }
+
+    void poll(long now) {
+        try {
+            // Ingest errors are reported on the publishing session, not on the path
+            Map<Long, Long> sessionErrors = new HashMap<>();
+            for (JsonNode session : apiClient.listWebRtcSessions()) {
+                Long streamId = apiClient.streamId(session.path("path").asText());
+                if (streamId != null && "publish".equals(session.path("state").asText())) {
+                    long errors = sum(session, "rtpPacketsLost", "rtpPacketsInError",
+                            "inboundRTPPacketsLost", "inboundRTPPacketsInError");
+                    sessionErrors.merge(streamId, errors, Long::sum);
+                }
+            }
+
+            Set<Long> live = new HashSet<>();
+            for (JsonNode path : apiClient.listPaths()) {
+                Long streamId = apiClient.streamId(path.path("name").asText());
+                if (streamId == null || !path.path("ready").asBoolean()) {
+                    continue;
+                }
+                // Field names changed across MediaMTX versions
+                long bytes = path.has("inboundBytes") ? path.path("inboundBytes").asLong() : path.path("bytesReceived").asLong();
+                long errors = sessionErrors.getOrDefault(streamId, 0L) + path.path("inboundFramesInError").asLong(0);
+                buffers.computeIfAbsent(streamId, id -> new StreamHealthBuffer(historySamples))
+                        .record(now, bytes, path.path("readers").size(), errors);
+                live.add(streamId);
+            }
+            buffers.keySet().retainAll(live);
+
+            if (!reachable) {
+                log.info("MediaMTX Control API reachable again at {}", apiClient.getApiUrl());
+                reachable = true;
+            }
+        } catch (IOException e) {
+            if (reachable) {
+                log.warn("Failed to poll MediaMTX Control API at {}: {}", apiClient.getApiUrl(), e.toString());
+                reachable = false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long sum(JsonNode node, String... fields) {
+        long total = 0;
+        for (String field : fields) {
+            total += node.path(field).asLong(0);
+        }
+        return total;
+    }
+}
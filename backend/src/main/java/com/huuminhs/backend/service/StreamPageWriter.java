@@ -0,0 +1,86 @@
+package com.huuminhs.backend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.huuminhs.backend.model.ReactionType;
+import com.huuminhs.backend.model.StreamStatus;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@code PaginatedResponse<StreamResponse>} JSON document item by item.
+ * <p>
+ * The output is identical to what Jackson produces for the buffered response, but no
+ * entity, DTO or list is materialized: each row is written to the generator as soon as
+ * it is read, so memory per request stays constant regardless of the page size.
+ */
+public class StreamPageWriter {
+
+    private static final ReactionType[] REACTION_TYPES = ReactionType.values();
+
+    private final JsonGenerator generator;
+    private final int limit;
+
+    private int written;
+    private long lastId;
+    private boolean hasMore;
+
+    public StreamPageWriter(JsonGenerator generator, int limit) throws IOException {
+        this.generator = generator;
+        this.limit = limit;
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("items");
+    }
+
+    /**
+     * Writes one item. Callers fetch {@code limit + 1} rows; the extra row only marks
+     * that there are more items and is not written.
+     *
+     * @param reactions reaction totals indexed by {@link ReactionType} ordinal, null for none
+     * @return false once the page is full
+     */
+    public boolean write(long id, String title, String description, StreamStatus status, String creator,
+                         String thumbnailHash, long[] reactions) throws IOException {
+        if (written == limit) {
+            hasMore = true;
+            return false;
+        }
+
+        generator.writeStartObject();
+        generator.writeNumberField("streamId", id);
+        generator.writeStringField("title", title);
+        generator.writeStringField("description", description);
+        generator.writeStringField("status", status.name());
+        generator.writeStringField("creator", creator);
+        if (thumbnailHash == null) {
+            generator.writeNullField("thumbnails");
+        } else {
+            generator.writeObjectFieldStart("thumbnails");
+            for (ThumbnailVariant variant : ThumbnailVariant.values()) {
+                generator.writeStringField(variant.key(), ThumbnailVariant.URL_PREFIX + variant.fileName(thumbnailHash));
+            }
+            generator.writeEndObject();
+        }
+        generator.writeObjectFieldStart("reactions");
+        for (ReactionType type : REACTION_TYPES) {
+            generator.writeNumberField(type.key(), reactions == null ? 0 : reactions[type.ordinal()]);
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+
+        written++;
+        lastId = id;
+        return true;
+    }
+
+    public void finish() throws IOException {
+        generator.writeEndArray();
+        if (hasMore && written > 0) {
+            generator.writeNumberField("nextCursor", lastId);
+        } else {
+            generator.writeNullField("nextCursor");
+        }
+        generator.writeBooleanField("hasMore", hasMore);
+        generator.writeEndObject();
+        generator.flush();
+    }
+}
@@ -1,15 +1,33 @@
 package com.huuminhs.backend.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.huuminhs.backend.dto.BulkOperationItem;
+import com.huuminhs.backend.dto.BulkOperationResponse;
+import com.huuminhs.backend.dto.BulkUpdateItem;
 import com.huuminhs.backend.dto.CreateStreamRequest;
 import com.huuminhs.backend.dto.PaginatedResponse;
+import com.huuminhs.backend.dto.StreamBatchItem;
+import com.huuminhs.backend.dto.StreamBatchResponse;
 import com.huuminhs.backend.dto.StreamAccessResponse;
 import com.huuminhs.backend.dto.StreamResponse;
 import com.huuminhs.backend.dto.UpdateStreamRequest;
+import com.huuminhs.backend.exception.BatchSizeExceededException;
+import com.huuminhs.backend.exception.PreconditionFailedException;
 import com.huuminhs.backend.exception.StreamAccessDeniedException;
+import com.huuminhs.backend.exception.StreamArchivedException;
 import com.huuminhs.backend.exception.StreamNotFoundException;
+import com.huuminhs.backend.model.ReactionType;
 import com.huuminhs.backend.model.Stream;
 import com.huuminhs.backend.model.StreamStatus;
 import com.huuminhs.backend.model.User;
+import com.huuminhs.backend.repository.StreamArchiveJdbcRepository;
+import com.huuminhs.backend.repository.StreamArchiveJdbcRepository.ArchivedStream;
+import com.huuminhs.backend.repository.StreamJdbcRepository;
+import com.huuminhs.backend.repository.StreamOwnerJdbcRepository;
+import com.huuminhs.backend.repository.StreamOwnerJdbcRepository.OwnedUpdate;
+import com.huuminhs.backend.repository.StreamReactionJdbcRepository;
 import com.huuminhs.backend.repository.StreamRepository;
 import com.huuminhs.backend.repository.UserRepository;
 import com.huuminhs.backend.security.JwtTokenProvider;
@@ -17,35 +35,89 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class StreamService {
 
+    // A strong tag from getStreamById, or just the quoted version
+    private static final Pattern IF_MATCH_VERSION = Pattern.compile("\"(?:[^\"]*-v)?(\\d+)\"");
+
     private final StreamRepository streamRepository;
     private final UserRepository userRepository;
     private final JwtTokenProvider jwtTokenProvider;
+    private final StreamJdbcRepository streamJdbcRepository;
+    private final ObjectMapper objectMapper;
+    private final StreamChangeTracker changeTracker;
+    private final FirstPageCache firstPageCache;
+    private final StreamDetailCache detailCache;
+    private final StreamReactionJdbcRepository reactionRepository;
+    private final NotificationService notificationService;
+    private final StreamArchiveJdbcRepository archiveRepository;
+    private final StreamOwnerJdbcRepository ownerRepository;
 
     @Value("${stream.url.base:rtmp://localhost/stream/}")
     private String streamUrlBase;
 
-    public StreamService(StreamRepository streamRepository, UserRepository userRepository, JwtTokenProvider jwtTokenProvider) {
+    // Upper bound for the "limit" parameter of every list endpoint
+    @Value("${stream.pagination.max-limit:100}")
+    private int maxPageSize = 100;
+
+    // Pages larger than this are written straight from the result set instead of being buffered
+    @Value("${stream.pagination.streaming-threshold:50}")
+    private int streamingThreshold = 50;
+
+    // Also caps the streams of one bulk update or delete
+    @Value("${stream.batch.max-ids:200}")
+    private int maxBatchIds = 200;
+
+    public StreamService(StreamRepository streamRepository, UserRepository userRepository, JwtTokenProvider jwtTokenProvider,
+                         StreamJdbcRepository streamJdbcRepository, ObjectMapper objectMapper,
+                         StreamChangeTracker changeTracker, FirstPageCache firstPageCache,
+                         StreamDetailCache detailCache, StreamReactionJdbcRepository reactionRepository,
+                         NotificationService notificationService, StreamArchiveJdbcRepository archiveRepository,
+                         StreamOwnerJdbcRepository ownerRepository) {
         this.streamRepository = streamRepository;
         this.userRepository = userRepository;
         this.jwtTokenProvider = jwtTokenProvider;
+        this.streamJdbcRepository = streamJdbcRepository;
+        this.objectMapper = objectMapper;
+        this.changeTracker = changeTracker;
+        this.firstPageCache = firstPageCache;
+        this.detailCache = detailCache;
+        this.reactionRepository = reactionRepository;
+        this.notificationService = notificationService;
+        this.archiveRepository = archiveRepository;
+        this.ownerRepository = ownerRepository;
     }
 
-    public StreamAccessResponse createStream(CreateStreamRequest request, String username) {
+    public StreamAccessResponse createStream(CreateStreamRequest request, Long userId) {
         log.info("Creating stream with title: {}", request.getTitle());
 
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        // Only the ID goes into the row, so the user is not loaded
+        User user = userRepository.getReferenceById(userId);
 
         Stream stream = new Stream();
         stream.setTitle(request.getTitle());
@@ -55,6 +127,8 @@ public class StreamService {
         stream.setUser(user);
 
         Stream savedStream = streamRepository.save(stream);
+        changeTracker.streamChanged(savedStream.getId());
+        notificationService.streamCreated(savedStream.getId());
 
         // Generate MediaMTX JWT token for this stream
         String mediamtxJwt = jwtTokenProvider.generateMediaMtxToken(savedStream.getId().intValue());
@@ -70,6 +144,7 @@ public class StreamService {
     }
 
     public PaginatedResponse<StreamResponse> getAllStreams(Long cursor, int limit) {
+        limit = clampLimit(limit);
         log.info("Getting all streams with cursor: {} and limit: {}", cursor, limit);
         Pageable pageable = PageRequest.of(0, limit + 1); // Request one more item to determine if there are more items
         List<Stream> streams;
@@ -80,13 +155,17 @@ public class StreamService {
             streams = streamRepository.findAllWithCursor(cursor, pageable);
         }
 
-        return createPaginatedResponse(streams, limit);
+        return continueIntoArchive(streams, cursor, limit, archiveRepository::findAll);
     }
 
-    public PaginatedResponse<StreamResponse> getStreamsByUser(String username, Long cursor, int limit) {
+    /**
+     * @param username of the same user, for the archived streams
+     */
+    public PaginatedResponse<StreamResponse> getStreamsByUser(Long userId, String username, Long cursor, int limit) {
+        limit = clampLimit(limit);
         log.info("Getting streams for user: {} with cursor: {} and limit: {}", username, cursor, limit);
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        // The queries compare by ID, so the user is not loaded
+        User user = userRepository.getReferenceById(userId);
 
         Pageable pageable = PageRequest.of(0, limit + 1); // Request one more item to determine if there are more items
         List<Stream> streams;
@@ -97,56 +176,172 @@ public class StreamService {
             streams = streamRepository.findByUserWithCursor(cursor, user, pageable);
         }
 
-        return createPaginatedResponse(streams, limit);
+        return continueIntoArchive(streams, cursor, limit,
+                (archiveCursor, fetchLimit) -> archiveRepository.findByUsername(username, archiveCursor, fetchLimit));
     }
 
     public StreamResponse getStreamById(Long streamId) {
         log.info("Getting stream with ID: {}", streamId);
-        Stream stream = streamRepository.findById(streamId)
-                .orElseThrow(() -> new StreamNotFoundException(streamId));
+        StreamResponse cached = detailCache.get(streamId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long version = detailCache.versionOf(streamId);
+        Optional<Stream> found = streamRepository.findById(streamId);
+        if (found.isEmpty()) {
+            // Only looked up after a miss, archived streams are rarely requested
+            StreamResponse archived = archiveRepository.findByIds(List.of(streamId)).stream()
+                    .map(stream -> mapToStreamResponse(stream.stream(), stream.reactions()))
+                    .findFirst()
+                    .orElseThrow(() -> new StreamNotFoundException(streamId));
+            detailCache.put(archived, version);
+            return archived;
+        }
+        Stream stream = found.get();
 
-        StreamResponse response = mapToStreamResponse(stream);
+        long[] reactions = reactionRepository.findTotals(List.of(streamId)).get(streamId);
+        StreamResponse response = mapToStreamResponse(stream, reactions);
         // Set the creator field to the username of the stream's creator
         response.setCreator(stream.getUser().getUsername());
 
+        detailCache.put(response, version);
         return response;
     }
 
-    public StreamResponse updateStream(Long streamId, UpdateStreamRequest request, String username) {
-        log.info("Updating stream with ID: {}", streamId);
+    public StreamBatchResponse getStreamsByIds(List<Long> streamIds) {
+        log.info("Getting {} streams by ID", streamIds.size());
+        if (streamIds.size() > maxBatchIds) {
+            throw new BatchSizeExceededException(streamIds.size(), maxBatchIds);
+        }
 
-        Stream stream = streamRepository.findById(streamId)
-                .orElseThrow(() -> new StreamNotFoundException(streamId));
+        Map<Long, StreamResponse> found = new HashMap<>();
+        Set<Long> misses = new LinkedHashSet<>();
+        for (Long streamId : streamIds) {
+            StreamResponse cached = detailCache.get(streamId);
+            if (cached != null) {
+                found.put(streamId, cached);
+            } else {
+                misses.add(streamId);
+            }
+        }
 
-        // Check if the stream belongs to the user
-        if (!stream.getUser().getUsername().equals(username)) {
-            throw new StreamAccessDeniedException("You don't have permission to update this stream");
+        // One IN query with the creator joined for everything not in the cache
+        if (!misses.isEmpty()) {
+            Map<Long, Long> versions = new HashMap<>();
+            for (Long streamId : misses) {
+                versions.put(streamId, detailCache.versionOf(streamId));
+            }
+            Map<Long, long[]> reactions = reactionRepository.findTotals(misses);
+            for (Stream stream : streamRepository.findAllWithUserByIdIn(misses)) {
+                StreamResponse response = mapToStreamResponse(stream, reactions.get(stream.getId()));
+                detailCache.put(response, versions.get(stream.getId()));
+                found.put(stream.getId(), response);
+            }
+            List<Long> notHot = misses.stream().filter(streamId -> !found.containsKey(streamId)).toList();
+            for (ArchivedStream archived : archiveRepository.findByIds(notHot)) {
+                StreamResponse response = mapToStreamResponse(archived.stream(), archived.reactions());
+                detailCache.put(response, versions.get(response.getStreamId()));
+                found.put(response.getStreamId(), response);
+            }
         }
 
-        stream.setTitle(request.getTitle());
-        stream.setDescription(request.getDescription());
+        List<StreamBatchItem> items = new ArrayList<>(streamIds.size());
+        for (Long streamId : streamIds) {
+            StreamResponse response = found.get(streamId);
+            items.add(new StreamBatchItem(streamId, response != null, response));
+        }
+        return new StreamBatchResponse(items);
+    }
+
+    /**
+     * @param expectedVersion version the client last read, from If-Match; null to update whatever the version
+     */
+    public StreamResponse updateStream(Long streamId, UpdateStreamRequest request, String username,
+                                       Long expectedVersion) {
+        log.info("Updating stream with ID: {}", streamId);
 
-        Stream updatedStream = streamRepository.save(stream);
+        // Ownership and version are checked by the statement itself, which also reports why nothing was written
+        OwnedUpdate update = ownerRepository.updateOwned(streamId, request.getTitle(), request.getDescription(),
+                username, expectedVersion);
+        if (update.stream() == null) {
+            if (update.owner() == null) {
+                throw notFoundOrArchived(streamId);
+            }
+            if (!update.owner().equals(username)) {
+                throw new StreamAccessDeniedException("You don't have permission to update this stream");
+            }
+            if (expectedVersion != null) {
+                throw new PreconditionFailedException(streamId);
+            }
+            // Deleted or archived between reading and updating the row
+            throw notFoundOrArchived(streamId);
+        }
+        Stream updatedStream = update.stream();
+        changeTracker.streamChanged(streamId);
 
-        return mapToStreamResponse(updatedStream);
+        long[] reactions = reactionRepository.findTotals(List.of(streamId)).get(streamId);
+        return mapToStreamResponse(updatedStream, reactions);
     }
 
     public void deleteStream(Long streamId, String username) {
         log.info("Deleting stream with ID: {}", streamId);
 
-        Stream stream = streamRepository.findById(streamId)
-                .orElseThrow(() -> new StreamNotFoundException(streamId));
+        // Ownership is checked by the statement itself
+        if (!ownerRepository.deleteOwned(streamId, username)) {
+            throw notOwned(streamId, "You don't have permission to delete this stream");
+        }
+        changeTracker.streamChanged(streamId);
+        log.info("Stream deleted with ID: {}", streamId);
+    }
 
-        // Check if the stream belongs to the user
-        if (!stream.getUser().getUsername().equals(username)) {
-            throw new StreamAccessDeniedException("You don't have permission to delete this stream");
+    /**
+     * Updates the title and description of several streams of the user in one statement. A
+     * repeated ID keeps the values of its last occurrence.
+     */
+    @Transactional
+    public BulkOperationResponse updateStreams(List<BulkUpdateItem> items, String username) {
+        log.info("Updating {} streams for user: {}", items.size(), username);
+        if (items.size() > maxBatchIds) {
+            throw new BatchSizeExceededException(items.size(), maxBatchIds);
         }
 
-        streamRepository.delete(stream);
-        log.info("Stream deleted with ID: {}", streamId);
+        Map<Long, BulkUpdateItem> byId = new LinkedHashMap<>();
+        for (BulkUpdateItem item : items) {
+            byId.put(item.getStreamId(), item);
+        }
+        Long[] streamIds = new Long[byId.size()];
+        String[] titles = new String[byId.size()];
+        String[] descriptions = new String[byId.size()];
+        int i = 0;
+        for (BulkUpdateItem item : byId.values()) {
+            streamIds[i] = item.getStreamId();
+            titles[i] = item.getTitle();
+            descriptions[i] = item.getDescription();
+            i++;
+        }
+
+        List<Long> updated = ownerRepository.updateAllOwned(streamIds, titles, descriptions, username);
+        return bulkResponse(byId.keySet(), updated, BulkOperationItem.Result.UPDATED);
+    }
+
+    /**
+     * Deletes several streams of the user in one statement.
+     */
+    @Transactional
+    public BulkOperationResponse deleteStreams(List<Long> streamIds, String username) {
+        log.info("Deleting {} streams for user: {}", streamIds.size(), username);
+        if (streamIds.size() > maxBatchIds) {
+            throw new BatchSizeExceededException(streamIds.size(), maxBatchIds);
+        }
+
+        Set<Long> distinct = new LinkedHashSet<>(streamIds);
+        List<Long> deleted = ownerRepository.deleteAllOwned(distinct, username);
+        return bulkResponse(distinct, deleted, BulkOperationItem.Result.DELETED);
     }
 
     public PaginatedResponse<StreamResponse> getLiveStreams(Long cursor, int limit) {
+        limit = clampLimit(limit);
         log.info("Getting all live streams with cursor: {} and limit: {}", cursor, limit);
         Pageable pageable = PageRequest.of(0, limit + 1); // Request one more item to determine if there are more items
         List<Stream> streams;
@@ -161,6 +356,7 @@ public class StreamService {
     }
 
     public PaginatedResponse<StreamResponse> getEndedStreams(Long cursor, int limit) {
+        limit = clampLimit(limit);
         log.info("Getting all ended streams with cursor: {} and limit: {}", cursor, limit);
         Pageable pageable = PageRequest.of(0, limit + 1); // Request one more item to determine if there are more items
         List<Stream> streams;
@@ -171,7 +367,7 @@ public class StreamService {
             streams = streamRepository.findByStatusWithCursor(cursor, StreamStatus.ENDED, pageable);
         }
 
-        return createPaginatedResponse(streams, limit);
+        return continueIntoArchive(streams, cursor, limit, archiveRepository::findAll);
     }
 
     public void setStreamStatusToLive(Long streamId) {
@@ -179,8 +375,15 @@ public class StreamService {
         Stream stream = streamRepository.findById(streamId)
                 .orElseThrow(() -> new StreamNotFoundException(streamId));
 
+        boolean wentLive = stream.getStatus() != StreamStatus.LIVE;
         stream.setStatus(StreamStatus.LIVE);
         streamRepository.save(stream);
+        changeTracker.streamChanged(streamId);
+
+        // Repeated hooks of a stream that is already live do not notify again
+        if (wentLive) {
+            notificationService.streamsWentLive(List.of(streamId));
+        }
     }
 
     public void setStreamStatusToEnded(Long streamId) {
@@ -190,45 +393,294 @@ public class StreamService {
 
         stream.setStatus(StreamStatus.ENDED);
         streamRepository.save(stream);
+        changeTracker.streamChanged(streamId);
     }
 
     public StreamAccessResponse getStreamJwt(Long streamId, String username) {
         log.info("Getting JWT for stream with ID: {}", streamId);
-        Stream stream = streamRepository.findById(streamId)
-                .orElseThrow(() -> new StreamNotFoundException(streamId));
+        // Only the creator's username is read, in the same query that finds the stream
+        String owner = ownerRepository.findOwnerUsername(streamId)
+                .orElseThrow(() -> notFoundOrArchived(streamId));
 
         // Check if the stream belongs to the user
-        if (!stream.getUser().getUsername().equals(username)) {
+        if (!owner.equals(username)) {
             throw new StreamAccessDeniedException("You don't have permission to access this stream");
         }
 
         // Generate a new MediaMTX JWT token for this stream
-        String mediamtxJwt = jwtTokenProvider.generateMediaMtxToken(stream.getId().intValue());
+        String mediamtxJwt = jwtTokenProvider.generateMediaMtxToken(streamId.intValue());
         String streamUrl = streamUrlBase;
 
         return new StreamAccessResponse(
-            stream.getId(),
+            streamId,
             streamUrl,
             mediamtxJwt
         );
     }
 
-    private StreamResponse mapToStreamResponse(Stream stream) {
+    /**
+     * ETag for the public list endpoints; changes whenever any stream is created, modified or removed.
+     */
+    public String getListingETag() {
+        return changeTracker.listingETag();
+    }
+
+    /**
+     * ETag for a single stream; changes whenever that stream is modified or removed.
+     */
+    public String getStreamETag(Long streamId) {
+        return changeTracker.streamETag(streamId);
+    }
+
+    /**
+     * Adds the edit version of the stream to {@code eTag}, for If-Match on the update.
+     */
+    public String withVersion(String eTag, StreamResponse stream) {
+        return eTag.substring(0, eTag.length() - 1) + "-v" + stream.getVersion() + "\"";
+    }
+
+    /**
+     * Finds the tag among {@code ifNoneMatch} that is still current, without loading the stream.
+     * Every edit also changes {@code streamETag}, so a tag that extends it with an edit version
+     * carries the current one.
+     *
+     * @return the current tag, or null if the client holds none
+     */
+    public String currentETagIn(String ifNoneMatch, String streamETag) {
+        if (ifNoneMatch == null) {
+            return null;
+        }
+        String prefix = streamETag.substring(0, streamETag.length() - 1) + "-v";
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.startsWith(prefix) && IF_MATCH_VERSION.matcher(tag).matches()) {
+                return tag;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the edit version from an If-Match header. Only that part of the tag is compared, so
+     * tags stay valid across restarts and on every replica.
+     *
+     * @return null when the header is absent or {@code *}
+     */
+    public Long versionFromIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Matcher matcher = IF_MATCH_VERSION.matcher(ifMatch.trim());
+        if (!matcher.matches()) {
+            throw new PreconditionFailedException("If-Match does not hold a stream ETag");
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    /**
+     * Whether a list request is served from the first page cache.
+     */
+    public boolean isCachedFirstPage(Long cursor, int limit) {
+        return cursor == null && firstPageCache.accepts(limit);
+    }
+
+    public byte[] getAllStreamsFirstPageJson(int limit) {
+        return firstPageCache.get("all", limit, () -> toJson(getAllStreams(null, limit)));
+    }
+
+    public byte[] getLiveStreamsFirstPageJson(int limit) {
+        return firstPageCache.get("live", limit, () -> toJson(getLiveStreams(null, limit)));
+    }
+
+    /**
+     * Whether a list request for this many items should use the streaming write path.
+     */
+    public boolean isStreamingPage(int limit) {
+        return clampLimit(limit) > streamingThreshold;
+    }
+
+    public void writeAllStreams(Long cursor, int limit, OutputStream out) throws IOException {
+        log.info("Streaming all streams with cursor: {} and limit: {}", cursor, limit);
+        int pageSize = clampLimit(limit);
+        writePage(out, pageSize, cursor, handler -> streamJdbcRepository.findAll(cursor, pageSize + 1, handler),
+                archiveRepository::findAll);
+    }
+
+    public void writeStreamsByUser(String username, Long cursor, int limit, OutputStream out) throws IOException {
+        log.info("Streaming streams for user: {} with cursor: {} and limit: {}", username, cursor, limit);
+        int pageSize = clampLimit(limit);
+        writePage(out, pageSize, cursor,
+                handler -> streamJdbcRepository.findByUsername(username, cursor, pageSize + 1, handler),
+                (archiveCursor, fetchLimit, handler) -> archiveRepository.findByUsername(username, archiveCursor, fetchLimit, handler));
+    }
+
+    public void writeStreamsByStatus(StreamStatus status, Long cursor, int limit, OutputStream out) throws IOException {
+        log.info("Streaming {} streams with cursor: {} and limit: {}", status, cursor, limit);
+        int pageSize = clampLimit(limit);
+        // Only ENDED streams are ever archived
+        writePage(out, pageSize, cursor, handler -> streamJdbcRepository.findByStatus(status, cursor, pageSize + 1, handler),
+                status == StreamStatus.ENDED ? archiveRepository::findAll : null);
+    }
+
+    /**
+     * @param archive continues the page in the archive once {@code query} runs out, null if it never holds any
+     */
+    private void writePage(OutputStream out, int pageSize, Long cursor, Consumer<RowCallbackHandler> query,
+                           ArchiveRows archive) throws IOException {
+        StreamStatus[] statuses = StreamStatus.values();
+        // Reused for every row, the writer is done with it before the next one is read
+        long[] reactions = new long[ReactionType.values().length];
+        int[] rows = new int[1];
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            StreamPageWriter writer = new StreamPageWriter(generator, pageSize);
+            // Both queries return the same columns
+            RowCallbackHandler handler = rs -> {
+                rows[0]++;
+                try {
+                    for (int i = 0; i < reactions.length; i++) {
+                        reactions[i] = rs.getLong(StreamJdbcRepository.FIRST_REACTION_COLUMN + i);
+                    }
+                    writer.write(
+                            rs.getLong(1),
+                            rs.getString(2),
+                            rs.getString(3),
+                            statuses[rs.getInt(4)],
+                            rs.getString(5),
+                            rs.getString(6),
+                            reactions);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+            query.accept(handler);
+            int hotRows = rows[0];
+            if (archive != null && hotRows <= pageSize) {
+                archive.find(archiveCursor(cursor, hotRows), pageSize + 1 - hotRows, handler);
+            }
+            writer.finish();
+        }
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error serializing stream list", e);
+        }
+    }
+
+    private int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, maxPageSize));
+    }
+
+    /**
+     * @param reactions reaction totals indexed by {@link ReactionType} ordinal, null for none
+     */
+    private StreamResponse mapToStreamResponse(Stream stream, long[] reactions) {
         return new StreamResponse(
                 stream.getId(),
                 stream.getTitle(),
                 stream.getDescription(),
                 stream.getStatus(),
-                stream.getUser().getUsername() // set creator to the username of the stream's creator
+                stream.getUser().getUsername(), // set creator to the username of the stream's creator
+                ThumbnailVariant.urls(stream.getThumbnailHash()),
+                ReactionType.totals(reactions),
+                stream.getVersion()
         );
     }
 
+    /**
+     * Resolves an owner-scoped write that matched no row, with one lookup only on this path: the
+     * stream either does not exist or belongs to another user.
+     */
+    private RuntimeException notOwned(Long streamId, String message) {
+        if (streamRepository.existsById(streamId) || archiveRepository.existsById(streamId)) {
+            return new StreamAccessDeniedException(message);
+        }
+        return new StreamNotFoundException(streamId);
+    }
+
+    /**
+     * Resolves a lookup of the hot table that found nothing: archived streams are read-only, so
+     * they are reported as such rather than as missing.
+     */
+    private RuntimeException notFoundOrArchived(Long streamId) {
+        if (archiveRepository.existsById(streamId)) {
+            return new StreamArchivedException(streamId);
+        }
+        return new StreamNotFoundException(streamId);
+    }
+
+    /**
+     * Reports {@code result} for the changed streams. The others are looked up in one query, only
+     * when there are any, to tell streams of other users from missing ones.
+     */
+    private BulkOperationResponse bulkResponse(Collection<Long> requested, List<Long> changed,
+                                               BulkOperationItem.Result result) {
+        changed.forEach(changeTracker::streamChanged);
+        Set<Long> done = new HashSet<>(changed);
+        List<Long> missed = requested.stream().filter(streamId -> !done.contains(streamId)).toList();
+        Set<Long> existing = missed.isEmpty() ? Set.of() : new HashSet<>(ownerRepository.findExistingIn(missed));
+
+        List<BulkOperationItem> items = new ArrayList<>(requested.size());
+        for (Long streamId : requested) {
+            BulkOperationItem.Result itemResult = done.contains(streamId) ? result
+                    : existing.contains(streamId) ? BulkOperationItem.Result.FORBIDDEN
+                    : BulkOperationItem.Result.NOT_FOUND;
+            items.add(new BulkOperationItem(streamId, itemResult));
+        }
+        return new BulkOperationResponse(items);
+    }
+
+    /**
+     * Fills up a page from the hot table with archived streams, which sort after all of them.
+     */
+    private PaginatedResponse<StreamResponse> continueIntoArchive(List<Stream> streams, Long cursor, int limit,
+                                                                  ArchivePage archive) {
+        if (streams.size() > limit) {
+            return createPaginatedResponse(streams, limit);
+        }
+        List<Stream> combined = new ArrayList<>(streams);
+        Map<Long, long[]> archivedReactions = new HashMap<>();
+        for (ArchivedStream archived : archive.find(archiveCursor(cursor, streams.size()), limit + 1 - streams.size())) {
+            combined.add(archived.stream());
+            archivedReactions.put(archived.stream().getId(), archived.reactions());
+        }
+        return createPaginatedResponse(combined, limit, archivedReactions);
+    }
+
+    /**
+     * Where a page that ran past the hot table continues in the archive: after the cursor if it is
+     * an archived stream, from the start otherwise. The hot query returns no rows for an archived
+     * cursor, so only then is it checked.
+     */
+    private Long archiveCursor(Long cursor, int hotRows) {
+        if (cursor == null || hotRows > 0 || streamRepository.existsById(cursor)) {
+            return null;
+        }
+        return cursor;
+    }
+
     private PaginatedResponse<StreamResponse> createPaginatedResponse(List<Stream> streams, int limit) {
+        return createPaginatedResponse(streams, limit, Map.of());
+    }
+
+    /**
+     * @param archivedReactions reaction totals of the archived streams among {@code streams}
+     */
+    private PaginatedResponse<StreamResponse> createPaginatedResponse(List<Stream> streams, int limit,
+                                                                      Map<Long, long[]> archivedReactions) {
         boolean hasMore = streams.size() > limit;
         List<Stream> limitedStreams = hasMore ? streams.subList(0, limit) : streams;
 
+        // One query for the reaction totals of the whole page
+        Map<Long, long[]> reactions = reactionRepository.findTotals(limitedStreams.stream().map(Stream::getId).toList());
         List<StreamResponse> responseItems = limitedStreams.stream()
-                .map(this::mapToStreamResponse)
+                .map(stream -> mapToStreamResponse(stream,
+                        archivedReactions.getOrDefault(stream.getId(), reactions.get(stream.getId()))))
                 .collect(Collectors.toList());
 
         Long nextCursor = null;
@@ -238,4 +690,14 @@ public class StreamService {
 
         return new PaginatedResponse<>(responseItems, nextCursor, hasMore);
     }
+
+    @FunctionalInterface
+    private interface ArchivePage {
+        List<ArchivedStream> find(Long cursor, int fetchLimit);
+    }
+
+    @FunctionalInterface
+    private interface ArchiveRows {
+        void find(Long cursor, int fetchLimit, RowCallbackHandler handler);
+    }
 }
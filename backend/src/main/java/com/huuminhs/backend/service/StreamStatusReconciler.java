@@ -0,0 +1,122 @@
+package com.huuminhs.backend.service;
+
+import com.huuminhs.backend.repository.StreamStatusJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Repairs stream statuses that drifted from MediaMTX because a runOnReady/runOnNotReady hook
+ * was lost (backend restarting, MediaMTX killed, network errors).
+ * <p>
+ * Each run lists the ready paths in one API call and compares them with the LIVE rows in two
+ * set-based queries. A mismatch is only fixed when the previous run saw it too, so a hook that is
+ * merely in flight is never overridden. Runs on several replicas are serialized by an advisory
+ * lock; a replica that does not get it skips the run.
+ */
+@Service
+@Slf4j
+public class StreamStatusReconciler {
+
+    private record Changes(List<Long> lived, List<Long> ended) {
+    }
+
+    // Arbitrary, only has to be unique among the advisory locks of this database
+    static final long LOCK_KEY = 0x7664746c6976L;
+
+    private final MediaMtxApiClient apiClient;
+    private final StreamStatusJdbcRepository statusRepository;
+    private final StreamChangeTracker changeTracker;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transaction;
+
+    @Value("${mediamtx.reconcile.enabled:true}")
+    private boolean enabled = true;
+
+    // Drift seen by the previous run, confirmed if it is still there
+    private Set<Long> pendingLive = Set.of();
+    private Set<Long> pendingEnded = Set.of();
+
+    public StreamStatusReconciler(MediaMtxApiClient apiClient, StreamStatusJdbcRepository statusRepository,
+                                  StreamChangeTracker changeTracker, NotificationService notificationService,
+                                  PlatformTransactionManager transactionManager) {
+        this.apiClient = apiClient;
+        this.statusRepository = statusRepository;
+        this.changeTracker = changeTracker;
+        this.notificationService = notificationService;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(initialDelayString = "${mediamtx.reconcile.interval-ms:60000}",
+            fixedDelayString = "${mediamtx.reconcile.interval-ms:60000}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        Set<Long> ready;
+        try {
+            ready = apiClient.listReadyStreamIds();
+        } catch (MediaMtxApiClient.UnauthorizedException e) {
+            // Will not fix itself, unlike an outage
+            log.error("Skipping reconciliation, MediaMTX Control API refused the backend: {}", e.getMessage());
+            return;
+        } catch (IOException e) {
+            // Never end streams just because MediaMTX is unreachable; the health poller logs this
+            log.debug("Skipping reconciliation, MediaMTX Control API unavailable: {}", e.toString());
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        Changes changes = transaction.execute(status -> reconcile(ready));
+        changes.lived().forEach(changeTracker::streamChanged);
+        changes.ended().forEach(changeTracker::streamChanged);
+        // A missed runOnReady hook also missed the go-live notifications
+        notificationService.streamsWentLive(changes.lived());
+    }
+
+    /**
+     * @return IDs whose status was changed
+     */
+    private synchronized Changes reconcile(Set<Long> ready) {
+        if (!statusRepository.tryLock(LOCK_KEY)) {
+            log.debug("Skipping reconciliation, another instance holds the lock");
+            pendingLive = Set.of();
+            pendingEnded = Set.of();
+            return new Changes(List.of(), List.of());
+        }
+
+        Set<Long> notLive = new HashSet<>(statusRepository.findNotLiveIn(ready));
+        Set<Long> notReady = new HashSet<>(statusRepository.findLiveNotIn(ready));
+
+        Set<Long> toLive = intersection(notLive, pendingLive);
+        Set<Long> toEnd = intersection(notReady, pendingEnded);
+        List<Long> lived = toLive.isEmpty() ? List.of() : statusRepository.markLive(toLive);
+        List<Long> ended = toEnd.isEmpty() ? List.of() : statusRepository.markEnded(toEnd);
+
+        notLive.removeAll(toLive);
+        notReady.removeAll(toEnd);
+        pendingLive = notLive;
+        pendingEnded = notReady;
+
+        if (!lived.isEmpty() || !ended.isEmpty()) {
+            log.info("Reconciled streams with MediaMTX: {} set to LIVE, {} set to ENDED", lived.size(), ended.size());
+        }
+        return new Changes(lived, ended);
+    }
+
+    private static Set<Long> intersection(Set<Long> a, Set<Long> b) {
+        Set<Long> result = new HashSet<>(a);
+        result.retainAll(b);
+        return result;
+    }
+}
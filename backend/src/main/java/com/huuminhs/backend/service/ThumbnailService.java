@@ -0,0 +1,303 @@
+package com.huuminhs.backend.service;
+
+import com.huuminhs.backend.exception.InvalidThumbnailException;
+import com.huuminhs.backend.exception.StreamAccessDeniedException;
+import com.huuminhs.backend.exception.StreamArchivedException;
+import com.huuminhs.backend.exception.StreamNotFoundException;
+import com.huuminhs.backend.exception.ThumbnailQueueFullException;
+import com.huuminhs.backend.repository.StreamArchiveJdbcRepository;
+import com.huuminhs.backend.repository.StreamOwnerJdbcRepository;
+import com.huuminhs.backend.repository.StreamOwnerJdbcRepository.OwnerAndThumbnail;
+import com.huuminhs.backend.repository.StreamRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Accepts thumbnail uploads and resizes them into the fixed {@link ThumbnailVariant}s.
+ * <p>
+ * Resizing runs on a small pool with a bounded queue; when the queue is full, uploads are
+ * rejected instead of piling up decoded images on the heap. A stream only points at a new
+ * thumbnail once all its variants are on disk, so listed URLs never 404. Variant files are named
+ * by content hash, which lets them be served with immutable cache headers.
+ */
+@Service
+@Slf4j
+public class ThumbnailService {
+
+    private static final String DIRECTORY = "thumbnails";
+    private static final Pattern VARIANT_FILE_NAME = Pattern.compile("[0-9a-f]{16}-(small|medium|large)\\.jpg");
+
+    private final StreamRepository streamRepository;
+    private final StreamChangeTracker changeTracker;
+    private final StreamArchiveJdbcRepository archiveRepository;
+    private final StreamOwnerJdbcRepository ownerRepository;
+
+    @Value("${file.upload-dir:./uploads}")
+    private String uploadDir = "./uploads";
+
+    @Value("${thumbnail.workers:2}")
+    private int workers = 2;
+
+    // Each queued upload holds its bytes until processed, at most the multipart size limit
+    @Value("${thumbnail.queue-capacity:8}")
+    private int queueCapacity = 8;
+
+    // Guards against decompression bombs: a small PNG can decode to gigabytes of pixels
+    @Value("${thumbnail.max-pixels:40000000}")
+    private long maxPixels = 40_000_000;
+
+    @Value("${thumbnail.jpeg-quality:0.85}")
+    private float jpegQuality = 0.85f;
+
+    private ThreadPoolExecutor executor;
+
+    public ThumbnailService(StreamRepository streamRepository, StreamChangeTracker changeTracker,
+                            StreamArchiveJdbcRepository archiveRepository, StreamOwnerJdbcRepository ownerRepository) {
+        this.streamRepository = streamRepository;
+        this.changeTracker = changeTracker;
+        this.archiveRepository = archiveRepository;
+        this.ownerRepository = ownerRepository;
+    }
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "thumbnail-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Thumbnail workers did not finish in time");
+        }
+    }
+
+    /**
+     * Validates the upload and queues it for resizing.
+     *
+     * @return the URLs the variants will be served at once processed
+     */
+    public Map<String, String> upload(Long streamId, MultipartFile file, String username) {
+        log.info("Uploading thumbnail for stream with ID: {}", streamId);
+
+        // The creator's username and the current thumbnail are read in one query
+        OwnerAndThumbnail stream = ownerRepository.findOwnerAndThumbnailHash(streamId)
+                .orElseThrow(() -> archiveRepository.existsById(streamId)
+                        ? new StreamArchivedException(streamId) : new StreamNotFoundException(streamId));
+
+        // Check if the stream belongs to the user
+        if (!stream.owner().equals(username)) {
+            throw new StreamAccessDeniedException("You don't have permission to update this stream");
+        }
+
+        if (file.isEmpty()) {
+            throw new InvalidThumbnailException("Thumbnail file is empty");
+        }
+        byte[] bytes;
+        try {
+            bytes = file.getBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read uploaded thumbnail", e);
+        }
+        checkImage(bytes);
+
+        String hash = hash(bytes);
+        String previousHash = stream.thumbnailHash();
+        if (!hash.equals(previousHash)) {
+            try {
+                executor.execute(() -> process(streamId, hash, previousHash, bytes));
+            } catch (RejectedExecutionException e) {
+                throw new ThumbnailQueueFullException();
+            }
+        }
+        return ThumbnailVariant.urls(hash);
+    }
+
+    /**
+     * @return the file of a variant, or null if the name is not a variant file name or doesn't exist
+     */
+    public Path getVariantFile(String fileName) {
+        if (!VARIANT_FILE_NAME.matcher(fileName).matches()) {
+            return null;
+        }
+        Path file = directory().resolve(fileName);
+        return Files.isRegularFile(file) ? file : null;
+    }
+
+    void process(Long streamId, String hash, String previousHash, byte[] bytes) {
+        long startTime = System.nanoTime();
+        try {
+            // Identical images uploaded for other streams share their variants
+            if (!variantsExist(hash)) {
+                BufferedImage source = ImageIO.read(new ByteArrayInputStream(bytes));
+                if (source == null) {
+                    log.warn("Thumbnail {} of stream {} could not be decoded", hash, streamId);
+                    return;
+                }
+                Files.createDirectories(directory());
+                for (ThumbnailVariant variant : ThumbnailVariant.values()) {
+                    writeJpeg(resize(source, variant.width(), variant.height()), directory().resolve(variant.fileName(hash)));
+                }
+            }
+
+            if (streamRepository.updateThumbnailHash(streamId, hash) == 0) {
+                log.info("Stream {} was deleted before its thumbnail was processed", streamId);
+                return;
+            }
+            changeTracker.streamChanged(streamId);
+            log.info("Processed thumbnail {} of stream {} in {} ms", hash, streamId, (System.nanoTime() - startTime) / 1_000_000);
+
+            // Archived streams keep showing their thumbnails
+            if (previousHash != null && !streamRepository.existsByThumbnailHash(previousHash)
+                    && !archiveRepository.existsByThumbnailHash(previousHash)) {
+                for (ThumbnailVariant variant : ThumbnailVariant.values()) {
+                    Files.deleteIfExists(directory().resolve(variant.fileName(previousHash)));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to process thumbnail {} of stream {}", hash, streamId, e);
+        }
+    }
+
+    /**
+     * Reads only the image header, so invalid or oversized uploads are rejected before decoding.
+     */
+    private void checkImage(byte[] bytes) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new InvalidThumbnailException("Thumbnail must be a JPEG, PNG, GIF or BMP image");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    throw new InvalidThumbnailException("Thumbnail dimensions are too large");
+                }
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new InvalidThumbnailException("Thumbnail image could not be read");
+        }
+    }
+
+    private boolean variantsExist(String hash) {
+        for (ThumbnailVariant variant : ThumbnailVariant.values()) {
+            if (!Files.isRegularFile(directory().resolve(variant.fileName(hash)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Scales the image to cover the target size and crops the overflow around the center.
+     */
+    static BufferedImage resize(BufferedImage source, int width, int height) {
+        double scale = Math.max((double) width / source.getWidth(), (double) height / source.getHeight());
+        int cropWidth = Math.min(source.getWidth(), (int) Math.round(width / scale));
+        int cropHeight = Math.min(source.getHeight(), (int) Math.round(height / scale));
+        BufferedImage current = source.getSubimage(
+                (source.getWidth() - cropWidth) / 2, (source.getHeight() - cropHeight) / 2, cropWidth, cropHeight);
+
+        // Halve in steps: a single bilinear pass from far above the target size aliases badly
+        int currentWidth = cropWidth;
+        int currentHeight = cropHeight;
+        do {
+            currentWidth = currentWidth / 2 >= width ? currentWidth / 2 : width;
+            currentHeight = currentHeight / 2 >= height ? currentHeight / 2 : height;
+            current = scale(current, currentWidth, currentHeight);
+        } while (currentWidth != width || currentHeight != height);
+        return current;
+    }
+
+    private static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // JPEG has no alpha channel, transparent areas become white instead of black
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private void writeJpeg(BufferedImage image, Path file) throws IOException {
+        Path temp = Files.createTempFile(file.getParent(), "thumbnail-", ".part");
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try {
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(jpegQuality);
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(image, null, null), param);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            writer.dispose();
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path directory() {
+        return Paths.get(uploadDir, DIRECTORY);
+    }
+
+    private static String hash(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
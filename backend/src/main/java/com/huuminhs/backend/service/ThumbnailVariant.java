@@ -0,0 +1,59 @@
+package com.huuminhs.backend.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Fixed sizes thumbnails are resized to. All variants are 16:9, the aspect ratio of the stream
+ * cards, so the frontend never has to crop.
+ */
+public enum ThumbnailVariant {
+    SMALL("small", 320, 180),
+    MEDIUM("medium", 640, 360),
+    LARGE("large", 1280, 720);
+
+    public static final String URL_PREFIX = "/api/thumbnails/";
+
+    private final String key;
+    private final int width;
+    private final int height;
+
+    ThumbnailVariant(String key, int width, int height) {
+        this.key = key;
+        this.width = width;
+        this.height = height;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    /**
+     * File names embed the content hash, so a URL always refers to the same bytes.
+     */
+    public String fileName(String hash) {
+        return hash + "-" + key + ".jpg";
+    }
+
+    /**
+     * @return the variant URLs for a thumbnail hash, or null when there is no thumbnail
+     */
+    public static Map<String, String> urls(String hash) {
+        if (hash == null) {
+            return null;
+        }
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (ThumbnailVariant variant : values()) {
+            urls.put(variant.key, URL_PREFIX + variant.fileName(hash));
+        }
+        return urls;
+    }
+}
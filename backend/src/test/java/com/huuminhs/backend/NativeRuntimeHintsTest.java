@@ -0,0 +1,41 @@
+package com.huuminhs.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NativeRuntimeHintsTest {
+
+    @Test
+    void registerHints_CoversEveryDto() throws Exception {
+        // Arrange
+        RuntimeHints hints = new RuntimeHints();
+        Resource[] classFiles = new PathMatchingResourcePatternResolver()
+                .getResources("classpath*:com/huuminhs/backend/dto/*.class");
+
+        // Act
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        // Assert: nested types are reached through the fields of their enclosing DTO
+        List<String> missing = new ArrayList<>();
+        for (Resource classFile : classFiles) {
+            String simpleName = classFile.getFilename().replace(".class", "");
+            if (simpleName.contains("$")) {
+                continue;
+            }
+            Class<?> dto = Class.forName("com.huuminhs.backend.dto." + simpleName);
+            if (!RuntimeHintsPredicates.reflection().onType(dto).test(hints)) {
+                missing.add(simpleName);
+            }
+        }
+        assertTrue(classFiles.length > 0);
+        assertEquals(List.of(), missing);
+    }
+}
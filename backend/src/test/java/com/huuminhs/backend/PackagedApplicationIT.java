@@ -0,0 +1,195 @@
+package com.huuminhs.backend;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Black-box tests of a packaged build, started as a separate process and driven over HTTP.
+ * <p>
+ * The native profile runs them against the native executable; they cover the paths that depend
+ * on reachability metadata: JWT signing and verification, Jackson DTOs and Hibernate entities with
+ * their lazy associations. Any other build can be checked with
+ * {@code -Dapp.command="java -jar target/backend-0.0.1-SNAPSHOT.jar"}. The startup time and
+ * resident memory of the process are printed for comparison between builds.
+ */
+@EnabledIfSystemProperty(named = "app.command", matches = ".+")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class PackagedApplicationIT {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+
+    private static Process process;
+    private static String baseUrl;
+
+    private static final String username = "it" + ThreadLocalRandom.current().nextInt(1_000_000_000);
+    private static String accessToken;
+    private static long streamId;
+
+    @BeforeAll
+    static void start() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        baseUrl = "http://localhost:" + port;
+
+        List<String> command = new ArrayList<>(Arrays.asList(System.getProperty("app.command").trim().split("\\s+")));
+        String args = System.getProperty("app.args", "").trim();
+        if (!args.isEmpty()) {
+            command.addAll(Arrays.asList(args.split("\\s+")));
+        }
+        command.add("--server.port=" + port);
+
+        long start = System.nanoTime();
+        process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(Path.of("target", "packaged-application.log").toFile())
+                .start();
+        while (readinessStatus() != 200) {
+            assertTrue(process.isAlive(), "The application exited, see target/packaged-application.log");
+            assertTrue(System.nanoTime() - start < Duration.ofMinutes(2).toNanos(), "The application did not get ready");
+            Thread.sleep(20);
+        }
+        System.out.printf("%s ready in %d ms, %s%n", command.get(0), (System.nanoTime() - start) / 1_000_000,
+                residentMemory());
+    }
+
+    @AfterAll
+    static void stop() throws InterruptedException {
+        if (process != null) {
+            System.out.printf("Before shutdown: %s%n", residentMemory());
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    @Test
+    @Order(1)
+    void registerAndLogin_IssueSignedTokens() throws Exception {
+        // Act
+        HttpResponse<String> registered = post("/api/auth/register",
+                "{\"username\":\"" + username + "\",\"password\":\"secret123\"}", null);
+        HttpResponse<String> login = post("/api/auth/login",
+                "{\"username\":\"" + username + "\",\"password\":\"secret123\"}", null);
+
+        // Assert
+        assertEquals(200, registered.statusCode(), registered.body());
+        assertEquals(200, login.statusCode(), login.body());
+        JsonNode body = objectMapper.readTree(login.body());
+        assertEquals(username, body.get("username").asText());
+        assertFalse(body.get("refreshToken").asText().isEmpty());
+        accessToken = body.get("token").asText();
+    }
+
+    @Test
+    @Order(2)
+    void createStream_VerifiesTokenAndIssuesMediaMtxToken() throws Exception {
+        // Act
+        HttpResponse<String> created = post("/api/stream",
+                "{\"title\":\"Native check\",\"description\":\"From PackagedApplicationIT\"}", accessToken);
+
+        // Assert
+        assertEquals(201, created.statusCode(), created.body());
+        JsonNode body = objectMapper.readTree(created.body());
+        assertEquals(3, body.get("mediamtxJwt").asText().split("\\.").length);
+        streamId = body.get("streamId").asLong();
+    }
+
+    @Test
+    @Order(3)
+    void getStream_LoadsTheLazyCreator() throws Exception {
+        // Act
+        HttpResponse<String> response = get("/api/stream/" + streamId);
+
+        // Assert
+        assertEquals(200, response.statusCode(), response.body());
+        JsonNode body = objectMapper.readTree(response.body());
+        assertEquals("Native check", body.get("title").asText());
+        assertEquals("CREATED", body.get("status").asText());
+        assertEquals(username, body.get("creator").asText());
+    }
+
+    @Test
+    @Order(4)
+    void listStreams_SerializesPages() throws Exception {
+        // Act
+        HttpResponse<String> response = get("/api/stream?limit=5");
+
+        // Assert
+        assertEquals(200, response.statusCode(), response.body());
+        JsonNode body = objectMapper.readTree(response.body());
+        assertTrue(body.get("items").isArray());
+        assertTrue(body.has("hasMore"));
+    }
+
+    @Test
+    @Order(5)
+    void jwks_ExposesThePublicKey() throws Exception {
+        // Act
+        HttpResponse<String> response = get("/api/publish/jwks");
+
+        // Assert
+        assertEquals(200, response.statusCode());
+        assertEquals("RSA", objectMapper.readTree(response.body()).get("keys").get(0).get("kty").asText());
+    }
+
+    private static int readinessStatus() throws InterruptedException {
+        try {
+            return get("/actuator/health/readiness").statusCode();
+        } catch (IOException e) {
+            // Not listening yet
+            return -1;
+        }
+    }
+
+    private static HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return http.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpResponse<String> post(String path, String json, String token) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String residentMemory() {
+        try {
+            return Files.readAllLines(Path.of("/proc", Long.toString(process.pid()), "status")).stream()
+                    .filter(line -> line.startsWith("VmRSS:"))
+                    .map(line -> "RSS " + line.substring(6).trim())
+                    .findFirst()
+                    .orElse("RSS unknown");
+        } catch (IOException e) {
+            return "RSS unknown";
+        }
+    }
+}
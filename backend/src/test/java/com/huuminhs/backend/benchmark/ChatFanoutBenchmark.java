@@ -0,0 +1,128 @@
+package com.huuminhs.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.huuminhs.backend.service.ChatHistoryService;
+import com.huuminhs.backend.service.ChatRoom;
+import com.huuminhs.backend.service.ChatService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Fans chat messages out to 10,000 simulated clients in one room and reports the delay between
+ * publishing a message and each client receiving it.
+ * <p>
+ * Clients are in-process sinks, so this measures the ring and the fan-out workers, not the network.
+ * Not part of the regular test run (surefire only picks up *Test classes). Run with:
+ * {@code ./mvnw test -Dtest=ChatFanoutBenchmark}
+ */
+public class ChatFanoutBenchmark {
+
+    private static final long STREAM_ID = 1L;
+    private static final int CLIENTS = 10_000;
+    private static final int WARMUP_MESSAGES = 200;
+    private static final int MESSAGES = 500;
+    private static final long PUBLISH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private final ChatService chatService = new ChatService(new ObjectMapper(), mock(ChatHistoryService.class));
+
+    // Indexed by sequence number; written before the message is published
+    private final long[] publishedAt = new long[WARMUP_MESSAGES + MESSAGES];
+    private final long[] latencies = new long[CLIENTS * MESSAGES];
+    private final AtomicInteger recorded = new AtomicInteger();
+    private final AtomicInteger delivered = new AtomicInteger();
+    private final AtomicInteger disconnected = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        chatService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        chatService.stop();
+    }
+
+    @Test
+    void deliveryLatencyPercentiles() throws InterruptedException {
+        for (int i = 0; i < CLIENTS; i++) {
+            chatService.join(STREAM_ID, new TimingSink());
+        }
+
+        publish(0, WARMUP_MESSAGES);
+        awaitDeliveries(CLIENTS * WARMUP_MESSAGES);
+        recorded.set(0);
+
+        long start = System.nanoTime();
+        publish(WARMUP_MESSAGES, MESSAGES);
+        awaitDeliveries(CLIENTS * (WARMUP_MESSAGES + MESSAGES));
+        long elapsed = System.nanoTime() - start;
+
+        long[] sorted = Arrays.copyOf(latencies, recorded.get());
+        Arrays.sort(sorted);
+        System.out.printf("[BENCHMARK] %d clients, %d messages, %d deliveries in %d ms (%.0f deliveries/s)%n",
+                CLIENTS, MESSAGES, sorted.length, TimeUnit.NANOSECONDS.toMillis(elapsed),
+                sorted.length / (elapsed / 1e9));
+        System.out.printf("[BENCHMARK] latency p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms%n",
+                percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99), percentile(sorted, 99.9),
+                sorted[sorted.length - 1] / 1e6);
+
+        assertEquals(0, disconnected.get(), "No client should fall behind the ring");
+        assertEquals(CLIENTS * MESSAGES, sorted.length);
+    }
+
+    private void publish(int fromSeq, int count) {
+        long next = System.nanoTime();
+        for (int seq = fromSeq; seq < fromSeq + count; seq++) {
+            publishedAt[seq] = System.nanoTime();
+            chatService.post(STREAM_ID, "publisher", "Message number " + seq);
+            next += PUBLISH_INTERVAL_NANOS;
+            LockSupport.parkNanos(next - System.nanoTime());
+        }
+    }
+
+    private void awaitDeliveries(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (delivered.get() < expected && disconnected.get() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private class TimingSink implements ChatRoom.Sink {
+
+        @Override
+        public void send(String frame, Consumer<Throwable> done) {
+            long now = System.nanoTime();
+            int from = 0;
+            while ((from = frame.indexOf("\"seq\":", from)) >= 0) {
+                from += 6;
+                int end = frame.indexOf(',', from);
+                int seq = Integer.parseInt(frame, from, end, 10);
+                if (seq >= WARMUP_MESSAGES) {
+                    latencies[recorded.getAndIncrement()] = now - publishedAt[seq];
+                }
+                delivered.incrementAndGet();
+            }
+            done.accept(null);
+        }
+
+        @Override
+        public void close(String reason) {
+            disconnected.incrementAndGet();
+        }
+    }
+}
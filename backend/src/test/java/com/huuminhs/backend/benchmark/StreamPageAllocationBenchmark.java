@@ -0,0 +1,124 @@
+package com.huuminhs.backend.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.huuminhs.backend.dto.PaginatedResponse;
+import com.huuminhs.backend.dto.StreamResponse;
+import com.huuminhs.backend.model.ReactionType;
+import com.huuminhs.backend.model.StreamStatus;
+import com.huuminhs.backend.service.StreamPageWriter;
+import com.huuminhs.backend.service.ThumbnailVariant;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares bytes allocated per item by the buffered list response and by {@link StreamPageWriter}.
+ * <p>
+ * Not part of the regular test run (surefire only picks up *Test classes). Run with:
+ * {@code ./mvnw test -Dtest=StreamPageAllocationBenchmark}
+ */
+public class StreamPageAllocationBenchmark {
+
+    private static final int ITEMS = 10_000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 20;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Stand-in for the column values a result set hands out; allocated once, outside the measurement
+    private final String[] titles = new String[ITEMS];
+    private final String[] descriptions = new String[ITEMS];
+
+    {
+        for (int i = 0; i < ITEMS; i++) {
+            titles[i] = "Stream " + i;
+            descriptions[i] = "Description of stream number " + i;
+        }
+    }
+
+    @Test
+    void bytesAllocatedPerItem() throws IOException {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            writeBuffered();
+            writeStreamed();
+        }
+
+        double buffered = measure(this::writeBuffered);
+        double streamed = measure(this::writeStreamed);
+
+        System.out.printf("[BENCHMARK] %d items per page%n", ITEMS);
+        System.out.printf("[BENCHMARK] buffered PaginatedResponse: %.1f bytes allocated per item%n", buffered);
+        System.out.printf("[BENCHMARK] StreamPageWriter:           %.1f bytes allocated per item%n", streamed);
+
+        assertTrue(streamed < buffered, "Streaming should allocate less per item than buffering");
+    }
+
+    @Test
+    void streamedOutputMatchesBufferedOutput() throws IOException {
+        long[][] reactions = {null, {3, 0, 1, 0, 7}, {0, 0, 0, 0, 0}, null};
+        ByteArrayOutputStream buffered = new ByteArrayOutputStream();
+        List<StreamResponse> items = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            items.add(new StreamResponse((long) i, titles[i], i == 1 ? null : descriptions[i], StreamStatus.LIVE, "user",
+                    ThumbnailVariant.urls(i == 2 ? "0123456789abcdef" : null), ReactionType.totals(reactions[i])));
+        }
+        objectMapper.writeValue(buffered, PaginatedResponse.of(items, 2L, true));
+
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(streamed)) {
+            StreamPageWriter writer = new StreamPageWriter(generator, 3);
+            for (int i = 0; i < 4; i++) {
+                writer.write(i, titles[i], i == 1 ? null : descriptions[i], StreamStatus.LIVE, "user",
+                        i == 2 ? "0123456789abcdef" : null, reactions[i]);
+            }
+            writer.finish();
+        }
+
+        assertEquals(buffered.toString(), streamed.toString());
+    }
+
+    private double measure(Round round) throws IOException {
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            round.run();
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+        return (double) allocated / ((long) MEASURED_ROUNDS * ITEMS);
+    }
+
+    private void writeBuffered() throws IOException {
+        List<StreamResponse> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new StreamResponse((long) i, titles[i], descriptions[i], StreamStatus.CREATED, "creator", null,
+                    ReactionType.totals(null)));
+        }
+        objectMapper.writeValue(OutputStream.nullOutputStream(), PaginatedResponse.of(items, (long) ITEMS, true));
+    }
+
+    private void writeStreamed() throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(OutputStream.nullOutputStream())) {
+            StreamPageWriter writer = new StreamPageWriter(generator, ITEMS);
+            for (int i = 0; i < ITEMS; i++) {
+                writer.write(i, titles[i], descriptions[i], StreamStatus.CREATED, "creator", null, null);
+            }
+            writer.finish();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Round {
+        void run() throws IOException;
+    }
+}
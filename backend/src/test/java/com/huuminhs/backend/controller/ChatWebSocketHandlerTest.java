@@ -0,0 +1,90 @@
+package com.huuminhs.backend.controller;
+
+import com.huuminhs.backend.security.ChatHandshakeInterceptor;
+import com.huuminhs.backend.security.RevokedTokenStore;
+import com.huuminhs.backend.service.ChatService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChatWebSocketHandlerTest {
+
+    @Mock
+    private ChatService chatService;
+
+    @Mock
+    private RevokedTokenStore revokedTokenStore;
+
+    @Mock
+    private WebSocketSession session;
+
+    @InjectMocks
+    private ChatWebSocketHandler handler;
+
+    private final Map<String, Object> attributes = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        attributes.put(ChatHandshakeInterceptor.STREAM_ID, 1L);
+        attributes.put(ChatHandshakeInterceptor.USERNAME, "alice");
+        attributes.put(ChatHandshakeInterceptor.TOKEN_ID, "token-1");
+        when(session.getAttributes()).thenReturn(attributes);
+    }
+
+    @Test
+    void handleTextMessage_PostsWhileTheTokenIsValid() throws Exception {
+        // Arrange
+        attributes.put(ChatHandshakeInterceptor.TOKEN_EXPIRES_AT, System.currentTimeMillis() + 60_000);
+        when(chatService.getMaxMessageLength()).thenReturn(500);
+
+        // Act
+        handler.handleTextMessage(session, new TextMessage("hello"));
+
+        // Assert
+        verify(chatService).post(1L, "alice", "hello");
+        verify(session, never()).close(any());
+    }
+
+    @Test
+    void handleTextMessage_ClosesOnceTheTokenExpired() throws Exception {
+        // Arrange
+        attributes.put(ChatHandshakeInterceptor.TOKEN_EXPIRES_AT, System.currentTimeMillis() - 1);
+
+        // Act
+        handler.handleTextMessage(session, new TextMessage("hello"));
+
+        // Assert
+        verify(session).close(CloseStatus.POLICY_VIOLATION.withReason("Sign in again to chat"));
+        verify(chatService, never()).post(any(), anyString(), anyString());
+    }
+
+    @Test
+    void handleTextMessage_ClosesOnceTheTokenIsRevoked() throws Exception {
+        // Arrange
+        attributes.put(ChatHandshakeInterceptor.TOKEN_EXPIRES_AT, System.currentTimeMillis() + 60_000);
+        when(revokedTokenStore.isRevoked("token-1")).thenReturn(true);
+
+        // Act
+        handler.handleTextMessage(session, new TextMessage("hello"));
+
+        // Assert
+        verify(session).close(CloseStatus.POLICY_VIOLATION.withReason("Sign in again to chat"));
+        verify(chatService, never()).post(any(), anyString(), anyString());
+    }
+}
@@ -1,14 +1,20 @@
 package com.huuminhs.backend.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.huuminhs.backend.dto.BulkDeleteRequest;
+import com.huuminhs.backend.dto.BulkOperationItem;
+import com.huuminhs.backend.dto.BulkOperationResponse;
 import com.huuminhs.backend.dto.CreateStreamRequest;
 import com.huuminhs.backend.dto.PaginatedResponse;
 import com.huuminhs.backend.dto.StreamAccessResponse;
 import com.huuminhs.backend.dto.StreamResponse;
 import com.huuminhs.backend.dto.UpdateStreamRequest;
+import com.huuminhs.backend.exception.PreconditionFailedException;
 import com.huuminhs.backend.exception.StreamAccessDeniedException;
+import com.huuminhs.backend.exception.StreamArchivedException;
 import com.huuminhs.backend.exception.StreamNotFoundException;
 import com.huuminhs.backend.model.StreamStatus;
+import com.huuminhs.backend.security.UserPrincipal;
 import com.huuminhs.backend.service.StreamService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -30,8 +36,10 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -55,6 +63,9 @@ public class StreamControllerTest {
     private List<StreamResponse> streamResponses;
     private PaginatedResponse<StreamResponse> paginatedStreamResponses;
 
+    // Authenticated the way the JWT filter does, with the user ID from the token
+    private final UserPrincipal principal = new UserPrincipal(7L, "testuser", "", List.of());
+
     @BeforeEach
     void setUp() {
         // Set up test data
@@ -70,14 +81,14 @@ public class StreamControllerTest {
     }
 
     @Test
-    @WithMockUser(username = "testuser")
     void createStream_Success() throws Exception {
         // Arrange
-        when(streamService.createStream(any(CreateStreamRequest.class), eq("testuser")))
+        when(streamService.createStream(any(CreateStreamRequest.class), eq(7L)))
                 .thenReturn(streamAccessResponse);
 
         // Act & Assert
         mockMvc.perform(post("/api/stream")
+                        .with(user(principal))
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(createStreamRequest)))
                 .andExpect(status().isCreated())
@@ -85,7 +96,7 @@ public class StreamControllerTest {
                 .andExpect(jsonPath("$.streamUrl", is("rtmp://localhost/stream/1")))
                 .andExpect(jsonPath("$.mediamtxJwt", is("test-jwt-token")));
 
-        verify(streamService).createStream(any(CreateStreamRequest.class), eq("testuser"));
+        verify(streamService).createStream(any(CreateStreamRequest.class), eq(7L));
     }
 
     @Test
@@ -108,13 +119,12 @@ public class StreamControllerTest {
     }
 
     @Test
-    @WithMockUser(username = "testuser")
     void getMyStreams_Success() throws Exception {
         // Arrange
-        when(streamService.getStreamsByUser(eq("testuser"), isNull(), eq(10))).thenReturn(paginatedStreamResponses);
+        when(streamService.getStreamsByUser(eq(7L), eq("testuser"), isNull(), eq(10))).thenReturn(paginatedStreamResponses);
 
         // Act & Assert
-        mockMvc.perform(get("/api/stream/mine"))
+        mockMvc.perform(get("/api/stream/mine").with(user(principal)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.items", hasSize(2)))
                 .andExpect(jsonPath("$.items[0].streamId", is(1)))
@@ -124,7 +134,7 @@ public class StreamControllerTest {
                 .andExpect(jsonPath("$.nextCursor", is(2)))
                 .andExpect(jsonPath("$.hasMore", is(false)));
 
-        verify(streamService).getStreamsByUser(eq("testuser"), isNull(), eq(10));
+        verify(streamService).getStreamsByUser(eq(7L), eq("testuser"), isNull(), eq(10));
     }
 
     @Test
@@ -144,6 +154,36 @@ public class StreamControllerTest {
         verify(streamService).getStreamById(1L);
     }
 
+    @Test
+    void getStreamById_NotModified() throws Exception {
+        // Arrange
+        when(streamService.getStreamETag(1L)).thenReturn("\"s1\"");
+        when(streamService.currentETagIn("\"s1-v2\"", "\"s1\"")).thenReturn("\"s1-v2\"");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/stream/1").header("If-None-Match", "\"s1-v2\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"s1-v2\""));
+
+        verify(streamService, never()).getStreamById(any());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser")
+    void updateStream_IfMatchStale_PreconditionFailed() throws Exception {
+        // Arrange
+        when(streamService.versionFromIfMatch("\"s1-v2\"")).thenReturn(2L);
+        when(streamService.updateStream(eq(1L), any(UpdateStreamRequest.class), eq("testuser"), eq(2L)))
+                .thenThrow(new PreconditionFailedException(1L));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/stream/1")
+                        .header("If-Match", "\"s1-v2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateStreamRequest)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     void getStreamById_NotFound() throws Exception {
         // Arrange
@@ -160,7 +200,7 @@ public class StreamControllerTest {
     @WithMockUser(username = "testuser")
     void updateStream_Success() throws Exception {
         // Arrange
-        when(streamService.updateStream(eq(1L), any(UpdateStreamRequest.class), eq("testuser")))
+        when(streamService.updateStream(eq(1L), any(UpdateStreamRequest.class), eq("testuser"), any()))
                 .thenReturn(streamResponse);
 
         // Act & Assert
@@ -172,14 +212,14 @@ public class StreamControllerTest {
                 .andExpect(jsonPath("$.title", is("Test Stream")))
                 .andExpect(jsonPath("$.description", is("Test Description")));
 
-        verify(streamService).updateStream(eq(1L), any(UpdateStreamRequest.class), eq("testuser"));
+        verify(streamService).updateStream(eq(1L), any(UpdateStreamRequest.class), eq("testuser"), any());
     }
 
     @Test
     @WithMockUser(username = "testuser")
     void updateStream_NotFound() throws Exception {
         // Arrange
-        when(streamService.updateStream(eq(999L), any(UpdateStreamRequest.class), eq("testuser")))
+        when(streamService.updateStream(eq(999L), any(UpdateStreamRequest.class), eq("testuser"), any()))
                 .thenThrow(new StreamNotFoundException(999L));
 
         // Act & Assert
@@ -188,14 +228,29 @@ public class StreamControllerTest {
                         .content(objectMapper.writeValueAsString(updateStreamRequest)))
                 .andExpect(status().isNotFound());
 
-        verify(streamService).updateStream(eq(999L), any(UpdateStreamRequest.class), eq("testuser"));
+        verify(streamService).updateStream(eq(999L), any(UpdateStreamRequest.class), eq("testuser"), any());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser")
+    void updateStream_Archived_Conflict() throws Exception {
+        // Arrange
+        when(streamService.updateStream(eq(1L), any(UpdateStreamRequest.class), eq("testuser"), any()))
+                .thenThrow(new StreamArchivedException(1L));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/stream/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateStreamRequest)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message", is("Stream 1 is archived and can no longer be changed")));
     }
 
     @Test
     @WithMockUser(username = "testuser")
     void updateStream_AccessDenied() throws Exception {
         // Arrange
-        when(streamService.updateStream(eq(1L), any(UpdateStreamRequest.class), eq("testuser")))
+        when(streamService.updateStream(eq(1L), any(UpdateStreamRequest.class), eq("testuser"), any()))
                 .thenThrow(new StreamAccessDeniedException("You don't have permission to update this stream"));
 
         // Act & Assert
@@ -204,7 +259,7 @@ public class StreamControllerTest {
                         .content(objectMapper.writeValueAsString(updateStreamRequest)))
                 .andExpect(status().isForbidden());
 
-        verify(streamService).updateStream(eq(1L), any(UpdateStreamRequest.class), eq("testuser"));
+        verify(streamService).updateStream(eq(1L), any(UpdateStreamRequest.class), eq("testuser"), any());
     }
 
     @Test
@@ -376,6 +431,13 @@ public class StreamControllerTest {
         verify(streamService).getStreamJwt(999L, "testuser");
     }
 
+    @Test
+    void getClip_RequiresAuthentication() throws Exception {
+        // Act & Assert: not taken for a recording file name
+        mockMvc.perform(get("/api/stream/1/recordings/clip").param("start", "0").param("end", "1000"))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     @WithMockUser(username = "testuser")
     void getStreamJwt_AccessDenied() throws Exception {
@@ -389,4 +451,35 @@ public class StreamControllerTest {
 
         verify(streamService).getStreamJwt(1L, "testuser");
     }
+
+    @Test
+    @WithMockUser(username = "testuser")
+    void deleteStreams_ReportsEachId() throws Exception {
+        // Arrange
+        when(streamService.deleteStreams(List.of(1L, 2L, 3L), "testuser")).thenReturn(new BulkOperationResponse(List.of(
+                new BulkOperationItem(1L, BulkOperationItem.Result.DELETED),
+                new BulkOperationItem(2L, BulkOperationItem.Result.FORBIDDEN),
+                new BulkOperationItem(3L, BulkOperationItem.Result.NOT_FOUND))));
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/stream/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BulkDeleteRequest(List.of(1L, 2L, 3L)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(3)))
+                .andExpect(jsonPath("$.items[0].result", is("DELETED")))
+                .andExpect(jsonPath("$.items[1].result", is("FORBIDDEN")))
+                .andExpect(jsonPath("$.items[2].result", is("NOT_FOUND")));
+    }
+
+    @Test
+    void updateStreams_RequiresAuthentication() throws Exception {
+        // Act & Assert
+        mockMvc.perform(put("/api/stream/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\":[{\"streamId\":1,\"title\":\"Updated\"}]}"))
+                .andExpect(status().isForbidden());
+
+        verify(streamService, never()).updateStreams(any(), any());
+    }
 }
@@ -0,0 +1,33 @@
+package com.huuminhs.backend.repository;
+
+import com.huuminhs.backend.model.Stream;
+import com.huuminhs.backend.model.StreamStatus;
+import com.huuminhs.backend.model.User;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Moves streams into {@code streams_archive} for repository tests.
+ */
+final class ArchiveFixture {
+
+    // Older than anything the other tests create, so archiving moves only the streams made here
+    static final LocalDateTime ARCHIVE_BEFORE = LocalDateTime.of(2000, 2, 1, 0, 0);
+
+    private ArchiveFixture() {
+    }
+
+    /**
+     * Creates an ended stream of the user and archives it.
+     */
+    static Long archivedStream(StreamRepository streamRepository, StreamArchiveJdbcRepository archiveRepository,
+                               User user) {
+        Long streamId = streamRepository.saveAndFlush(new Stream(null, "Archived", null,
+                ARCHIVE_BEFORE.minusDays(10), StreamStatus.ENDED, user)).getId();
+        archiveRepository.createPartitionsFor(ARCHIVE_BEFORE);
+        assertThat(archiveRepository.archiveBatch(ARCHIVE_BEFORE, 10)).contains(streamId);
+        return streamId;
+    }
+}
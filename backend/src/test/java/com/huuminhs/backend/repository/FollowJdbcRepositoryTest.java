@@ -0,0 +1,67 @@
+package com.huuminhs.backend.repository;
+
+import com.huuminhs.backend.model.Stream;
+import com.huuminhs.backend.model.StreamStatus;
+import com.huuminhs.backend.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class FollowJdbcRepositoryTest {
+
+    @Autowired
+    private FollowJdbcRepository followRepository;
+
+    @Autowired
+    private FeedJdbcRepository feedRepository;
+
+    @Autowired
+    private StreamArchiveJdbcRepository archiveRepository;
+
+    @Autowired
+    private StreamRepository streamRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void unfollow_RemovesTheCreatorsStreamsFromTheFeed() {
+        // Arrange
+        User viewer = userRepository.saveAndFlush(new User(null, "feed-viewer", "password"));
+        User unfollowed = userRepository.saveAndFlush(new User(null, "feed-unfollowed", "password"));
+        User followed = userRepository.saveAndFlush(new User(null, "feed-followed", "password"));
+        Long archived = ArchiveFixture.archivedStream(streamRepository, archiveRepository, unfollowed);
+        Long kept = stream(followed, LocalDateTime.now(), StreamStatus.ENDED);
+        Long live = stream(unfollowed, LocalDateTime.now(), StreamStatus.LIVE);
+        followRepository.follow(viewer.getId(), unfollowed.getId());
+        followRepository.follow(viewer.getId(), followed.getId());
+        new JdbcTemplate(dataSource).update("INSERT INTO user_feeds (user_id, stream_ids) VALUES (?, ?::bigint[])",
+                viewer.getId(), "{" + live + "," + kept + "," + archived + "}");
+
+        // Act
+        boolean removed = followRepository.unfollow(viewer.getId(), unfollowed.getId());
+
+        // Assert
+        assertThat(removed).isTrue();
+        assertThat(followRepository.isFollowing(viewer.getId(), unfollowed.getId())).isFalse();
+        assertThat(feedRepository.findPage(viewer.getId(), null, 10)).isEqualTo(List.of(kept));
+        assertThat(followRepository.unfollow(viewer.getId(), unfollowed.getId())).isFalse();
+    }
+
+    private Long stream(User user, LocalDateTime createdAt, StreamStatus status) {
+        return streamRepository.saveAndFlush(new Stream(null, "Stream", null, createdAt, status, user)).getId();
+    }
+}
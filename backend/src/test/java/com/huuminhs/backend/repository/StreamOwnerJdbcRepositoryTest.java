@@ -0,0 +1,90 @@
+package com.huuminhs.backend.repository;
+
+import com.huuminhs.backend.model.Stream;
+import com.huuminhs.backend.model.StreamStatus;
+import com.huuminhs.backend.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class StreamOwnerJdbcRepositoryTest {
+
+    @Autowired
+    private StreamOwnerJdbcRepository ownerRepository;
+
+    @Autowired
+    private StreamArchiveJdbcRepository archiveRepository;
+
+    @Autowired
+    private StreamRepository streamRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.saveAndFlush(new User(null, "archive-owner", "password"));
+        userRepository.saveAndFlush(new User(null, "archive-other", "password"));
+    }
+
+    @Test
+    void deleteOwned_ArchivedStream() {
+        // Arrange
+        Long streamId = archivedStream();
+
+        // Act & Assert
+        assertThat(ownerRepository.deleteOwned(streamId, "archive-other")).isFalse();
+        assertThat(archiveRepository.existsById(streamId)).isTrue();
+        assertThat(ownerRepository.deleteOwned(streamId, "archive-owner")).isTrue();
+        assertThat(archiveRepository.existsById(streamId)).isFalse();
+    }
+
+    @Test
+    void deleteAllOwned_ArchivedAndLiveStreams() {
+        // Arrange
+        Long first = archivedStream();
+        Long second = archivedStream();
+        Long live = streamRepository.saveAndFlush(
+                new Stream(null, "Live", null, LocalDateTime.now(), StreamStatus.LIVE, owner)).getId();
+        List<Long> ids = List.of(first, second, live, -1L);
+
+        // Act
+        List<Long> notDeleted = ownerRepository.deleteAllOwned(ids, "archive-other");
+        List<Long> existing = ownerRepository.findExistingIn(ids);
+        List<Long> deleted = ownerRepository.deleteAllOwned(ids, "archive-owner");
+
+        // Assert
+        assertThat(notDeleted).isEmpty();
+        assertThat(existing).containsExactlyInAnyOrder(first, second, live);
+        assertThat(deleted).containsExactlyInAnyOrder(first, second, live);
+        assertThat(ownerRepository.findExistingIn(ids)).isEmpty();
+    }
+
+    @Test
+    void findOwnerAndThumbnailHash_HotStreamsOnly() {
+        // Arrange
+        Long hot = streamRepository.saveAndFlush(new Stream(null, "Hot", null, LocalDateTime.now(),
+                StreamStatus.ENDED, owner, "0123456789abcdef", 0)).getId();
+        Long archived = archivedStream();
+
+        // Act & Assert
+        assertThat(ownerRepository.findOwnerAndThumbnailHash(hot))
+                .contains(new StreamOwnerJdbcRepository.OwnerAndThumbnail("archive-owner", "0123456789abcdef"));
+        assertThat(ownerRepository.findOwnerAndThumbnailHash(archived)).isEmpty();
+    }
+
+    private Long archivedStream() {
+        return ArchiveFixture.archivedStream(streamRepository, archiveRepository, owner);
+    }
+}
@@ -54,4 +54,34 @@ public class JwtTokenProviderTest {
         assertTrue(resultUser.getAuthorities().stream()
                 .anyMatch(a -> a.getAuthority().equals("ROLE_USER")));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testUserIdRoundTripsThroughTheToken() {
+        UserPrincipal user = new UserPrincipal(42L, "testuser", "password",
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
+        String token = jwtTokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+
+        Authentication resultAuth = jwtTokenProvider.getAuthentication(token);
+
+        assertEquals(42L, UserPrincipal.idOf(resultAuth));
+        assertEquals("testuser", resultAuth.getName());
+    }
+
+    @Test
+    public void testTokenWithoutUserIdLeavesItToTheFilter() {
+        User user = new User("testuser", "password", Collections.emptyList());
+        String token = jwtTokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+
+        assertNull(UserPrincipal.idOf(jwtTokenProvider.getAuthentication(token)));
+    }
+
+    @Test
+    public void testRefreshTokenIsNotAcceptedAsAccessToken() {
+        String refreshToken = jwtTokenProvider.generateRefreshToken("testuser");
+
+        assertNotNull(jwtTokenProvider.verifyRefreshToken(refreshToken));
+        assertFalse(jwtTokenProvider.validateToken(refreshToken), "Refresh token must not authenticate requests");
+    }
+}
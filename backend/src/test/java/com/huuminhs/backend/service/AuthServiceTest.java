@@ -0,0 +1,100 @@
+package com.huuminhs.backend.service;
+
+import com.huuminhs.backend.dto.LoginResponse;
+import com.huuminhs.backend.dto.RefreshTokenRequest;
+import com.huuminhs.backend.exception.InvalidTokenException;
+import com.huuminhs.backend.security.JwtTokenProvider;
+import com.huuminhs.backend.security.RevokedTokenStore;
+import com.nimbusds.jwt.JWTClaimsSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AuthServiceTest {
+
+    @Mock
+    private JwtTokenProvider tokenProvider;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private RevokedTokenStore revokedTokenStore;
+
+    @InjectMocks
+    private AuthService authService;
+
+    private JWTClaimsSet refreshClaims;
+
+    @BeforeEach
+    void setUp() {
+        refreshClaims = new JWTClaimsSet.Builder()
+                .subject("testuser")
+                .jwtID("refresh-jti")
+                .expirationTime(new Date(System.currentTimeMillis() + 60_000))
+                .build();
+    }
+
+    @Test
+    void refreshToken_RotatesTokenPair() {
+        // Arrange
+        when(tokenProvider.verifyRefreshToken("old-refresh")).thenReturn(refreshClaims);
+        when(revokedTokenStore.revoke(eq("refresh-jti"), any(Instant.class))).thenReturn(true);
+        when(userDetailsService.loadUserByUsername("testuser"))
+                .thenReturn(new User("testuser", "password", Collections.emptyList()));
+        when(tokenProvider.generateToken(any(Authentication.class))).thenReturn("new-access");
+        when(tokenProvider.generateRefreshToken("testuser")).thenReturn("new-refresh");
+        when(tokenProvider.getAccessTokenExpirationMs()).thenReturn(300_000L);
+
+        // Act
+        LoginResponse response = authService.refreshToken(new RefreshTokenRequest("old-refresh"));
+
+        // Assert
+        assertEquals("new-access", response.getToken());
+        assertEquals("new-refresh", response.getRefreshToken());
+        assertEquals(300, response.getExpiresIn());
+        assertEquals("testuser", response.getUsername());
+        verify(revokedTokenStore).revoke(eq("refresh-jti"), any(Instant.class));
+    }
+
+    @Test
+    void refreshToken_ReusedTokenRejected() {
+        // Arrange
+        when(tokenProvider.verifyRefreshToken("old-refresh")).thenReturn(refreshClaims);
+        when(revokedTokenStore.revoke(eq("refresh-jti"), any(Instant.class))).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () -> {
+            authService.refreshToken(new RefreshTokenRequest("old-refresh"));
+        });
+        verify(tokenProvider, never()).generateToken(any());
+    }
+
+    @Test
+    void refreshToken_InvalidTokenRejected() {
+        // Arrange
+        when(tokenProvider.verifyRefreshToken("garbage")).thenReturn(null);
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () -> {
+            authService.refreshToken(new RefreshTokenRequest("garbage"));
+        });
+        verify(revokedTokenStore, never()).revoke(any(), any());
+    }
+}
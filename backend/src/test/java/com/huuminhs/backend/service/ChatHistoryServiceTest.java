@@ -0,0 +1,168 @@
+package com.huuminhs.backend.service;
+
+import com.huuminhs.backend.dto.ChatHistoryResponse;
+import com.huuminhs.backend.dto.ChatMessage;
+import com.huuminhs.backend.exception.InvalidCursorException;
+import com.huuminhs.backend.repository.ChatMessageJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ChatHistoryServiceTest {
+
+    private ChatMessageJdbcRepository chatMessageRepository;
+    private StreamService streamService;
+    private SimpleMeterRegistry meterRegistry;
+    private ChatHistoryService chatHistoryService;
+
+    // Sizes of the batches written, in order
+    private final List<Integer> batches = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        chatMessageRepository = mock(ChatMessageJdbcRepository.class);
+        streamService = mock(StreamService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        chatHistoryService = new ChatHistoryService(chatMessageRepository, streamService, meterRegistry);
+        ReflectionTestUtils.setField(chatHistoryService, "batchSize", 3);
+        ReflectionTestUtils.setField(chatHistoryService, "flushIntervalMs", 100L);
+        when(chatMessageRepository.insertBatch(any(), any(), any(), any())).thenAnswer(invocation -> {
+            Long[] streamIds = invocation.getArgument(0);
+            batches.add(streamIds.length);
+            return streamIds.length;
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        chatHistoryService.stop();
+    }
+
+    @Test
+    void append_WritesInBatchesBySizeAndFlushesTheRestAfterTheInterval() {
+        // Arrange
+        chatHistoryService.start();
+
+        // Act
+        for (int i = 0; i < 7; i++) {
+            assertTrue(chatHistoryService.append(1L, message(i)));
+        }
+
+        // Assert
+        verify(chatMessageRepository, timeout(2000).times(3)).insertBatch(any(), any(), any(), any());
+        assertEquals(List.of(3, 3, 1), batches);
+        assertEquals(7, meterRegistry.counter("chat.history.written").count());
+        verify(chatMessageRepository).createTableIfNotExists();
+        verify(chatMessageRepository).createPartitions(any(), eq(5));
+    }
+
+    @Test
+    void append_DropsWhenTheQueueIsFullAndRetriesAFailedBatch() throws Exception {
+        // Arrange: the first write blocks, then fails once
+        ReflectionTestUtils.setField(chatHistoryService, "queueCapacity", 2);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger attempts = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (attempts.incrementAndGet() == 1) {
+                writing.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                throw new DataAccessResourceFailureException("Connection refused");
+            }
+            Long[] streamIds = invocation.getArgument(0);
+            batches.add(streamIds.length);
+            return streamIds.length;
+        }).when(chatMessageRepository).insertBatch(any(), any(), any(), any());
+        ReflectionTestUtils.setField(chatHistoryService, "batchSize", 1);
+        chatHistoryService.start();
+
+        // Act
+        chatHistoryService.append(1L, message(0));
+        assertTrue(writing.await(2, TimeUnit.SECONDS));
+        boolean second = chatHistoryService.append(1L, message(1));
+        boolean third = chatHistoryService.append(1L, message(2));
+        boolean fourth = chatHistoryService.append(1L, message(3));
+
+        // Assert
+        assertTrue(second && third);
+        assertFalse(fourth);
+        assertEquals(1, meterRegistry.counter("chat.history.dropped").count());
+        assertTrue(meterRegistry.get("chat.history.lag").gauge().value() > 0);
+
+        release.countDown();
+        verify(chatMessageRepository, timeout(3000).times(4)).insertBatch(any(), any(), any(), any());
+        assertEquals(3, meterRegistry.counter("chat.history.written").count());
+        assertEquals(1, meterRegistry.counter("chat.history.flush.failures").count());
+    }
+
+    @Test
+    void append_DropsOnlyTheMessagesTheDatabaseRejectsAndKeepsWriting() {
+        // Arrange: any batch holding message 2 is rejected, whatever is retried
+        doAnswer(invocation -> {
+            String[] texts = invocation.getArgument(2);
+            if (Arrays.asList(texts).contains("message 2")) {
+                throw new DataIntegrityViolationException("invalid byte sequence for encoding \"UTF8\": 0x00");
+            }
+            batches.add(texts.length);
+            return texts.length;
+        }).when(chatMessageRepository).insertBatch(any(), any(), any(), any());
+        chatHistoryService.start();
+
+        // Act
+        for (int i = 0; i < 6; i++) {
+            chatHistoryService.append(1L, message(i));
+        }
+
+        // Assert: the first batch is retried once after creating partitions, then split down to
+        // message 2; the next batch is written as usual
+        verify(chatMessageRepository, timeout(2000).times(7)).insertBatch(any(), any(), any(), any());
+        assertEquals(List.of(1, 1, 3), batches);
+        assertEquals(5, meterRegistry.counter("chat.history.written").count());
+        assertEquals(1, meterRegistry.counter("chat.history.dropped").count());
+    }
+
+    @Test
+    void getHistory_PagesByKeysetOnSentTimeAndId() {
+        // Arrange
+        when(chatMessageRepository.findPage(5L, 0L, 0L, 3)).thenReturn(new ArrayList<>(List.of(
+                new ChatMessage(10, "alice", "a", 1000),
+                new ChatMessage(11, "bob", "b", 1000),
+                new ChatMessage(12, "alice", "c", 2000))));
+        when(chatMessageRepository.findPage(5L, 1000L, 11L, 3)).thenReturn(List.of(
+                new ChatMessage(12, "alice", "c", 2000)));
+
+        // Act
+        ChatHistoryResponse first = chatHistoryService.getHistory(5L, null, 2);
+        ChatHistoryResponse second = chatHistoryService.getHistory(5L, first.getNextCursor(), 2);
+
+        // Assert
+        verify(streamService, times(2)).getStreamById(5L);
+        assertEquals(2, first.getItems().size());
+        assertTrue(first.isHasMore());
+        assertEquals("1000_11", first.getNextCursor());
+        assertEquals(1, second.getItems().size());
+        assertFalse(second.isHasMore());
+        assertNull(second.getNextCursor());
+        assertThrows(InvalidCursorException.class, () -> chatHistoryService.getHistory(5L, "garbage", 2));
+    }
+
+    private static ChatMessage message(int i) {
+        return new ChatMessage(i, "alice", "message " + i, System.currentTimeMillis());
+    }
+}
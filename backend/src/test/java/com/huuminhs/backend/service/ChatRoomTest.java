@@ -0,0 +1,167 @@
+package com.huuminhs.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChatRoomTest {
+
+    // Runs drain tasks only when asked, to control how far behind subscribers are
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private final ChatRoom room = new ChatRoom(8, 4, tasks::add, new ObjectMapper());
+
+    @Test
+    void publish_DeliversEveryMessageInOrderToEverySubscriber() {
+        // Arrange
+        RecordingSink first = new RecordingSink();
+        RecordingSink second = new RecordingSink();
+        room.subscribe(first);
+        room.subscribe(second);
+
+        // Act
+        for (int i = 0; i < 6; i++) {
+            room.publish("alice", "message " + i, 1000L + i);
+            runTasks();
+        }
+
+        // Assert
+        assertEquals(6, first.frames.size());
+        assertEquals(first.frames, second.frames);
+        assertEquals("[{\"seq\":0,\"username\":\"alice\",\"text\":\"message 0\",\"sentAt\":1000}]", first.frames.get(0));
+        assertTrue(first.frames.get(5).contains("\"seq\":5"));
+    }
+
+    @Test
+    void drain_BatchesBacklogIntoFramesOfAtMostMaxBatch() {
+        // Arrange
+        RecordingSink sink = new RecordingSink();
+        room.subscribe(sink);
+
+        // Act: six messages before the subscriber gets to run
+        for (int i = 0; i < 6; i++) {
+            room.publish("alice", "message " + i, 1000L + i);
+        }
+        runTasks();
+
+        // Assert
+        assertEquals(2, sink.frames.size());
+        assertTrue(sink.frames.get(0).startsWith("[{\"seq\":0,"));
+        assertTrue(sink.frames.get(0).contains("\"seq\":3"));
+        assertTrue(sink.frames.get(1).startsWith("[{\"seq\":4,"));
+        assertNull(sink.closeReason);
+    }
+
+    @Test
+    void drain_DisconnectsSubscriberThatFellMoreThanTheRingBehind() {
+        // Arrange
+        RecordingSink slow = new RecordingSink();
+        room.subscribe(slow);
+
+        // Act: nine messages through a ring of eight overwrite the first
+        for (int i = 0; i < 9; i++) {
+            room.publish("alice", "message " + i, 1000L + i);
+        }
+        runTasks();
+
+        // Assert
+        assertTrue(slow.frames.isEmpty());
+        assertEquals("Too slow to keep up with the chat", slow.closeReason);
+        assertTrue(room.isEmpty());
+
+        // A new subscriber starts at the head and is unaffected
+        RecordingSink fresh = new RecordingSink();
+        room.subscribe(fresh);
+        room.publish("alice", "after", 2000L);
+        runTasks();
+        assertEquals(1, fresh.frames.size());
+        assertTrue(fresh.frames.get(0).contains("\"seq\":9"));
+    }
+
+    @Test
+    void drain_DropsSubscriberWhoseSendFails() {
+        // Arrange
+        RecordingSink broken = new RecordingSink();
+        broken.failSends = true;
+        room.subscribe(broken);
+
+        // Act
+        room.publish("alice", "hello", 1000L);
+        runTasks();
+        room.publish("alice", "again", 1001L);
+
+        // Assert
+        assertTrue(broken.closed);
+        assertTrue(room.isEmpty());
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    void drain_LeavesNoTaskWhileASendIsPendingAndBatchesTheBacklogAfter() {
+        // Arrange
+        RecordingSink pending = new RecordingSink();
+        pending.holdSends = true;
+        room.subscribe(pending);
+        room.publish("alice", "message 0", 1000L);
+        runTasks();
+
+        // Act: the client has not taken the first frame yet
+        for (int i = 1; i < 4; i++) {
+            room.publish("alice", "message " + i, 1000L + i);
+        }
+        boolean queuedWhilePending = !tasks.isEmpty();
+        pending.holdSends = false;
+        pending.held.accept(null);
+        runTasks();
+
+        // Assert
+        assertFalse(queuedWhilePending);
+        assertEquals(2, pending.frames.size());
+        assertTrue(pending.frames.get(1).startsWith("[{\"seq\":1,"));
+        assertTrue(pending.frames.get(1).contains("\"seq\":3"));
+        assertFalse(pending.closed);
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private static class RecordingSink implements ChatRoom.Sink {
+        final List<String> frames = new ArrayList<>();
+        boolean failSends;
+        boolean holdSends;
+        Consumer<Throwable> held;
+        boolean closed;
+        String closeReason;
+
+        @Override
+        public void send(String frame, Consumer<Throwable> done) {
+            if (failSends) {
+                done.accept(new IOException("Broken pipe"));
+                return;
+            }
+            frames.add(frame);
+            if (holdSends) {
+                held = done;
+                return;
+            }
+            done.accept(null);
+        }
+
+        @Override
+        public void close(String reason) {
+            closed = true;
+            closeReason = reason;
+        }
+    }
+}
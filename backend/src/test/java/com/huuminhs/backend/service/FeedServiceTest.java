@@ -0,0 +1,68 @@
+package com.huuminhs.backend.service;
+
+import com.huuminhs.backend.dto.PaginatedResponse;
+import com.huuminhs.backend.dto.StreamBatchItem;
+import com.huuminhs.backend.dto.StreamBatchResponse;
+import com.huuminhs.backend.dto.StreamResponse;
+import com.huuminhs.backend.model.StreamStatus;
+import com.huuminhs.backend.repository.FeedJdbcRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FeedServiceTest {
+
+    @Mock
+    private FeedJdbcRepository feedRepository;
+
+    @Mock
+    private StreamService streamService;
+
+    @InjectMocks
+    private FeedService feedService;
+
+    @Test
+    void getFollowingFeed_HydratesThePageInFeedOrderWithOneBatchLookup() {
+        // Arrange: stream 8 was deleted after it was fanned out
+        when(feedRepository.findPage(5L, null, 4)).thenReturn(List.of(9L, 8L, 3L, 1L));
+        StreamResponse live = new StreamResponse(9L, "Live", "d", StreamStatus.LIVE, "creator");
+        StreamResponse created = new StreamResponse(3L, "New", "d", StreamStatus.CREATED, "creator");
+        when(streamService.getStreamsByIds(List.of(9L, 8L, 3L))).thenReturn(new StreamBatchResponse(List.of(
+                new StreamBatchItem(9L, true, live),
+                new StreamBatchItem(8L, false, null),
+                new StreamBatchItem(3L, true, created))));
+
+        // Act
+        PaginatedResponse<StreamResponse> page = feedService.getFollowingFeed(5L, null, 3);
+
+        // Assert
+        assertEquals(List.of(live, created), page.getItems());
+        assertTrue(page.isHasMore());
+        assertEquals(3L, page.getNextCursor());
+        verify(streamService, times(1)).getStreamsByIds(any());
+    }
+
+    @Test
+    void getFollowingFeed_EmptyFeed() {
+        // Arrange
+        when(feedRepository.findPage(5L, 7L, 11)).thenReturn(List.of());
+
+        // Act
+        PaginatedResponse<StreamResponse> page = feedService.getFollowingFeed(5L, 7L, 10);
+
+        // Assert
+        assertTrue(page.getItems().isEmpty());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+        verifyNoInteractions(streamService);
+    }
+}
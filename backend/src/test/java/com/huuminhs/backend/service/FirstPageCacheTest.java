@@ -0,0 +1,131 @@
+package com.huuminhs.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FirstPageCacheTest {
+
+    private StreamChangeTracker changeTracker;
+    private FirstPageCache cache;
+
+    @BeforeEach
+    void setUp() {
+        changeTracker = new StreamChangeTracker();
+        cache = new FirstPageCache(changeTracker);
+        ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+    }
+
+    @Test
+    void get_ServesCachedBytesUntilWrite() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        byte[] first = cache.get("all", 10, () -> new byte[]{(byte) loads.incrementAndGet()});
+        byte[] second = cache.get("all", 10, () -> new byte[]{(byte) loads.incrementAndGet()});
+        changeTracker.streamChanged(1L);
+        byte[] afterWrite = cache.get("all", 10, () -> new byte[]{(byte) loads.incrementAndGet()});
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(2, loads.get());
+        assertEquals(2, afterWrite[0]);
+    }
+
+    @Test
+    void get_ExpiredEntryServedStaleWhileOneRequestRefreshes() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(cache, "ttlMs", 0L);
+        byte[] stale = cache.get("live", 10, () -> new byte[]{1});
+        CountDownLatch refreshStarted = new CountDownLatch(1);
+        CountDownLatch releaseRefresh = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            // Act
+            Future<byte[]> refreshing = executor.submit(() -> cache.get("live", 10, () -> {
+                refreshStarted.countDown();
+                await(releaseRefresh);
+                return new byte[]{2};
+            }));
+            assertTrue(refreshStarted.await(5, TimeUnit.SECONDS));
+            byte[] duringRefresh = cache.get("live", 10, () -> fail("Only one request may refresh"));
+            releaseRefresh.countDown();
+
+            // Assert
+            assertSame(stale, duringRefresh);
+            assertEquals(2, refreshing.get(5, TimeUnit.SECONDS)[0]);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void get_ConcurrentMissesShareOneLoad() throws Exception {
+        // Arrange
+        int threads = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    await(start);
+                    return cache.get("all", 6, () -> {
+                        loads.incrementAndGet();
+                        sleep();
+                        return new byte[]{42};
+                    });
+                }));
+            }
+
+            // Act
+            start.countDown();
+
+            // Assert
+            for (Future<byte[]> result : results) {
+                assertEquals(42, result.get(5, TimeUnit.SECONDS)[0]);
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void accepts_OnlySmallLimits() {
+        assertTrue(cache.accepts(10));
+        assertFalse(cache.accepts(0));
+        assertFalse(cache.accepts(1000));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(200);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.huuminhs.backend.service;
+
+import com.huuminhs.backend.dto.FollowStatusResponse;
+import com.huuminhs.backend.exception.InvalidFollowException;
+import com.huuminhs.backend.exception.UserNotFoundException;
+import com.huuminhs.backend.model.User;
+import com.huuminhs.backend.repository.FollowJdbcRepository;
+import com.huuminhs.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FollowServiceTest {
+
+    @Mock
+    private FollowJdbcRepository followRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private FollowService followService;
+
+    private User viewer;
+    private User streamer;
+
+    @BeforeEach
+    void setUp() {
+        viewer = new User(1L, "viewer", "password");
+        streamer = new User(2L, "streamer", "password");
+    }
+
+    @Test
+    void follow_Success() {
+        // Arrange
+        when(userRepository.findByUsername("streamer")).thenReturn(Optional.of(streamer));
+
+        // Act
+        followService.follow(1L, "streamer");
+
+        // Assert
+        verify(followRepository).follow(1L, 2L);
+    }
+
+    @Test
+    void follow_RejectsSelfAndUnknownUsers() {
+        // Arrange
+        when(userRepository.findByUsername("viewer")).thenReturn(Optional.of(viewer));
+        when(userRepository.findByUsername("nobody")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(InvalidFollowException.class, () -> followService.follow(1L, "viewer"));
+        assertThrows(UserNotFoundException.class, () -> followService.follow(1L, "nobody"));
+        verify(followRepository, never()).follow(anyLong(), anyLong());
+    }
+
+    @Test
+    void getFollowStatus_Success() {
+        // Arrange
+        when(userRepository.findByUsername("streamer")).thenReturn(Optional.of(streamer));
+        when(followRepository.isFollowing(1L, 2L)).thenReturn(true);
+        when(followRepository.countFollowers(2L)).thenReturn(42L);
+
+        // Act
+        FollowStatusResponse status = followService.getFollowStatus(1L, "streamer");
+
+        // Assert
+        assertTrue(status.isFollowing());
+        assertEquals(42L, status.getFollowers());
+    }
+}
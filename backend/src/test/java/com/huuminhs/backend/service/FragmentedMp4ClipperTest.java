@@ -0,0 +1,175 @@
+package com.huuminhs.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FragmentedMp4ClipperTest {
+
+    private static final long T0 = 1_714_557_600_000L;
+    private static final int TIMESCALE = 90000;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writeClip_StartsOnKeyframeAndRebasesAcrossSegments() throws Exception {
+        // Arrange: 1 s fragments, keyframes every other fragment, second segment restarts decode times
+        Path first = writeSegment("a.mp4", 9_000_000L, 0);
+        Path second = writeSegment("b.mp4", 0, 4);
+        List<FragmentedMp4Clipper.Segment> segments = List.of(
+                new FragmentedMp4Clipper.Segment(first, T0),
+                new FragmentedMp4Clipper.Segment(second, T0 + 4000));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        int fragments = new FragmentedMp4Clipper()
+                .writeClip(segments, T0 + 2500, T0 + 5500, Channels.newChannel(out));
+
+        // Assert
+        assertEquals(4, fragments);
+        ByteBuffer clip = ByteBuffer.wrap(out.toByteArray());
+        assertEquals("ftyp", typeAt(clip, 0));
+
+        List<Integer> sequences = new ArrayList<>();
+        List<Long> decodeTimes = new ArrayList<>();
+        List<Integer> payloads = new ArrayList<>();
+        int position = 0;
+        while (position < clip.limit()) {
+            int size = clip.getInt(position);
+            String type = typeAt(clip, position);
+            if (type.equals("moov")) {
+                // mvex is the last moov child and holds only mehd
+                int mehd = position + size - 16;
+                assertEquals("mehd", typeAt(clip, mehd));
+                assertEquals(3000, clip.getInt(mehd + 12));
+            } else if (type.equals("moof")) {
+                sequences.add(clip.getInt(position + 8 + 12));
+                int tfdt = position + 8 + 16 + 8 + 16;
+                assertEquals("tfdt", typeAt(clip, tfdt));
+                decodeTimes.add(clip.getLong(tfdt + 12));
+            } else if (type.equals("mdat")) {
+                payloads.add((int) clip.get(position + 8));
+            }
+            position += size;
+        }
+        assertEquals(List.of(1, 2, 3, 4), sequences);
+        assertEquals(List.of(0L, 90000L, 180000L, 270000L), decodeTimes);
+        assertEquals(List.of(2, 3, 4, 5), payloads);
+    }
+
+    @Test
+    void snap_GivesTheSameRangeForEveryRangeOfTheSameFragments() throws Exception {
+        // Arrange
+        List<FragmentedMp4Clipper.Segment> segments = List.of(
+                new FragmentedMp4Clipper.Segment(writeSegment("a.mp4", 0, 0), T0),
+                new FragmentedMp4Clipper.Segment(writeSegment("b.mp4", 0, 4), T0 + 4000));
+        FragmentedMp4Clipper clipper = new FragmentedMp4Clipper();
+
+        // Act & Assert: starts on the keyframe before, ends where the next fragment starts
+        FragmentedMp4Clipper.Range range = new FragmentedMp4Clipper.Range(T0 + 2000, T0 + 6000);
+        assertEquals(range, clipper.snap(segments, T0 + 2500, T0 + 5500));
+        assertEquals(range, clipper.snap(segments, T0 + 3999, T0 + 5001));
+        assertEquals(new FragmentedMp4Clipper.Range(T0 + 2000, -1), clipper.snap(segments, T0 + 2001, T0 + 20_000));
+    }
+
+    @Test
+    void writeClip_SkipsTruncatedTrailingFragment() throws Exception {
+        // Arrange
+        Path segment = writeSegment("a.mp4", 0, 0);
+        byte[] bytes = Files.readAllBytes(segment);
+        Files.write(segment, Arrays.copyOf(bytes, bytes.length - 4));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        int fragments = new FragmentedMp4Clipper().writeClip(
+                List.of(new FragmentedMp4Clipper.Segment(segment, T0)), T0, T0 + 10_000, Channels.newChannel(out));
+
+        // Assert: the last moof is complete, but without its media it is left out
+        assertEquals(3, fragments);
+        assertEquals(bytes.length - 92 - 12, out.size());
+    }
+
+    /**
+     * Writes a single-track segment with four 1 s fragments; fragment i carries payload byte
+     * {@code firstPayload + i} and is a keyframe when i is even.
+     */
+    private Path writeSegment(String name, long firstDecodeTime, int firstPayload) throws Exception {
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        file.write(box("ftyp", ascii("iso5"), ints(512), ascii("iso6mp41")));
+        file.write(box("moov",
+                fullBox("mvhd", 0, 0, ints(0, 0, 1000, 0), new byte[80]),
+                box("trak",
+                        fullBox("tkhd", 0, 0, ints(0, 0, 1, 0, 0), new byte[60]),
+                        box("mdia", fullBox("mdhd", 0, 0, ints(0, 0, TIMESCALE, 0), new byte[4]))),
+                box("mvex", fullBox("mehd", 0, 0, ints(0)))));
+
+        for (int i = 0; i < 4; i++) {
+            int sampleFlags = i % 2 == 0 ? 0x02000000 : 0x01010000;
+            byte[] mdat = box("mdat", new byte[]{(byte) (firstPayload + i), 0, 0, 0});
+            byte[] tfdt = fullBox("tfdt", 1, 0, ByteBuffer.allocate(8).putLong(firstDecodeTime + (long) i * TIMESCALE).array());
+            int moofSize = 8 + 16 + 8 + 16 + tfdt.length + 24;
+            byte[] moof = box("moof",
+                    fullBox("mfhd", 0, 0, ints(100 + i)),
+                    box("traf",
+                            fullBox("tfhd", 0, 0x020000, ints(1)),
+                            tfdt,
+                            fullBox("trun", 0, 0x005, ints(1, moofSize + 8, sampleFlags))));
+            assertEquals(moofSize, moof.length);
+            file.write(moof);
+            file.write(mdat);
+        }
+
+        Path path = tempDir.resolve(name);
+        Files.write(path, file.toByteArray());
+        return path;
+    }
+
+    private static byte[] box(String type, byte[]... children) {
+        int size = 8;
+        for (byte[] child : children) {
+            size += child.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size).putInt(size).put(ascii(type));
+        for (byte[] child : children) {
+            buffer.put(child);
+        }
+        return buffer.array();
+    }
+
+    private static byte[] fullBox(String type, int version, int flags, byte[]... fields) {
+        byte[][] children = new byte[fields.length + 1][];
+        children[0] = ints(version << 24 | flags);
+        System.arraycopy(fields, 0, children, 1, fields.length);
+        return box(type, children);
+    }
+
+    private static byte[] ints(int... values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * 4);
+        for (int value : values) {
+            buffer.putInt(value);
+        }
+        return buffer.array();
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static String typeAt(ByteBuffer buffer, int position) {
+        byte[] type = new byte[4];
+        buffer.get(position + 4, type);
+        return new String(type, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,179 @@
+package com.huuminhs.backend.service;
+
+import com.huuminhs.backend.service.HlsRelayService.HlsResponse;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the relay against a stand-in origin that behaves like MediaMTX's LL-HLS server: parts
+ * and blocking playlist reloads are held until released.
+ */
+public class HlsRelayServiceTest {
+
+    private HttpServer origin;
+    private HlsRelayService relayService;
+
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    private final List<String> queries = new ArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        origin = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        origin.setExecutor(Executors.newCachedThreadPool());
+        origin.createContext("/stream/7/", this::handle);
+        origin.start();
+
+        relayService = new HlsRelayService();
+        ReflectionTestUtils.setField(relayService, "origin", "http://127.0.0.1:" + origin.getAddress().getPort());
+        ReflectionTestUtils.setField(relayService, "cacheBytes", 4096L);
+        relayService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        origin.stop(0);
+    }
+
+    @Test
+    void fetch_ConcurrentPartRequestsShareOneUpstreamRequest() throws Exception {
+        // Arrange: the part is a preload hint, not available until released
+        List<CompletableFuture<HlsResponse>> responses = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            responses.add(relayService.fetch(7L, "abc_part3.mp4", null));
+        }
+        release.countDown();
+
+        // Assert
+        for (CompletableFuture<HlsResponse> response : responses) {
+            HlsResponse result = response.get(5, TimeUnit.SECONDS);
+            assertEquals(200, result.status());
+            assertEquals("part:abc_part3.mp4", text(result.body()));
+        }
+        assertEquals(1, requests.get("/stream/7/abc_part3.mp4").get());
+
+        // Served from the cache afterwards
+        assertEquals("part:abc_part3.mp4", text(relayService.fetch(7L, "abc_part3.mp4", null).get().body()));
+        assertEquals(1, requests.get("/stream/7/abc_part3.mp4").get());
+    }
+
+    @Test
+    void fetch_BlockingPlaylistReloadIsCoalescedAndForwarded() throws Exception {
+        // Arrange
+        List<CompletableFuture<HlsResponse>> responses = new ArrayList<>();
+
+        // Act: parameters in a different order and with unrelated ones still share a key
+        responses.add(relayService.fetch(7L, "stream.m3u8", "_HLS_msn=12&_HLS_part=2"));
+        responses.add(relayService.fetch(7L, "stream.m3u8", "_HLS_part=2&_HLS_msn=12"));
+        responses.add(relayService.fetch(7L, "stream.m3u8", "_HLS_msn=12&_HLS_part=2&token=x"));
+        Thread.sleep(100);
+        assertTrue(responses.stream().noneMatch(CompletableFuture::isDone), "Reload should block upstream");
+        release.countDown();
+
+        // Assert
+        for (CompletableFuture<HlsResponse> response : responses) {
+            HlsResponse result = response.get(5, TimeUnit.SECONDS);
+            assertTrue(result.playlist());
+            assertEquals("#EXTM3U msn=12 part=2", text(result.body()));
+        }
+        assertEquals(1, requests.get("/stream/7/stream.m3u8").get());
+        assertEquals(List.of("_HLS_msn=12&_HLS_part=2"), queries);
+    }
+
+    @Test
+    void fetch_SegmentCacheStaysWithinItsBound() throws Exception {
+        // Arrange
+        release.countDown();
+
+        // Act: 16 parts of 1000 bytes through a 4096 byte cache
+        for (int i = 0; i < 16; i++) {
+            assertEquals(200, relayService.fetch(7L, "big_part" + i + ".mp4", null).get(5, TimeUnit.SECONDS).status());
+        }
+
+        // Assert
+        assertTrue(relayService.getSegmentCache().usedBytes() <= 4096);
+        assertEquals(4, relayService.getSegmentCache().size());
+        // The most recent part is still cached, the first one was evicted
+        relayService.fetch(7L, "big_part15.mp4", null).get();
+        relayService.fetch(7L, "big_part0.mp4", null).get();
+        assertEquals(1, requests.get("/stream/7/big_part15.mp4").get());
+        assertEquals(2, requests.get("/stream/7/big_part0.mp4").get());
+    }
+
+    @Test
+    void fetch_RejectsPathTraversalAndPassesUpstreamErrors() throws Exception {
+        // Arrange
+        release.countDown();
+
+        // Act & Assert
+        assertEquals(404, relayService.fetch(7L, "..", null).get().status());
+        assertEquals(404, relayService.fetch(7L, "missing.mp4", null).get(5, TimeUnit.SECONDS).status());
+        assertNull(requests.get("/stream/7/.."));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        requests.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        String fileName = path.substring(path.lastIndexOf('/') + 1);
+        byte[] body;
+        if (fileName.startsWith("missing")) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        } else if (fileName.endsWith(".m3u8")) {
+            String query = exchange.getRequestURI().getQuery();
+            synchronized (queries) {
+                queries.add(query);
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/vnd.apple.mpegurl");
+            body = ("#EXTM3U msn=12 part=2").getBytes(StandardCharsets.UTF_8);
+        } else if (fileName.startsWith("big")) {
+            exchange.getResponseHeaders().set("Content-Type", "video/mp4");
+            body = new byte[1000];
+        } else {
+            exchange.getResponseHeaders().set("Content-Type", "video/mp4");
+            body = ("part:" + fileName).getBytes(StandardCharsets.UTF_8);
+        }
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String text(ByteBuffer body) {
+        ByteBuffer view = body.duplicate();
+        byte[] bytes = new byte[view.remaining()];
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,82 @@
+package com.huuminhs.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.huuminhs.backend.security.JwtTokenProvider;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Drives the client with a stand-in for the MediaMTX Control API that checks the bearer token.
+ */
+public class MediaMtxApiClientTest {
+
+    private HttpServer controlApi;
+    private MediaMtxApiClient apiClient;
+    private JwtTokenProvider jwtTokenProvider;
+
+    private final AtomicReference<String> acceptedToken = new AtomicReference<>("api-token");
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        controlApi = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        controlApi.createContext("/v3/paths/list", exchange -> {
+            requests.incrementAndGet();
+            boolean authorized = ("Bearer " + acceptedToken.get())
+                    .equals(exchange.getRequestHeaders().getFirst("Authorization"));
+            byte[] body = (authorized ? "{\"pageCount\":1,\"items\":[{\"name\":\"stream/7\",\"ready\":true}]}" : "")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(authorized ? 200 : 401, body.length == 0 ? -1 : body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        controlApi.start();
+
+        jwtTokenProvider = mock(JwtTokenProvider.class);
+        when(jwtTokenProvider.generateMediaMtxApiToken(anyLong())).thenReturn("api-token");
+        apiClient = new MediaMtxApiClient(new ObjectMapper(), jwtTokenProvider);
+        ReflectionTestUtils.setField(apiClient, "apiUrl", "http://127.0.0.1:" + controlApi.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        controlApi.stop(0);
+    }
+
+    @Test
+    void listReadyStreamIds_SendsAnApiTokenAndReusesIt() throws Exception {
+        // Act
+        Set<Long> first = apiClient.listReadyStreamIds();
+        Set<Long> second = apiClient.listReadyStreamIds();
+
+        // Assert
+        assertEquals(Set.of(7L), first);
+        assertEquals(Set.of(7L), second);
+        verify(jwtTokenProvider, times(1)).generateMediaMtxApiToken(60000L);
+    }
+
+    @Test
+    void listReadyStreamIds_RejectedTokenIsReportedAsUnauthorized() {
+        // Arrange
+        acceptedToken.set("some-other-key");
+
+        // Act & Assert
+        assertThrows(MediaMtxApiClient.UnauthorizedException.class, () -> apiClient.listReadyStreamIds());
+        assertEquals(1, requests.get());
+    }
+}
@@ -0,0 +1,87 @@
+package com.huuminhs.backend.service;
+
+import com.huuminhs.backend.dto.NotificationResponse;
+import com.huuminhs.backend.dto.PaginatedResponse;
+import com.huuminhs.backend.repository.NotificationJdbcRepository;
+import com.huuminhs.backend.repository.NotificationJdbcRepository.Chunk;
+import com.huuminhs.backend.repository.NotificationJdbcRepository.Event;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class NotificationServiceTest {
+
+    private NotificationJdbcRepository notificationRepository;
+    private NotificationService notificationService;
+
+    @BeforeEach
+    void setUp() {
+        notificationRepository = mock(NotificationJdbcRepository.class);
+        notificationService = new NotificationService(notificationRepository, mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(notificationService, "chunkSize", 2);
+    }
+
+    @Test
+    void fanOutChunk_AdvancesThroughFullChunksAndFinishesOnAShortOne() {
+        // Arrange: five followers, notified two per chunk
+        Event first = new Event(7L, 1L, 3L, 1000L, 0L, true);
+        Event second = new Event(7L, 1L, 3L, 1000L, 20L, true);
+        Event third = new Event(7L, 1L, 3L, 1000L, 40L, true);
+        when(notificationRepository.claimEvent()).thenReturn(first, second, third, null);
+        when(notificationRepository.fanOut(first, 2, 500)).thenReturn(new Chunk(2, 20L));
+        when(notificationRepository.fanOut(second, 2, 500)).thenReturn(new Chunk(2, 40L));
+        when(notificationRepository.fanOut(third, 2, 500)).thenReturn(new Chunk(1, 50L));
+
+        // Act & Assert
+        assertTrue(notificationService.fanOutChunk());
+        assertTrue(notificationService.fanOutChunk());
+        assertTrue(notificationService.fanOutChunk());
+        assertFalse(notificationService.fanOutChunk());
+
+        verify(notificationRepository).advanceEvent(7L, 20L);
+        verify(notificationRepository).advanceEvent(7L, 40L);
+        verify(notificationRepository).deleteEvent(7L);
+    }
+
+    @Test
+    void streamsWentLive_QueuesOneStatementAndNeverThrows() {
+        // Arrange
+        when(notificationRepository.insertEvents(any(), anyBoolean()))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> notificationService.streamsWentLive(List.of(1L, 2L)));
+        verify(notificationRepository).insertEvents(new Long[]{1L, 2L}, true);
+
+        assertDoesNotThrow(() -> notificationService.streamCreated(3L));
+        verify(notificationRepository).insertEvents(new Long[]{3L}, false);
+
+        notificationService.streamsWentLive(List.of());
+        verifyNoMoreInteractions(notificationRepository);
+    }
+
+    @Test
+    void getUnread_PagesByNotificationId() {
+        // Arrange
+        when(notificationRepository.findUnread(5L, 100L, 3)).thenReturn(List.of(
+                new NotificationResponse(90L, 1L, "Stream 1", "creator", 1000L),
+                new NotificationResponse(80L, 2L, "Stream 2", "creator", 900L),
+                new NotificationResponse(70L, 3L, "Stream 3", "creator", 800L)));
+
+        // Act
+        PaginatedResponse<NotificationResponse> page = notificationService.getUnread(5L, 100L, 2);
+
+        // Assert
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasMore());
+        assertEquals(80L, page.getNextCursor());
+    }
+}
@@ -0,0 +1,148 @@
+package com.huuminhs.backend.service;
+
+import com.huuminhs.backend.exception.StreamNotFoundException;
+import com.huuminhs.backend.exception.UnknownReactionException;
+import com.huuminhs.backend.model.ReactionType;
+import com.huuminhs.backend.repository.StreamReactionJdbcRepository;
+import com.huuminhs.backend.repository.StreamRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ReactionServiceTest {
+
+    private StreamReactionJdbcRepository reactionRepository;
+    private StreamRepository streamRepository;
+    private StreamChangeTracker changeTracker;
+    private ReactionService reactionService;
+
+    // Rows of every flush as "streamId:reaction:delta", in order
+    private final List<List<String>> flushes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        reactionRepository = mock(StreamReactionJdbcRepository.class);
+        streamRepository = mock(StreamRepository.class);
+        changeTracker = spy(new StreamChangeTracker());
+        reactionService = new ReactionService(reactionRepository, streamRepository, changeTracker);
+        when(reactionRepository.addDeltas(any(), any(), any())).thenAnswer(invocation -> {
+            Long[] streamIds = invocation.getArgument(0);
+            Short[] reactions = invocation.getArgument(1);
+            Long[] deltas = invocation.getArgument(2);
+            List<String> rows = new ArrayList<>();
+            for (int i = 0; i < streamIds.length; i++) {
+                rows.add(streamIds[i] + ":" + reactions[i] + ":" + deltas[i]);
+            }
+            flushes.add(rows);
+            return rows.size();
+        });
+    }
+
+    @Test
+    void flush_WritesConcurrentIncrementsAsOneBatchOfDeltas() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    reactionService.increment(2L, ReactionType.LIKE);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        reactionService.increment(1L, ReactionType.CLAP);
+
+        // Act
+        reactionService.flush();
+        reactionService.increment(2L, ReactionType.LIKE);
+        reactionService.flush();
+        reactionService.flush();
+
+        // Assert: sorted by stream, only what changed since the previous flush, nothing when idle
+        assertEquals(List.of(List.of("1:4:1", "2:0:80000"), List.of("2:0:1")), flushes);
+        verify(changeTracker, times(2)).listingChanged();
+        verify(changeTracker, never()).streamChanged(any());
+    }
+
+    @Test
+    void flush_KeepsTheDeltasOfAFailedFlushForTheNextOne() {
+        // Arrange
+        reactionService.increment(1L, ReactionType.HEART);
+        doThrow(new DataAccessResourceFailureException("connection refused"))
+                .when(reactionRepository).addDeltas(any(), any(), any());
+
+        // Act
+        reactionService.flush();
+        reactionService.increment(1L, ReactionType.HEART);
+        doAnswer(invocation -> {
+            Long[] deltas = invocation.getArgument(2);
+            flushes.add(List.of(Arrays.toString(deltas)));
+            return deltas.length;
+        }).when(reactionRepository).addDeltas(any(), any(), any());
+        reactionService.flush();
+
+        // Assert
+        assertEquals(List.of(List.of("[2]")), flushes);
+        verify(changeTracker, times(1)).listingChanged();
+    }
+
+    @Test
+    void flush_DropsIdleCountersFromMemory() {
+        // Arrange
+        ReflectionTestUtils.setField(reactionService, "idleFlushes", 1);
+        Map<?, ?> counters = (Map<?, ?>) ReflectionTestUtils.getField(reactionService, "counters");
+        reactionService.increment(1L, ReactionType.WOW);
+        reactionService.flush();
+
+        // Act
+        reactionService.flush();
+        boolean droppedWhenIdle = counters.isEmpty();
+        reactionService.increment(1L, ReactionType.WOW);
+        reactionService.flush();
+
+        // Assert
+        assertTrue(droppedWhenIdle);
+        assertEquals(List.of(List.of("1:3:1"), List.of("1:3:1")), flushes);
+    }
+
+    @Test
+    void react_RejectsUnknownReactions() {
+        // Act & Assert
+        assertThrows(UnknownReactionException.class, () -> reactionService.react(1L, "boo"));
+        verifyNoInteractions(streamRepository);
+    }
+
+    @Test
+    void react_ChecksOnlyStreamsWithoutCountersExist() {
+        // Arrange
+        when(streamRepository.existsById(1L)).thenReturn(true);
+        when(streamRepository.existsById(2L)).thenReturn(false);
+        long streamVersion = changeTracker.streamVersion(1L);
+
+        // Act
+        reactionService.react(1L, "like");
+        reactionService.react(1L, "like");
+        reactionService.flush();
+        reactionService.react(1L, "heart");
+
+        // Assert
+        assertThrows(StreamNotFoundException.class, () -> reactionService.react(2L, "like"));
+        verify(streamRepository, times(1)).existsById(1L);
+        assertEquals(List.of(List.of("1:0:2")), flushes);
+        assertEquals(streamVersion, changeTracker.streamVersion(1L));
+    }
+}
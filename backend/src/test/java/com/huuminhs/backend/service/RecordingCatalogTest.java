@@ -0,0 +1,97 @@
+package com.huuminhs.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecordingCatalogTest {
+
+    @TempDir
+    Path tempDir;
+
+    private RecordingCatalog catalog;
+    private Path streamDir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        streamDir = Files.createDirectories(tempDir.resolve("stream").resolve("7"));
+        catalog = new RecordingCatalog();
+        ReflectionTestUtils.setField(catalog, "directory", tempDir.toString());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        catalog.stop();
+    }
+
+    @Test
+    void start_IndexesExistingSegmentsInTimeOrder() throws Exception {
+        // Arrange
+        writeSegment("2024-05-01_10-30-00-000000.mp4", 300, LocalDateTime.of(2024, 5, 1, 10, 40));
+        writeSegment("2024-05-01_10-00-00-000000.mp4", 100, LocalDateTime.of(2024, 5, 1, 10, 30));
+        Files.writeString(streamDir.resolve("notes.txt"), "ignored");
+
+        // Act
+        catalog.start();
+        RecordingIndex index = catalog.getIndex(7L);
+
+        // Assert
+        assertEquals(2, index.size());
+        assertEquals("2024-05-01_10-00-00-000000.mp4", index.fileName(0));
+        assertEquals(100, index.sizeBytes(0));
+        assertEquals(30 * 60_000L, index.endMillis(0) - index.startMillis(0));
+        assertEquals(1, index.indexOf("2024-05-01_10-30-00-000000.mp4"));
+        assertEquals(0, catalog.getIndex(8L).size());
+    }
+
+    @Test
+    void firstEndingAfter_FindsCoveringSegment() throws Exception {
+        // Arrange
+        writeSegment("2024-05-01_10-00-00-000000.mp4", 100, LocalDateTime.of(2024, 5, 1, 10, 30));
+        writeSegment("2024-05-01_10-30-00-000000.mp4", 100, LocalDateTime.of(2024, 5, 1, 11, 0));
+        catalog.start();
+        RecordingIndex index = catalog.getIndex(7L);
+
+        // Act & Assert
+        assertEquals(0, index.firstEndingAfter(millis(LocalDateTime.of(2024, 5, 1, 10, 10))));
+        assertEquals(1, index.firstEndingAfter(millis(LocalDateTime.of(2024, 5, 1, 10, 30))));
+        assertEquals(2, index.firstEndingAfter(millis(LocalDateTime.of(2024, 5, 1, 12, 0))));
+    }
+
+    @Test
+    void watcher_PicksUpNewStreamDirectory() throws Exception {
+        // Arrange
+        catalog.start();
+        Path newStreamDir = Files.createDirectories(tempDir.resolve("stream").resolve("9"));
+
+        // Act
+        Thread.sleep(200);
+        Files.write(newStreamDir.resolve("2024-05-01_12-00-00-000000.mp4"), new byte[10]);
+
+        // Assert
+        long deadline = System.currentTimeMillis() + 5000;
+        while (catalog.getIndex(9L).size() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(1, catalog.getIndex(9L).size());
+    }
+
+    private void writeSegment(String fileName, int size, LocalDateTime lastModified) throws Exception {
+        Path file = Files.write(streamDir.resolve(fileName), new byte[size]);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(millis(lastModified)));
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,76 @@
+package com.huuminhs.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.huuminhs.backend.security.JwtTokenProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StartupWarmupTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Mock
+    private StreamService streamService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void fillPool_HoldsAllConnectionsAtOnceThenReturnsThem() throws SQLException {
+        // Arrange
+        StartupWarmup warmup = new StartupWarmup(dataSource, jwtTokenProvider, new ObjectMapper(), streamService,
+                transactionManager);
+        ReflectionTestUtils.setField(warmup, "poolConnections", 3);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+
+        // Act
+        warmup.fillPool();
+
+        // Assert
+        verify(dataSource, times(3)).getConnection();
+        verify(connection, times(3)).close();
+    }
+
+    @Test
+    void run_FailingStepDoesNotStopTheOthers() throws Exception {
+        // Arrange
+        StartupWarmup warmup = new StartupWarmup(dataSource, jwtTokenProvider, new ObjectMapper(), streamService,
+                transactionManager);
+        ReflectionTestUtils.setField(warmup, "iterations", 2);
+        when(dataSource.getConnection()).thenThrow(new SQLException("database down"));
+        when(jwtTokenProvider.generateToken(any())).thenThrow(new RuntimeException("no key"));
+        when(streamService.isCachedFirstPage(isNull(), anyInt())).thenReturn(true);
+
+        // Act
+        warmup.run(null);
+
+        // Assert
+        verify(streamService).writeAllStreams(isNull(), eq(1), any());
+        verify(streamService).getAllStreamsFirstPageJson(6);
+        verify(streamService).getLiveStreamsFirstPageJson(10);
+    }
+}
@@ -0,0 +1,70 @@
+package com.huuminhs.backend.service;
+
+import com.huuminhs.backend.repository.StreamArchiveJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StreamArchiverTest {
+
+    @Mock
+    private StreamArchiveJdbcRepository archiveRepository;
+
+    @Mock
+    private StreamChangeTracker changeTracker;
+
+    @InjectMocks
+    private StreamArchiver streamArchiver;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(streamArchiver, "batchSize", 2);
+    }
+
+    @Test
+    void archive_MovesBatchesUntilOneComesBackShort() {
+        // Arrange
+        when(archiveRepository.archiveBatch(any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(1L, 2L), List.of(3L, 4L), List.of(5L));
+
+        // Act
+        int moved = streamArchiver.archive();
+
+        // Assert
+        assertEquals(5, moved);
+        verify(archiveRepository).createPartitionsFor(any(LocalDateTime.class));
+        verify(archiveRepository, times(3)).archiveBatch(any(LocalDateTime.class), eq(2));
+        verify(changeTracker).listingChanged();
+        verify(archiveRepository, never()).detachPartitionsBefore(any());
+    }
+
+    @Test
+    void archive_DatabaseErrorKeepsTheBatchesMovedSoFar() {
+        // Arrange
+        ReflectionTestUtils.setField(streamArchiver, "detachAfterMonths", 12);
+        when(archiveRepository.archiveBatch(any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(1L, 2L))
+                .thenThrow(new QueryTimeoutException("canceling statement due to statement timeout"));
+
+        // Act
+        int moved = streamArchiver.archive();
+
+        // Assert
+        assertEquals(2, moved);
+        verify(changeTracker).listingChanged();
+        verify(archiveRepository).detachPartitionsBefore(any());
+    }
+}
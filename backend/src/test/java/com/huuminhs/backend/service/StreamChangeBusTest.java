@@ -0,0 +1,112 @@
+package com.huuminhs.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamChangeBusTest {
+
+    private final StreamChangeTracker changeTracker = new StreamChangeTracker();
+    private final StreamChangeBus bus = new StreamChangeBus(null, changeTracker);
+
+    @Test
+    void payloads_SplitLargeBatchesBelowTheLimit() {
+        // Arrange
+        List<Long> streamIds = new ArrayList<>();
+        for (long id = 1_000_000; id < 1_003_000; id++) {
+            streamIds.add(id);
+        }
+
+        // Act
+        List<String> payloads = StreamChangeBus.payloads("abc", streamIds, true);
+
+        // Assert
+        assertTrue(payloads.size() > 1);
+        assertTrue(payloads.get(0).startsWith("abc:1:1000000,"));
+        assertTrue(payloads.get(1).startsWith("abc:0:"));
+        assertTrue(payloads.stream().allMatch(p -> p.length() <= StreamChangeBus.MAX_PAYLOAD));
+        assertEquals("abc:1:", StreamChangeBus.payloads("abc", List.of(), true).get(0));
+    }
+
+    @Test
+    void apply_BumpsVersionsForOtherReplicasOnly() {
+        // Arrange
+        long listing = changeTracker.listingVersion();
+
+        // Act
+        bus.apply("other:0:7,9");
+        bus.apply(changeTracker.origin() + ":0:7");
+        bus.apply("other:0:x");
+
+        // Assert
+        assertEquals(1, changeTracker.streamVersion(7L));
+        assertEquals(2, changeTracker.streamVersion(9L));
+        assertEquals(listing + 2, changeTracker.listingVersion());
+    }
+
+    @Test
+    void streamChanged_IsPublishedOnlyAfterCommit() {
+        // Arrange
+        changeTracker.setPublishing(true);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            changeTracker.streamChanged(5L);
+
+            // Assert: invalidated locally right away, queued for the other replicas on commit
+            assertEquals(1, changeTracker.streamVersion(5L));
+            assertTrue(changeTracker.drainChangedStreams().isEmpty());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(List.of(5L), changeTracker.drainChangedStreams());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void resync_InvalidatesEveryStreamVersion() {
+        // Arrange
+        changeTracker.streamChanged(1L);
+        changeTracker.streamChanged(1L);
+        long changed = changeTracker.streamVersion(1L);
+        long untouched = changeTracker.streamVersion(2L);
+
+        // Act
+        changeTracker.resync();
+
+        // Assert
+        assertTrue(changeTracker.streamVersion(1L) > changed);
+        assertTrue(changeTracker.streamVersion(2L) > changed);
+        assertNotEquals(untouched, changeTracker.streamVersion(2L));
+    }
+
+    @Test
+    void streamChanged_TracksBoundedStreamsWithoutReusingVersions() {
+        // Arrange
+        ReflectionTestUtils.setField(changeTracker, "maxTrackedStreams", 4);
+        Map<?, ?> tracked = (Map<?, ?>) ReflectionTestUtils.getField(changeTracker, "streamVersions");
+        Map<Long, Long> seen = new HashMap<>();
+
+        for (int i = 0; i < 200; i++) {
+            for (long id = 1; id <= 10; id++) {
+                seen.merge(id, changeTracker.streamVersion(id), Math::max);
+            }
+            long streamId = i * 7 % 10 + 1;
+
+            // Act
+            changeTracker.streamChanged(streamId);
+
+            // Assert: a changed stream never gets a version a client may hold for its previous state
+            assertTrue(changeTracker.streamVersion(streamId) > seen.get(streamId));
+            assertTrue(tracked.size() <= 4);
+        }
+    }
+}
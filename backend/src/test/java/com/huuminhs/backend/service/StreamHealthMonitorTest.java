@@ -0,0 +1,139 @@
+package com.huuminhs.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.huuminhs.backend.dto.StreamHealthResponse;
+import com.huuminhs.backend.security.JwtTokenProvider;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Drives the monitor with a stand-in for the MediaMTX Control API (v3 list endpoints).
+ */
+public class StreamHealthMonitorTest {
+
+    private HttpServer controlApi;
+    private StreamHealthMonitor monitor;
+    private StreamService streamService;
+
+    private final AtomicLong bytesReceived = new AtomicLong();
+    private final AtomicLong packetsLost = new AtomicLong();
+    private final AtomicReference<String> secondPage = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        controlApi = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        controlApi.createContext("/v3/paths/list", this::paths);
+        controlApi.createContext("/v3/webrtcsessions/list", this::sessions);
+        controlApi.start();
+
+        streamService = mock(StreamService.class);
+        MediaMtxApiClient apiClient = new MediaMtxApiClient(new ObjectMapper(), mock(JwtTokenProvider.class));
+        ReflectionTestUtils.setField(apiClient, "apiUrl", "http://127.0.0.1:" + controlApi.getAddress().getPort());
+        monitor = new StreamHealthMonitor(streamService, apiClient);
+        secondPage.set("{\"name\":\"stream/2\",\"ready\":true,\"bytesReceived\":0,\"readers\":[]},"
+                + "{\"name\":\"other/cam\",\"ready\":true,\"bytesReceived\":0,\"readers\":[]}");
+    }
+
+    @AfterEach
+    void tearDown() {
+        controlApi.stop(0);
+    }
+
+    @Test
+    void poll_RecordsBitrateReadersAndErrorsPerInterval() {
+        // Arrange: the first poll only sets the baseline
+        monitor.poll(1_000);
+        bytesReceived.set(5_000_000);
+        packetsLost.set(10);
+
+        // Act
+        monitor.poll(6_000);
+        StreamHealthResponse health = monitor.getHealth(1L);
+
+        // Assert
+        verify(streamService).getStreamById(1L);
+        assertTrue(health.isLive());
+        assertArrayEquals(new long[]{6_000}, health.getTimestamps());
+        assertArrayEquals(new int[]{8_000}, health.getBitrateKbps());
+        assertArrayEquals(new int[]{3}, health.getReaders());
+        assertArrayEquals(new int[]{10}, health.getErrors());
+        // Paths from the second page are tracked too
+        assertTrue(monitor.getHealth(2L).isLive());
+    }
+
+    @Test
+    void poll_DropsHistoryOfStreamsNoLongerPublished() {
+        // Arrange
+        monitor.poll(1_000);
+        monitor.poll(6_000);
+        secondPage.set("{\"name\":\"stream/2\",\"ready\":false,\"bytesReceived\":0,\"readers\":[]}");
+
+        // Act
+        monitor.poll(11_000);
+
+        // Assert
+        StreamHealthResponse health = monitor.getHealth(2L);
+        assertFalse(health.isLive());
+        assertEquals(0, health.getTimestamps().length);
+        assertTrue(monitor.getHealth(1L).isLive());
+    }
+
+    @Test
+    void ringBuffer_KeepsOnlyTheMostRecentSamples() {
+        // Arrange
+        StreamHealthBuffer buffer = new StreamHealthBuffer(3);
+
+        // Act
+        for (int i = 0; i <= 5; i++) {
+            buffer.record(i * 1_000L, i * 1_000L, i, 0);
+        }
+        StreamHealthBuffer.Snapshot snapshot = buffer.snapshot();
+
+        // Assert: oldest first, 1000 bytes per second is 8 kbps
+        assertArrayEquals(new long[]{3_000, 4_000, 5_000}, snapshot.timestamps());
+        assertArrayEquals(new int[]{3, 4, 5}, snapshot.readers());
+        assertArrayEquals(new int[]{8, 8, 8}, snapshot.bitrateKbps());
+    }
+
+    private void paths(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getQuery();
+        String body;
+        if (query.contains("page=1")) {
+            body = "{\"pageCount\":2,\"items\":[" + secondPage.get() + "]}";
+        } else {
+            body = "{\"pageCount\":2,\"items\":[{\"name\":\"stream/1\",\"ready\":true,"
+                    + "\"bytesReceived\":" + bytesReceived.get() + ","
+                    + "\"readers\":[{\"type\":\"hlsMuxer\"},{\"type\":\"webRTCSession\"},{\"type\":\"webRTCSession\"}]}]}";
+        }
+        respond(exchange, body);
+    }
+
+    private void sessions(HttpExchange exchange) throws IOException {
+        respond(exchange, "{\"pageCount\":1,\"items\":["
+                + "{\"path\":\"stream/1\",\"state\":\"publish\",\"rtpPacketsLost\":" + packetsLost.get() + "},"
+                + "{\"path\":\"stream/1\",\"state\":\"read\",\"rtpPacketsLost\":99}]}");
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -1,15 +1,27 @@
 package com.huuminhs.backend.service;
 
+import com.huuminhs.backend.dto.BulkOperationItem;
+import com.huuminhs.backend.dto.BulkOperationResponse;
+import com.huuminhs.backend.dto.BulkUpdateItem;
 import com.huuminhs.backend.dto.CreateStreamRequest;
 import com.huuminhs.backend.dto.PaginatedResponse;
+import com.huuminhs.backend.dto.StreamBatchResponse;
 import com.huuminhs.backend.dto.StreamAccessResponse;
 import com.huuminhs.backend.dto.StreamResponse;
 import com.huuminhs.backend.dto.UpdateStreamRequest;
+import com.huuminhs.backend.exception.BatchSizeExceededException;
+import com.huuminhs.backend.exception.PreconditionFailedException;
 import com.huuminhs.backend.exception.StreamAccessDeniedException;
+import com.huuminhs.backend.exception.StreamArchivedException;
 import com.huuminhs.backend.exception.StreamNotFoundException;
 import com.huuminhs.backend.model.Stream;
 import com.huuminhs.backend.model.StreamStatus;
 import com.huuminhs.backend.model.User;
+import com.huuminhs.backend.repository.StreamOwnerJdbcRepository;
+import com.huuminhs.backend.repository.StreamOwnerJdbcRepository.OwnedUpdate;
+import com.huuminhs.backend.repository.StreamReactionJdbcRepository;
+import com.huuminhs.backend.repository.StreamArchiveJdbcRepository;
+import com.huuminhs.backend.repository.StreamArchiveJdbcRepository.ArchivedStream;
 import com.huuminhs.backend.repository.StreamRepository;
 import com.huuminhs.backend.repository.UserRepository;
 import com.huuminhs.backend.security.JwtTokenProvider;
@@ -18,14 +30,18 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -43,6 +59,24 @@ public class StreamServiceTest {
     @Mock
     private JwtTokenProvider jwtTokenProvider;
 
+    @Spy
+    private StreamChangeTracker changeTracker = new StreamChangeTracker();
+
+    @Mock
+    private StreamDetailCache detailCache;
+
+    @Mock
+    private StreamReactionJdbcRepository reactionRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private StreamArchiveJdbcRepository archiveRepository;
+
+    @Mock
+    private StreamOwnerJdbcRepository ownerRepository;
+
     @InjectMocks
     private StreamService streamService;
 
@@ -73,12 +107,12 @@ public class StreamServiceTest {
     void createStream_Success() {
         // Arrange
         CreateStreamRequest request = new CreateStreamRequest("Test Stream", "Test Description");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(streamRepository.save(any(Stream.class))).thenReturn(testStream);
         when(jwtTokenProvider.generateMediaMtxToken(anyInt())).thenReturn("test-jwt-token");
 
         // Act
-        StreamAccessResponse response = streamService.createStream(request, "testuser");
+        StreamAccessResponse response = streamService.createStream(request, 1L);
 
         // Assert
         assertNotNull(response);
@@ -86,19 +120,23 @@ public class StreamServiceTest {
         assertEquals("rtmp://localhost/stream/", response.getStreamUrl());
         assertEquals("test-jwt-token", response.getMediamtxJwt());
         verify(streamRepository).save(any(Stream.class));
+        verify(notificationService).streamCreated(1L);
     }
 
     @Test
-    void createStream_UserNotFound() {
+    void createStream_SavesAReferenceWithoutLoadingTheUser() {
         // Arrange
         CreateStreamRequest request = new CreateStreamRequest("Test Stream", "Test Description");
-        when(userRepository.findByUsername("nonexistent")).thenReturn(Optional.empty());
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(streamRepository.save(any(Stream.class))).thenReturn(testStream);
 
-        // Act & Assert
-        assertThrows(UsernameNotFoundException.class, () -> {
-            streamService.createStream(request, "nonexistent");
-        });
-        verify(streamRepository, never()).save(any(Stream.class));
+        // Act
+        streamService.createStream(request, 1L);
+
+        // Assert
+        verify(streamRepository).save(argThat(stream -> stream.getUser() == testUser));
+        verify(userRepository, never()).findByUsername(any());
+        verify(userRepository, never()).findById(any());
     }
 
     @Test
@@ -123,11 +161,11 @@ public class StreamServiceTest {
         // Arrange
         Stream stream1 = new Stream(1L, "Stream 1", "Description 1", LocalDateTime.now(), StreamStatus.CREATED, testUser);
         Stream stream2 = new Stream(2L, "Stream 2", "Description 2", LocalDateTime.now(), StreamStatus.LIVE, testUser);
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
         when(streamRepository.findByUserFirstPage(eq(testUser), any())).thenReturn(Arrays.asList(stream1, stream2));
 
         // Act
-        PaginatedResponse<StreamResponse> response = streamService.getStreamsByUser("testuser", null, 10);
+        PaginatedResponse<StreamResponse> response = streamService.getStreamsByUser(1L, "testuser", null, 10);
 
         // Assert
         assertEquals(2, response.getItems().size());
@@ -137,15 +175,18 @@ public class StreamServiceTest {
     }
 
     @Test
-    void getStreamsByUser_UserNotFound() {
+    void getStreamsByUser_QueriesByReferenceWithoutLoadingTheUser() {
         // Arrange
-        when(userRepository.findByUsername("nonexistent")).thenReturn(Optional.empty());
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(streamRepository.findByUserFirstPage(eq(testUser), any())).thenReturn(List.of());
 
-        // Act & Assert
-        assertThrows(UsernameNotFoundException.class, () -> {
-            streamService.getStreamsByUser("nonexistent", null, 10);
-        });
-        verify(streamRepository, never()).findByUserFirstPage(any(User.class), any());
+        // Act
+        PaginatedResponse<StreamResponse> response = streamService.getStreamsByUser(1L, "testuser", null, 10);
+
+        // Assert
+        assertTrue(response.getItems().isEmpty());
+        verify(userRepository, never()).findByUsername(any());
+        verify(userRepository, never()).findById(any());
     }
 
     @Test
@@ -180,80 +221,161 @@ public class StreamServiceTest {
     void updateStream_Success() {
         // Arrange
         UpdateStreamRequest request = new UpdateStreamRequest("Updated Title", "Updated Description");
-        when(streamRepository.findById(1L)).thenReturn(Optional.of(testStream));
-        when(streamRepository.save(any(Stream.class))).thenReturn(testStream);
+        Stream updated = new Stream(1L, "Updated Title", "Updated Description", LocalDateTime.now(), StreamStatus.CREATED,
+                testUser, null, 4);
+        when(ownerRepository.updateOwned(1L, "Updated Title", "Updated Description", "testuser", 3L))
+                .thenReturn(new OwnedUpdate(updated, "testuser"));
 
         // Act
-        StreamResponse response = streamService.updateStream(1L, request, "testuser");
+        StreamResponse response = streamService.updateStream(1L, request, "testuser", 3L);
 
         // Assert
         assertNotNull(response);
         assertEquals(1L, response.getStreamId());
-        assertEquals("Updated Title", testStream.getTitle());
-        assertEquals("Updated Description", testStream.getDescription());
-        verify(streamRepository).save(testStream);
+        assertEquals("Updated Title", response.getTitle());
+        assertEquals("Updated Description", response.getDescription());
+        assertEquals("testuser", response.getCreator());
+        assertEquals(4L, response.getVersion());
+        verify(streamRepository, never()).findById(any());
+        verify(streamRepository, never()).existsById(any());
     }
 
     @Test
     void updateStream_NotFound() {
         // Arrange
         UpdateStreamRequest request = new UpdateStreamRequest("Updated Title", "Updated Description");
-        when(streamRepository.findById(999L)).thenReturn(Optional.empty());
+        when(ownerRepository.updateOwned(999L, "Updated Title", "Updated Description", "testuser", null))
+                .thenReturn(new OwnedUpdate(null, null));
 
         // Act & Assert
         assertThrows(StreamNotFoundException.class, () -> {
-            streamService.updateStream(999L, request, "testuser");
+            streamService.updateStream(999L, request, "testuser", null);
+        });
+        verify(streamRepository, never()).existsById(any());
+    }
+
+    @Test
+    void updateStream_ArchivedStream_Conflict() {
+        // Arrange
+        UpdateStreamRequest request = new UpdateStreamRequest("Updated Title", "Updated Description");
+        when(ownerRepository.updateOwned(1L, "Updated Title", "Updated Description", "testuser", null))
+                .thenReturn(new OwnedUpdate(null, null));
+        when(archiveRepository.existsById(1L)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(StreamArchivedException.class, () -> {
+            streamService.updateStream(1L, request, "testuser", null);
         });
-        verify(streamRepository, never()).save(any(Stream.class));
     }
 
     @Test
     void updateStream_AccessDenied() {
         // Arrange
         UpdateStreamRequest request = new UpdateStreamRequest("Updated Title", "Updated Description");
-        when(streamRepository.findById(1L)).thenReturn(Optional.of(testStream));
+        when(ownerRepository.updateOwned(1L, "Updated Title", "Updated Description", "otheruser", 3L))
+                .thenReturn(new OwnedUpdate(null, "testuser"));
 
         // Act & Assert
         assertThrows(StreamAccessDeniedException.class, () -> {
-            streamService.updateStream(1L, request, "otheruser");
+            streamService.updateStream(1L, request, "otheruser", 3L);
         });
-        verify(streamRepository, never()).save(any(Stream.class));
+        verify(streamRepository, never()).existsById(any());
+    }
+
+    @Test
+    void updateStream_StaleVersion_PreconditionFailedWithoutAnotherQuery() {
+        // Arrange
+        UpdateStreamRequest request = new UpdateStreamRequest("Updated Title", "Updated Description");
+        when(ownerRepository.updateOwned(1L, "Updated Title", "Updated Description", "testuser", 3L))
+                .thenReturn(new OwnedUpdate(null, "testuser"));
+        String streamETag = streamService.getStreamETag(1L);
+
+        // Act & Assert
+        assertThrows(PreconditionFailedException.class, () -> {
+            streamService.updateStream(1L, request, "testuser", 3L);
+        });
+        assertEquals(streamETag, streamService.getStreamETag(1L));
+        verifyNoInteractions(streamRepository, reactionRepository);
+    }
+
+    @Test
+    void versionFromIfMatch_ReadsTheVersionOfAStreamETag() {
+        // Arrange
+        StreamResponse stream = new StreamResponse();
+        stream.setVersion(7L);
+        String eTag = streamService.withVersion(streamService.getStreamETag(1L), stream);
+
+        // Act & Assert
+        assertEquals(7L, streamService.versionFromIfMatch(eTag));
+        assertEquals(7L, streamService.versionFromIfMatch("\"7\""));
+        assertNull(streamService.versionFromIfMatch(null));
+        assertNull(streamService.versionFromIfMatch("*"));
+        assertThrows(PreconditionFailedException.class, () -> streamService.versionFromIfMatch("W/\"7\""));
+        assertThrows(PreconditionFailedException.class, () -> streamService.versionFromIfMatch("\"abc\""));
+    }
+
+    @Test
+    void currentETagIn_MatchesOnlyTagsOfTheCurrentStreamVersion() {
+        // Arrange
+        String eTag = streamService.getStreamETag(1L);
+        String body = eTag.substring(1, eTag.length() - 1);
+
+        // Act & Assert
+        assertEquals("\"" + body + "-v3\"",
+                streamService.currentETagIn("\"other\", W/\"" + body + "-v3\"", eTag));
+        assertNull(streamService.currentETagIn("\"" + body + "-v3\"", streamService.getStreamETag(2L)));
+        assertNull(streamService.currentETagIn("\"" + body + "\"", eTag));
+        assertNull(streamService.currentETagIn(null, eTag));
     }
 
     @Test
     void deleteStream_Success() {
         // Arrange
-        when(streamRepository.findById(1L)).thenReturn(Optional.of(testStream));
+        when(ownerRepository.deleteOwned(1L, "testuser")).thenReturn(true);
 
         // Act
         streamService.deleteStream(1L, "testuser");
 
         // Assert
-        verify(streamRepository).delete(testStream);
+        verify(ownerRepository).deleteOwned(1L, "testuser");
+        verify(streamRepository, never()).existsById(any());
     }
 
     @Test
     void deleteStream_NotFound() {
         // Arrange
-        when(streamRepository.findById(999L)).thenReturn(Optional.empty());
+        when(ownerRepository.deleteOwned(999L, "testuser")).thenReturn(false);
+        when(streamRepository.existsById(999L)).thenReturn(false);
 
         // Act & Assert
         assertThrows(StreamNotFoundException.class, () -> {
             streamService.deleteStream(999L, "testuser");
         });
-        verify(streamRepository, never()).delete(any(Stream.class));
     }
 
     @Test
     void deleteStream_AccessDenied() {
         // Arrange
-        when(streamRepository.findById(1L)).thenReturn(Optional.of(testStream));
+        when(ownerRepository.deleteOwned(1L, "otheruser")).thenReturn(false);
+        when(streamRepository.existsById(1L)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(StreamAccessDeniedException.class, () -> {
+            streamService.deleteStream(1L, "otheruser");
+        });
+    }
+
+    @Test
+    void deleteStream_ArchivedStreamOfAnotherUser_AccessDenied() {
+        // Arrange
+        when(ownerRepository.deleteOwned(1L, "otheruser")).thenReturn(false);
+        when(streamRepository.existsById(1L)).thenReturn(false);
+        when(archiveRepository.existsById(1L)).thenReturn(true);
 
         // Act & Assert
         assertThrows(StreamAccessDeniedException.class, () -> {
             streamService.deleteStream(1L, "otheruser");
         });
-        verify(streamRepository, never()).delete(any(Stream.class));
     }
 
     @Test
@@ -306,6 +428,21 @@ public class StreamServiceTest {
         // Assert
         assertEquals(StreamStatus.LIVE, testStream.getStatus());
         verify(streamRepository).save(testStream);
+        verify(notificationService).streamsWentLive(List.of(1L));
+    }
+
+    @Test
+    void setStreamStatusToLive_AlreadyLiveDoesNotNotifyAgain() {
+        // Arrange
+        testStream.setStatus(StreamStatus.LIVE);
+        when(streamRepository.findById(1L)).thenReturn(Optional.of(testStream));
+
+        // Act
+        streamService.setStreamStatusToLive(1L);
+
+        // Assert
+        verify(streamRepository).save(testStream);
+        verifyNoInteractions(notificationService);
     }
 
     @Test
@@ -349,7 +486,7 @@ public class StreamServiceTest {
     @Test
     void getStreamJwt_Success() {
         // Arrange
-        when(streamRepository.findById(1L)).thenReturn(Optional.of(testStream));
+        when(ownerRepository.findOwnerUsername(1L)).thenReturn(Optional.of("testuser"));
         when(jwtTokenProvider.generateMediaMtxToken(1)).thenReturn("test-jwt-token");
 
         // Act
@@ -366,7 +503,7 @@ public class StreamServiceTest {
     @Test
     void getStreamJwt_NotFound() {
         // Arrange
-        when(streamRepository.findById(999L)).thenReturn(Optional.empty());
+        when(ownerRepository.findOwnerUsername(999L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(StreamNotFoundException.class, () -> {
@@ -375,10 +512,23 @@ public class StreamServiceTest {
         verify(jwtTokenProvider, never()).generateMediaMtxToken(anyInt());
     }
 
+    @Test
+    void getStreamJwt_ArchivedStream_Conflict() {
+        // Arrange
+        when(ownerRepository.findOwnerUsername(1L)).thenReturn(Optional.empty());
+        when(archiveRepository.existsById(1L)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(StreamArchivedException.class, () -> {
+            streamService.getStreamJwt(1L, "testuser");
+        });
+        verify(jwtTokenProvider, never()).generateMediaMtxToken(anyInt());
+    }
+
     @Test
     void getStreamJwt_AccessDenied() {
         // Arrange
-        when(streamRepository.findById(1L)).thenReturn(Optional.of(testStream));
+        when(ownerRepository.findOwnerUsername(1L)).thenReturn(Optional.of("testuser"));
 
         // Act & Assert
         assertThrows(StreamAccessDeniedException.class, () -> {
@@ -408,4 +558,176 @@ public class StreamServiceTest {
         assertFalse(response.isHasMore());
         assertNull(response.getNextCursor());
     }
+
+    @Test
+    void getAllStreams_LimitCappedAtMaxPageSize() {
+        // Arrange
+        when(streamRepository.findAllFirstPage(any())).thenReturn(List.of());
+
+        // Act
+        streamService.getAllStreams(null, 100_000);
+
+        // Assert
+        verify(streamRepository).findAllFirstPage(PageRequest.of(0, 101));
+        assertTrue(streamService.isStreamingPage(100_000));
+        assertFalse(streamService.isStreamingPage(10));
+    }
+
+    @Test
+    void updateStream_ChangesETags() {
+        // Arrange
+        UpdateStreamRequest request = new UpdateStreamRequest("Updated Title", "Updated Description");
+        when(ownerRepository.updateOwned(1L, "Updated Title", "Updated Description", "testuser", null))
+                .thenReturn(new OwnedUpdate(testStream, "testuser"));
+        String streamETag = streamService.getStreamETag(1L);
+        String otherStreamETag = streamService.getStreamETag(2L);
+        String listingETag = streamService.getListingETag();
+
+        // Act
+        streamService.updateStream(1L, request, "testuser", null);
+
+        // Assert
+        assertNotEquals(streamETag, streamService.getStreamETag(1L));
+        assertEquals(otherStreamETag, streamService.getStreamETag(2L));
+        assertNotEquals(listingETag, streamService.getListingETag());
+    }
+
+    @Test
+    void getStreamsByIds_KeepsOrderAndReportsMissing() {
+        // Arrange
+        Stream stream2 = new Stream(2L, "Stream 2", "Description 2", LocalDateTime.now(), StreamStatus.LIVE, testUser);
+        StreamResponse cached = new StreamResponse(3L, "Stream 3", "Description 3", StreamStatus.ENDED, "testuser");
+        when(detailCache.get(anyLong())).thenAnswer(invocation -> invocation.getArgument(0).equals(3L) ? cached : null);
+        when(streamRepository.findAllWithUserByIdIn(Set.of(2L, 1L, 999L))).thenReturn(Arrays.asList(testStream, stream2));
+
+        // Act
+        StreamBatchResponse response = streamService.getStreamsByIds(Arrays.asList(2L, 999L, 3L, 1L));
+
+        // Assert
+        assertEquals(Arrays.asList(2L, 999L, 3L, 1L), response.getItems().stream()
+                .map(item -> item.getStreamId()).collect(Collectors.toList()));
+        assertEquals("Stream 2", response.getItems().get(0).getStream().getTitle());
+        assertFalse(response.getItems().get(1).isFound());
+        assertNull(response.getItems().get(1).getStream());
+        assertSame(cached, response.getItems().get(2).getStream());
+        assertEquals("Test Stream", response.getItems().get(3).getStream().getTitle());
+        verify(detailCache, times(2)).put(any(StreamResponse.class), anyLong());
+    }
+
+    @Test
+    void getStreamsByIds_TooManyIds() {
+        // Arrange
+        List<Long> ids = LongStream.rangeClosed(1, 201).boxed().collect(Collectors.toList());
+
+        // Act & Assert
+        assertThrows(BatchSizeExceededException.class, () -> {
+            streamService.getStreamsByIds(ids);
+        });
+        verify(streamRepository, never()).findAllWithUserByIdIn(any());
+    }
+
+    @Test
+    void getStreamById_ServedFromDetailCache() {
+        // Arrange
+        StreamResponse cached = new StreamResponse(1L, "Test Stream", "Test Description", StreamStatus.CREATED, "testuser");
+        when(detailCache.get(1L)).thenReturn(cached);
+
+        // Act
+        StreamResponse response = streamService.getStreamById(1L);
+
+        // Assert
+        assertSame(cached, response);
+        verify(streamRepository, never()).findById(any());
+    }
+
+    @Test
+    void getEndedStreams_HotTableRunsOut_ContinuesIntoArchive() {
+        // Arrange
+        Stream hot = new Stream(3L, "Hot", "Description", LocalDateTime.now(), StreamStatus.ENDED, testUser);
+        Stream archived = new Stream(2L, "Archived", "Description", null, StreamStatus.ENDED, testUser);
+        Stream older = new Stream(1L, "Older", "Description", null, StreamStatus.ENDED, testUser);
+        when(streamRepository.findByStatusFirstPage(eq(StreamStatus.ENDED), any())).thenReturn(List.of(hot));
+        when(archiveRepository.findAll(null, 2)).thenReturn(List.of(
+                new ArchivedStream(archived, new long[]{4, 0, 0, 0, 0}),
+                new ArchivedStream(older, new long[]{0, 0, 0, 0, 0})));
+
+        // Act
+        PaginatedResponse<StreamResponse> response = streamService.getEndedStreams(null, 2);
+
+        // Assert
+        assertEquals(List.of("Hot", "Archived"), response.getItems().stream().map(StreamResponse::getTitle).toList());
+        assertEquals(4L, response.getItems().get(1).getReactions().get("like"));
+        assertTrue(response.isHasMore());
+        assertEquals(2L, response.getNextCursor());
+    }
+
+    @Test
+    void getAllStreams_ArchivedCursor_ContinuesAfterItInArchive() {
+        // Arrange
+        Stream archived = new Stream(1L, "Archived", "Description", null, StreamStatus.ENDED, testUser);
+        when(streamRepository.findAllWithCursor(eq(2L), any())).thenReturn(List.of());
+        when(streamRepository.existsById(2L)).thenReturn(false);
+        when(archiveRepository.findAll(2L, 11)).thenReturn(List.of(new ArchivedStream(archived, new long[5])));
+
+        // Act
+        PaginatedResponse<StreamResponse> response = streamService.getAllStreams(2L, 10);
+
+        // Assert
+        assertEquals(1, response.getItems().size());
+        assertEquals("Archived", response.getItems().get(0).getTitle());
+        assertFalse(response.isHasMore());
+    }
+
+    @Test
+    void getStreamById_FallsBackToArchive() {
+        // Arrange
+        Stream archived = new Stream(1L, "Archived", "Description", null, StreamStatus.ENDED, testUser);
+        when(streamRepository.findById(1L)).thenReturn(Optional.empty());
+        when(archiveRepository.findByIds(List.of(1L))).thenReturn(List.of(new ArchivedStream(archived, new long[5])));
+
+        // Act
+        StreamResponse response = streamService.getStreamById(1L);
+
+        // Assert
+        assertEquals("Archived", response.getTitle());
+        assertEquals("testuser", response.getCreator());
+        verify(detailCache).put(eq(response), anyLong());
+    }
+
+    @Test
+    void updateStreams_TellsForbiddenFromMissing() {
+        // Arrange
+        when(ownerRepository.updateAllOwned(any(), any(), any(), eq("testuser"))).thenReturn(List.of(1L));
+        when(ownerRepository.findExistingIn(List.of(2L, 3L))).thenReturn(List.of(2L));
+
+        // Act
+        BulkOperationResponse response = streamService.updateStreams(List.of(
+                new BulkUpdateItem(1L, "First", null),
+                new BulkUpdateItem(2L, "Second", null),
+                new BulkUpdateItem(3L, "Third", null),
+                new BulkUpdateItem(1L, "First again", "Last one wins")), "testuser");
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L), response.getItems().stream().map(BulkOperationItem::getStreamId).toList());
+        assertEquals(List.of(BulkOperationItem.Result.UPDATED, BulkOperationItem.Result.FORBIDDEN,
+                        BulkOperationItem.Result.NOT_FOUND),
+                response.getItems().stream().map(BulkOperationItem::getResult).toList());
+        verify(ownerRepository).updateAllOwned(new Long[]{1L, 2L, 3L}, new String[]{"First again", "Second", "Third"},
+                new String[]{"Last one wins", null, null}, "testuser");
+        verify(changeTracker).streamChanged(1L);
+    }
+
+    @Test
+    void deleteStreams_AllDeleted_SkipsTheFollowUpQuery() {
+        // Arrange
+        when(ownerRepository.deleteAllOwned(Set.of(1L, 2L), "testuser")).thenReturn(List.of(2L, 1L));
+
+        // Act
+        BulkOperationResponse response = streamService.deleteStreams(List.of(1L, 2L, 1L), "testuser");
+
+        // Assert
+        assertEquals(2, response.getItems().size());
+        assertTrue(response.getItems().stream().allMatch(item -> item.getResult() == BulkOperationItem.Result.DELETED));
+        verify(ownerRepository, never()).findExistingIn(any());
+    }
 }
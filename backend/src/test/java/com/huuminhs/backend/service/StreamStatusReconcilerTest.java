@@ -0,0 +1,123 @@
+package com.huuminhs.backend.service;
+
+import com.huuminhs.backend.repository.StreamStatusJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(OutputCaptureExtension.class)
+public class StreamStatusReconcilerTest {
+
+    private MediaMtxApiClient apiClient;
+    private StreamStatusJdbcRepository statusRepository;
+    private StreamChangeTracker changeTracker;
+    private NotificationService notificationService;
+    private StreamStatusReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        apiClient = mock(MediaMtxApiClient.class);
+        statusRepository = mock(StreamStatusJdbcRepository.class);
+        changeTracker = mock(StreamChangeTracker.class);
+        notificationService = mock(NotificationService.class);
+        reconciler = new StreamStatusReconciler(apiClient, statusRepository, changeTracker, notificationService,
+                mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void reconcile_FixesDriftOnlyWhenSeenOnTwoConsecutiveRuns() throws Exception {
+        // Arrange: stream 1 is published but CREATED, stream 2 is LIVE but gone from MediaMTX
+        when(apiClient.listReadyStreamIds()).thenReturn(Set.of(1L, 3L));
+        when(statusRepository.tryLock(anyLong())).thenReturn(true);
+        when(statusRepository.findNotLiveIn(Set.of(1L, 3L))).thenReturn(List.of(1L));
+        when(statusRepository.findLiveNotIn(Set.of(1L, 3L))).thenReturn(List.of(2L));
+        when(statusRepository.markLive(Set.of(1L))).thenReturn(List.of(1L));
+        when(statusRepository.markEnded(Set.of(2L))).thenReturn(List.of(2L));
+
+        // Act: the first run only records the drift
+        reconciler.reconcile();
+
+        // Assert
+        verify(statusRepository, never()).markLive(any());
+        verify(statusRepository, never()).markEnded(any());
+
+        // Act
+        reconciler.reconcile();
+
+        // Assert
+        verify(statusRepository).markLive(Set.of(1L));
+        verify(statusRepository).markEnded(Set.of(2L));
+        verify(changeTracker).streamChanged(1L);
+        verify(changeTracker).streamChanged(2L);
+        verify(notificationService).streamsWentLive(List.of(1L));
+    }
+
+    @Test
+    void reconcile_DriftResolvedByAHookInBetweenIsLeftAlone() throws Exception {
+        // Arrange
+        when(apiClient.listReadyStreamIds()).thenReturn(Set.of());
+        when(statusRepository.tryLock(anyLong())).thenReturn(true);
+        when(statusRepository.findNotLiveIn(any())).thenReturn(List.of());
+        when(statusRepository.findLiveNotIn(any())).thenReturn(List.of(2L), List.of(5L));
+
+        // Act: stream 2 was ended by its hook, stream 5 is new drift
+        reconciler.reconcile();
+        reconciler.reconcile();
+
+        // Assert
+        verify(statusRepository, never()).markEnded(any());
+        verifyNoInteractions(changeTracker);
+    }
+
+    @Test
+    void reconcile_DoesNothingWhenMediaMtxIsUnreachableOrAnotherInstanceRuns() throws Exception {
+        // Arrange
+        when(apiClient.listReadyStreamIds()).thenThrow(new ConnectException("refused"));
+
+        // Act
+        reconciler.reconcile();
+
+        // Assert: no stream is ended because the API is down
+        verifyNoInteractions(statusRepository);
+
+        // Arrange
+        reset(apiClient);
+        when(apiClient.listReadyStreamIds()).thenReturn(Set.of());
+        when(statusRepository.tryLock(anyLong())).thenReturn(false);
+
+        // Act
+        reconciler.reconcile();
+
+        // Assert
+        verify(statusRepository).tryLock(StreamStatusReconciler.LOCK_KEY);
+        verifyNoMoreInteractions(statusRepository);
+        verifyNoInteractions(changeTracker);
+    }
+
+    @Test
+    void reconcile_RejectedTokenIsLoggedAsAnError(CapturedOutput output) throws Exception {
+        // Arrange
+        when(apiClient.listReadyStreamIds())
+                .thenThrow(new MediaMtxApiClient.UnauthorizedException("/v3/paths/list returned 401"));
+
+        // Act
+        reconciler.reconcile();
+
+        // Assert
+        verifyNoInteractions(statusRepository);
+        assertTrue(output.getOut().lines().anyMatch(line -> line.contains("ERROR")
+                && line.contains("/v3/paths/list returned 401")), output.getOut());
+    }
+}
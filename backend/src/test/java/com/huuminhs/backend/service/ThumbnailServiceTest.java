@@ -0,0 +1,137 @@
+package com.huuminhs.backend.service;
+
+import com.huuminhs.backend.exception.InvalidThumbnailException;
+import com.huuminhs.backend.exception.StreamAccessDeniedException;
+import com.huuminhs.backend.exception.StreamArchivedException;
+import com.huuminhs.backend.repository.StreamArchiveJdbcRepository;
+import com.huuminhs.backend.repository.StreamOwnerJdbcRepository;
+import com.huuminhs.backend.repository.StreamOwnerJdbcRepository.OwnerAndThumbnail;
+import com.huuminhs.backend.repository.StreamRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ThumbnailServiceTest {
+
+    @Mock
+    private StreamRepository streamRepository;
+
+    @Mock
+    private StreamChangeTracker changeTracker;
+
+    @Mock
+    private StreamArchiveJdbcRepository archiveRepository;
+
+    @Mock
+    private StreamOwnerJdbcRepository ownerRepository;
+
+    @InjectMocks
+    private ThumbnailService thumbnailService;
+
+    @TempDir
+    Path tempDir;
+
+    private final OwnerAndThumbnail testStream = new OwnerAndThumbnail("testuser", null);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(thumbnailService, "uploadDir", tempDir.toString());
+        thumbnailService.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        thumbnailService.stop();
+    }
+
+    @Test
+    void upload_ResizesIntoVariantsAndUpdatesStream() throws Exception {
+        // Arrange
+        when(ownerRepository.findOwnerAndThumbnailHash(1L)).thenReturn(Optional.of(testStream));
+        when(streamRepository.updateThumbnailHash(eq(1L), anyString())).thenReturn(1);
+        MockMultipartFile file = new MockMultipartFile("file", "thumb.png", "image/png", png(1000, 500));
+
+        // Act
+        Map<String, String> urls = thumbnailService.upload(1L, file, "testuser");
+        thumbnailService.stop();
+
+        // Assert
+        assertEquals(3, urls.size());
+        String hash = urls.get("small").substring(ThumbnailVariant.URL_PREFIX.length(), ThumbnailVariant.URL_PREFIX.length() + 16);
+        for (ThumbnailVariant variant : ThumbnailVariant.values()) {
+            Path variantFile = thumbnailService.getVariantFile(variant.fileName(hash));
+            assertNotNull(variantFile);
+            BufferedImage image = ImageIO.read(variantFile.toFile());
+            assertEquals(variant.width(), image.getWidth());
+            assertEquals(variant.height(), image.getHeight());
+        }
+        verify(streamRepository).updateThumbnailHash(1L, hash);
+        verify(changeTracker).streamChanged(1L);
+    }
+
+    @Test
+    void upload_NotAnImage_ThrowsException() {
+        // Arrange
+        when(ownerRepository.findOwnerAndThumbnailHash(1L)).thenReturn(Optional.of(testStream));
+        MockMultipartFile file = new MockMultipartFile("file", "thumb.png", "image/png", "not an image".getBytes());
+
+        // Act & Assert
+        assertThrows(InvalidThumbnailException.class, () -> thumbnailService.upload(1L, file, "testuser"));
+        verify(streamRepository, never()).updateThumbnailHash(anyLong(), anyString());
+    }
+
+    @Test
+    void upload_NotOwner_ThrowsException() throws Exception {
+        // Arrange
+        when(ownerRepository.findOwnerAndThumbnailHash(1L)).thenReturn(Optional.of(testStream));
+        MockMultipartFile file = new MockMultipartFile("file", "thumb.png", "image/png", png(100, 100));
+
+        // Act & Assert
+        assertThrows(StreamAccessDeniedException.class, () -> thumbnailService.upload(1L, file, "otheruser"));
+    }
+
+    @Test
+    void upload_ArchivedStream_ThrowsException() throws Exception {
+        // Arrange
+        when(ownerRepository.findOwnerAndThumbnailHash(1L)).thenReturn(Optional.empty());
+        when(archiveRepository.existsById(1L)).thenReturn(true);
+        MockMultipartFile file = new MockMultipartFile("file", "thumb.png", "image/png", png(100, 100));
+
+        // Act & Assert
+        assertThrows(StreamArchivedException.class, () -> thumbnailService.upload(1L, file, "testuser"));
+        verify(streamRepository, never()).updateThumbnailHash(anyLong(), anyString());
+    }
+
+    @Test
+    void getVariantFile_RejectsPathsOutsideThumbnailDirectory() {
+        // Act & Assert
+        assertNull(thumbnailService.getVariantFile("../application.yml"));
+        assertNull(thumbnailService.getVariantFile("0123456789abcdef-huge.jpg"));
+    }
+
+    private static byte[] png(int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
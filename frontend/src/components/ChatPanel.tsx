@@ -0,0 +1,95 @@
+import { useEffect, useRef, useState } from 'react'
+import { useAuth } from '@/stores/authStore'
+import { useChat, useChatHistory, type ChatMessage } from '@/hooks/useChat'
+import { Input } from '@/components/ui/input'
+import { Button } from '@/components/ui/button'
+
+// Must not exceed chat.max-message-length on the backend
+const MAX_MESSAGE_LENGTH = 500
+
+interface ChatPanelProps {
+  streamId: number
+  ended?: boolean
+}
+
+function MessageLine({ message }: { message: ChatMessage }) {
+  return (
+    <p className="break-words">
+      <span className="font-medium text-gray-900">{message.username}: </span>
+      <span className="text-gray-700">{message.text}</span>
+    </p>
+  )
+}
+
+export function ChatPanel({ streamId, ended = false }: ChatPanelProps) {
+  return ended ? <ChatReplay streamId={streamId} /> : <LiveChat streamId={streamId} />
+}
+
+function ChatReplay({ streamId }: { streamId: number }) {
+  const { data, fetchNextPage, hasNextPage, isFetchingNextPage } = useChatHistory(streamId, true)
+  const messages = data?.pages.flatMap((page) => page.items) ?? []
+
+  return (
+    <div className="border rounded-lg flex flex-col h-96">
+      <div className="px-3 py-2 border-b font-semibold text-gray-900">Trò chuyện</div>
+      <div className="flex-1 overflow-y-auto px-3 py-2 space-y-1 text-sm">
+        {messages.length === 0 && <p className="text-gray-500">Không có tin nhắn</p>}
+        {messages.map((message) => (
+          <MessageLine key={message.seq} message={message} />
+        ))}
+        {hasNextPage && (
+          <Button variant="outline" size="sm" onClick={() => fetchNextPage()} disabled={isFetchingNextPage}>
+            Xem thêm
+          </Button>
+        )}
+      </div>
+    </div>
+  )
+}
+
+function LiveChat({ streamId }: { streamId: number }) {
+  const { token, isAuthenticated } = useAuth()
+  const { messages, connected, send } = useChat(streamId, isAuthenticated ? token : null)
+  const [text, setText] = useState('')
+  const listRef = useRef<HTMLDivElement>(null)
+
+  useEffect(() => {
+    listRef.current?.scrollTo({ top: listRef.current.scrollHeight })
+  }, [messages])
+
+  const handleSubmit = (event: React.FormEvent) => {
+    event.preventDefault()
+    send(text)
+    setText('')
+  }
+
+  return (
+    <div className="border rounded-lg flex flex-col h-96">
+      <div className="px-3 py-2 border-b font-semibold text-gray-900">
+        Trò chuyện
+        {!connected && <span className="ml-2 text-xs text-gray-500">(đang kết nối...)</span>}
+      </div>
+      <div ref={listRef} className="flex-1 overflow-y-auto px-3 py-2 space-y-1 text-sm">
+        {messages.map((message) => (
+          <MessageLine key={message.seq} message={message} />
+        ))}
+      </div>
+      {isAuthenticated ? (
+        <form onSubmit={handleSubmit} className="flex gap-2 p-2 border-t">
+          <Input
+            value={text}
+            onChange={(event) => setText(event.target.value)}
+            maxLength={MAX_MESSAGE_LENGTH}
+            placeholder="Nhập tin nhắn..."
+            disabled={!connected}
+          />
+          <Button type="submit" disabled={!connected || !text.trim()}>
+            Gửi
+          </Button>
+        </form>
+      ) : (
+        <p className="p-2 border-t text-sm text-gray-500">Đăng nhập để trò chuyện</p>
+      )}
+    </div>
+  )
+}
@@ -0,0 +1,51 @@
+import { useMutation, useQuery, useQueryClient } from '@tanstack/react-query'
+import { Button } from '@/components/ui/button'
+import { useAuthStore, useUsername } from '@/stores/authStore'
+import { socialService } from '../services/socialService'
+
+interface FollowButtonProps {
+  username: string
+}
+
+export function FollowButton({ username }: FollowButtonProps) {
+  const { isAuthenticated, getAuthHeader } = useAuthStore()
+  const currentUsername = useUsername()
+  const queryClient = useQueryClient()
+  const queryKey = ['follow', username]
+
+  const { data: status } = useQuery({
+    queryKey,
+    queryFn: () => socialService.getFollowStatus(username, getAuthHeader() ?? ''),
+    enabled: isAuthenticated,
+  })
+
+  const toggle = useMutation({
+    mutationFn: async () => {
+      const authHeader = getAuthHeader()
+      if (!authHeader) {
+        throw new Error('No authentication token available')
+      }
+      if (status?.following) {
+        await socialService.unfollow(username, authHeader)
+      } else {
+        await socialService.follow(username, authHeader)
+      }
+    },
+    onSettled: () => queryClient.invalidateQueries({ queryKey }),
+  })
+
+  if (!isAuthenticated || !status || currentUsername === username) {
+    return null
+  }
+
+  return (
+    <Button
+      variant={status.following ? 'outline' : 'default'}
+      size="sm"
+      disabled={toggle.isPending}
+      onClick={() => toggle.mutate()}
+    >
+      {status.following ? 'Đang theo dõi' : 'Theo dõi'} · {status.followers}
+    </Button>
+  )
+}
@@ -0,0 +1,55 @@
+import { useState } from 'react'
+import { Button } from '@/components/ui/button'
+import { useAuthStore } from '@/stores/authStore'
+import { streamService, type ReactionKey, type StreamReactions } from '../services/streamService'
+
+const REACTIONS: { key: ReactionKey; emoji: string; label: string }[] = [
+  { key: 'like', emoji: '👍', label: 'Thích' },
+  { key: 'heart', emoji: '❤️', label: 'Yêu thích' },
+  { key: 'laugh', emoji: '😂', label: 'Haha' },
+  { key: 'wow', emoji: '😮', label: 'Wow' },
+  { key: 'clap', emoji: '👏', label: 'Vỗ tay' },
+]
+
+interface ReactionBarProps {
+  streamId: number
+  reactions: StreamReactions
+}
+
+export function ReactionBar({ streamId, reactions }: ReactionBarProps) {
+  const { isAuthenticated, getAuthHeader } = useAuthStore()
+  // Own reactions since the page loaded, shown right away instead of after the next flush
+  const [sent, setSent] = useState<Partial<StreamReactions>>({})
+
+  const react = async (reaction: ReactionKey) => {
+    const authHeader = getAuthHeader()
+    if (!authHeader) {
+      return
+    }
+    setSent((prev) => ({ ...prev, [reaction]: (prev[reaction] ?? 0) + 1 }))
+    try {
+      await streamService.react(streamId, reaction, authHeader)
+    } catch (error) {
+      console.error('Failed to send reaction:', error)
+      setSent((prev) => ({ ...prev, [reaction]: (prev[reaction] ?? 1) - 1 }))
+    }
+  }
+
+  return (
+    <div className="flex flex-wrap gap-2">
+      {REACTIONS.map(({ key, emoji, label }) => (
+        <Button
+          key={key}
+          variant="outline"
+          size="sm"
+          title={isAuthenticated ? label : 'Đăng nhập để bày tỏ cảm xúc'}
+          disabled={!isAuthenticated}
+          onClick={() => react(key)}
+        >
+          <span>{emoji}</span>
+          <span className="tabular-nums">{(reactions?.[key] ?? 0) + (sent[key] ?? 0)}</span>
+        </Button>
+      ))}
+    </div>
+  )
+}
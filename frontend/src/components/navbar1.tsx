@@ -75,8 +75,10 @@ const Navbar1 = ({
   const menuWithAuth = isAuthenticated 
     ? [
         ...menu, 
+        { title: "Đang theo dõi", url: "/stream/following" },
         { title: "Live của tôi", url: "/stream/mine" },
         { title: "Tạo live", url: "/stream/create" },
+        { title: "Thông báo", url: "/notifications" },
         { title: "Tài khoản", url: "#" }
       ]
     : menu
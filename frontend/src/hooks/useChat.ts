@@ -0,0 +1,80 @@
+import { useEffect, useRef, useState, useCallback } from 'react'
+import { useInfiniteQuery } from '@tanstack/react-query'
+import axios from 'axios'
+import { config } from '@/config'
+
+export interface ChatMessage {
+  seq: number
+  username: string
+  text: string
+  sentAt: number
+}
+
+// Older messages are dropped from the list to keep rendering cheap
+const MAX_MESSAGES = 200
+
+const chatUrl = (streamId: number, token: string | null): string => {
+  const url = new URL(`${config.apiBaseUrl}/stream/${streamId}/chat`)
+  url.protocol = url.protocol === 'https:' ? 'wss:' : 'ws:'
+  if (token) {
+    url.searchParams.set('access_token', token)
+  }
+  return url.toString()
+}
+
+export function useChat(streamId: number, token: string | null) {
+  const [messages, setMessages] = useState<ChatMessage[]>([])
+  const [connected, setConnected] = useState(false)
+  const socketRef = useRef<WebSocket | null>(null)
+
+  useEffect(() => {
+    const socket = new WebSocket(chatUrl(streamId, token))
+    socketRef.current = socket
+    setMessages([])
+
+    socket.onopen = () => setConnected(true)
+    socket.onclose = () => setConnected(false)
+    // Each frame is an array, several messages when the connection was busy
+    socket.onmessage = (event) => {
+      const batch = JSON.parse(event.data) as ChatMessage[]
+      setMessages((previous) => [...previous, ...batch].slice(-MAX_MESSAGES))
+    }
+
+    return () => {
+      socket.close()
+      socketRef.current = null
+    }
+  }, [streamId, token])
+
+  const send = useCallback((text: string) => {
+    const socket = socketRef.current
+    if (socket && socket.readyState === WebSocket.OPEN && text.trim()) {
+      socket.send(text)
+    }
+  }, [])
+
+  return { messages, connected, send }
+}
+
+export interface ChatHistoryResponse {
+  items: ChatMessage[]
+  nextCursor: string | null
+  hasMore: boolean
+}
+
+// Stored chat of a stream, oldest first, for replay once it has ended
+export function useChatHistory(streamId: number, enabled: boolean) {
+  return useInfiniteQuery<ChatHistoryResponse, Error>({
+    queryKey: ['chatHistory', streamId],
+    queryFn: async ({ pageParam }) => {
+      const response = await axios.get<ChatHistoryResponse>(
+        `${config.apiBaseUrl}/stream/${streamId}/chat/history`,
+        { params: { cursor: pageParam, limit: 100 } }
+      )
+      return response.data
+    },
+    initialPageParam: undefined as string | undefined,
+    getNextPageParam: (lastPage) => (lastPage.hasMore ? lastPage.nextCursor : undefined),
+    enabled,
+  })
+}
@@ -0,0 +1,104 @@
+import { useFollowingStreams } from "../hooks/useFollowingStreams"
+import { Button } from "@/components/ui/button"
+import { Loader2 } from "lucide-react"
+import { thumbnailUrl, type Stream, type StreamsResponse } from "@/services/streamService"
+import { useNavigate } from "@tanstack/react-router"
+import Thumbnail from "@/assets/stream.jpg"
+import { StreamCard } from "@/components/StreamCard"
+
+export function FollowingPage() {
+  const navigate = useNavigate()
+  const {
+    data,
+    error,
+    fetchNextPage,
+    hasNextPage,
+    isFetchingNextPage,
+    isLoading,
+    isError,
+  } = useFollowingStreams({ limit: 8 })
+
+  const handleStreamClick = (streamId: number) => {
+    navigate({ to: '/stream/watch/$streamId', params: { streamId: streamId.toString() } })
+  }
+
+  if (isLoading) {
+    return (
+      <div className="container mx-auto px-4 py-8">
+        <h1 className="text-3xl font-bold text-gray-900 mb-8">Đang theo dõi</h1>
+        <div className="flex justify-center items-center min-h-[200px]">
+          <Loader2 className="h-8 w-8 animate-spin" />
+        </div>
+      </div>
+    )
+  }
+
+  if (isError) {
+    return (
+      <div className="container mx-auto px-4 py-8">
+        <h1 className="text-3xl font-bold text-gray-900 mb-8">Đang theo dõi</h1>
+        <div className="flex justify-center items-center min-h-[200px]">
+          <div className="text-center">
+            <p className="text-red-600 mb-4">
+              Failed to load streams: {error?.message || 'Unknown error'}
+            </p>
+            <Button onClick={() => window.location.reload()}>
+              Try Again
+            </Button>
+          </div>
+        </div>
+      </div>
+    )
+  }
+
+  // A stream that went live while paging is moved to the head of the feed and can come again on a later page
+  const seen = new Set<number>()
+  const allStreams = ((data?.pages as StreamsResponse[])?.flatMap(page => page.items) ?? [])
+    .filter((stream: Stream) => !seen.has(stream.streamId) && seen.add(stream.streamId))
+
+  return (
+    <div className="container mx-auto px-4 py-8">
+      <h1 className="text-3xl font-bold text-gray-900 mb-8">Đang theo dõi</h1>
+
+      {allStreams.length === 0 ? (
+        <div className="flex justify-center items-center min-h-[200px]">
+          <p className="text-gray-600 text-lg">Những người bạn theo dõi chưa có live nào.</p>
+        </div>
+      ) : (
+        <>
+          <div className="grid grid-cols-1 sm:grid-cols-2 lg:grid-cols-3 xl:grid-cols-4 gap-6">
+            {allStreams.map((stream) => (
+              <StreamCard
+                key={stream.streamId}
+                thumbnail={stream.thumbnails ? thumbnailUrl(stream.thumbnails.medium) : Thumbnail}
+                title={stream.title}
+                username={stream.creator}
+                status={stream.status}
+                onClick={() => handleStreamClick(stream.streamId)}
+              />
+            ))}
+          </div>
+
+          {hasNextPage && (
+            <div className="flex justify-center mt-8">
+              <Button
+                onClick={() => fetchNextPage()}
+                disabled={isFetchingNextPage}
+                size="lg"
+              >
+                {isFetchingNextPage ? (
+                  <>
+                    <Loader2 className="h-4 w-4 animate-spin mr-2" />
+                    Loading...
+                  </>
+                ) : (
+                  'Tải thêm'
+                )}
+              </Button>
+            </div>
+          )}
+        </>
+      )}
+    </div>
+  )
+}
@@ -34,7 +34,7 @@ export function LoginPage({
 
     try {
       const response = await login({ username, password })
-      setAuth(response.token, response.tokenType)
+      setAuth(response.token, response.tokenType, response.refreshToken)
       
       // Redirect to home page after successful login
       router.navigate({ to: '/' })
@@ -2,7 +2,7 @@ import { StreamCardWithActions } from "../components/StreamCardWithActions";
 import { useMyStreams } from "../hooks/useMyStreams";
 import { Button } from "@/components/ui/button";
 import { Loader2 } from "lucide-react";
-import { streamService, type StreamsResponse } from "@/services/streamService";
+import { streamService, thumbnailUrl, type StreamsResponse } from "@/services/streamService";
 import { useAuthStore } from "@/stores/authStore";
 import { useNavigate } from "@tanstack/react-router";
 import { useEffect } from "react";
@@ -129,7 +129,7 @@ export function MyStreamsPage() {
               <StreamCardWithActions
                 key={stream.streamId}
                 streamId={stream.streamId}
-                thumbnail={Thumbnail} // Using placeholder as mentioned
+                thumbnail={stream.thumbnails ? thumbnailUrl(stream.thumbnails.medium) : Thumbnail}
                 title={stream.title}
                 description={stream.description}
                 username={stream.creator} // Using creator field from API
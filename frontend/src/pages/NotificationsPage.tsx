@@ -0,0 +1,93 @@
+import { useInfiniteQuery, useQueryClient } from '@tanstack/react-query'
+import { Link } from '@tanstack/react-router'
+import { Loader2 } from 'lucide-react'
+import { Button } from '@/components/ui/button'
+import { useAuthStore } from '@/stores/authStore'
+import { socialService, type NotificationsResponse } from '../services/socialService'
+
+export function NotificationsPage() {
+  const { getAuthHeader, isAuthenticated } = useAuthStore()
+  const queryClient = useQueryClient()
+
+  const {
+    data,
+    isLoading,
+    fetchNextPage,
+    hasNextPage,
+    isFetchingNextPage,
+  } = useInfiniteQuery<NotificationsResponse, Error>({
+    queryKey: ['notifications'],
+    queryFn: ({ pageParam }) =>
+      socialService.getNotifications(pageParam as number | undefined, getAuthHeader() ?? ''),
+    initialPageParam: undefined as number | undefined,
+    getNextPageParam: (lastPage) => (lastPage.hasMore ? lastPage.nextCursor ?? undefined : undefined),
+    enabled: isAuthenticated,
+  })
+
+  const notifications = data?.pages.flatMap((page) => page.items) ?? []
+
+  const markRead = async (notificationId: number) => {
+    const authHeader = getAuthHeader()
+    if (authHeader) {
+      await socialService.markRead(notificationId, authHeader)
+    }
+  }
+
+  const markAllRead = async () => {
+    const authHeader = getAuthHeader()
+    if (authHeader) {
+      await socialService.markAllRead(authHeader)
+      queryClient.invalidateQueries({ queryKey: ['notifications'] })
+    }
+  }
+
+  return (
+    <div className="container mx-auto px-4 py-8">
+      <div className="max-w-2xl mx-auto">
+        <div className="flex items-center justify-between mb-6">
+          <h1 className="text-3xl font-bold text-gray-900">Thông báo</h1>
+          {notifications.length > 0 && (
+            <Button variant="outline" size="sm" onClick={markAllRead}>
+              Đánh dấu tất cả đã đọc
+            </Button>
+          )}
+        </div>
+
+        {isLoading ? (
+          <div className="flex justify-center items-center min-h-[200px]">
+            <Loader2 className="h-8 w-8 animate-spin" />
+          </div>
+        ) : notifications.length === 0 ? (
+          <p className="text-gray-600">Không có thông báo mới</p>
+        ) : (
+          <ul className="divide-y rounded-lg border">
+            {notifications.map((notification) => (
+              <li key={notification.id} className="p-4">
+                <Link
+                  to="/stream/watch/$streamId"
+                  params={{ streamId: notification.streamId.toString() }}
+                  onClick={() => markRead(notification.id)}
+                  className="block hover:underline"
+                >
+                  <span className="font-medium">{notification.creator}</span> đang phát trực tiếp:{' '}
+                  {notification.streamTitle}
+                </Link>
+                <span className="text-xs text-gray-500">
+                  {new Date(notification.createdAt).toLocaleString('vi-VN')}
+                </span>
+              </li>
+            ))}
+          </ul>
+        )}
+
+        {hasNextPage && (
+          <div className="flex justify-center mt-4">
+            <Button variant="outline" onClick={() => fetchNextPage()} disabled={isFetchingNextPage}>
+              {isFetchingNextPage ? 'Đang tải...' : 'Xem thêm'}
+            </Button>
+          </div>
+        )}
+      </div>
+    </div>
+  )
+}
@@ -1,7 +1,7 @@
 import { useStreams } from "../hooks/useStreams"
 import { Button } from "@/components/ui/button"
 import { Loader2 } from "lucide-react"
-import type { StreamsResponse } from "@/services/streamService"
+import { thumbnailUrl, type StreamsResponse } from "@/services/streamService"
 import { useNavigate } from "@tanstack/react-router"
 import Thumbnail from "@/assets/stream.jpg"
 import { StreamCard } from "@/components/StreamCard"
@@ -66,7 +66,7 @@ export function StreamsPage() {
             {allStreams.map((stream) => (
               <StreamCard
                 key={stream.streamId}
-                thumbnail={Thumbnail} // Using placeholder as mentioned
+                thumbnail={stream.thumbnails ? thumbnailUrl(stream.thumbnails.medium) : Thumbnail}
                 title={stream.title}
                 username={stream.creator} // Using creator field from API
                 status={stream.status}
@@ -3,6 +3,9 @@ import { useQuery } from '@tanstack/react-query'
 import { streamService } from '../services/streamService'
 import { getStreamWatchUrl } from '../config'
 import { Loader2 } from 'lucide-react'
+import { ChatPanel } from '../components/ChatPanel'
+import { ReactionBar } from '../components/ReactionBar'
+import { FollowButton } from '../components/FollowButton'
 import { useEffect } from 'react'
 
 export function WatchStreamPage() {
@@ -80,9 +83,12 @@ export function WatchStreamPage() {
             {/* <span className="text-lg font-medium text-gray-700">
               Streamer:
             </span> */}
-            <span className="text-md text-gray-900">
-              {stream.creator}
-            </span>
+            <div className="flex items-center gap-3">
+              <span className="text-md text-gray-900">
+                {stream.creator}
+              </span>
+              <FollowButton username={stream.creator} />
+            </div>
             <span className={`px-2 py-1 rounded-full text-xs font-medium ${
               stream.status === 'LIVE' 
                 ? 'bg-red-100 text-red-800' 
@@ -101,6 +107,9 @@ export function WatchStreamPage() {
             </span>
           </div>
 
+          {/* Reactions */}
+          <ReactionBar streamId={Number(streamId)} reactions={stream.reactions} />
+
           {/* Description */}
           <div className="space-y-0.5">
             <h2 className="text-xl font-semibold text-gray-900">
@@ -111,6 +120,11 @@ export function WatchStreamPage() {
             </p>
           </div>
         </div>
+
+        {/* Live Chat */}
+        <div className="mt-6">
+          <ChatPanel streamId={Number(streamId)} ended={stream.status === 'ENDED'} />
+        </div>
       </div>
     </div>
   )
@@ -7,6 +7,8 @@ import { CreateStreamPage } from './pages/CreateStreamPage'
 import { LivePage } from './pages/LivePage'
 import { MyStreamsPage } from './pages/MyStreamsPage'
 import { WatchStreamPage } from './pages/WatchStreamPage'
+import { NotificationsPage } from './pages/NotificationsPage'
+import { FollowingPage } from './pages/FollowingPage'
 import { useAuthStore } from './stores/authStore'
 import { StreamsPage } from './pages/StreamsPage'
 import { Toaster } from './components/ui/sonner'
@@ -153,6 +155,32 @@ const watchStreamRoute = createRoute({
   component: () => <WatchStreamPage />
 })
 
+// Notifications route - requires authentication
+const notificationsRoute = createRoute({
+  getParentRoute: () => rootRoute,
+  path: '/notifications',
+  beforeLoad: () => {
+    const { isAuthenticated } = useAuthStore.getState()
+    if (!isAuthenticated) {
+      throw redirect({ to: '/auth/login' })
+    }
+  },
+  component: () => <NotificationsPage />
+})
+
+// Following feed route - requires authentication
+const followingRoute = createRoute({
+  getParentRoute: () => rootRoute,
+  path: '/stream/following',
+  beforeLoad: () => {
+    const { isAuthenticated } = useAuthStore.getState()
+    if (!isAuthenticated) {
+      throw redirect({ to: '/auth/login' })
+    }
+  },
+  component: () => <FollowingPage />
+})
+
 // Create the route tree
 const routeTree = rootRoute.addChildren([
   indexRoute,
@@ -162,6 +190,8 @@ const routeTree = rootRoute.addChildren([
   createStreamRoute,  liveStreamRoute,
   myStreamsRoute,
   watchStreamRoute,
+  notificationsRoute,
+  followingRoute,
   authRoute.addChildren([
     loginRoute,
     registerRoute
@@ -15,6 +15,8 @@ export interface LoginSuccessResponse {
   token: string;
   tokenType: string;
   username: string;
+  refreshToken: string;
+  expiresIn: number; // access token lifetime in seconds
 }
 
 export interface RegisterRequest {
@@ -92,6 +94,43 @@ export const register = async (credentials: RegisterRequest): Promise<RegisterSu
   }
 };
 
+/**
+ * Exchange a refresh token for a new access/refresh token pair.
+ * The presented refresh token is revoked by the server and cannot be reused.
+ * @param refreshToken - Refresh token from the previous login or refresh
+ * @returns Promise with the new token pair or throws error
+ */
+export const refresh = async (refreshToken: string): Promise<LoginSuccessResponse> => {
+  try {
+    const response: AxiosResponse<LoginSuccessResponse> = await authAPI.post(
+      '/auth/refresh',
+      { refreshToken }
+    );
+
+    return response.data;
+  } catch (error) {
+    if (axios.isAxiosError(error) && error.response) {
+      const errorData: AuthErrorResponse = error.response.data;
+      throw new Error(errorData.message || 'Session expired');
+    }
+
+    throw new Error('Network error or server unavailable');
+  }
+};
+
+/**
+ * Revoke the refresh token (and the current access token, if given) on the server
+ * @param refreshToken - Refresh token to revoke
+ * @param authHeader - Optional "Bearer ..." header of the current access token
+ */
+export const revokeSession = async (refreshToken: string, authHeader?: string | null): Promise<void> => {
+  await authAPI.post(
+    '/auth/logout',
+    { refreshToken },
+    authHeader ? { headers: { Authorization: authHeader } } : undefined
+  );
+};
+
 /**
  * Example usage:
  * 
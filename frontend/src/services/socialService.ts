@@ -0,0 +1,80 @@
+import axios from 'axios'
+import { config } from '../config'
+
+const API_BASE_URL = config.apiBaseUrl
+
+export interface FollowStatus {
+  following: boolean
+  followers: number
+}
+
+export interface Notification {
+  id: number
+  streamId: number
+  streamTitle: string
+  creator: string
+  // Epoch milliseconds of the go-live
+  createdAt: number
+}
+
+export interface NotificationsResponse {
+  items: Notification[]
+  nextCursor: number | null
+  hasMore: boolean
+}
+
+export const socialService = {
+  async getFollowStatus(username: string, authHeader: string): Promise<FollowStatus> {
+    const response = await axios.get<FollowStatus>(
+      `${API_BASE_URL}/users/${encodeURIComponent(username)}/follow`,
+      { headers: { 'Authorization': authHeader } }
+    )
+
+    return response.data
+  },
+
+  async follow(username: string, authHeader: string): Promise<void> {
+    await axios.put(
+      `${API_BASE_URL}/users/${encodeURIComponent(username)}/follow`,
+      null,
+      { headers: { 'Authorization': authHeader } }
+    )
+  },
+
+  async unfollow(username: string, authHeader: string): Promise<void> {
+    await axios.delete(
+      `${API_BASE_URL}/users/${encodeURIComponent(username)}/follow`,
+      { headers: { 'Authorization': authHeader } }
+    )
+  },
+
+  async getNotifications(cursor: number | undefined, authHeader: string): Promise<NotificationsResponse> {
+    const searchParams = new URLSearchParams()
+    if (cursor) {
+      searchParams.append('cursor', cursor.toString())
+    }
+
+    const response = await axios.get<NotificationsResponse>(
+      `${API_BASE_URL}/notifications?${searchParams.toString()}`,
+      { headers: { 'Authorization': authHeader } }
+    )
+
+    return response.data
+  },
+
+  async markRead(notificationId: number, authHeader: string): Promise<void> {
+    await axios.put(
+      `${API_BASE_URL}/notifications/${notificationId}/read`,
+      null,
+      { headers: { 'Authorization': authHeader } }
+    )
+  },
+
+  async markAllRead(authHeader: string): Promise<void> {
+    await axios.put(
+      `${API_BASE_URL}/notifications/read`,
+      null,
+      { headers: { 'Authorization': authHeader } }
+    )
+  },
+}
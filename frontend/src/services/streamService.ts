@@ -9,8 +9,25 @@ export interface Stream {
   description: string
   status: 'LIVE' | 'ENDED' | 'CREATED'
   creator: string
+  thumbnails: StreamThumbnails | null
+  reactions: StreamReactions
 }
 
+export type ReactionKey = 'like' | 'heart' | 'laugh' | 'wow' | 'clap'
+
+// Totals lag behind by a few seconds, the backend adds reactions up in batches
+export type StreamReactions = Record<ReactionKey, number>
+
+export interface StreamThumbnails {
+  small: string
+  medium: string
+  large: string
+}
+
+// Thumbnail URLs are server-relative, e.g. /api/thumbnails/<hash>-medium.jpg
+export const thumbnailUrl = (path: string): string =>
+  new URL(path, API_BASE_URL).toString()
+
 export interface StreamsResponse {
   items: Stream[]
   nextCursor: string | null
@@ -87,6 +104,29 @@ export const streamService = {
     
     return response.data
   },
+  // Streams of followed creators, newest activity first
+  async getFollowingStreams(params: StreamsParams = {}, authHeader: string): Promise<StreamsResponse> {
+    const searchParams = new URLSearchParams()
+
+    if (params.cursor) {
+      searchParams.append('cursor', params.cursor.toString())
+    }
+
+    if (params.limit) {
+      searchParams.append('limit', params.limit.toString())
+    }
+
+    const response = await axios.get<StreamsResponse>(
+      `${API_BASE_URL}/stream/following?${searchParams.toString()}`,
+      {
+        headers: {
+          'Authorization': authHeader
+        }
+      }
+    )
+
+    return response.data
+  },
   async createStream(
     data: CreateStreamRequest, 
     authHeader: string
@@ -105,6 +145,42 @@ export const streamService = {
     return response.data
   },
 
+  async uploadThumbnail(
+    streamId: number,
+    file: File,
+    authHeader: string
+  ): Promise<StreamThumbnails> {
+    const form = new FormData()
+    form.append('file', file)
+    const response = await axios.post<{ thumbnails: StreamThumbnails }>(
+      `${API_BASE_URL}/stream/${streamId}/thumbnail`,
+      form,
+      {
+        headers: {
+          'Authorization': authHeader
+        }
+      }
+    )
+
+    return response.data.thumbnails
+  },
+
+  async react(
+    streamId: number,
+    reaction: ReactionKey,
+    authHeader: string
+  ): Promise<void> {
+    await axios.post(
+      `${API_BASE_URL}/stream/${streamId}/reactions/${reaction}`,
+      null,
+      {
+        headers: {
+          'Authorization': authHeader
+        }
+      }
+    )
+  },
+
   async updateStream(
     streamId: number,
     data: UpdateStreamRequest, 
@@ -1,6 +1,7 @@
 import { create } from 'zustand';
 import { persist } from 'zustand/middleware';
 import { jwtDecode } from 'jwt-decode';
+import { refresh, revokeSession } from '../services/authService';
 
 // JWT payload interface based on your specification
 interface JWTPayload {
@@ -10,11 +11,17 @@ interface JWTPayload {
   roles: string[]; // roles array (empty for this app)
 }
 
+// Renew the access token this many seconds before it expires
+const REFRESH_MARGIN_SECONDS = 30;
+
+let refreshTimer: ReturnType<typeof setTimeout> | null = null;
+
 // Auth store state interface
 interface AuthState {
   // JWT and auth data
   token: string | null;
   tokenType: string;
+  refreshToken: string | null;
   username: string | null;
   tokenExp: number | null;
   tokenIat: number | null;
@@ -25,8 +32,9 @@ interface AuthState {
   isTokenExpired: boolean;
 
   // Actions
-  setAuth: (token: string, tokenType?: string) => void;
+  setAuth: (token: string, tokenType?: string, refreshToken?: string | null) => void;
   logout: () => void;
+  refreshSession: () => Promise<boolean>;
   checkTokenExpiry: () => boolean;
   refreshAuthState: () => void;
   setLoading: (loading: boolean) => void;
@@ -56,12 +64,26 @@ const getTimeUntilExpiry = (exp: number): number => {
   return Math.max(0, Math.floor((exp - currentTime) / 60));
 };
 
+// Schedule a token refresh shortly before the access token expires
+const scheduleRefresh = (exp: number, refreshSession: () => Promise<boolean>) => {
+  if (refreshTimer) {
+    clearTimeout(refreshTimer);
+  }
+
+  const delayMs = Math.max(0, (exp - REFRESH_MARGIN_SECONDS) * 1000 - Date.now());
+  refreshTimer = setTimeout(() => {
+    refreshTimer = null;
+    refreshSession();
+  }, delayMs);
+};
+
 export const useAuthStore = create<AuthState>()(
   persist(
     (set, get) => ({
       // Initial state
       token: null,
       tokenType: 'Bearer',
+      refreshToken: null,
       username: null,
       tokenExp: null,
       tokenIat: null,
@@ -69,8 +91,8 @@ export const useAuthStore = create<AuthState>()(
       isLoading: false,
       isTokenExpired: false,
 
-      // Set authentication data after successful login
-      setAuth: (token: string, tokenType: string = 'Bearer') => {
+      // Set authentication data after successful login or refresh
+      setAuth: (token: string, tokenType: string = 'Bearer', refreshToken: string | null = null) => {
         const decoded = decodeToken(token);
         
         if (decoded) {
@@ -79,6 +101,7 @@ export const useAuthStore = create<AuthState>()(
           set({
             token,
             tokenType,
+            refreshToken: refreshToken ?? get().refreshToken,
             username: decoded.sub,
             tokenExp: decoded.exp,
             tokenIat: decoded.iat,
@@ -90,6 +113,8 @@ export const useAuthStore = create<AuthState>()(
           if (expired) {
             console.warn('Token is already expired');
             get().logout();
+          } else {
+            scheduleRefresh(decoded.exp, get().refreshSession);
           }
         } else {
           console.error('Invalid token provided');
@@ -97,11 +122,25 @@ export const useAuthStore = create<AuthState>()(
         }
       },
 
-      // Clear all auth data
+      // Clear all auth data and revoke the session on the server
       logout: () => {
+        const { refreshToken, token, tokenType } = get();
+
+        if (refreshTimer) {
+          clearTimeout(refreshTimer);
+          refreshTimer = null;
+        }
+
+        if (refreshToken) {
+          revokeSession(refreshToken, token ? `${tokenType} ${token}` : null).catch(() => {
+            // Best effort, the tokens expire on their own anyway
+          });
+        }
+
         set({
           token: null,
           tokenType: 'Bearer',
+          refreshToken: null,
           username: null,
           tokenExp: null,
           tokenIat: null,
@@ -124,7 +163,11 @@ export const useAuthStore = create<AuthState>()(
         
         if (expired) {
           set({ isTokenExpired: true, isAuthenticated: false });
-          get().logout();
+          if (get().refreshToken) {
+            get().refreshSession();
+          } else {
+            get().logout();
+          }
         } else {
           set({ isTokenExpired: false });
         }
@@ -132,9 +175,30 @@ export const useAuthStore = create<AuthState>()(
         return expired;
       },
 
+      // Exchange the refresh token for a new token pair
+      refreshSession: async (): Promise<boolean> => {
+        const { refreshToken } = get();
+
+        if (!refreshToken) {
+          return false;
+        }
+
+        try {
+          const response = await refresh(refreshToken);
+          get().setAuth(response.token, response.tokenType, response.refreshToken);
+          return true;
+        } catch (error) {
+          console.warn('Session refresh failed:', error);
+          // The refresh token is already spent or invalid, only clear local state
+          set({ refreshToken: null });
+          get().logout();
+          return false;
+        }
+      },
+
       // Refresh auth state (useful for app initialization)
       refreshAuthState: () => {
-        const { token, tokenExp } = get();
+        const { token, tokenExp, refreshToken } = get();
         
         if (token && tokenExp) {
           const expired = isTokenExpired(tokenExp);
@@ -144,8 +208,12 @@ export const useAuthStore = create<AuthState>()(
             isTokenExpired: expired,
           });
           
-          if (expired) {
+          if (expired && refreshToken) {
+            get().refreshSession();
+          } else if (expired) {
             get().logout();
+          } else {
+            scheduleRefresh(tokenExp, get().refreshSession);
           }
         } else {
           get().logout();
@@ -178,6 +246,7 @@ export const useAuthStore = create<AuthState>()(
       partialize: (state) => ({
         token: state.token,
         tokenType: state.tokenType,
+        refreshToken: state.refreshToken,
         username: state.username,
         tokenExp: state.tokenExp,
         tokenIat: state.tokenIat,